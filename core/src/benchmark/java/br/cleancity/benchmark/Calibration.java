@@ -0,0 +1,71 @@
+package br.cleancity.benchmark;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+import java.util.Arrays;
+
+/**
+ * Carga fixa de referência do {@link MacroBenchmark}: o mesmo tipo de trabalho que domina os ticks (busca do mais
+ * próximo e integração sobre arrays de floats, com desvios), sem depender do código do jogo. O tempo de uma rodada
+ * é a unidade das métricas normalizadas: medido na mesma JVM, logo antes e logo depois de cada medição, ele acompanha
+ * a velocidade da máquina naquele momento (CPU mais lenta, frequência reduzida, vizinhos barulhentos).
+ */
+final class Calibration {
+    private static final int ITEMS = 2048;
+    private static final int REPS = 21;
+
+    private final float[] x = new float[ITEMS];
+    private final float[] y = new float[ITEMS];
+    private final float[] vx = new float[ITEMS];
+    private final float[] vy = new float[ITEMS];
+    private final long[] samples = new long[REPS];
+    // Acumula o resultado num campo: o JIT não pode descartar a carga como código morto
+    private float sink;
+
+    Calibration() {
+        RandomXS128 random = new RandomXS128(7L);
+        for (int i = 0; i < ITEMS; i++) {
+            x[i] = random.nextFloat() * Scenario.WORLD_WIDTH;
+            y[i] = random.nextFloat() * Scenario.WORLD_HEIGHT;
+        }
+        // Aquecimento do JIT: a rodada medida precisa estar compilada como o código dos cenários
+        for (int i = 0; i < 2000; i++) round(i);
+    }
+
+    /** Tempo de uma rodada da carga, em nanossegundos (mediana de {@value #REPS} rodadas). */
+    double nanos() {
+        for (int i = 0; i < REPS; i++) {
+            long t0 = System.nanoTime();
+            round(i);
+            samples[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(samples);
+        return samples[REPS / 2];
+    }
+
+    private void round(int seed) {
+        float px = (seed * 37 % 1280), py = (seed * 53 % 720);
+        float best = Float.MAX_VALUE;
+        int nearest = -1;
+        for (int i = 0; i < ITEMS; i++) {
+            float dx = x[i] - px, dy = y[i] - py;
+            float d = dx * dx + dy * dy;
+            if (d < best) {
+                best = d;
+                nearest = i;
+            }
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            float dx = x[i] - px, dy = y[i] - py;
+            if (dx * dx + dy * dy < 200f * 200f) {
+                vx[i] += dx * 0.001f;
+                vy[i] += dy * 0.001f;
+            }
+            vx[i] *= 0.98f;
+            vy[i] *= 0.98f;
+            x[i] = Math.min(Math.max(x[i] + vx[i], 0f), Scenario.WORLD_WIDTH);
+            y[i] = Math.min(Math.max(y[i] + vy[i], 0f), Scenario.WORLD_HEIGHT);
+        }
+        sink += nearest + best;
+    }
+}
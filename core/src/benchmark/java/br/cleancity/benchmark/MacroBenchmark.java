@@ -0,0 +1,324 @@
+package br.cleancity.benchmark;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Macro-benchmark sem janela: roda os cenários de {@link Scenario} (as cinco fases padrão, uma fase com
+ * 50 mil lixos, 48 varredores rivais, uma rua com 5 mil obstáculos e um ciclo de trocas de fase) e mede,
+ * por cenário:
+ * - ticks por segundo (só o tempo dos ticks medidos, sem o 1% mais lento: preempções do SO dominariam a média
+ *   de ticks de poucos microssegundos; os picos aparecem no p99);
+ * - p99 do tempo de tick, em microssegundos;
+ * - bytes alocados por tick (alocação da thread, só dentro dos ticks medidos).
+ *
+ * Cada cenário roda {@value #WARMUP_RUNS} vezes para aquecer o JIT e depois {@value #RUNS} vezes; vale a mediana
+ * de cada métrica.
+ *
+ * Tempos absolutos dependem da máquina e de quanto ela está ocupada. Por isso cada medição também é dividida pelo
+ * tempo da carga de referência ({@link Calibration}) medido na mesma JVM, logo antes e logo depois dela: o tick
+ * médio e o p99 viram custos em unidades de calibração (`tickCost`, `p99Cost`). Com `--baseline`, a comparação usa
+ * esses custos e os bytes por tick, e sai com código 1 se algum cenário piorar além do limite; ticks/s e p99 em µs
+ * ficam no resultado só para leitura.
+ *
+ * Mesmo assim o JIT decide diferente a cada JVM; com `--forks N`, o benchmark roda em N JVMs novas e vale a mediana
+ * de cada métrica entre elas (as tarefas do Gradle usam 5, tanto para a comparação quanto para a linha de base).
+ *
+ * Uso (ver as tarefas `benchmark` e `benchmarkBaseline` em core/build.gradle):
+ * `MacroBenchmark --out resultados.json [--baseline base.json] [--threshold 0.25] [--only nome] [--forks 5]`
+ */
+public final class MacroBenchmark {
+    private static final int WARMUP_RUNS = 2;
+    private static final int RUNS = 5;
+    // Folgas absolutas para métricas muito pequenas, onde o ruído relativo é grande
+    private static final double TICK_SLACK_MICROS = 0.5;
+    private static final double P99_SLACK_MICROS = 5.0;
+    private static final double ALLOC_SLACK_BYTES = 64.0;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private MacroBenchmark() {
+    }
+
+    /** Resultado de um cenário. */
+    static final class Result {
+        String name;
+        int ticks;
+        double ticksPerSecond;
+        double p99Micros;
+        double bytesPerTick;
+        // Tempo da carga de referência (ns) e custos normalizados por ele
+        double calibrationNanos;
+        double tickCost;
+        double p99Cost;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        File out = null;
+        File baseline = null;
+        double threshold = 0.25;
+        String only = null;
+        int forks = 1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out": out = new File(args[++i]); break;
+                case "--baseline": baseline = new File(args[++i]); break;
+                case "--threshold": threshold = Double.parseDouble(args[++i]); break;
+                case "--only": only = args[++i]; break;
+                case "--forks": forks = Integer.parseInt(args[++i]); break;
+                default: throw new IllegalArgumentException("argumento desconhecido: " + args[i]);
+            }
+        }
+
+        List<Result> results;
+        if (forks > 1) {
+            results = fork(forks, only);
+            System.out.println("Mediana de " + forks + " JVMs:");
+            for (Result r : results) print(r);
+        } else {
+            results = measureAll(only);
+        }
+
+        if (out != null) {
+            File dir = out.getAbsoluteFile().getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("não foi possível criar " + dir);
+            Files.write(out.toPath(), toJson(results).getBytes(StandardCharsets.UTF_8));
+            System.out.println("Resultados em " + out);
+        }
+        if (baseline != null && !compare(results, baseline, threshold)) System.exit(1);
+    }
+
+    // Mede os cenários (ou só `only`) nesta JVM
+    private static List<Result> measureAll(String only) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int i = 0; i < 5; i++) scenarios.add(Scenario.level(i));
+        scenarios.add(Scenario.stress());
+        scenarios.add(Scenario.sweepers());
+        scenarios.add(Scenario.obstacles());
+        scenarios.add(Scenario.levelTransitions());
+
+        Calibration calibration = new Calibration();
+        List<Result> results = new ArrayList<>();
+        for (Scenario s : scenarios) {
+            if (only != null && !s.name.equals(only)) continue;
+            Result r = measure(s, calibration);
+            results.add(r);
+            print(r);
+        }
+        return results;
+    }
+
+    private static void print(Result r) {
+        System.out.printf(Locale.ROOT,
+            "%-18s %10.0f ticks/s   p99 %8.2f us   %8.1f B/tick   custo %8.4f (p99 %8.3f; cal. %.1f us)%n",
+            r.name, r.ticksPerSecond, r.p99Micros, r.bytesPerTick, r.tickCost, r.p99Cost, r.calibrationNanos / 1e3);
+    }
+
+    /**
+     * Roda o benchmark em `forks` JVMs novas, uma após a outra (mesmo executável, argumentos da JVM e classpath
+     * desta), e junta os resultados pela mediana de cada métrica: as decisões do JIT (perfis, inlining) mudam os
+     * tempos de uma JVM para outra mais do que o limite da comparação.
+     */
+    private static List<Result> fork(int forks, String only) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<List<Result>> runs = new ArrayList<>();
+        for (int f = 0; f < forks; f++) {
+            File part = File.createTempFile("macro-benchmark", ".json");
+            try {
+                List<String> cmd = new ArrayList<>();
+                cmd.add(java);
+                cmd.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+                cmd.add("-cp");
+                cmd.add(System.getProperty("java.class.path"));
+                cmd.add(MacroBenchmark.class.getName());
+                cmd.add("--out");
+                cmd.add(part.getPath());
+                if (only != null) {
+                    cmd.add("--only");
+                    cmd.add(only);
+                }
+                System.out.println("JVM " + (f + 1) + "/" + forks);
+                Process process = new ProcessBuilder(cmd).inheritIO().start();
+                int code = process.waitFor();
+                if (code != 0) throw new IOException("JVM " + (f + 1) + " terminou com código " + code);
+                runs.add(read(part));
+            } finally {
+                Files.deleteIfExists(part.toPath());
+            }
+        }
+
+        List<Result> merged = new ArrayList<>();
+        for (int i = 0; i < runs.get(0).size(); i++) {
+            Result first = runs.get(0).get(i);
+            Result m = new Result();
+            m.name = first.name;
+            m.ticks = first.ticks;
+            m.ticksPerSecond = median(runs, i, r -> r.ticksPerSecond);
+            m.p99Micros = median(runs, i, r -> r.p99Micros);
+            m.bytesPerTick = median(runs, i, r -> r.bytesPerTick);
+            m.calibrationNanos = median(runs, i, r -> r.calibrationNanos);
+            m.tickCost = median(runs, i, r -> r.tickCost);
+            m.p99Cost = median(runs, i, r -> r.p99Cost);
+            merged.add(m);
+        }
+        return merged;
+    }
+
+    private static double median(List<List<Result>> runs, int index, ToDoubleFunction<Result> metric) {
+        double[] v = new double[runs.size()];
+        for (int f = 0; f < v.length; f++) v[f] = metric.applyAsDouble(runs.get(f).get(index));
+        return median(v);
+    }
+
+    private static List<Result> read(File file) throws IOException {
+        JsonValue json = new JsonReader().parse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        List<Result> results = new ArrayList<>();
+        for (JsonValue v = json.get("scenarios").child; v != null; v = v.next) {
+            Result r = new Result();
+            r.name = v.getString("name");
+            r.ticks = v.getInt("ticks");
+            r.ticksPerSecond = v.getDouble("ticksPerSecond");
+            r.p99Micros = v.getDouble("p99Micros");
+            r.bytesPerTick = v.getDouble("bytesPerTick");
+            r.calibrationNanos = v.getDouble("calibrationMicros") * 1e3;
+            r.tickCost = v.getDouble("tickCost");
+            r.p99Cost = v.getDouble("p99Cost");
+            results.add(r);
+        }
+        return results;
+    }
+
+    private static Result measure(Scenario s, Calibration calibration) {
+        for (int i = 0; i < WARMUP_RUNS; i++) run(s, new long[s.ticks], new long[1]); // aquecimento do JIT
+
+        double[] tps = new double[RUNS];
+        double[] p99 = new double[RUNS];
+        double[] alloc = new double[RUNS];
+        double[] cal = new double[RUNS];
+        double[] tickCost = new double[RUNS];
+        double[] p99Cost = new double[RUNS];
+        long[] tickNanos = new long[s.ticks];
+        long[] allocated = new long[1];
+        for (int i = 0; i < RUNS; i++) {
+            double before = calibration.nanos();
+            run(s, tickNanos, allocated);
+            cal[i] = (before + calibration.nanos()) * 0.5;
+            Arrays.sort(tickNanos);
+            int p99Index = (int) Math.min(s.ticks - 1, Math.ceil(s.ticks * 0.99) - 1);
+            long kept = 0;
+            for (int t = 0; t <= p99Index; t++) kept += tickNanos[t];
+            tps[i] = (p99Index + 1) / (kept / 1e9);
+            p99[i] = tickNanos[p99Index] / 1e3;
+            alloc[i] = allocated[0] / (double) s.ticks;
+            tickCost[i] = kept / (double) (p99Index + 1) / cal[i];
+            p99Cost[i] = tickNanos[p99Index] / cal[i];
+        }
+
+        Result r = new Result();
+        r.name = s.name;
+        r.ticks = s.ticks;
+        r.ticksPerSecond = median(tps);
+        r.p99Micros = median(p99);
+        r.bytesPerTick = median(alloc);
+        r.calibrationNanos = median(cal);
+        r.tickCost = median(tickCost);
+        r.p99Cost = median(p99Cost);
+        return r;
+    }
+
+    // Roda o cenário do início; preenche o tempo de cada tick e a alocação total dos ticks
+    private static void run(Scenario s, long[] tickNanos, long[] allocated) {
+        s.reset();
+        long bytes = 0;
+        for (int i = 0; i < s.ticks; i++) {
+            s.prepare();
+            long a0 = THREADS.getCurrentThreadAllocatedBytes();
+            long t0 = System.nanoTime();
+            s.step();
+            long t1 = System.nanoTime();
+            bytes += THREADS.getCurrentThreadAllocatedBytes() - a0;
+            tickNanos[i] = t1 - t0;
+        }
+        allocated[0] = bytes;
+    }
+
+    private static double median(double[] v) {
+        double[] c = v.clone();
+        Arrays.sort(c);
+        return c[c.length / 2];
+    }
+
+    /** Compara com a linha de base; imprime cada regressão e devolve false se houver alguma. */
+    private static boolean compare(List<Result> results, File baselineFile, double threshold) throws IOException {
+        if (!baselineFile.isFile()) {
+            System.out.println("Sem linha de base em " + baselineFile + " (rode a tarefa benchmarkBaseline)");
+            return true;
+        }
+        JsonValue base = new JsonReader().parse(new String(Files.readAllBytes(baselineFile.toPath()), StandardCharsets.UTF_8));
+        boolean ok = true;
+        for (Result r : results) {
+            JsonValue b = null;
+            for (JsonValue v = base.get("scenarios").child; v != null; v = v.next) {
+                if (r.name.equals(v.getString("name"))) b = v;
+            }
+            if (b == null) {
+                System.out.println(r.name + ": sem linha de base, ignorado");
+                continue;
+            }
+            double baseTick = b.getDouble("tickCost", -1);
+            double baseP99 = b.getDouble("p99Cost", -1);
+            double baseAlloc = b.getDouble("bytesPerTick");
+            if (baseTick < 0 || baseP99 < 0) {
+                System.out.println(r.name + ": linha de base sem custos normalizados, só a alocação é comparada");
+            } else {
+                // Folgas absolutas convertidas para unidades de calibração desta execução
+                double micro = 1e3 / r.calibrationNanos;
+                if (r.tickCost > baseTick * (1 + threshold) + TICK_SLACK_MICROS * micro) {
+                    ok = false;
+                    System.out.printf(Locale.ROOT, "REGRESSÃO %s: custo do tick %.4f (base %.4f; %.0f ticks/s)%n",
+                        r.name, r.tickCost, baseTick, r.ticksPerSecond);
+                }
+                if (r.p99Cost > baseP99 * (1 + threshold) + P99_SLACK_MICROS * micro) {
+                    ok = false;
+                    System.out.printf(Locale.ROOT, "REGRESSÃO %s: custo do p99 %.3f (base %.3f; %.2f us)%n",
+                        r.name, r.p99Cost, baseP99, r.p99Micros);
+                }
+            }
+            if (r.bytesPerTick > baseAlloc * (1 + threshold) + ALLOC_SLACK_BYTES) {
+                ok = false;
+                System.out.printf(Locale.ROOT, "REGRESSÃO %s: %.1f B/tick (base %.1f)%n", r.name, r.bytesPerTick, baseAlloc);
+            }
+        }
+        System.out.println(ok ? "Sem regressões (limite " + Math.round(threshold * 100) + "%)" : "Benchmark reprovado");
+        return ok;
+    }
+
+    private static String toJson(List<Result> results) {
+        StringBuilder sb = new StringBuilder("{\n  \"jvm\": \"")
+            .append(System.getProperty("java.vm.name")).append(' ').append(System.getProperty("java.version"))
+            .append("\",\n  \"scenarios\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            sb.append(String.format(Locale.ROOT,
+                "    {\"name\": \"%s\", \"ticks\": %d, \"ticksPerSecond\": %.0f, \"p99Micros\": %.2f, \"bytesPerTick\": %.1f, "
+                    + "\"calibrationMicros\": %.2f, \"tickCost\": %.5f, \"p99Cost\": %.4f}",
+                r.name, r.ticks, r.ticksPerSecond, r.p99Micros, r.bytesPerTick, r.calibrationNanos / 1e3, r.tickCost,
+                r.p99Cost));
+            sb.append(i + 1 < results.size() ? ",\n" : "\n");
+        }
+        return sb.append("  ]\n}\n").toString();
+    }
+}
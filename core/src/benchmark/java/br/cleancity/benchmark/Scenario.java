@@ -0,0 +1,176 @@
+package br.cleancity.benchmark;
+
+import br.cleancity.controller.BotInput;
+import br.cleancity.controller.CollisionHandler;
+import br.cleancity.controller.GameController;
+import br.cleancity.controller.InputController;
+import br.cleancity.controller.SweeperController;
+import br.cleancity.controller.TrashKernel;
+import br.cleancity.controller.TrashPhysics;
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.Level;
+import br.cleancity.model.ObstacleMap;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.List;
+
+/**
+ * Cenário roteirizado de jogo, rodado sem janela nem GL sobre o `GameController` e o `CollisionHandler` reais.
+ * Os mapas de obstáculos das fases vêm do classpath (a pasta `assets/` entra no classpath dos benchmarks).
+ *
+ * Cada tick tem duas partes:
+ * - `prepare()`: não medida; decide a entrada do bot e recarrega a fase quando ela acaba;
+ * - `step()`: medida; avança o mundo, move o jogador, o lixo (vento e esteira do caminhão) e os varredores rivais e
+ *   resolve as colisões, como um frame do jogo solo. A física do lixo usa o mesmo kernel do jogo
+ *   ({@link TrashKernel#best()}: vetorial quando a JVM tem `jdk.incubator.vector`).
+ */
+abstract class Scenario {
+    static final float WORLD_WIDTH = 1280f;
+    static final float WORLD_HEIGHT = 720f;
+    static final float DELTA = 1f / 60f;
+    private static final TrashKernel KERNEL = TrashKernel.best();
+
+    final String name;
+    final int ticks;
+
+    GameWorld world;
+    GameController controller;
+    CollisionHandler collisions;
+    SweeperController sweepers;
+    TrashPhysics physics;
+    private final Vector2 dir = new Vector2();
+    int bits;
+
+    Scenario(String name, int ticks) {
+        this.name = name;
+        this.ticks = ticks;
+    }
+
+    /** Prepara o estado inicial (chamado antes do aquecimento e antes da medição). */
+    abstract void reset();
+
+    /** Trabalho não medido antes de cada tick. */
+    void prepare() {
+        if (world.gameOver) reset();
+        bits = BotInput.bits(world, world.player);
+    }
+
+    /** Um tick medido. */
+    void step() {
+        controller.updateWorld(DELTA);
+        if (!world.gameOver) controller.movePlayer(world.player, InputController.toDirection(bits, dir), DELTA);
+        physics.update(DELTA);
+        sweepers.update(DELTA);
+        collisions.update();
+    }
+
+    void load(Level level, long seed) {
+        load(level, seed, ObstacleMap.forLevel(level, WORLD_WIDTH, WORLD_HEIGHT));
+    }
+
+    void load(Level level, long seed, ObstacleMap obstacles) {
+        world = new GameWorld(WORLD_WIDTH, WORLD_HEIGHT, level, seed, obstacles);
+        controller = new GameController(world, null);
+        collisions = new CollisionHandler(world, null);
+        world.spawnSweepers();
+        sweepers = new SweeperController(world, collisions);
+        physics = new TrashPhysics(world, collisions, sweepers, KERNEL);
+    }
+
+    /** Uma das fases padrão, recarregada com a mesma seed sempre que termina. */
+    static Scenario level(int index) {
+        Level level = Level.defaultLevels().get(index);
+        return new Scenario("level-" + (index + 1), 20_000) {
+            @Override
+            void reset() {
+                load(level, 1000L + index);
+            }
+        };
+    }
+
+    /** Fase de estresse com 50 mil lixos (coleta e varredura contínua sobre a lista inteira). */
+    static Scenario stress() {
+        Level level = new Level(600f, 50_000, 6f, 270f, 64f, 32f, "Street");
+        return new Scenario("stress-50k", 1_500) {
+            @Override
+            void reset() {
+                load(level, 50_000L);
+            }
+        };
+    }
+
+    /** Muitos varredores rivais (O(1) de direção cada, pelo campo de fluxo) disputando 2 mil lixos. */
+    static Scenario sweepers() {
+        Level level = new Level(600f, 2_000, 12f, 270f, 64f, 32f, "Street", 48);
+        return new Scenario("sweepers-48", 3_000) {
+            @Override
+            void reset() {
+                load(level, 4_800L);
+            }
+        };
+    }
+
+    /**
+     * Rua com 5 mil obstáculos pequenos fora da faixa do caminhão: movimento do jogador e de 8 varredores limitado
+     * pela BVH do mapa, e o campo de fluxo contornando os obstáculos.
+     */
+    static Scenario obstacles() {
+        Level level = new Level(600f, 2_000, 12f, 270f, 64f, 32f, "Street", 8);
+        RandomXS128 random = new RandomXS128(5_000L);
+        float[] rects = new float[5_000 * 4];
+        for (int i = 0; i < rects.length; ) {
+            float w = 6f + random.nextFloat() * 10f, h = 6f + random.nextFloat() * 10f;
+            float x = random.nextFloat() * (WORLD_WIDTH - w), y = random.nextFloat() * (WORLD_HEIGHT - h);
+            // Deixa livres a faixa do caminhão e o spawn do jogador
+            if (y + h > WORLD_HEIGHT / 2f - 48f && y < WORLD_HEIGHT / 2f + 80f) continue;
+            rects[i++] = x;
+            rects[i++] = y;
+            rects[i++] = w;
+            rects[i++] = h;
+        }
+        ObstacleMap obstacles = ObstacleMap.of(rects);
+        return new Scenario("obstacles-5k", 3_000) {
+            @Override
+            void reset() {
+                load(level, 5_000L, obstacles);
+            }
+        };
+    }
+
+    /**
+     * Troca de fase em ciclo: joga um segundo de cada fase padrão e carrega a seguinte.
+     * A construção do mundo entra na medição (é o custo que o cenário acompanha).
+     */
+    static Scenario levelTransitions() {
+        List<Level> levels = Level.defaultLevels();
+        return new Scenario("level-transitions", 12_000) {
+            private static final int TICKS_PER_LEVEL = 60;
+            private int levelTick;
+            private int levelIndex;
+
+            @Override
+            void reset() {
+                levelTick = 0;
+                levelIndex = 0;
+                load(levels.get(0), 7L);
+            }
+
+            @Override
+            void prepare() {
+                // Não recarrega ao fim da fase: a troca acontece dentro do tick medido
+                bits = BotInput.bits(world, world.player);
+            }
+
+            @Override
+            void step() {
+                if (++levelTick >= TICKS_PER_LEVEL || world.gameOver) {
+                    levelTick = 0;
+                    levelIndex = (levelIndex + 1) % levels.size();
+                    load(levels.get(levelIndex), 7L + levelIndex);
+                }
+                super.step();
+            }
+        };
+    }
+}
@@ -0,0 +1,175 @@
+package br.cleancity.benchmark;
+
+import br.cleancity.controller.CollisionHandler;
+import br.cleancity.controller.GameController;
+import br.cleancity.controller.SweeperController;
+import br.cleancity.controller.TrashKernel;
+import br.cleancity.controller.TrashPhysics;
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.Level;
+import br.cleancity.model.ObstacleMap;
+import br.cleancity.model.TrashStore;
+import com.badlogic.gdx.math.RandomXS128;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Benchmark da física do lixo ({@link TrashPhysics}) com {@value #ITEMS} itens, kernel escalar contra o vetorial
+ * (Vector API; só entra com `--add-modules jdk.incubator.vector`, como na tarefa `trashPhysicsBenchmark`).
+ *
+ * - `kernel`: só a integração, com vento constante e todo o lixo em movimento; ns por item, mediana de
+ *   {@value #RUNS} execuções de {@value #STEPS} passos (depois de {@value #WARMUP_RUNS} de aquecimento).
+ *   Confere também que os dois kernels chegam às mesmas posições.
+ * - `update`: o passo completo (kernel + sincronização de colisão, campo de fluxo e contagens) durante
+ *   {@value #SECONDS} s de jogo a 120 ticks/s, com as rajadas da fase e o caminhão andando; média, p99 e pior tick
+ *   em microssegundos, e a fração do tick (8,3 ms) que a média ocupa.
+ *
+ * Uso: `TrashPhysicsBenchmark [--out resultados.json]`
+ */
+public final class TrashPhysicsBenchmark {
+    private static final int ITEMS = 50_000;
+    private static final int STEPS = 200;
+    private static final int WARMUP_RUNS = 5;
+    private static final int RUNS = 9;
+    private static final int SECONDS = 30;
+    private static final float TICK = 1f / 120f;
+    private static final float WORLD_W = 1280f, WORLD_H = 720f;
+
+    private TrashPhysicsBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File out = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--out")) out = new File(args[++i]);
+            else throw new IllegalArgumentException("argumento desconhecido: " + args[i]);
+        }
+
+        TrashKernel scalar = TrashKernel.scalar();
+        TrashKernel vector = TrashKernel.vector();
+        if (vector == null) System.out.println("Vector API indisponível (rodar com --add-modules jdk.incubator.vector)");
+        TrashKernel[] kernels = vector != null ? new TrashKernel[] {scalar, vector} : new TrashKernel[] {scalar};
+
+        StringBuilder json = new StringBuilder("{\n  \"jvm\": \"")
+            .append(System.getProperty("java.vm.name")).append(' ').append(System.getProperty("java.version"))
+            .append("\",\n  \"items\": ").append(ITEMS).append(",\n  \"kernels\": [\n");
+        System.out.printf(Locale.ROOT, "%-22s %10s %12s %10s %10s %10s %8s%n",
+            "kernel", "ns/item", "update µs", "p99 µs", "pior µs", "em mov.", "% tick");
+        for (int k = 0; k < kernels.length; k++) {
+            double perItem = kernelNanosPerItem(kernels[k]);
+            double[] update = updateMicros(kernels[k]);
+            double share = update[0] / (TICK * 1e6) * 100.0;
+            System.out.printf(Locale.ROOT, "%-22s %10.3f %12.1f %10.1f %10.1f %10.0f %7.2f%%%n",
+                kernels[k].name(), perItem, update[0], update[1], update[2], update[3], share);
+            json.append(String.format(Locale.ROOT,
+                "    {\"name\": \"%s\", \"kernelNanosPerItem\": %.3f, \"updateMeanMicros\": %.1f, \"updateP99Micros\": %.1f,"
+                    + " \"updateMaxMicros\": %.1f, \"meanAwake\": %.0f, \"tickShare\": %.4f}",
+                kernels[k].name(), perItem, update[0], update[1], update[2], update[3], share / 100.0));
+            json.append(k + 1 < kernels.length ? ",\n" : "\n");
+        }
+        json.append("  ]\n}\n");
+        if (vector != null) {
+            System.out.printf(Locale.ROOT, "Maior diferença de posição entre os kernels: %.6f%n", maxDifference(scalar, vector));
+        }
+
+        if (out != null) {
+            File dir = out.getAbsoluteFile().getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("não foi possível criar " + dir);
+            Files.write(out.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+            System.out.println("Resultados em " + out);
+        }
+    }
+
+    // Vento constante e forte o bastante para mover todas as variantes
+    private static TrashKernel.Forces windyForces() {
+        TrashKernel.Forces f = new TrashKernel.Forces();
+        f.windX = 0.8f * TrashPhysics.GUST_ACCEL;
+        f.windY = 0.6f * TrashPhysics.GUST_ACCEL;
+        f.wakeX = WORLD_W * 0.5f;
+        f.wakeY = WORLD_H * 0.5f;
+        f.wakeRadius = 80f;
+        f.wakePush = 300f;
+        f.wakeSpread = 3f;
+        f.damping = (float) Math.exp(-TrashPhysics.DAMPING * TICK);
+        f.sleepSpeed2 = TrashPhysics.SLEEP_SPEED * TrashPhysics.SLEEP_SPEED;
+        f.grip2 = 0f;
+        f.maxX = WORLD_W;
+        f.maxY = WORLD_H;
+        return f;
+    }
+
+    private static TrashStore store() {
+        RandomXS128 random = new RandomXS128(42L);
+        TrashStore store = new TrashStore(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            store.add(i, random.nextFloat() * (WORLD_W - 6f), random.nextFloat() * (WORLD_H - 6f), 6f, 6f,
+                i % TrashStore.SPRITE_KEYS.length);
+        }
+        return store;
+    }
+
+    private static double kernelNanosPerItem(TrashKernel kernel) {
+        TrashKernel.Forces f = windyForces();
+        double[] runs = new double[RUNS];
+        int awake = 0;
+        for (int r = -WARMUP_RUNS; r < RUNS; r++) {
+            TrashStore store = store();
+            long t0 = System.nanoTime();
+            for (int s = 0; s < STEPS; s++) awake += kernel.integrate(store, f, TICK);
+            long t1 = System.nanoTime();
+            if (r >= 0) runs[r] = (t1 - t0) / (double) STEPS / ITEMS;
+        }
+        if (awake == 42) System.out.println(); // só para o resultado ser lido
+        Arrays.sort(runs);
+        return runs[RUNS / 2];
+    }
+
+    // Média, p99 e pior tick (µs) do passo completo e média de itens em movimento
+    private static double[] updateMicros(TrashKernel kernel) {
+        String sidewalks = Level.defaultLevels().get(1).mapPath;
+        Level level = new Level(600f, ITEMS, 6f, 270f, 64f, 32f, "Street", 8, false, sidewalks);
+        ObstacleMap obstacles = ObstacleMap.forLevel(level, WORLD_W, WORLD_H);
+        int ticks = (int) (SECONDS / TICK);
+        long[] nanos = new long[ticks];
+        double awake = 0;
+        for (int r = 0; r < 2; r++) { // a primeira passada aquece o JIT
+            GameWorld world = new GameWorld(WORLD_W, WORLD_H, level, 50_000L, obstacles);
+            world.spawnSweepers();
+            GameController controller = new GameController(world, null);
+            CollisionHandler collisions = new CollisionHandler(world, null);
+            SweeperController sweepers = new SweeperController(world, collisions);
+            TrashPhysics physics = new TrashPhysics(world, collisions, sweepers, kernel);
+            awake = 0;
+            for (int t = 0; t < ticks; t++) {
+                controller.updateWorld(TICK);
+                long t0 = System.nanoTime();
+                physics.update(TICK);
+                nanos[t] = System.nanoTime() - t0;
+                awake += physics.awakeCount();
+            }
+        }
+        long total = 0;
+        for (long n : nanos) total += n;
+        Arrays.sort(nanos);
+        return new double[] {total / 1e3 / ticks, nanos[(int) (ticks * 0.99)] / 1e3, nanos[ticks - 1] / 1e3, awake / ticks};
+    }
+
+    private static float maxDifference(TrashKernel a, TrashKernel b) {
+        TrashKernel.Forces f = windyForces();
+        TrashStore sa = store(), sb = store();
+        for (int s = 0; s < STEPS; s++) {
+            a.integrate(sa, f, TICK);
+            b.integrate(sb, f, TICK);
+        }
+        float max = 0f;
+        for (int i = 0; i < ITEMS; i++) {
+            max = Math.max(max, Math.max(Math.abs(sa.x[i] - sb.x[i]), Math.abs(sa.y[i] - sb.y[i])));
+        }
+        return max;
+    }
+}
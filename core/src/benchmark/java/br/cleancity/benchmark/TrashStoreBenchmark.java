@@ -0,0 +1,276 @@
+package br.cleancity.benchmark;
+
+import br.cleancity.model.TrashStore;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Micro-benchmark do {@link TrashStore} contra a lista de objetos que ele substituiu (`Array<Trash>`, um objeto
+ * por lixo com `String spriteKey`), com {@value #ITEMS} itens em posições de seed fixa. Operações, cada uma como
+ * o jogo a fazia antes e faz agora:
+ * - `nearest`: lixo mais próximo de um ponto (bots), lendo x/y de todos;
+ * - `overlap`: quantos lixos tocam uma caixa (recolocar o lixo no mundo de colisão), lendo x/y/largura/altura;
+ * - `render`: textura de cada lixo (antes `sprites.get(spriteKey)` por item; agora um array por variante);
+ * - `snapshot`: cópia do lixo na rua para a thread de render (antes um `add` por id; agora cópia dos arrays);
+ * - `remove`: coleta de {@value #REMOVED} lixos em ordem aleatória (antes `removeValue`, O(n); agora troca com o
+ *   último, O(1)).
+ *
+ * Cada operação roda {@value #WARMUP_RUNS} vezes para aquecer o JIT e depois {@value #RUNS} vezes; vale a
+ * mediana, em nanossegundos por item processado.
+ *
+ * Uso (tarefa `trashStoreBenchmark` em core/build.gradle): `TrashStoreBenchmark [--out resultados.json]`
+ */
+public final class TrashStoreBenchmark {
+    private static final int ITEMS = 100_000;
+    private static final int REMOVED = 10_000;
+    private static final int WARMUP_RUNS = 3;
+    private static final int RUNS = 7;
+    private static final float WORLD_W = 1280f, WORLD_H = 720f, SIZE = 18f;
+    private static final long SEED = 42L;
+    private static final String[] KEYS = TrashStore.SPRITE_KEYS;
+
+    // Ids coletados em `remove`, em ordem aleatória fixa (embaralhados uma vez, fora da medição)
+    private static final int[] REMOVE_ORDER = shuffledIds();
+
+    // Resultado acumulado das operações, para o JIT não descartar os laços
+    private static double sink;
+
+    private TrashStoreBenchmark() {
+    }
+
+    /** O lixo como era antes: um objeto por item. */
+    private static final class TrashObject {
+        float x, y, width, height;
+        String spriteKey;
+        int id;
+    }
+
+    /** Uma operação medida nas duas representações. */
+    private interface Op {
+        /** Roda a operação e devolve quantos itens processou. */
+        int run(Array<TrashObject> list, TrashStore store, boolean objects);
+    }
+
+    public static void main(String[] args) throws IOException {
+        File out = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--out")) out = new File(args[++i]);
+            else throw new IllegalArgumentException("argumento desconhecido: " + args[i]);
+        }
+
+        String[] names = {"nearest", "overlap", "render", "snapshot", "remove"};
+        Op[] ops = {TrashStoreBenchmark::nearest, TrashStoreBenchmark::overlap, TrashStoreBenchmark::render,
+            TrashStoreBenchmark::snapshot, TrashStoreBenchmark::remove};
+        StringBuilder json = new StringBuilder("{\n  \"jvm\": \"")
+            .append(System.getProperty("java.vm.name")).append(' ').append(System.getProperty("java.version"))
+            .append("\",\n  \"items\": ").append(ITEMS).append(",\n  \"operations\": [\n");
+        System.out.printf(Locale.ROOT, "%-10s %14s %14s %9s%n", "operação", "objetos ns/it", "store ns/it", "ganho");
+        for (int i = 0; i < ops.length; i++) {
+            double objects = measure(ops[i], true);
+            double store = measure(ops[i], false);
+            System.out.printf(Locale.ROOT, "%-10s %14.3f %14.3f %8.1fx%n", names[i], objects, store, objects / store);
+            json.append(String.format(Locale.ROOT,
+                "    {\"name\": \"%s\", \"objectListNanosPerItem\": %.3f, \"trashStoreNanosPerItem\": %.3f, \"speedup\": %.2f}",
+                names[i], objects, store, objects / store));
+            json.append(i + 1 < ops.length ? ",\n" : "\n");
+        }
+        json.append("  ]\n}\n");
+        if (sink == 42.0) System.out.println(); // só para `sink` ser lido
+
+        if (out != null) {
+            File dir = out.getAbsoluteFile().getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("não foi possível criar " + dir);
+            Files.write(out.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+            System.out.println("Resultados em " + out);
+        }
+    }
+
+    // Mediana de ns por item; cada execução parte de dados novos (a remoção altera a coleção)
+    private static double measure(Op op, boolean objects) {
+        double[] runs = new double[RUNS];
+        for (int i = -WARMUP_RUNS; i < RUNS; i++) {
+            Array<TrashObject> list = objects ? objectList() : null;
+            TrashStore store = objects ? null : store();
+            System.gc();
+            long t0 = System.nanoTime();
+            int items = op.run(list, store, objects);
+            long t1 = System.nanoTime();
+            if (i >= 0) runs[i] = (t1 - t0) / (double) items;
+        }
+        Arrays.sort(runs);
+        return runs[RUNS / 2];
+    }
+
+    // Mesmos itens nas duas representações (mesma seed, variante i % 6 como no GameWorld)
+    private static Array<TrashObject> objectList() {
+        RandomXS128 random = new RandomXS128(SEED);
+        Array<TrashObject> list = new Array<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            TrashObject t = new TrashObject();
+            t.x = random.nextFloat() * (WORLD_W - SIZE);
+            t.y = random.nextFloat() * (WORLD_H - SIZE);
+            t.width = SIZE;
+            t.height = SIZE;
+            t.spriteKey = KEYS[i % KEYS.length];
+            t.id = i;
+            list.add(t);
+        }
+        return list;
+    }
+
+    private static TrashStore store() {
+        RandomXS128 random = new RandomXS128(SEED);
+        TrashStore store = new TrashStore(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            float x = random.nextFloat() * (WORLD_W - SIZE);
+            float y = random.nextFloat() * (WORLD_H - SIZE);
+            store.add(i, x, y, SIZE, SIZE, i % KEYS.length);
+        }
+        return store;
+    }
+
+    // Objetos pelo id (como o `GameWorld.trashById` de antes)
+    private static TrashObject[] byId(Array<TrashObject> list) {
+        TrashObject[] byId = new TrashObject[ITEMS];
+        for (int i = 0; i < list.size; i++) byId[list.get(i).id] = list.get(i);
+        return byId;
+    }
+
+    private static int[] shuffledIds() {
+        int[] order = new int[ITEMS];
+        for (int i = 0; i < ITEMS; i++) order[i] = i;
+        RandomXS128 random = new RandomXS128(SEED + 1);
+        for (int i = ITEMS - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1), tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    private static int nearest(Array<TrashObject> list, TrashStore store, boolean objects) {
+        final int queries = 20;
+        int items = 0;
+        for (int q = 0; q < queries; q++) {
+            float px = WORLD_W * q / queries, py = WORLD_H * 0.5f;
+            float best = Float.MAX_VALUE;
+            int nearest = -1;
+            if (objects) {
+                for (int i = 0; i < list.size; i++) {
+                    TrashObject t = list.get(i);
+                    float dx = t.x - px, dy = t.y - py, d = dx * dx + dy * dy;
+                    if (d < best) {
+                        best = d;
+                        nearest = t.id;
+                    }
+                }
+                items += list.size;
+            } else {
+                float[] xs = store.x, ys = store.y;
+                for (int i = 0; i < store.size; i++) {
+                    float dx = xs[i] - px, dy = ys[i] - py, d = dx * dx + dy * dy;
+                    if (d < best) {
+                        best = d;
+                        nearest = store.id[i];
+                    }
+                }
+                items += store.size;
+            }
+            sink += nearest;
+        }
+        return items;
+    }
+
+    private static int overlap(Array<TrashObject> list, TrashStore store, boolean objects) {
+        final int queries = 20;
+        int items = 0, hits = 0;
+        for (int q = 0; q < queries; q++) {
+            float bx = WORLD_W * q / queries, by = WORLD_H * 0.25f, bw = 200f, bh = 300f;
+            if (objects) {
+                for (int i = 0; i < list.size; i++) {
+                    TrashObject t = list.get(i);
+                    if (t.x < bx + bw && t.x + t.width > bx && t.y < by + bh && t.y + t.height > by) hits++;
+                }
+                items += list.size;
+            } else {
+                float[] xs = store.x, ys = store.y, ws = store.width, hs = store.height;
+                for (int i = 0; i < store.size; i++) {
+                    if (xs[i] < bx + bw && xs[i] + ws[i] > bx && ys[i] < by + bh && ys[i] + hs[i] > by) hits++;
+                }
+                items += store.size;
+            }
+        }
+        sink += hits;
+        return items;
+    }
+
+    private static int render(Array<TrashObject> list, TrashStore store, boolean objects) {
+        // "Texturas": um número por chave, obtido como o render obtinha (mapa por nome) ou por variante
+        Map<String, Integer> textures = new HashMap<>();
+        int[] byVariant = new int[KEYS.length];
+        for (int v = 0; v < KEYS.length; v++) {
+            textures.put(KEYS[v], v + 1);
+            byVariant[v] = v + 1;
+        }
+        final int frames = 10;
+        double acc = 0;
+        int items = 0;
+        for (int f = 0; f < frames; f++) {
+            if (objects) {
+                for (int i = 0; i < list.size; i++) {
+                    TrashObject t = list.get(i);
+                    acc += textures.get(t.spriteKey) + t.x + t.y;
+                }
+                items += list.size;
+            } else {
+                float[] xs = store.x, ys = store.y;
+                byte[] variants = store.variant;
+                for (int i = 0; i < store.size; i++) acc += byVariant[variants[i]] + xs[i] + ys[i];
+                items += store.size;
+            }
+        }
+        sink += acc;
+        return items;
+    }
+
+    private static int snapshot(Array<TrashObject> list, TrashStore store, boolean objects) {
+        final int ticks = 10;
+        if (objects) {
+            // Como o WorldSnapshot fazia: mesma lista de objetos do mundo copiado, item a item pelo id
+            TrashObject[] byId = byId(list);
+            Array<TrashObject> copy = new Array<>(list.size);
+            for (int k = 0; k < ticks; k++) {
+                copy.clear();
+                for (int i = 0; i < list.size; i++) copy.add(byId[list.get(i).id]);
+            }
+            sink += copy.size;
+            return ticks * list.size;
+        }
+        TrashStore copy = new TrashStore(store.size);
+        for (int k = 0; k < ticks; k++) copy.copyFrom(store);
+        sink += copy.size;
+        return ticks * store.size;
+    }
+
+    private static int remove(Array<TrashObject> list, TrashStore store, boolean objects) {
+        int[] order = REMOVE_ORDER;
+        if (objects) {
+            TrashObject[] byId = byId(list);
+            for (int i = 0; i < REMOVED; i++) list.removeValue(byId[order[i]], true);
+            sink += list.size;
+        } else {
+            for (int i = 0; i < REMOVED; i++) store.remove(order[i]);
+            sink += store.size;
+        }
+        return REMOVED;
+    }
+}
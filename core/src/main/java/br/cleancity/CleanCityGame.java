@@ -1,24 +1,34 @@
 package br.cleancity;
 
-import br.cleancity.audio.Mfx;
+import br.cleancity.assets.AssetPack;
+import br.cleancity.assets.PackFileHandleResolver;
 import br.cleancity.audio.SoundManager;
-import br.cleancity.controller.GameController;
 import br.cleancity.controller.InputController;
-import br.cleancity.controller.CollisionHandler;
 import br.cleancity.model.GameWorld;
-import br.cleancity.view.GameRenderer;
-import br.cleancity.view.HUDRenderer;
+import br.cleancity.model.Level;
+import br.cleancity.net.NetProtocol;
+import br.cleancity.profiling.FrameEvent;
+import br.cleancity.profiling.HitchRecorder;
+import br.cleancity.screen.AssetScopes;
+import br.cleancity.screen.GameplayScreen;
+import br.cleancity.screen.IntroScreen;
+import br.cleancity.screen.LoadingScreen;
+import br.cleancity.screen.ResultsScreen;
+import br.cleancity.screen.ScopedScreen;
+import br.cleancity.telemetry.Heatmaps;
+import br.cleancity.telemetry.Telemetry;
 import br.cleancity.view.SpriteManager;
-import br.cleancity.view.IntroRenderer;
-import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.controllers.Controllers;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.utils.ScreenUtils;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import br.cleancity.model.Level;
 
 /**
  * Ponto de entrada do jogo no LibGDX.
@@ -29,159 +39,251 @@ import br.cleancity.model.Level;
  * - Controle (`br.cleancity.controller.*`): atualiza o estado a cada frame com base em entrada e regras
  * - Visão (`br.cleancity.view.*`): desenha o mundo e o HUD usando os recursos gráficos
  *
+ * O jogo é dividido em telas (`br.cleancity.screen.*`): intro → carregamento → gameplay → resultados (ao
+ * completar todas as fases) → carregamento → gameplay... Cada tela declara os assets que usa; eles são carregados
+ * ao entrar e liberados ao sair, com contagem de referências ({@link AssetScopes}), então a memória em regime
+ * reflete só a tela ativa (ex.: as imagens da intro saem quando o jogo começa). Esta classe mantém só o que é
+ * comum a todas: batch, fonte, entrada, áudio, telemetria e o gravador de travadas.
+ *
  * Ciclo de vida do LibGDX:
- * - `create()`: inicializa recursos (texturas, fontes, câmeras) e constrói os níveis
- * - `render()`: é chamado a cada frame; atualiza lógica (controle/colisões) e desenha (mundo/HUD)
+ * - `create()`: inicializa os recursos comuns e mostra a intro
+ * - `render()`: é chamado a cada frame; atualiza o áudio, desenha a tela ativa e mede o frame
  * - `dispose()`: libera os recursos alocados na GPU/CPU
  *
  * Controles:
  * - Setas ou WASD: mover jogador
  * - R: reiniciar o nível atual
  * - N: ir para o próximo nível
+ * - Backspace: voltar alguns segundos no tempo (jogo solo)
+ * - P ou Esc: pausar/continuar (jogo solo)
+ * - Roda do mouse ou +/-: zoom (0 volta ao normal); afastado, o lixo aparece agrupado
+ * - Gamepad: d-pad/analógico movem, Start reinicia, A avança, Back pausa
+ * - F3: liga/desliga o relatório de latência de entrada no log (a cada 5 segundos)
+ *
+ * Jogo solo, modo cooperativo e ritmo de render: ver {@link GameplayScreen}.
  */
-public class CleanCityGame extends ApplicationAdapter {
-    // Sprites
+public class CleanCityGame extends Game {
+    /** FPS máximo com a janela sem foco ou numa tela parada (também o ritmo do loop sem render). */
+    public static final int IDLE_FPS = 10;
+
     private SpriteBatch batch;
     private SpriteManager sprites;
-    // Model
-    private GameWorld world;
-    // Controllers
     private InputController input;
-    private GameController controller;
-    private CollisionHandler collisionHandler;
-    // View
-    private GameRenderer gameRenderer;
-    private HUDRenderer hudRenderer;
-    private IntroRenderer intro;
     // Sounds
     private SoundManager audio;
     private AssetManager assets;
+    // Pacote de assets mapeado (null quando os arquivos são lidos soltos)
+    private AssetPack assetPack;
+    // Assets das telas (carregados ao entrar, liberados ao sair)
+    private AssetScopes scopes;
+
+    // Telemetria de jogo (gravada em segundo plano em ~/.cleancity/telemetry)
+    private Telemetry telemetry = Telemetry.NONE;
+    // Mapas de calor por fase (somados em segundo plano e gravados em ~/.cleancity/heatmaps)
+    private Heatmaps heatmaps = Heatmaps.NONE;
+    // Travadas de frame (despejadas em ~/.cleancity/hitches)
+    private HitchRecorder hitches;
 
-    // Timers para mensagens especiais do HUD
-    private float collectAllMsgTimer = 0f;
-    private float allLevelsCompletedMsgTimer = 0f;
+    // Fases do frame atual, marcadas pela tela (ver render)
+    private long simulationStart, drawStart;
+    private GameWorld frameWorld;
+    private int frameLevel = -1;
+    private long frameTick = -1;
 
     // Níveis
     private final List<Level> levels = new ArrayList<>();
-    private int currentLevelIndex = 0;
+
+    // Co-op (host null no jogo solo)
+    private final String coopHost;
+    private final int coopPort;
+    private final boolean coopServe;
+
+    /** Cria o jogo solo. */
+    public CleanCityGame() {
+        this(null, NetProtocol.DEFAULT_PORT, false);
+    }
+
+    /**
+     * Cria o jogo no modo cooperativo.
+     * @param coopHost endereço do servidor co-op (null para jogo solo)
+     * @param coopPort porta UDP do servidor
+     * @param coopServe quando true, também hospeda o servidor neste processo
+     */
+    public CleanCityGame(String coopHost, int coopPort, boolean coopServe) {
+        this.coopHost = coopHost;
+        this.coopPort = coopPort;
+        this.coopServe = coopServe;
+    }
 
     @Override
     public void create() {
         batch = new SpriteBatch();
-        sprites = new SpriteManager();
-        float w = Gdx.graphics.getWidth();
-        float h = Gdx.graphics.getHeight();
+        // Sprites e sons do pacote único mapeado em memória (ou soltos, se não houver pacote)
+        assetPack = AssetPack.openDefault();
+        FileHandleResolver files = assetPack != null ? new PackFileHandleResolver(assetPack) : new InternalFileHandleResolver();
+        sprites = new SpriteManager(files);
 
         input = new InputController();
+        Gdx.input.setInputProcessor(input);
+        try {
+            Controllers.addListener(input);
+        } catch (Throwable e) {
+            // Sem backend de gamepad disponível: segue só com teclado
+            Gdx.app.error("CleanCityGame", "Gamepad indisponível", e);
+        }
 
-        intro = new br.cleancity.view.IntroRenderer(sprites);
-        gameRenderer = new GameRenderer(sprites, w, h);
-        hudRenderer = new HUDRenderer(sprites);
-
-        assets = new AssetManager();
+        assets = new AssetManager(files);
         audio = new SoundManager(assets);
-        audio.loadAll();
-        audio.fadeIn(Mfx.TRACK,2f,1f);
+        scopes = new AssetScopes(sprites, audio);
+
+        telemetry = new Telemetry(Gdx.files.external(".cleancity/telemetry").file(), 4096, 8L * 1024 * 1024, 20);
+        hitches = new HitchRecorder(Gdx.files.external(".cleancity/hitches").file(),
+            HitchRecorder.DEFAULT_WINDOW_SECONDS, HitchRecorder.DEFAULT_THRESHOLD_MILLIS);
 
         buildLevels();
-        loadLevel(0);
+        heatmaps = new Heatmaps(Gdx.files.external(".cleancity/heatmaps").file(), levels.size(), 8192);
+        setScreen(new IntroScreen(this));
     }
 
     /**
      * Define a lista de fases (níveis) do jogo.
      */
     private void buildLevels() {
-        // totalTime, trashCount, trashSize, playerSpeed, truckW, truckH, backgroundKey
-        levels.add(new Level(60f, 15, 18f, 250f, 64f, 32f, "Street"));
-        levels.add(new Level(50f, 18, 20f, 260f, 64f, 32f, "StreetLDestN"));
-        levels.add(new Level(40f, 22, 18f, 270f, 64f, 32f, "StreetRedUrban"));
-        levels.add(new Level(35f, 24, 18f, 280f, 64f, 32f, "StreetMedianNight"));
-        levels.add(new Level(27f, 28, 16f, 280f, 64f, 32f, "StreetBiscuit"));
+        levels.addAll(Level.defaultLevels());
+    }
+
+    /** Começa um jogo novo (da primeira fase), passando pela tela de carregamento. */
+    public void startGame() {
+        setScreen(new LoadingScreen(this, new GameplayScreen(this, coopHost, coopPort, coopServe)));
+    }
+
+    /** Mostra o fim de todas as fases. @param levelScores pontuação final de cada fase */
+    public void showResults(int[] levelScores) {
+        setScreen(new ResultsScreen(this, levelScores));
+    }
+
+    /**
+     * Troca de tela: os assets da nova entram antes de os da anterior saírem (o que as duas usam não é
+     * recarregado); a anterior é descartada.
+     */
+    @Override
+    public void setScreen(Screen next) {
+        Screen old = getScreen();
+        if (next instanceof ScopedScreen) scopes.enter(((ScopedScreen) next).assets());
+        super.setScreen(next);
+        if (old instanceof ScopedScreen) scopes.exit(((ScopedScreen) old).assets());
+        if (old != null) old.dispose();
+        hitches.skipFrame(); // carga e descarga da troca não são travadas
+        scopes.log(next.getClass().getSimpleName());
     }
 
     /**
-     * Carrega o nível informado (reinicia mundo e controladores).
+     * Frame: atualiza o áudio, desenha a tela ativa e mede o frame.
+     * O tempo de cada fase vai sempre para o {@link HitchRecorder} (travadas de frame) e, com uma gravação JFR
+     * ativa, também para um {@link FrameEvent}. A tela marca o início das fases com {@link #markSimulation()} e
+     * {@link #markDraw}; sem marcas, o frame todo conta como entrada (no jogo solo, a fase "Simulação" é só a troca
+     * de cópia e os eventos; os ticks têm eventos próprios na thread da simulação).
      */
-    private void loadLevel(int index) {
-        currentLevelIndex = Math.max(0, Math.min(index, levels.size() - 1));
-        float w = Gdx.graphics.getWidth();
-        float h = Gdx.graphics.getHeight();
-        world = new GameWorld(w, h, levels.get(currentLevelIndex));
-        controller = new GameController(world, input);
-        collisionHandler = new CollisionHandler(world, audio);
-        audio.fadeIn(Mfx.TRACK,1.5f,1f);
+    @Override
+    public void render() {
+        FrameEvent frame = new FrameEvent();
+        frame.begin();
+        long frameStart = System.nanoTime();
+        hitches.frameStart(frameStart);
+        simulationStart = drawStart = frameStart;
+        frameWorld = null;
+        frameLevel = -1;
+        frameTick = -1;
+
+        float delta = Gdx.graphics.getDeltaTime();
+        audio.update(delta);
+        Screen current = getScreen();
+        super.render();
+        // A tela que saiu neste frame não desenhou: a nova desenha já
+        if (getScreen() != current) getScreen().render(delta);
+        commitFrame(frame, delta, frameStart);
     }
 
-    private void restart() {
-        // Reinicia o nível atual
-        loadLevel(currentLevelIndex);
+    /** Marca o início da fase "Simulação" do frame. */
+    public void markSimulation() {
+        simulationStart = System.nanoTime();
     }
 
-    private void nextLevel() {
-        if (levels.isEmpty()) return;
+    /** Marca o início da fase "Desenho" do frame, com o estado do jogo para o relatório de travadas. */
+    public void markDraw(GameWorld world, int levelIndex, long tick) {
+        drawStart = System.nanoTime();
+        frameWorld = world;
+        frameLevel = levelIndex;
+        frameTick = tick;
+    }
 
-        // Verifica se todo o lixo foi coletado e entregue
-        if (world.trashList.size > 0 || world.carriedTrash > 0) {
-            // Ativa mensagem no HUD por alguns segundos
-            collectAllMsgTimer = 3.0f;
-            return; // Não avança de nível se ainda houver lixo para coletar
-        }
+    /** O intervalo até o próximo frame não conta como travada (tela parada, carga de assets). */
+    public void skipHitchFrame() {
+        hitches.skipFrame();
+    }
 
-        int next = currentLevelIndex + 1;
-        if (next >= levels.size()) {
-            next = 0; // volta ao primeiro ao finalizar a lista
-            // Ativa mensagem de conclusão de todos os níveis
-            allLevelsCompletedMsgTimer = 3.0f;
-        }
-        loadLevel(next);
+    // Registra o tempo de cada fase (entrada/áudio, simulação, desenho) no gravador de travadas e no evento JFR
+    private void commitFrame(FrameEvent frame, float delta, long frameStart) {
+        long end = System.nanoTime();
+        long simulation = Math.max(simulationStart, frameStart), draw = Math.max(drawStart, simulation);
+        hitches.frameEnd(simulation - frameStart, draw - simulation, end - draw, frameWorld, frameLevel, frameTick);
+        frame.end();
+        if (!frame.shouldCommit()) return;
+        frame.inputNanos = simulation - frameStart;
+        frame.simulationNanos = draw - simulation;
+        frame.drawNanos = end - draw;
+        frame.delta = (long) (delta * 1e9);
+        frame.commit();
     }
 
     /**
-     * Loop principal por frame: processa entrada, atualiza lógica e renderiza.
-     * Usa `Gdx.graphics.getDeltaTime()` para obter o tempo entre frames (delta),
-     * garantindo movimento e temporização independentes do FPS.
+     * Janela sem foco ou minimizada (o launcher desktop pede `pause` também ao perder o foco).
+     * Sem foco a janela não recebe os `keyUp`: solta as teclas para o jogador não andar sozinho.
      */
     @Override
-    public void render() {
-        float delta = Gdx.graphics.getDeltaTime();
-        audio.update(delta);
-        // Atualiza timers de mensagens do HUD
-        if (collectAllMsgTimer > 0f) collectAllMsgTimer = Math.max(0f, collectAllMsgTimer - delta);
-        if (allLevelsCompletedMsgTimer > 0f) allLevelsCompletedMsgTimer = Math.max(0f, allLevelsCompletedMsgTimer - delta);
-
-        // Intro antes do jogo (delegado para IntroRenderer)
-        if (intro != null && !intro.isDone()) {
-            if (Gdx.input.isKeyJustPressed(Input.Keys.ENTER)) {
-                intro.skip();
-            }
-            intro.update(delta);
-            ScreenUtils.clear(0.05f, 0.05f, 0.08f, 1f);
-            batch.begin();
-            intro.render(batch);
-            batch.end();
-            return;
-        }
+    public void pause() {
+        input.releaseAll();
+        super.pause();
+        hitches.skipFrame(); // o tempo sem foco não é travada
+    }
+
+    @Override
+    public void resume() {
+        super.resume();
+        hitches.skipFrame();
+    }
+
+    public SpriteBatch batch() {
+        return batch;
+    }
+
+    public SpriteManager sprites() {
+        return sprites;
+    }
+
+    public SoundManager audio() {
+        return audio;
+    }
+
+    public InputController input() {
+        return input;
+    }
+
+    public AssetScopes scopes() {
+        return scopes;
+    }
+
+    public Telemetry telemetry() {
+        return telemetry;
+    }
+
+    public Heatmaps heatmaps() {
+        return heatmaps;
+    }
 
-        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) restart();
-        if (Gdx.input.isKeyJustPressed(Input.Keys.N)) nextLevel();
-        controller.update(delta);
-        collisionHandler.update();
-
-        ScreenUtils.clear(0.15f, 0.15f, 0.2f, 1f);
-        batch.begin();
-        gameRenderer.render(batch, world);
-        hudRenderer.render(
-            batch,
-            world.score,
-            world.carriedTrash,
-            world.timeLeft,
-            world.gameOver,
-            world.gameWon,
-            collectAllMsgTimer > 0f,
-            allLevelsCompletedMsgTimer > 0f,
-            delta
-        );
-        batch.end();
+    /** Fases do jogo, na ordem. */
+    public List<Level> levels() {
+        return Collections.unmodifiableList(levels);
     }
 
     /**
@@ -190,6 +292,14 @@ public class CleanCityGame extends ApplicationAdapter {
      */
     @Override
     public void dispose() {
+        Screen last = getScreen();
+        super.dispose(); // hide da tela ativa
+        if (last instanceof ScopedScreen) scopes.exit(((ScopedScreen) last).assets());
+        if (last != null) last.dispose();
+        Controllers.removeListener(input);
+        telemetry.close();
+        heatmaps.close();
+        hitches.close();
         batch.dispose();
         sprites.dispose();
         audio.disposeSound();
@@ -0,0 +1,165 @@
+package br.cleancity.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pacote único de assets (`assets.pack`), gerado no build por {@link AssetPackWriter} e mapeado em memória.
+ *
+ * Formato (big-endian):
+ * - cabeçalho: `CCPK` (int), versão (int), hash do conteúdo (long), tamanho total (long), quantidade de entradas (int);
+ * - índice: por entrada, caminho UTF-8 (short com o tamanho + bytes), deslocamento (long) e tamanho (int);
+ * - dados: o conteúdo de cada arquivo, alinhado a 8 bytes.
+ *
+ * O arquivo inteiro é mapeado uma vez com `FileChannel.map`; {@link #slice(String)} devolve uma fatia do mapeamento
+ * (sem cópia). Abrir o jogo custa um `open` e a leitura do índice, em vez de um `open`/`seek` por arquivo.
+ * Dentro de um jar o pacote não pode ser mapeado: ele é extraído uma vez para `~/.cleancity/cache/` (o nome
+ * leva o hash, então uma versão nova do jogo gera outro arquivo) e mapeado de lá; sem permissão de escrita no
+ * cache, é lido para um buffer direto.
+ */
+public final class AssetPack {
+    /** Nome do pacote (procurado como arquivo interno). */
+    public static final String FILE_NAME = "assets.pack";
+
+    static final int MAGIC = 0x43434B50; // "CCPK"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+
+    private static final String CACHE_DIR = ".cleancity/cache";
+
+    private final ByteBuffer data;
+    private final Map<String, long[]> entries; // caminho → {deslocamento, tamanho}
+    private final long hash;
+
+    private AssetPack(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.remaining() < HEADER_BYTES || data.getInt(0) != MAGIC) throw new IOException("não é um " + FILE_NAME);
+        if (data.getInt(4) != VERSION) throw new IOException("versão de " + FILE_NAME + " não suportada: " + data.getInt(4));
+        hash = data.getLong(8);
+        if (data.getLong(16) != data.capacity()) throw new IOException(FILE_NAME + " truncado");
+        int count = data.getInt(24);
+        entries = new HashMap<>(count * 2);
+        ByteBuffer index = data.duplicate();
+        index.position(HEADER_BYTES);
+        for (int i = 0; i < count; i++) {
+            byte[] path = new byte[index.getShort() & 0xFFFF];
+            index.get(path);
+            long offset = index.getLong();
+            int length = index.getInt();
+            entries.put(new String(path, StandardCharsets.UTF_8), new long[] {offset, length});
+        }
+    }
+
+    /** Mapeia um pacote em disco. */
+    public static AssetPack open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            // O mapeamento continua válido depois de fechar o canal
+            return new AssetPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Abre o pacote do jogo: `assets.pack` como arquivo no diretório de trabalho ou, se estiver só no classpath
+     * (jar), a cópia extraída no cache. Devolve null se não houver pacote (os assets são lidos soltos).
+     */
+    public static AssetPack openDefault() {
+        FileHandle internal = Gdx.files.internal(FILE_NAME);
+        try {
+            if (internal.file().isFile()) return open(internal.file());
+            if (!internal.exists()) return null;
+            try {
+                return open(extract(internal, Gdx.files.external(CACHE_DIR).file()));
+            } catch (IOException e) {
+                // Cache sem escrita: lê o pacote para a memória (uma cópia, ainda um único arquivo)
+                Gdx.app.error("AssetPack", "Sem cache para o pacote, lendo para a memória", e);
+                return load(internal);
+            }
+        } catch (IOException | RuntimeException e) {
+            Gdx.app.error("AssetPack", "Pacote de assets indisponível, lendo arquivos soltos", e);
+            return null;
+        }
+    }
+
+    private static AssetPack load(FileHandle packed) throws IOException {
+        try (DataInputStream in = new DataInputStream(packed.read())) {
+            byte[] header = new byte[HEADER_BYTES];
+            in.readFully(header);
+            long total = ByteBuffer.wrap(header).getLong(16);
+            if (total > Integer.MAX_VALUE) throw new IOException(FILE_NAME + " grande demais");
+            ByteBuffer data = ByteBuffer.allocateDirect((int) total);
+            data.put(header);
+            byte[] chunk = new byte[64 * 1024];
+            while (data.hasRemaining()) {
+                int n = in.read(chunk, 0, Math.min(chunk.length, data.remaining()));
+                if (n < 0) throw new IOException(FILE_NAME + " truncado");
+                data.put(chunk, 0, n);
+            }
+            data.flip();
+            return new AssetPack(data);
+        }
+    }
+
+    // Extrai o pacote do classpath para o cache (uma vez por versão, pelo hash do cabeçalho)
+    private static File extract(FileHandle packed, File cacheDir) throws IOException {
+        long hash, total;
+        try (DataInputStream in = new DataInputStream(packed.read())) {
+            if (in.readInt() != MAGIC) throw new IOException("não é um " + FILE_NAME);
+            in.readInt();
+            hash = in.readLong();
+            total = in.readLong();
+        }
+        File target = new File(cacheDir, "assets-" + Long.toHexString(hash) + ".pack");
+        if (target.isFile() && target.length() == total) return target;
+
+        Files.createDirectories(cacheDir.toPath());
+        File tmp = File.createTempFile("assets-", ".tmp", cacheDir);
+        try (InputStream in = packed.read()) {
+            Files.copy(in, tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            tmp.delete();
+        }
+        return target;
+    }
+
+    /** Hash do conteúdo gravado pelo {@link AssetPackWriter}. */
+    public long hash() {
+        return hash;
+    }
+
+    /** True se o caminho (relativo à pasta `assets/`, com `/`) está no pacote. */
+    public boolean contains(String path) {
+        return entries.containsKey(path);
+    }
+
+    /** Tamanho da entrada em bytes, ou -1 se não existir. */
+    public int length(String path) {
+        long[] e = entries.get(path);
+        return e != null ? (int) e[1] : -1;
+    }
+
+    /**
+     * Conteúdo de uma entrada como fatia do mapeamento (buffer direto, sem cópia; posição 0, só leitura).
+     * @return a fatia, ou null se não existir
+     */
+    public ByteBuffer slice(String path) {
+        long[] e = entries.get(path);
+        if (e == null) return null;
+        ByteBuffer b = data.duplicate();
+        b.position((int) e[0]).limit((int) (e[0] + e[1]));
+        return b.slice();
+    }
+}
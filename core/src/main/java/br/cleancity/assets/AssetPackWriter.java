@@ -0,0 +1,109 @@
+package br.cleancity.assets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Passo de build: empacota a pasta `assets/` (sprites, sons e `assets.txt`) num único {@link AssetPack}.
+ *
+ * Uso: `AssetPackWriter <pasta assets> [pastas geradas...] <saída.pack>` (tarefa Gradle `lwjgl3:packAssets`, que
+ * junta também os tiles de {@link TilesetWriter}). Os caminhos são relativos a cada pasta; se dois coincidirem,
+ * vale o da última pasta. Os arquivos entram em ordem de caminho; outros `.pack` são ignorados. O hash do
+ * cabeçalho é o CRC32 de caminhos e conteúdos.
+ */
+public final class AssetPackWriter {
+    private static final int ALIGN = 8;
+
+    private AssetPackWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("uso: AssetPackWriter <pasta assets> [pastas geradas...] <saída.pack>");
+            System.exit(2);
+        }
+        List<Path> roots = new ArrayList<>();
+        for (int i = 0; i < args.length - 1; i++) roots.add(Path.of(args[i]));
+        File out = new File(args[args.length - 1]);
+        int count = write(roots, out);
+        System.out.println(count + " arquivos em " + out + " (" + out.length() + " bytes)");
+    }
+
+    /**
+     * Grava o pacote.
+     * @return quantidade de arquivos empacotados
+     */
+    public static int write(List<Path> roots, File out) throws IOException {
+        // Caminho relativo → arquivo, em ordem de caminho
+        TreeMap<String, Path> byPath = new TreeMap<>();
+        for (Path root : roots) {
+            try (Stream<Path> walk = Files.walk(root)) {
+                walk.filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().endsWith(".pack"))
+                    .forEach(p -> byPath.put(root.relativize(p).toString().replace(File.separatorChar, '/'), p));
+            }
+        }
+        List<String> paths = new ArrayList<>(byPath.keySet());
+        List<Path> files = new ArrayList<>(byPath.values());
+
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        int indexSize = 0;
+        for (String path : paths) {
+            indexSize += 2 + path.getBytes(StandardCharsets.UTF_8).length + 8 + 4;
+        }
+
+        // Deslocamentos: dados logo após cabeçalho e índice, cada arquivo alinhado
+        long offset = align(AssetPack.HEADER_BYTES + indexSize);
+        long[] offsets = new long[files.size()];
+        CRC32 crc = new CRC32();
+        DataOutputStream index = new DataOutputStream(indexBytes);
+        for (int i = 0; i < files.size(); i++) {
+            long size = Files.size(files.get(i));
+            if (size > Integer.MAX_VALUE) throw new IOException("arquivo grande demais: " + files.get(i));
+            byte[] path = paths.get(i).getBytes(StandardCharsets.UTF_8);
+            offsets[i] = offset;
+            index.writeShort(path.length);
+            index.write(path);
+            index.writeLong(offset);
+            index.writeInt((int) size);
+            crc.update(path);
+            offset = align(offset + size);
+        }
+        long total = offset;
+
+        File parent = out.getAbsoluteFile().getParentFile();
+        if (parent != null) Files.createDirectories(parent.toPath());
+        try (RandomAccessFile raf = new RandomAccessFile(out, "rw"); FileChannel channel = raf.getChannel()) {
+            raf.setLength(0);
+            for (int i = 0; i < files.size(); i++) {
+                byte[] content = Files.readAllBytes(files.get(i));
+                crc.update(content);
+                channel.write(ByteBuffer.wrap(content), offsets[i]);
+            }
+            ByteBuffer header = ByteBuffer.allocate(AssetPack.HEADER_BYTES);
+            header.putInt(AssetPack.MAGIC).putInt(AssetPack.VERSION).putLong(crc.getValue()).putLong(total)
+                  .putInt(files.size()).flip();
+            channel.write(header, 0);
+            channel.write(ByteBuffer.wrap(indexBytes.toByteArray()), AssetPack.HEADER_BYTES);
+            raf.setLength(total);
+        }
+        return files.size();
+    }
+
+    private static long align(long offset) {
+        return (offset + ALIGN - 1) & -ALIGN;
+    }
+}
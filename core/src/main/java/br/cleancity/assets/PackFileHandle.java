@@ -0,0 +1,115 @@
+package br.cleancity.assets;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Arquivo servido de um {@link AssetPack}: `read()` e `map()` leem direto da fatia mapeada, sem cópia do arquivo.
+ * Os loaders do LibGDX (sons, música) e o `SpriteManager` usam como qualquer outro `FileHandle` interno.
+ */
+public class PackFileHandle extends FileHandle {
+    private final AssetPack pack;
+
+    PackFileHandle(AssetPack pack, String path) {
+        super(path, FileType.Internal);
+        this.pack = pack;
+    }
+
+    @Override
+    public InputStream read() {
+        ByteBuffer b = pack.slice(path());
+        if (b == null) throw new GdxRuntimeException("Arquivo fora do pacote: " + path());
+        return new ByteBufferInputStream(b);
+    }
+
+    /** Fatia do mapeamento (buffer direto, só leitura). */
+    @Override
+    public ByteBuffer map() {
+        ByteBuffer b = pack.slice(path());
+        if (b == null) throw new GdxRuntimeException("Arquivo fora do pacote: " + path());
+        return b;
+    }
+
+    @Override
+    public ByteBuffer map(FileChannel.MapMode mode) {
+        if (mode != FileChannel.MapMode.READ_ONLY) throw new GdxRuntimeException("Pacote de assets é só leitura: " + path());
+        return map();
+    }
+
+    @Override
+    public boolean exists() {
+        return pack.contains(path());
+    }
+
+    @Override
+    public long length() {
+        return Math.max(0, pack.length(path()));
+    }
+
+    @Override
+    public boolean isDirectory() {
+        return false;
+    }
+
+    @Override
+    public FileHandle child(String name) {
+        return resolve(path().isEmpty() ? name : path() + "/" + name);
+    }
+
+    @Override
+    public FileHandle sibling(String name) {
+        int slash = path().lastIndexOf('/');
+        return resolve(slash < 0 ? name : path().substring(0, slash + 1) + name);
+    }
+
+    @Override
+    public FileHandle parent() {
+        int slash = path().lastIndexOf('/');
+        return Gdx.files.internal(slash < 0 ? "" : path().substring(0, slash));
+    }
+
+    private FileHandle resolve(String path) {
+        return pack.contains(path) ? new PackFileHandle(pack, path) : Gdx.files.internal(path);
+    }
+
+    // InputStream sobre a fatia (avança a própria posição do buffer)
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int k = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + k);
+            return k;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
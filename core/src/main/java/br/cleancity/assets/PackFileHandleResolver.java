@@ -0,0 +1,22 @@
+package br.cleancity.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+
+/**
+ * Resolve caminhos de assets primeiro no {@link AssetPack} e, se não estiverem lá, como arquivos internos soltos.
+ * Usado pelo `AssetManager` (sons e música) e pelo `SpriteManager`.
+ */
+public class PackFileHandleResolver implements FileHandleResolver {
+    private final AssetPack pack;
+
+    public PackFileHandleResolver(AssetPack pack) {
+        this.pack = pack;
+    }
+
+    @Override
+    public FileHandle resolve(String fileName) {
+        return pack.contains(fileName) ? new PackFileHandle(pack, fileName) : Gdx.files.internal(fileName);
+    }
+}
@@ -0,0 +1,105 @@
+package br.cleancity.assets;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Índice de tiles de um fundo (`tiles/<chave>.tiles`), gerado no build por {@link TilesetWriter}.
+ *
+ * O fundo é cortado em tiles de {@link #tileSize} pixels (os da última coluna/linha podem ser menores); cada
+ * posição guarda o id de um tile no tileset compartilhado por todas as fases. O tile `id` fica na página
+ * `tiles/tileset-<id / perPage>.png`, na célula `id % perPage` (linha a linha, `perRow` células por linha). Cada
+ * célula tem {@link #padding} pixels de borda repetida em volta do tile, para o filtro não puxar o vizinho.
+ *
+ * Formato (big-endian): `CCTL` (int), versão (int), tamanho do tile, borda, lado da página, largura e altura da
+ * imagem, colunas e linhas (ints); depois `colunas × linhas` ids (short sem sinal), linha a linha a partir do topo.
+ */
+public final class TileIndex {
+    /** Pasta dos índices e das páginas (relativa a `assets/`). */
+    public static final String DIR = "tiles/";
+    public static final String EXTENSION = ".tiles";
+
+    static final int MAGIC = 0x4343544C; // "CCTL"
+    static final int VERSION = 1;
+    /** Maior id representável (short sem sinal). */
+    static final int MAX_ID = 0xFFFF;
+
+    public final int tileSize, padding, pageSize;
+    public final int imageWidth, imageHeight;
+    public final int cols, rows;
+    /** Id do tile por posição, `row * cols + col`, linha 0 no topo da imagem. */
+    public final int[] ids;
+
+    TileIndex(int tileSize, int padding, int pageSize, int imageWidth, int imageHeight, int[] ids) {
+        this.tileSize = tileSize;
+        this.padding = padding;
+        this.pageSize = pageSize;
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+        this.cols = (imageWidth + tileSize - 1) / tileSize;
+        this.rows = (imageHeight + tileSize - 1) / tileSize;
+        this.ids = ids;
+    }
+
+    /** Caminho do índice de um fundo. */
+    public static String path(String key) {
+        return DIR + key + EXTENSION;
+    }
+
+    /** Caminho de uma página do tileset. */
+    public static String pagePath(int page) {
+        return DIR + "tileset-" + page + ".png";
+    }
+
+    /** Lado da célula na página (tile com a borda). */
+    public int cellSize() {
+        return tileSize + 2 * padding;
+    }
+
+    /** Células por linha da página. */
+    public int perRow() {
+        return pageSize / cellSize();
+    }
+
+    /** Células por página. */
+    public int perPage() {
+        return perRow() * perRow();
+    }
+
+    /** Lê um índice (fecha o stream). */
+    public static TileIndex read(InputStream stream) throws IOException {
+        try (DataInputStream in = new DataInputStream(stream)) {
+            if (in.readInt() != MAGIC) throw new IOException("não é um índice de tiles");
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("versão de índice de tiles não suportada: " + version);
+            int tileSize = in.readInt(), padding = in.readInt(), pageSize = in.readInt();
+            int width = in.readInt(), height = in.readInt();
+            int cols = in.readInt(), rows = in.readInt();
+            if (tileSize <= 0 || cols != (width + tileSize - 1) / tileSize || rows != (height + tileSize - 1) / tileSize) {
+                throw new IOException("índice de tiles inconsistente");
+            }
+            int[] ids = new int[cols * rows];
+            for (int i = 0; i < ids.length; i++) ids[i] = in.readUnsignedShort();
+            return new TileIndex(tileSize, padding, pageSize, width, height, ids);
+        }
+    }
+
+    /** Grava o índice (não fecha o stream). */
+    void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(tileSize);
+        out.writeInt(padding);
+        out.writeInt(pageSize);
+        out.writeInt(imageWidth);
+        out.writeInt(imageHeight);
+        out.writeInt(cols);
+        out.writeInt(rows);
+        for (int id : ids) out.writeShort(id);
+        out.flush();
+    }
+}
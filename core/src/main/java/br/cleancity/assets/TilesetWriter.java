@@ -0,0 +1,161 @@
+package br.cleancity.assets;
+
+import br.cleancity.model.Level;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Passo de build: corta os fundos das fases em tiles, junta os tiles idênticos num tileset compartilhado e grava
+ * um {@link TileIndex} por fundo.
+ *
+ * Uso: `TilesetWriter <pasta assets> <pasta saída>` (tarefa Gradle `lwjgl3:buildTiles`). Os fundos são os
+ * `sprites/<backgroundKey>.png` de {@link Level#defaultLevels()}. A saída fica em `<saída>/tiles/`: as páginas
+ * `tileset-<n>.png` e um `<chave>.tiles` por fundo, que o `assets.pack` inclui junto da pasta `assets/`.
+ *
+ * - Tiles iguais pixel a pixel (hash do conteúdo, confirmado com comparação completa) recebem o mesmo id, dentro
+ *   do fundo e entre fundos.
+ * - Os tiles novos de cada fundo começam numa página nova: o jogo carrega só as páginas da fase atual, e uma
+ *   página não mistura tiles exclusivos de fases diferentes. A altura de cada página é cortada nas linhas usadas.
+ */
+public final class TilesetWriter {
+    /** Lado do tile; com a borda de 1 pixel, 8×8 células fecham uma página de 512. */
+    public static final int TILE_SIZE = 62;
+    public static final int PADDING = 1;
+    public static final int PAGE_SIZE = 512;
+
+    private static final String SPRITES_DIR = "sprites/";
+
+    private TilesetWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("uso: TilesetWriter <pasta assets> <pasta saída>");
+            System.exit(2);
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        for (Level level : Level.defaultLevels()) keys.add(level.backgroundKey);
+        write(Path.of(args[0]), Path.of(args[1]), new ArrayList<>(keys));
+    }
+
+    /**
+     * Gera tileset e índices dos fundos (os que não existem em `sprites/` são pulados).
+     * @return quantidade de tiles únicos
+     */
+    public static int write(Path assets, Path out, List<String> keys) throws IOException {
+        Path dir = out.resolve(TileIndex.DIR);
+        Files.createDirectories(dir);
+        TileIndex probe = new TileIndex(TILE_SIZE, PADDING, PAGE_SIZE, 0, 0, new int[0]);
+        int cell = probe.cellSize(), perRow = probe.perRow(), perPage = probe.perPage();
+
+        Map<Tile, Integer> unique = new HashMap<>();
+        List<int[]> cells = new ArrayList<>(); // conteúdo por id (null nas lacunas de alinhamento de página)
+        int total = 0;
+        long sourceBytes = 0;
+        for (String key : keys) {
+            File png = assets.resolve(SPRITES_DIR + key + ".png").toFile();
+            if (!png.isFile()) {
+                System.err.println("fundo sem imagem, pulado: " + png);
+                continue;
+            }
+            BufferedImage image = ImageIO.read(png);
+            int w = image.getWidth(), h = image.getHeight();
+            sourceBytes += 4L * w * h;
+            // Tiles novos desta fase começam numa página nova
+            while (cells.size() % perPage != 0) cells.add(null);
+
+            TileIndex index = new TileIndex(TILE_SIZE, PADDING, PAGE_SIZE, w, h, null);
+            int[] ids = new int[index.cols * index.rows];
+            int reused = 0;
+            for (int r = 0; r < index.rows; r++) {
+                for (int c = 0; c < index.cols; c++) {
+                    Tile tile = new Tile(extrude(image, c * TILE_SIZE, r * TILE_SIZE, cell));
+                    Integer id = unique.get(tile);
+                    if (id == null) {
+                        id = cells.size();
+                        if (id > TileIndex.MAX_ID) throw new IOException("tiles demais para o índice (máx. " + (TileIndex.MAX_ID + 1) + ")");
+                        unique.put(tile, id);
+                        cells.add(tile.argb);
+                    } else {
+                        reused++;
+                    }
+                    ids[r * index.cols + c] = id;
+                }
+            }
+            total += ids.length;
+            try (OutputStream os = Files.newOutputStream(dir.resolve(key + TileIndex.EXTENSION))) {
+                new TileIndex(TILE_SIZE, PADDING, PAGE_SIZE, w, h, ids).write(os);
+            }
+            System.out.println(key + ": " + index.cols + "x" + index.rows + " tiles, " + reused + " reaproveitados");
+        }
+
+        int pages = (cells.size() + perPage - 1) / perPage;
+        long tilesetBytes = 0;
+        for (int p = 0; p < pages; p++) {
+            int first = p * perPage, count = Math.min(perPage, cells.size() - first);
+            int height = (count + perRow - 1) / perRow * cell;
+            BufferedImage page = new BufferedImage(PAGE_SIZE, height, BufferedImage.TYPE_INT_ARGB);
+            for (int i = 0; i < count; i++) {
+                int[] argb = cells.get(first + i);
+                if (argb != null) page.setRGB(i % perRow * cell, i / perRow * cell, cell, cell, argb, 0, cell);
+            }
+            ImageIO.write(page, "png", out.resolve(TileIndex.pagePath(p)).toFile());
+            tilesetBytes += 4L * PAGE_SIZE * height;
+        }
+        System.out.println(unique.size() + " tiles únicos de " + total + " em " + pages + " páginas: "
+            + tilesetBytes / 1024 + " KB de textura (fundos inteiros: " + sourceBytes / 1024 + " KB)");
+        return unique.size();
+    }
+
+    /**
+     * Célula do tile com origem (x, y) na imagem: o tile (menor na borda da imagem) com a última linha/coluna
+     * repetida até completar o tile e a borda de {@link #PADDING} em volta.
+     */
+    private static int[] extrude(BufferedImage image, int x, int y, int cell) {
+        int tw = Math.min(TILE_SIZE, image.getWidth() - x), th = Math.min(TILE_SIZE, image.getHeight() - y);
+        int[] src = image.getRGB(x, y, tw, th, null, 0, tw);
+        int[] argb = new int[cell * cell];
+        for (int cy = 0; cy < cell; cy++) {
+            int sy = Math.min(th - 1, Math.max(0, cy - PADDING));
+            for (int cx = 0; cx < cell; cx++) {
+                int sx = Math.min(tw - 1, Math.max(0, cx - PADDING));
+                argb[cy * cell + cx] = src[sy * tw + sx];
+            }
+        }
+        return argb;
+    }
+
+    /** Conteúdo de uma célula como chave de mapa (hash calculado uma vez, igualdade completa). */
+    private static final class Tile {
+        final int[] argb;
+        final int hash;
+
+        Tile(int[] argb) {
+            this.argb = argb;
+            this.hash = Arrays.hashCode(argb);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Tile && ((Tile) o).hash == hash && Arrays.equals(((Tile) o).argb, argb);
+        }
+    }
+}
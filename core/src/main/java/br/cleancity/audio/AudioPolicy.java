@@ -0,0 +1,106 @@
+package br.cleancity.audio;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Política de memória dos efeitos sonoros, por duração e tamanho decodificado (PCM).
+ *
+ * - {@link Mode#DECODED}: curtos e frequentes (coleta, entrega) ficam como `Sound`, decodificados a sessão toda.
+ * - {@link Mode#ON_DEMAND}: curtos mas raros ({@link Sfx#rare}) viram `Sound` só no primeiro `play` e são
+ *   descarregados depois de {@link #EVICT_SECONDS} sem tocar.
+ * - {@link Mode#STREAMED}: longos (mais de {@link #MAX_DECODED_SECONDS} ou {@link #MAX_DECODED_BYTES} de PCM,
+ *   como os jingles de vitória e derrota) tocam como `Music`: só os buffers do stream ficam na memória, e só
+ *   enquanto tocam.
+ *
+ * Duração e PCM vêm do cabeçalho WAV (`fmt ` e `data`); para outros formatos são estimados pelo tamanho do
+ * arquivo a 128 kbps, decodificados em 16 bits estéreo a 44,1 kHz.
+ */
+public final class AudioPolicy {
+    /** Duração máxima para um som ficar decodificado. */
+    public static final float MAX_DECODED_SECONDS = 1f;
+    /** PCM máximo para um som ficar decodificado. */
+    public static final long MAX_DECODED_BYTES = 128 * 1024;
+    /** Tempo sem tocar até um som sob demanda ser descarregado. */
+    public static final float EVICT_SECONDS = 15f;
+    /** Memória de um `Music` aberto: 3 buffers OpenAL de 40 KB mais o buffer de leitura (backend LWJGL3). */
+    public static final long STREAM_BUFFER_BYTES = 4 * 40 * 1024;
+
+    private static final int COMPRESSED_BYTES_PER_SECOND = 128_000 / 8;
+    private static final int PCM_BYTES_PER_SECOND = 44_100 * 2 * 2;
+
+    public enum Mode { DECODED, ON_DEMAND, STREAMED }
+
+    /** Modo escolhido. */
+    public final Mode mode;
+    /** Tamanho decodificado (bytes de PCM). */
+    public final long pcmBytes;
+    /** Duração em segundos. */
+    public final float seconds;
+
+    private AudioPolicy(Mode mode, long pcmBytes, float seconds) {
+        this.mode = mode;
+        this.pcmBytes = pcmBytes;
+        this.seconds = seconds;
+    }
+
+    /** Classifica um efeito pelo arquivo e por {@link Sfx#rare}. */
+    public static AudioPolicy of(Sfx sfx, FileHandle file) {
+        long pcm;
+        float seconds;
+        long[] wav = readWav(file);
+        if (wav != null) {
+            pcm = wav[1];
+            seconds = wav[0] > 0 ? (float) pcm / wav[0] : 0f;
+        } else {
+            seconds = (float) file.length() / COMPRESSED_BYTES_PER_SECOND;
+            pcm = (long) (seconds * PCM_BYTES_PER_SECOND);
+        }
+        Mode mode;
+        if (seconds > MAX_DECODED_SECONDS || pcm > MAX_DECODED_BYTES) mode = Mode.STREAMED;
+        else if (sfx.rare) mode = Mode.ON_DEMAND;
+        else mode = Mode.DECODED;
+        return new AudioPolicy(mode, pcm, seconds);
+    }
+
+    // {bytes por segundo, bytes de PCM} de um WAV, ou null se não for WAV legível
+    private static long[] readWav(FileHandle file) {
+        if (!file.extension().equalsIgnoreCase("wav")) return null;
+        try (DataInputStream in = new DataInputStream(file.read())) {
+            if (in.readInt() != 0x52494646) return null; // "RIFF"
+            in.readInt();
+            if (in.readInt() != 0x57415645) return null; // "WAVE"
+            long byteRate = 0;
+            while (true) {
+                int id = in.readInt();
+                long size = Integer.reverseBytes(in.readInt()) & 0xFFFFFFFFL;
+                if (id == 0x666D7420) { // "fmt "
+                    in.readInt(); // formato e canais
+                    in.readInt(); // taxa de amostragem
+                    byteRate = Integer.reverseBytes(in.readInt()) & 0xFFFFFFFFL;
+                    skip(in, size - 12 + (size & 1));
+                } else if (id == 0x64617461) { // "data"
+                    return new long[] {byteRate, size};
+                } else {
+                    skip(in, size + (size & 1));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void skip(InputStream in, long n) throws IOException {
+        while (n > 0) {
+            long s = in.skip(n);
+            if (s <= 0) {
+                if (in.read() < 0) throw new IOException("WAV truncado");
+                s = 1;
+            }
+            n -= s;
+        }
+    }
+}
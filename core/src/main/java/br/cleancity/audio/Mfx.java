@@ -1,5 +1,13 @@
 package br.cleancity.audio;
 
+/** Músicas (sempre em stream). */
 public enum Mfx {
-    TRACK
+    TRACK("sounds/8bit Bossa.mp3");
+
+    /** Caminho do arquivo (relativo à pasta `assets/`). */
+    public final String path;
+
+    Mfx(String path) {
+        this.path = path;
+    }
 }
@@ -1,5 +1,23 @@
 package br.cleancity.audio;
 
+/**
+ * Efeitos sonoros. O {@link AudioPolicy} decide, pelo arquivo e por `rare`, se cada um fica decodificado,
+ * é carregado sob demanda ou é tocado em stream.
+ */
 public enum Sfx {
-    C_TRASH, DELIVERY, WIN, LOSE, DEATH
+    C_TRASH("sounds/sfx_sound_Collect.wav", false),
+    DELIVERY("sounds/sfx_Delivery.wav", false),
+    WIN("sounds/sfx_Win.wav", true),
+    LOSE("sounds/Jingle_Lose_00.wav", true),
+    DEATH("sounds/sfx_sound_death.wav", true);
+
+    /** Caminho do arquivo (relativo à pasta `assets/`). */
+    public final String path;
+    /** Tocado poucas vezes por fase (fim de fase, atropelamento): não precisa ficar sempre na memória. */
+    public final boolean rare;
+
+    Sfx(String path, boolean rare) {
+        this.path = path;
+        this.rare = rare;
+    }
 }
@@ -1,54 +1,193 @@
 package br.cleancity.audio;
 
+import br.cleancity.profiling.AssetActivity;
+import br.cleancity.profiling.AssetLoadEvent;
+import br.cleancity.profiling.AudioMemory;
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+import java.util.Arrays;
 import java.util.EnumMap;
+import java.util.Locale;
 
-
+/**
+ * Sons e música do jogo, carregados pelo `AssetManager` segundo o {@link AudioPolicy} de cada efeito:
+ * decodificados na carga, sob demanda (descarregados depois de um tempo sem tocar) ou em stream só enquanto tocam.
+ * Cada carga e descarga é contada em {@link AudioMemory}.
+ *
+ * A música e os efeitos são dois grupos carregados e liberados à parte ({@link #loadMusic()}/{@link #unloadMusic()},
+ * {@link #loadEffects()}/{@link #unloadEffects()}), para cada tela manter só o que toca nela.
+ */
 public class SoundManager {
     // Passamos AssetManager como atributo, mas instânciamos apenas na classe principal
     private final AssetManager assets;
     private final EnumMap<Sfx, Sound> sounds = new EnumMap<>(Sfx.class);
     private final EnumMap<Mfx, Music> musics = new EnumMap<>(Mfx.class);
+    private final EnumMap<Sfx, AudioPolicy> policies = new EnumMap<>(Sfx.class);
+    // Jingles tocando em stream (descarregados quando param)
+    private final EnumMap<Sfx, Music> streams = new EnumMap<>(Sfx.class);
+    private static final Sfx[] SFX = Sfx.values();
+    // Marca de `idle` para efeito que não é um som sob demanda carregado
+    private static final float NOT_RESIDENT = -1f;
+    // Segundos desde o último play de cada som sob demanda carregado (por `Sfx.ordinal()`; sem alocar por frame)
+    private final float[] idle = new float[SFX.length];
     private final float masterVolume = 1.0f;
     private float waitTimer = 0;
     private Runnable pendingAction = null;
+    // Pausa do jogo: timers parados e músicas que estavam tocando (retomadas ao despausar)
+    private boolean paused;
+    private final Array<Music> pausedMusic = new Array<>();
+    // Caminhos na ordem em que foram enfileirados (para medir a carga de cada um)
+    private final Array<String> queued = new Array<>();
 
     public SoundManager(AssetManager assets) {
         this.assets = assets;
+        Arrays.fill(idle, NOT_RESIDENT);
+    }
+
+    // Registra os caminhos da música para carregar
+    private void queueMusic(){
+        for (Mfx mfx : Mfx.values()) queue(mfx.path, Music.class);
     }
 
-    // Registra os caminhos para carregar
-    public void queueLoad(){
-        // Musica
-        assets.load("sounds/8bit Bossa.mp3", Music.class);
+    // Registra os caminhos dos sons decodificados para carregar (o resto carrega ao tocar)
+    private void queueEffects(){
+        for (Sfx sfx : Sfx.values()) {
+            AudioPolicy policy = AudioPolicy.of(sfx, assets.getFileHandleResolver().resolve(sfx.path));
+            policies.put(sfx, policy);
+            if (Gdx.app != null) {
+                Gdx.app.log("SoundManager", String.format(Locale.ROOT, "%s: %s (%.2f s, %d KB de PCM)",
+                    sfx.path, policy.mode, policy.seconds, policy.pcmBytes / 1024));
+            }
+            if (policy.mode == AudioPolicy.Mode.DECODED) queue(sfx.path, Sound.class);
+        }
+    }
 
-        // Sons
-        assets.load("sounds/Jingle_Lose_00.wav", Sound.class);
-        assets.load("sounds/sfx_Delivery.wav", Sound.class);
-        assets.load("sounds/sfx_sound_Collect.wav", Sound.class);
-        assets.load("sounds/sfx_sound_death.wav", Sound.class);
-        assets.load("sounds/sfx_Win.wav", Sound.class);
+    private void queue(String path, Class<?> type) {
+        assets.load(path, type);
+        queued.add(path);
     }
 
-    public void create(){
-        // Musica
-        musics.put(Mfx.TRACK, assets.get("sounds/8bit Bossa.mp3", Music.class));
+    // Carrega a música (se ainda não carregada)
+    public void loadMusic(){
+        if (!musics.isEmpty()) return;
+        queueMusic();
+        loadQueued();
+        for (Mfx mfx : Mfx.values()) {
+            musics.put(mfx, assets.get(mfx.path, Music.class));
+            AudioMemory.streaming(mfx.path, AudioPolicy.STREAM_BUFFER_BYTES, true);
+        }
+    }
 
-        // Sons (Jingle é muito pequeno para usar Music.class)
-        sounds.put(Sfx.LOSE, assets.get("sounds/Jingle_Lose_00.wav", Sound.class));
-        sounds.put(Sfx.DELIVERY, assets.get("sounds/sfx_Delivery.wav", Sound.class));
-        sounds.put(Sfx.C_TRASH, assets.get("sounds/sfx_sound_Collect.wav", Sound.class));
-        sounds.put(Sfx.DEATH, assets.get("sounds/sfx_sound_death.wav", Sound.class));
-        sounds.put(Sfx.WIN, assets.get("sounds/sfx_Win.wav", Sound.class));
+    // Carrega os efeitos decodificados (se ainda não carregados); os sob demanda e em stream carregam ao tocar
+    public void loadEffects(){
+        if (!policies.isEmpty()) return;
+        queueEffects();
+        loadQueued();
+        for (Sfx sfx : Sfx.values()) {
+            AudioPolicy policy = policies.get(sfx);
+            if (policy.mode != AudioPolicy.Mode.DECODED) continue;
+            sounds.put(sfx, assets.get(sfx.path, Sound.class));
+            AudioMemory.decoded(sfx.path, policy.pcmBytes, true);
+        }
     }
 
-    public void loadAll(){
-        queueLoad();
+    // Carrega um a um (na ordem da fila) para medir cada arquivo no JFR
+    private void loadQueued(){
+        for (String path : queued) load(path);
+        queued.clear();
         assets.finishLoading(); // garante que estão carregados
-        create();
+    }
 
+    // Para e descarrega a música
+    public void unloadMusic(){
+        for (Mfx mfx : Mfx.values()) {
+            Music m = musics.remove(mfx);
+            if (m == null) continue;
+            m.stop();
+            pausedMusic.removeValue(m, true);
+            assets.unload(mfx.path);
+            AudioMemory.streaming(mfx.path, AudioPolicy.STREAM_BUFFER_BYTES, false);
+        }
+    }
+
+    // Para e descarrega todos os efeitos (decodificados, sob demanda e streams abertos) e cancela o waitAndRun
+    public void unloadEffects(){
+        for (Sfx sfx : Sfx.values()) {
+            closeStream(sfx);
+            Sound s = sounds.remove(sfx);
+            if (s == null) continue;
+            s.stop();
+            assets.unload(sfx.path);
+            AudioMemory.decoded(sfx.path, policies.get(sfx).pcmBytes, false);
+        }
+        Arrays.fill(idle, NOT_RESIDENT);
+        policies.clear();
+        pendingAction = null;
+        waitTimer = 0;
+    }
+
+    // Carrega um arquivo já enfileirado, medindo a carga (AssetActivity e JFR)
+    private void load(String path) {
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        long start = AssetActivity.begin();
+        try {
+            assets.finishLoadingAsset(path);
+        } finally {
+            AssetActivity.end(start, path);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.stage = assets.getAssetType(path) == Music.class ? "music" : "sound";
+            event.fileBytes = assets.getFileHandleResolver().resolve(path).length();
+            event.commit();
+        }
+    }
+
+    // Som decodificado do efeito, carregando agora se for sob demanda (null se for stream ou não existir)
+    private Sound sound(Sfx sfx) {
+        Sound s = sounds.get(sfx);
+        AudioPolicy policy = policies.get(sfx);
+        if (s == null && policy != null && policy.mode == AudioPolicy.Mode.ON_DEMAND) {
+            assets.load(sfx.path, Sound.class);
+            load(sfx.path);
+            s = assets.get(sfx.path, Sound.class);
+            sounds.put(sfx, s);
+            AudioMemory.decoded(sfx.path, policy.pcmBytes, true);
+        }
+        if (s != null && policy.mode == AudioPolicy.Mode.ON_DEMAND) idle[sfx.ordinal()] = 0f;
+        return s;
+    }
+
+    // Abre o jingle em stream (fecha antes o anterior do mesmo efeito)
+    private Music stream(Sfx sfx) {
+        closeStream(sfx);
+        assets.load(sfx.path, Music.class);
+        load(sfx.path);
+        Music m = assets.get(sfx.path, Music.class);
+        streams.put(sfx, m);
+        AudioMemory.streaming(sfx.path, AudioPolicy.STREAM_BUFFER_BYTES, true);
+        return m;
+    }
+
+    private void closeStream(Sfx sfx) {
+        Music m = streams.remove(sfx);
+        if (m == null) return;
+        m.stop();
+        pausedMusic.removeValue(m, true);
+        assets.unload(sfx.path);
+        AudioMemory.streaming(sfx.path, AudioPolicy.STREAM_BUFFER_BYTES, false);
+    }
+
+    private void evict(Sfx sfx) {
+        idle[sfx.ordinal()] = NOT_RESIDENT;
+        if (sounds.remove(sfx) == null) return;
+        assets.unload(sfx.path);
+        AudioMemory.decoded(sfx.path, policies.get(sfx).pcmBytes, false);
     }
 
     // Tocar após x tempo
@@ -58,7 +197,9 @@ public class SoundManager {
     }
 
     // Atualiza o timer de execução com base no tempo da fase
+    // e descarrega streams que terminaram e sons sob demanda parados há EVICT_SECONDS
     public void update(float delta) {
+        if (paused) return;
         if (waitTimer > 0) {
             waitTimer -= delta;
             if (waitTimer <= 0 && pendingAction != null) {
@@ -66,12 +207,53 @@ public class SoundManager {
                 pendingAction = null;
             }
         }
+        for (Sfx sfx : SFX) {
+            Music m = streams.get(sfx);
+            if (m != null && !m.isPlaying()) closeStream(sfx);
+            float t = idle[sfx.ordinal()];
+            if (t == NOT_RESIDENT) continue;
+            if (t + delta >= AudioPolicy.EVICT_SECONDS) evict(sfx);
+            else idle[sfx.ordinal()] = t + delta;
+        }
+    }
+
+    // Ação do waitAndRun ainda não executada
+    public boolean hasPending(){
+        return pendingAction != null;
+    }
+
+    // Pausa do jogo: congela os timers (waitAndRun, descarte) e pausa música e jingles; false retoma
+    public void setPaused(boolean paused){
+        if (paused == this.paused) return;
+        this.paused = paused;
+        if (paused) {
+            for (Music m : musics.values()) pauseMusic(m);
+            for (Music m : streams.values()) pauseMusic(m);
+        } else {
+            for (Music m : pausedMusic) m.play();
+            pausedMusic.clear();
+        }
+    }
+
+    private void pauseMusic(Music m){
+        if (!m.isPlaying()) return;
+        m.pause();
+        pausedMusic.add(m);
     }
 
     // Métodos dos Sounds
     // É um long, pois quando usamos "play" do LibGDX ele retorna um ID do playback
+    // Jingles em stream não têm ID (retornam 0)
     public long playS(Sfx sfx, float volume){
-        Sound s = sounds.get(sfx);
+        AudioPolicy policy = policies.get(sfx);
+        if (policy != null && policy.mode == AudioPolicy.Mode.STREAMED) {
+            Music m = stream(sfx);
+            m.setLooping(false);
+            m.setVolume(masterVolume * volume);
+            m.play();
+            return 0;
+        }
+        Sound s = sound(sfx);
         if (s == null) return -1; // Not Found / Nothing happened
         return s.play(masterVolume * volume);
     }
@@ -83,6 +265,7 @@ public class SoundManager {
     public void stopS(Sfx sfx){
         Sound s = sounds.get(sfx);
         if (s !=null) s.stop();
+        closeStream(sfx);
     }
 
     // Métodos da Music
@@ -144,6 +327,9 @@ public class SoundManager {
     }
 
     public void disposeSound(){
+        for (Sfx sfx : Sfx.values()) closeStream(sfx);
+        for (Sfx sfx : sounds.keySet()) AudioMemory.decoded(sfx.path, policies.get(sfx).pcmBytes, false);
+        for (Mfx mfx : musics.keySet()) AudioMemory.streaming(mfx.path, AudioPolicy.STREAM_BUFFER_BYTES, false);
         for(Sound s: sounds.values()){
             if (s != null) s.dispose();
         }
@@ -152,6 +338,8 @@ public class SoundManager {
         }
         sounds.clear();
         musics.clear();
+        Arrays.fill(idle, NOT_RESIDENT);
+        pausedMusic.clear();
     }
 
 }
@@ -0,0 +1,50 @@
+package br.cleancity.controller;
+
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.Player;
+import br.cleancity.model.TrashStore;
+
+/**
+ * Bot simples usado pelas verificações sem janela (`CoopLoopbackCheck`, cenários de benchmark): persegue o lixo
+ * mais próximo; com 5 ou mais lixos na mão e nada a menos de 200 unidades, vai à traseira do caminhão.
+ */
+public final class BotInput {
+    private BotInput() {
+    }
+
+    /**
+     * Direção do bot neste tick.
+     * @param p jogador controlado pelo bot (o principal ou o parceiro)
+     * @return bits `InputController.LEFT|RIGHT|DOWN|UP` (0 com o jogo encerrado)
+     */
+    public static int bits(GameWorld w, Player p) {
+        if (w.gameOver) return 0;
+        float tx, ty;
+        TrashStore trash = w.trash;
+        int nearest = -1;
+        float best = Float.MAX_VALUE;
+        for (int i = 0; i < trash.size; i++) {
+            float dx = trash.x[i] - p.x, dy = trash.y[i] - p.y;
+            float d = dx * dx + dy * dy;
+            if (d < best) {
+                best = d;
+                nearest = i;
+            }
+        }
+        if (nearest >= 0 && (w.carriedTrash < 5 || best < 200f * 200f)) {
+            tx = trash.x[nearest];
+            ty = trash.y[nearest];
+        } else {
+            tx = w.truck.x - p.width;
+            ty = w.truck.y;
+        }
+
+        // Zona morta de 2 unidades: não fica oscilando em cima do alvo
+        int bits = 0;
+        if (tx < p.x - 2f) bits |= InputController.LEFT;
+        if (tx > p.x + 2f) bits |= InputController.RIGHT;
+        if (ty < p.y - 2f) bits |= InputController.DOWN;
+        if (ty > p.y + 2f) bits |= InputController.UP;
+        return bits;
+    }
+}
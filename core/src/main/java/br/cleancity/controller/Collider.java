@@ -0,0 +1,137 @@
+package br.cleancity.controller;
+
+import br.cleancity.model.Player;
+import br.cleancity.model.Truck;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Forma de colisão de uma entidade, registrada num {@link CollisionWorld}.
+ *
+ * - `layer`: a camada (um bit) a que este collider pertence; `mask`: as camadas com que ele procura contato.
+ *   Só colliders com `mask != 0` consultam o mundo; os outros (caminhão, lixo) são apenas alvos.
+ * - Sólido x gatilho: um contato entre dois sólidos é resolvido (o que se moveu é empurrado para fora);
+ *   com um gatilho envolvido, o contato só gera eventos.
+ * - Subformas: uma entidade pode ter vários colliders com formas diferentes derivadas da sua caixa
+ *   (o caminhão tem o corpo reduzido, a faixa frontal letal e a margem de entrega).
+ * - A caixa (`x, y, w, h`) e a posição no início do passo (`prevX, prevY`) são atualizadas pelo mundo a partir
+ *   da entidade dona a cada passo; só uma das referências `player`, `truck` é não nula. O lixo não tem objeto
+ *   dono: o collider guarda o id (`trash`) e a caixa recebida na criação ou em `CollisionWorld.move`.
+ */
+public final class Collider {
+    /** Caixa inteira da entidade. */
+    public static final int SHAPE_BOUNDS = 0;
+    /** Corpo do caminhão: caixa reduzida e centralizada (evita o "retângulo invisível" maior que o sprite). */
+    public static final int SHAPE_TRUCK_BODY = 1;
+    /** Faixa frontal (direita) do corpo do caminhão. */
+    public static final int SHAPE_TRUCK_FRONT = 2;
+    /** Corpo do caminhão ampliado por uma margem, para encostar e entregar. */
+    public static final int SHAPE_TRUCK_DELIVERY = 3;
+
+    /** Fração do tamanho visual do caminhão usada no corpo. */
+    public static final float TRUCK_COLLISION_SCALE = 0.9f;
+    /** Largura da faixa frontal letal do caminhão. */
+    public static final float LETHAL_STRIP_WIDTH = 12f;
+    /** Margem em volta do corpo do caminhão que conta como encostar. */
+    public static final float DELIVERY_MARGIN = 2f;
+
+    public final int layer;
+    public final int mask;
+    public final boolean trigger;
+    public final int shape;
+    public final Player player;
+    public final Truck truck;
+    /** Id do lixo (ver `GameWorld.trash`), ou -1 se o collider não é de lixo. */
+    public final int trash;
+
+    /** Caixa no fim do passo. */
+    public float x, y, w, h;
+    /** Canto da caixa no início do passo. */
+    public float prevX, prevY;
+
+    // Mundo em que está registrado e posição no índice de estáticos: célula e índice dentro dela (-1 se dinâmico
+    // ou fora do mundo)
+    CollisionWorld world;
+    int cell = -1;
+    int cellIndex = -1;
+    // Quem este collider tocava no passo anterior e no atual (só para quem consulta o mundo)
+    Array<Collider> touching;
+    Array<Collider> current;
+
+    private Collider(int layer, int mask, boolean trigger, int shape, Player player, Truck truck, int trash) {
+        this.layer = layer;
+        this.mask = mask;
+        this.trigger = trigger;
+        this.shape = shape;
+        this.player = player;
+        this.truck = truck;
+        this.trash = trash;
+    }
+
+    /** Collider sólido com a caixa de um jogador (ou varredor). */
+    public static Collider player(Player p, int layer, int mask) {
+        return new Collider(layer, mask, false, SHAPE_BOUNDS, p, null, -1);
+    }
+
+    /** Subforma do caminhão (alvo: não procura contatos). */
+    public static Collider truck(Truck t, int shape, int layer, boolean trigger) {
+        return new Collider(layer, 0, trigger, shape, null, t, -1);
+    }
+
+    /** Gatilho estático com a caixa de um lixo. */
+    public static Collider trash(int id, float x, float y, float width, float height, int layer) {
+        Collider c = new Collider(layer, 0, true, SHAPE_BOUNDS, null, null, id);
+        c.x = c.prevX = x;
+        c.y = c.prevY = y;
+        c.w = width;
+        c.h = height;
+        return c;
+    }
+
+    /** True para colliders que se movem (sincronizados a cada passo); lixo é estático. */
+    boolean dynamic() {
+        return trash < 0;
+    }
+
+    /** Atualiza a caixa (e a posição no início do passo) a partir da entidade dona. */
+    void sync() {
+        if (player != null) {
+            x = player.x;
+            y = player.y;
+            w = player.width;
+            h = player.height;
+            prevX = player.prevX;
+            prevY = player.prevY;
+        } else if (trash >= 0) {
+            // Lixo: caixa definida na criação (ou por CollisionWorld.move)
+            prevX = x;
+            prevY = y;
+        } else {
+            float bw = truck.width * TRUCK_COLLISION_SCALE;
+            float bh = truck.height * TRUCK_COLLISION_SCALE;
+            float bx = truck.x + (truck.width - bw) * 0.5f;
+            float by = truck.y + (truck.height - bh) * 0.5f;
+            switch (shape) {
+                case SHAPE_TRUCK_FRONT:
+                    x = bx + bw - LETHAL_STRIP_WIDTH;
+                    y = by;
+                    w = LETHAL_STRIP_WIDTH;
+                    h = bh;
+                    break;
+                case SHAPE_TRUCK_DELIVERY:
+                    x = bx - DELIVERY_MARGIN;
+                    y = by - DELIVERY_MARGIN;
+                    w = bw + DELIVERY_MARGIN * 2f;
+                    h = bh + DELIVERY_MARGIN * 2f;
+                    break;
+                default:
+                    x = bx;
+                    y = by;
+                    w = bw;
+                    h = bh;
+                    break;
+            }
+            prevX = x - (truck.x - truck.prevX);
+            prevY = y;
+        }
+    }
+}
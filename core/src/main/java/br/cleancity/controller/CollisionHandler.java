@@ -1,156 +1,226 @@
 package br.cleancity.controller;
 
-import br.cleancity.audio.Mfx;
-import br.cleancity.audio.Sfx;
-import br.cleancity.audio.SoundManager;
+import br.cleancity.telemetry.Heatmaps;
+import br.cleancity.telemetry.Telemetry;
+import br.cleancity.telemetry.TelemetryEvent;
 import br.cleancity.model.GameWorld;
 import br.cleancity.model.Player;
-import br.cleancity.model.Trash;
+import br.cleancity.model.TrashStore;
 import br.cleancity.model.Truck;
+import com.badlogic.gdx.utils.IntArray;
+
 /**
- * Responsável por detectar colisões (AABB) e aplicar as regras do jogo envolvendo
- * jogador, caminhão e lixo:
+ * Regras do jogo envolvendo jogador, caminhão e lixo, aplicadas sobre os contatos de um {@link CollisionWorld}:
  * - Frente do caminhão é letal (encerra a fase como derrota).
- * - Laterais/traseira não matam: resolvemos a interpenetração empurrando o jogador para fora.
+ * - Laterais/traseira não matam: o corpo do caminhão é sólido e o mundo empurra o jogador para fora.
  * - Coleta: ao tocar um lixo, remove-o e incrementa `carriedTrash`.
  * - Entrega: ao encostar no caminhão (fora da frente), converte `carriedTrash` em pontos.
  * - Vitória: se não houver mais lixo no mundo e o jogador não carregar nenhum, marca vitória,
- *   pausa o jogo e para o caminhão (speed = 0).
+ *   pausa o jogo e para o caminhão (speed = 0). Com varredores rivais, só vence quem pontuou ao menos
+ *   `world.rivalTrash`; senão a fase acaba em derrota.
  * - Não processa nada quando `gameOver` já está ativo.
+ * - Camadas: o caminhão tem três subformas ({@link #SOLID} corpo, {@link #LETHAL} faixa frontal e
+ *   {@link #DELIVERY} margem de entrega), o lixo é {@link #TRASH} e os jogadores {@link #PLAYER}. A ordem dos
+ *   bits é a ordem em que as regras veem os contatos de um jogador no passo: morte, coleta, entrega.
+ * - Colisão contínua (swept AABB, ver {@link CollisionWorld}): o movimento do passo, relativo ao caminhão que
+ *   também se moveu, é varrido para achar o tempo de impacto. Assim, com delta grande ou velocidades altas,
+ *   o jogador não atravessa a faixa letal, o caminhão nem o lixo.
+ * - No co-op, as mesmas regras valem para `world.partner` (registrado quando aparece); o lixo carregado é
+ *   da equipe. Os varredores rivais (`SweeperController`) usam o mesmo mundo de colisão, depois dos jogadores.
+ * - Sons e avisos não são tocados aqui: coleta, entrega, atropelamento e fim da rua viram {@link GameEvents}
+ *   para a thread de render. `events` pode ser null (servidor co-op, benchmarks).
+ * - Coletas, entregas, atropelamento e fim de fase são registrados na telemetria (ver `setTelemetry`); coletas,
+ *   entregas e atropelamento também nos mapas de calor, na posição do jogador (ver `setHeatmaps`).
  */
-public class CollisionHandler {
-    private final GameWorld world;
-    private final SoundManager audio;
+public class CollisionHandler implements ContactListener {
+    /** Faixa frontal do caminhão (gatilho). */
+    public static final int LETHAL = 1;
+    /** Lixo (gatilho estático). */
+    public static final int TRASH = 1 << 1;
+    /** Margem de entrega em volta do corpo do caminhão (gatilho). */
+    public static final int DELIVERY = 1 << 2;
+    /** Corpo do caminhão (sólido). */
+    public static final int SOLID = 1 << 3;
+    /** Jogadores. */
+    public static final int PLAYER = 1 << 4;
+    /** Varredores rivais. */
+    public static final int SWEEPER = 1 << 5;
+
+    private static final int PLAYER_MASK = LETHAL | TRASH | DELIVERY | SOLID;
 
-    public CollisionHandler(GameWorld world, SoundManager audio) {
+    private final GameWorld world;
+    private final GameEvents events;
+    private final CollisionWorld collisionWorld;
+    private final Collider[] trashColliders;
+    private Collider partnerCollider;
+    private int knownTrash;
+    private Telemetry telemetry = Telemetry.NONE;
+    private Heatmaps heatmaps = Heatmaps.NONE;
+    // Contadores do último `update()` (perfilamento)
+    private int trashCollected;
+
+    public CollisionHandler(GameWorld world, GameEvents events) {
         this.world = world;
-        this.audio = audio;
+        this.events = events;
+        this.collisionWorld = new CollisionWorld(world.worldWidth, world.worldHeight);
+        collisionWorld.setListener(PLAYER, this);
+
+        collisionWorld.add(Collider.player(world.player, PLAYER, PLAYER_MASK));
+        Truck t = world.truck;
+        collisionWorld.add(Collider.truck(t, Collider.SHAPE_TRUCK_BODY, SOLID, false));
+        collisionWorld.add(Collider.truck(t, Collider.SHAPE_TRUCK_FRONT, LETHAL, true));
+        collisionWorld.add(Collider.truck(t, Collider.SHAPE_TRUCK_DELIVERY, DELIVERY, true));
+        TrashStore spawned = world.spawnedTrash();
+        trashColliders = new Collider[world.spawnedTrashCount()];
+        for (int id = 0; id < trashColliders.length; id++) {
+            trashColliders[id] = Collider.trash(id, spawned.x[id], spawned.y[id], spawned.width[id], spawned.height[id], TRASH);
+        }
+        refreshTrash();
+    }
+
+    /** Define onde registrar os eventos de jogo (padrão: desligado). */
+    public void setTelemetry(Telemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    /** Define onde registrar as posições de coleta, entrega e morte (padrão: desligado). */
+    public void setHeatmaps(Heatmaps heatmaps) {
+        this.heatmaps = heatmaps;
+    }
+
+    /** Mundo de colisão da fase (os varredores registram seus colliders nele). */
+    public CollisionWorld collisionWorld() {
+        return collisionWorld;
+    }
+
+    /** Contatos com o caminhão resolvidos (jogador empurrado para fora) no último `update()`. */
+    public int contactsResolved() {
+        return collisionWorld.solvedCount();
+    }
+
+    /** Lixo coletado no último `update()`. */
+    public int trashCollected() {
+        return trashCollected;
     }
 
     /**
-     * Atualiza as colisões do frame, na ordem:
+     * Recoloca no mundo de colisão exatamente o lixo de `world.trash`, com as caixas atuais (lidas em sequência
+     * dos arrays do store). Chamar depois de mudar o tamanho do lixo; voltas no tempo são detectadas sozinhas
+     * em `update()`.
+     */
+    public void refreshTrash() {
+        for (Collider c : trashColliders) collisionWorld.remove(c);
+        TrashStore trash = world.trash;
+        for (int i = 0; i < trash.size; i++) {
+            Collider c = trashColliders[trash.id[i]];
+            c.x = trash.x[i];
+            c.y = trash.y[i];
+            c.w = trash.width[i];
+            c.h = trash.height[i];
+            collisionWorld.add(c);
+        }
+        knownTrash = trash.size;
+    }
+
+    /** Ids do lixo na rua com canto inferior esquerdo perto da região (ver {@link CollisionWorld#queryTrash}). */
+    public void trashNear(float x0, float y0, float x1, float y1, IntArray out) {
+        collisionWorld.queryTrash(x0, y0, x1, y1, out);
+    }
+
+    /** Acompanha um lixo movido pela física (`TrashPhysics`): o collider passa para a posição nova. */
+    public void trashMoved(int id, float x, float y) {
+        collisionWorld.move(trashColliders[id], x, y);
+    }
+
+    /**
+     * Atualiza as colisões do passo, na ordem:
      * 1) Early-out em caso de vitória já alcançada (pausa e para o caminhão).
-     * 2) Morte ao tocar a frente do caminhão.
-     * 3) Resolução de interpenetração não-frontal com o caminhão.
-     * 4) Coleta de lixo (iterando de trás pra frente na lista indexada).
-     * 5) Entrega no caminhão (laterais/traseira) e checagem de vitória após a entrega.
+     * 2) Passo do {@link CollisionWorld}: o corpo do caminhão é resolvido (salvo entrando pela frente, ver
+     *    {@link #preSolve(Contact)}) e os contatos chegam em {@link #onContact(Contact)} por jogador, em ordem de
+     *    camada: morte, coleta, entrega (com checagem de vitória após a entrega).
      * Ignora todo o processamento se `gameOver` estiver ativo.
      */
     public void update() {
+        trashCollected = 0;
         if (world.gameOver) return;
 
-        Player p = world.player;
-        Truck t = world.truck;
-
-        // Usa uma hitbox menor e centralizada para o caminhão (reduz "retângulo invisível, que sobrava anteriormente")
-        final float TRUCK_COLLISION_SCALE = 0.9f; // 90% do tamanho visual
-        float sW = t.width * TRUCK_COLLISION_SCALE;
-        float sH = t.height * TRUCK_COLLISION_SCALE;
-        float CollisionX = t.x + (t.width - sW) * 0.5f; // centraliza
-        float CollisionY = t.y + (t.height - sH) * 0.5f;
-
         // Vitória antecipada da rua
-        if (world.trashList.size == 0 && world.carriedTrash == 0) {
-            world.gameWon = true;
-            world.gameOver = true;
-            t.speed = 0f; // para o caminhão imediatamente
+        if (world.trash.isEmpty() && world.carriedTrash == 0) {
+            finishStreet();
             return;
         }
 
-        // Lado frontal do caminhão é letal (usa a hitbox reduzida)
-        if (isHitByTruckFrontBounds(p, CollisionX, CollisionY, sW, sH)) {
-            world.gameOver = true;
-            world.gameWon = false;
-            p.isDefeated = true;
-            audio.fadeOut(Mfx.TRACK,0.6f);
-            audio.waitAndRun(500, () -> {
-                audio.playS(Sfx.DEATH);
-                audio.playS(Sfx.LOSE);
-            });
-            return;
-        }
-
-        // Impede atravessar o caminhão pelas laterais ou traseira (resolve interpenetração)
-        if (overlaps(p.x, p.y, p.width, p.height, CollisionX, CollisionY, sW, sH)) {
-            // Se não é a frente, apenas resolve a colisão para fora do caminhão
-            if (!isHitByTruckFrontBounds(p, CollisionX, CollisionY, sW, sH)) {
-                resolveNonFrontCollisionBounds(p, CollisionX, CollisionY, sW, sH);
-            }
+        // Lixo que voltou para a rua (voltar no tempo) e parceiro do co-op que acabou de entrar
+        if (world.trash.size != knownTrash) refreshTrash();
+        if (world.partner != null && partnerCollider == null) {
+            partnerCollider = Collider.player(world.partner, PLAYER, PLAYER_MASK);
+            collisionWorld.add(partnerCollider);
         }
 
-        // Coleta de lixo
-        for (int i = world.trashList.size - 1; i >= 0; i--) {
-            Trash trash = world.trashList.get(i);
-            if (overlaps(p.x, p.y, p.width, p.height, trash.x, trash.y, trash.width, trash.height)) {
-                world.trashList.removeIndex(i);
-                world.carriedTrash += 1;
-                audio.playS(Sfx.C_TRASH, 0.8f);
-            }
-        }
-
-        // Entrega de lixo quando encostar nas laterais/traseira do caminhão (sem ser a frente)
-        if (!isHitByTruckFrontBounds(p, CollisionX, CollisionY, sW, sH) && isTouchingTruckForDeliveryBounds(p, CollisionX, CollisionY, sW, sH)) {
-            if (world.carriedTrash > 0) {
-                world.score.value += world.carriedTrash;
-                world.carriedTrash = 0;
-                audio.playS(Sfx.DELIVERY);
-            }
-            // Após entregar, verifica condição de vitória
-            if (world.trashList.size == 0 && world.carriedTrash == 0) {
-                world.gameWon = true;
-                world.gameOver = true;
-                t.speed = 0f; // para o caminhão
-                audio.fadeOut(Mfx.TRACK,0.6f);
-                audio.waitAndRun(500,() -> {
-                    audio.playS(Sfx.WIN, 1.5f);
-                });
-                return;
-            }
-        }
+        collisionWorld.step();
+        knownTrash = world.trash.size;
     }
 
-
-    // Versão baseada em bounds explícitos (hitbox reduzida)
-    private boolean isHitByTruckFrontBounds(Player player, float bx, float by, float bw, float bh) {
-        float lethalStripWidth = 12f; // largura da faixa frontal letal
-        float frontX = bx + bw - lethalStripWidth;
-        float frontW = lethalStripWidth;
-        return overlaps(player.x, player.y, player.width, player.height,
-                        frontX, by, frontW, bh);
+    /**
+     * Frente do caminhão: não resolve o corpo se a faixa letal é tocada antes dele (ou junto), nem se a entrada
+     * no corpo é pela face direita; o jogador segue até a faixa e morre.
+     */
+    @Override
+    public boolean preSolve(Contact solid) {
+        return solid.normalX <= 0 && collisionWorld.reachedBefore(solid, LETHAL) == null;
     }
 
-
-    // Nova versão que usa bounds explícitos (hitbox reduzida)
-    private void resolveNonFrontCollisionBounds(Player p, float bx, float by, float bw, float bh) {
-        float overlapLeft   = (p.x + p.width) - bx;
-        float overlapRight  = (bx + bw) - p.x;
-        float overlapBottom = (p.y + p.height) - by;
-        float overlapTop    = (by + bh) - p.y;
-        float minX = Math.min(overlapLeft, overlapRight);
-        float minY = Math.min(overlapBottom, overlapTop);
-        if (minX < minY) {
-            if (overlapLeft < overlapRight) p.x = bx - p.width; else p.x = bx + bw;
-        } else {
-            if (overlapBottom < overlapTop) p.y = by - p.height; else p.y = by + bh;
+    @Override
+    public void onContact(Contact c) {
+        if (world.gameOver || c.phase == Contact.END) return;
+        Player p = c.a.player;
+        switch (c.b.layer) {
+            case LETHAL:
+                world.gameOver = true;
+                world.gameWon = false;
+                p.isDefeated = true;
+                telemetry.emit(TelemetryEvent.DEATH_TRUCK_FRONT, Math.round(p.x), Math.round(p.y));
+                heatmaps.record(Heatmaps.DEATH, p.x + p.width * 0.5f, p.y + p.height * 0.5f);
+                telemetry.emit(TelemetryEvent.LEVEL_END, TelemetryEvent.END_DEATH, world.score.value);
+                post(GameEvents.DEATH);
+                break;
+            case TRASH:
+                int trash = c.b.trash;
+                world.removeTrash(trash);
+                collisionWorld.remove(c.b);
+                world.carriedTrash += 1;
+                trashCollected++;
+                telemetry.emit(TelemetryEvent.TRASH_COLLECTED, trash, world.carriedTrash);
+                heatmaps.record(Heatmaps.COLLECT, p.x + p.width * 0.5f, p.y + p.height * 0.5f);
+                post(GameEvents.TRASH_COLLECTED);
+                break;
+            case DELIVERY:
+                if (world.carriedTrash > 0) {
+                    telemetry.emit(TelemetryEvent.DELIVERY, world.carriedTrash, world.score.value + world.carriedTrash);
+                    heatmaps.record(Heatmaps.DELIVERY, p.x + p.width * 0.5f, p.y + p.height * 0.5f);
+                    world.score.value += world.carriedTrash;
+                    world.carriedTrash = 0;
+                    post(GameEvents.DELIVERY);
+                }
+                // Após entregar, verifica condição de vitória
+                if (world.trash.isEmpty() && world.carriedTrash == 0) finishStreet();
+                break;
+            default:
+                break;
         }
     }
 
-
-    // Versão baseada em bounds explícitos (hitbox reduzida)
-    private boolean isTouchingTruckForDeliveryBounds(Player p, float bx, float by, float bw, float bh) {
-        float margin = 2f;
-        float ex = bx - margin;
-        float ey = by - margin;
-        float ew = bw + margin * 2f;
-        float eh = bh + margin * 2f;
-        boolean nearTruck = overlaps(p.x, p.y, p.width, p.height, ex, ey, ew, eh);
-        if (!nearTruck) return false;
-        if (isHitByTruckFrontBounds(p, bx, by, bw, bh)) return false;
-        return true;
+    // Rua limpa: com varredores rivais, só é vitória se o jogador recolheu ao menos tanto quanto eles
+    private void finishStreet() {
+        world.gameWon = world.score.value >= world.rivalTrash;
+        world.gameOver = true;
+        world.truck.speed = 0f; // para o caminhão imediatamente
+        telemetry.emit(TelemetryEvent.LEVEL_END,
+            world.gameWon ? TelemetryEvent.END_WON : TelemetryEvent.END_OUTSCORED, world.score.value);
+        post(world.gameWon ? GameEvents.LEVEL_WON : GameEvents.LEVEL_OUTSCORED);
     }
 
-    /** Verifica sobreposição AABB entre dois retângulos. */
-    private boolean overlaps(float ax, float ay, float aw, float ah, float bx, float by, float bw, float bh) {
-        return ax < bx + bw && ax + aw > bx && ay < by + bh && ay + ah > by;
+    private void post(int event) {
+        if (events != null) events.post(event);
     }
 }
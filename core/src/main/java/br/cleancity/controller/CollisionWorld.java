@@ -0,0 +1,369 @@
+package br.cleancity.controller;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Pipeline de colisão: colliders com camada/máscara, uma única fase estreita por passo e eventos de contato
+ * (começo, permanência, fim) entregues às regras de jogo ({@link ContactListener}, uma por camada de `a`).
+ *
+ * Por passo ({@link #step()}), para cada collider que consulta o mundo (`mask != 0`), na ordem de registro:
+ * 1) Colliders dinâmicos cujas camadas batem com a máscara: varredura contínua (swept AABB) do movimento
+ *    relativo no passo, de `prev` até a posição final.
+ * 2) O sólido x sólido mais cedo, se houver, é resolvido no tempo de impacto pela face de entrada (ou pela
+ *    menor sobreposição, se o passo já começou dentro), salvo se a regra recusar em `preSolve`. Gatilhos
+ *    dinâmicos só contam se alcançados antes (ou junto) desse sólido.
+ * 3) Estáticos (lixo): só os das células da grade tocadas pelo trajeto já resolvido.
+ * 4) Eventos: cada contato vira {@link Contact#BEGIN} ou {@link Contact#STAY} (comparando com o passo anterior),
+ *    em ordem de camada de `b` (bit mais baixo primeiro) e, na mesma camada, de tempo de impacto; contatos do
+ *    passo anterior que sumiram viram {@link Contact#END}.
+ *
+ * Assim o custo cresce com os candidatos realmente próximos e os contatos, não com a quantidade de regras:
+ * cada par é testado uma vez e cada regra só recebe os contatos da sua camada.
+ */
+public class CollisionWorld {
+    /** Lado das células da grade de estáticos, em unidades de mundo. */
+    public static final float CELL_SIZE = 32f;
+    // Tolerância ao comparar tempos de impacto (gatilho "junto" com o sólido)
+    private static final float TOI_EPSILON = 1e-4f;
+
+    private final int cols;
+    private final int rows;
+    private final Array<Collider>[] cells;
+    private float maxStaticW;
+    private float maxStaticH;
+    private int staticLayers;
+    private int dynamicLayers;
+
+    private final Array<Collider> dynamics = new Array<>();
+    private final ContactListener[] listeners = new ContactListener[32];
+
+    // Contatos do collider em processamento (objetos reutilizados)
+    private final Array<Contact> contacts = new Array<>();
+    private int contactCount;
+    private final Contact ended = new Contact();
+    private int solved;
+    private int sweepAxis;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CollisionWorld(float worldWidth, float worldHeight) {
+        this.cols = Math.max(1, (int) Math.ceil(worldWidth / CELL_SIZE));
+        this.rows = Math.max(1, (int) Math.ceil(worldHeight / CELL_SIZE));
+        this.cells = new Array[cols * rows]; // células criadas no primeiro lixo
+    }
+
+    /** Define a regra que recebe os contatos dos colliders da camada `layer` (um bit). */
+    public void setListener(int layer, ContactListener listener) {
+        listeners[Integer.numberOfTrailingZeros(layer)] = listener;
+    }
+
+    /** Registra um collider (dinâmico ou estático). */
+    public void add(Collider c) {
+        c.world = this;
+        c.sync();
+        if (c.dynamic()) {
+            dynamics.add(c);
+            dynamicLayers |= c.layer;
+            if (c.mask != 0 && c.touching == null) {
+                c.touching = new Array<>(false, 4);
+                c.current = new Array<>(false, 4);
+            }
+        } else {
+            staticLayers |= c.layer;
+            insertStatic(c);
+        }
+    }
+
+    /** Tira um collider do mundo (ex.: lixo coletado). Quem o tocava recebe {@link Contact#END} no passo seguinte. */
+    public void remove(Collider c) {
+        if (c.world != this) return;
+        c.world = null;
+        if (c.dynamic()) {
+            dynamics.removeValue(c, true);
+        } else if (c.cell >= 0) {
+            removeStatic(c);
+        }
+    }
+
+    /** True se o collider está registrado neste mundo. */
+    public boolean contains(Collider c) {
+        return c.world == this;
+    }
+
+    /** Relê a caixa de um estático depois que a entidade mudou de tamanho ou lugar. */
+    public void refresh(Collider c) {
+        if (c.world != this || c.dynamic()) return;
+        if (c.cell >= 0) removeStatic(c);
+        c.sync();
+        insertStatic(c);
+    }
+
+    /**
+     * Leva um estático para (x, y) (ex.: lixo empurrado pelo vento). Só troca de lugar no índice se mudou de
+     * célula; fora do mundo, só atualiza a caixa.
+     */
+    public void move(Collider c, float x, float y) {
+        c.x = c.prevX = x;
+        c.y = c.prevY = y;
+        if (c.world != this || c.dynamic()) return;
+        int cell = row(y) * cols + col(x);
+        if (cell == c.cell) return;
+        removeStatic(c);
+        insertStatic(c);
+    }
+
+    /**
+     * Ids dos lixos (estáticos com `trash >= 0`) registrados nas células que cobrem a região [x0, x1] × [y0, y1];
+     * como a grade indexa o canto inferior esquerdo, pode incluir lixo um pouco fora da região. Acrescenta em `out`.
+     */
+    public void queryTrash(float x0, float y0, float x1, float y1, IntArray out) {
+        int c0 = col(x0), c1 = col(x1), r0 = row(y0), r1 = row(y1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                Array<Collider> cell = cells[r * cols + c];
+                if (cell == null) continue;
+                for (int i = 0; i < cell.size; i++) {
+                    int id = cell.get(i).trash;
+                    if (id >= 0) out.add(id);
+                }
+            }
+        }
+    }
+
+    /** Contatos sólidos resolvidos no último passo. */
+    public int solvedCount() {
+        return solved;
+    }
+
+    /**
+     * Gatilho dinâmico (camada em `layers`) que o mesmo collider alcança antes ou junto do contato sólido
+     * informado, ou null. Para uso em {@link ContactListener#preSolve(Contact)}.
+     */
+    public Contact reachedBefore(Contact solid, int layers) {
+        for (int i = 0; i < contactCount; i++) {
+            Contact c = contacts.get(i);
+            if (c != solid && (c.b.layer & layers) != 0 && c.b.trigger && c.toi <= solid.toi + TOI_EPSILON) return c;
+        }
+        return null;
+    }
+
+    /** Avança um passo: sincroniza os dinâmicos com as entidades e processa cada collider que consulta. */
+    public void step() {
+        solved = 0;
+        for (int i = 0; i < dynamics.size; i++) dynamics.get(i).sync();
+        for (int i = 0; i < dynamics.size; i++) {
+            Collider a = dynamics.get(i);
+            if (a.mask != 0) stepCollider(a);
+        }
+    }
+
+    private void stepCollider(Collider a) {
+        contactCount = 0;
+        ContactListener listener = listeners[Integer.numberOfTrailingZeros(a.layer)];
+
+        // 1) Dinâmicos: movimento relativo (o outro também andou), a partir das posições do início do passo
+        Contact solid = null;
+        if ((a.mask & dynamicLayers) != 0) {
+            float adx = a.x - a.prevX, ady = a.y - a.prevY;
+            for (int i = 0; i < dynamics.size; i++) {
+                Collider b = dynamics.get(i);
+                if (b == a || (a.mask & b.layer) == 0) continue;
+                float rdx = adx - (b.x - b.prevX), rdy = ady - (b.y - b.prevY);
+                float t = sweep(a.prevX, a.prevY, a.w, a.h, rdx, rdy, b.prevX, b.prevY, b.w, b.h);
+                if (t < 0f) continue;
+                Contact c = addContact(a, b, t, rdx, rdy);
+                if (!a.trigger && !b.trigger && (solid == null || t < solid.toi)) solid = c;
+            }
+        }
+
+        // 2) Resolve o sólido mais cedo e descarta os gatilhos que ficariam além dele
+        if (solid != null && (listener == null || listener.preSolve(solid))) {
+            if (solve(a, solid)) solved++;
+            float limit = solid.toi + TOI_EPSILON;
+            for (int i = contactCount - 1; i >= 0; i--) {
+                Contact c = contacts.get(i);
+                if (c != solid && c.toi > limit) removeContact(i);
+            }
+        }
+
+        // 3) Estáticos tocados pelo trajeto resolvido (grade por canto inferior esquerdo, consulta ampliada)
+        if ((a.mask & staticLayers) != 0) {
+            float dx = a.x - a.prevX, dy = a.y - a.prevY;
+            int c0 = col(Math.min(a.prevX, a.x) - maxStaticW), c1 = col(Math.max(a.prevX, a.x) + a.w);
+            int r0 = row(Math.min(a.prevY, a.y) - maxStaticH), r1 = row(Math.max(a.prevY, a.y) + a.h);
+            for (int r = r0; r <= r1; r++) {
+                for (int cc = c0; cc <= c1; cc++) {
+                    Array<Collider> cell = cells[r * cols + cc];
+                    if (cell == null) continue;
+                    for (int i = 0; i < cell.size; i++) {
+                        Collider b = cell.get(i);
+                        if ((a.mask & b.layer) == 0) continue;
+                        float t = sweep(a.prevX, a.prevY, a.w, a.h, dx, dy, b.x, b.y, b.w, b.h);
+                        if (t >= 0f) addContact(a, b, t, dx, dy);
+                    }
+                }
+            }
+        }
+
+        dispatch(a, listener);
+    }
+
+    // 4) Eventos em ordem de camada e tempo; depois os fins
+    private void dispatch(Collider a, ContactListener listener) {
+        sortContacts();
+        Array<Collider> previous = a.touching;
+        Array<Collider> current = a.current;
+        current.clear();
+        for (int i = 0; i < contactCount; i++) {
+            Contact c = contacts.get(i);
+            current.add(c.b);
+            c.phase = previous.contains(c.b, true) ? Contact.STAY : Contact.BEGIN;
+            if (listener != null) listener.onContact(c);
+        }
+        for (int i = 0; i < previous.size; i++) {
+            Collider b = previous.get(i);
+            if (current.contains(b, true)) continue;
+            ended.set(a, b, -1f, 0, 0);
+            ended.phase = Contact.END;
+            if (listener != null) listener.onContact(ended);
+        }
+        a.touching = current;
+        a.current = previous;
+    }
+
+    /**
+     * Empurra `a` para fora de `b`: no tempo de impacto, encosta pela face de entrada (mantendo o outro eixo,
+     * desliza); se já começou dentro, pela menor sobreposição. Só move colliders de jogador.
+     * @return true se `a` foi movido
+     */
+    private boolean solve(Collider a, Contact c) {
+        if (a.player == null) return false;
+        Collider b = c.b;
+        float px = a.player.x, py = a.player.y, pw = a.player.width, ph = a.player.height;
+        if (c.toi > 0f) {
+            if (c.normalX != 0) a.player.x = c.normalX < 0 ? b.x - pw : b.x + b.w;
+            else a.player.y = c.normalY < 0 ? b.y - ph : b.y + b.h;
+        } else if (overlaps(px, py, pw, ph, b.x, b.y, b.w, b.h)) {
+            float overlapLeft = (px + pw) - b.x;
+            float overlapRight = (b.x + b.w) - px;
+            float overlapBottom = (py + ph) - b.y;
+            float overlapTop = (b.y + b.h) - py;
+            if (Math.min(overlapLeft, overlapRight) < Math.min(overlapBottom, overlapTop)) {
+                a.player.x = overlapLeft < overlapRight ? b.x - pw : b.x + b.w;
+            } else {
+                a.player.y = overlapBottom < overlapTop ? b.y - ph : b.y + b.h;
+            }
+        } else {
+            return false;
+        }
+        a.sync();
+        return true;
+    }
+
+    private Contact addContact(Collider a, Collider b, float toi, float dx, float dy) {
+        if (contactCount == contacts.size) contacts.add(new Contact());
+        Contact c = contacts.get(contactCount++);
+        int nx = 0, ny = 0;
+        if (sweepAxis == 0) nx = dx > 0f ? -1 : 1;
+        else if (sweepAxis == 1) ny = dy > 0f ? -1 : 1;
+        c.set(a, b, toi, nx, ny);
+        return c;
+    }
+
+    private void removeContact(int i) {
+        Contact c = contacts.get(i);
+        contactCount--;
+        contacts.set(i, contacts.get(contactCount));
+        contacts.set(contactCount, c);
+    }
+
+    // Inserção por camada de `b` (bit mais baixo primeiro) e tempo de impacto; poucos contatos por collider
+    private void sortContacts() {
+        for (int i = 1; i < contactCount; i++) {
+            Contact c = contacts.get(i);
+            int j = i - 1;
+            while (j >= 0 && before(c, contacts.get(j))) {
+                contacts.set(j + 1, contacts.get(j));
+                j--;
+            }
+            contacts.set(j + 1, c);
+        }
+    }
+
+    private static boolean before(Contact x, Contact y) {
+        int lx = Integer.numberOfTrailingZeros(x.b.layer), ly = Integer.numberOfTrailingZeros(y.b.layer);
+        return lx != ly ? lx < ly : x.toi < y.toi;
+    }
+
+    private void insertStatic(Collider c) {
+        c.cell = row(c.y) * cols + col(c.x);
+        if (cells[c.cell] == null) cells[c.cell] = new Array<>(false, 4);
+        c.cellIndex = cells[c.cell].size;
+        cells[c.cell].add(c);
+        maxStaticW = Math.max(maxStaticW, c.w);
+        maxStaticH = Math.max(maxStaticH, c.h);
+    }
+
+    // Tira da célula em O(1): a célula não é ordenada, o último ocupa o lugar (como `removeValue` faria)
+    private void removeStatic(Collider c) {
+        Array<Collider> cell = cells[c.cell];
+        cell.removeIndex(c.cellIndex);
+        if (c.cellIndex < cell.size) cell.get(c.cellIndex).cellIndex = c.cellIndex;
+        c.cell = -1;
+        c.cellIndex = -1;
+    }
+
+    private int col(float x) {
+        return Math.max(0, Math.min(cols - 1, (int) (x / CELL_SIZE)));
+    }
+
+    private int row(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) (y / CELL_SIZE)));
+    }
+
+    /**
+     * Swept AABB: varre o retângulo A pelo deslocamento (dx, dy) contra o retângulo B parado.
+     * @return tempo de impacto em [0,1] (0 se já começam sobrepostos) ou -1 se não há contato no passo;
+     *         o eixo de entrada fica em `sweepAxis` (0 = X, 1 = Y, -1 = já sobrepostos)
+     */
+    private float sweep(float ax, float ay, float aw, float ah, float dx, float dy,
+                        float bx, float by, float bw, float bh) {
+        float xEntry, xExit, yEntry, yExit;
+        if (dx > 0f) {
+            xEntry = (bx - (ax + aw)) / dx;
+            xExit = (bx + bw - ax) / dx;
+        } else if (dx < 0f) {
+            xEntry = (bx + bw - ax) / dx;
+            xExit = (bx - (ax + aw)) / dx;
+        } else {
+            if (ax + aw <= bx || ax >= bx + bw) return -1f;
+            xEntry = Float.NEGATIVE_INFINITY;
+            xExit = Float.POSITIVE_INFINITY;
+        }
+        if (dy > 0f) {
+            yEntry = (by - (ay + ah)) / dy;
+            yExit = (by + bh - ay) / dy;
+        } else if (dy < 0f) {
+            yEntry = (by + bh - ay) / dy;
+            yExit = (by - (ay + ah)) / dy;
+        } else {
+            if (ay + ah <= by || ay >= by + bh) return -1f;
+            yEntry = Float.NEGATIVE_INFINITY;
+            yExit = Float.POSITIVE_INFINITY;
+        }
+
+        float entry = Math.max(xEntry, yEntry);
+        float exit = Math.min(xExit, yExit);
+        if (entry >= exit || entry > 1f || exit <= 0f) return -1f;
+        if (entry < 0f) {
+            sweepAxis = -1;
+            return 0f;
+        }
+        sweepAxis = xEntry >= yEntry ? 0 : 1;
+        return entry;
+    }
+
+    private static boolean overlaps(float ax, float ay, float aw, float ah, float bx, float by, float bw, float bh) {
+        return ax < bx + bw && ax + aw > bx && ay < by + bh && ay + ah > by;
+    }
+}
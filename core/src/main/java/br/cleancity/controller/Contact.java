@@ -0,0 +1,30 @@
+package br.cleancity.controller;
+
+/**
+ * Contato entre um collider que consulta o mundo (`a`) e outro (`b`) num passo do {@link CollisionWorld}.
+ * Os objetos são reutilizados pelo mundo: não guarde a referência depois do callback.
+ */
+public final class Contact {
+    /** O contato começou neste passo. */
+    public static final int BEGIN = 0;
+    /** O contato já existia no passo anterior. */
+    public static final int STAY = 1;
+    /** O contato do passo anterior terminou (ou `b` saiu do mundo). */
+    public static final int END = 2;
+
+    public Collider a;
+    public Collider b;
+    public int phase;
+    /** Instante do primeiro toque no passo, em [0,1] (0 se já começaram sobrepostos); -1 em {@link #END}. */
+    public float toi;
+    /** Face de `b` por onde `a` entrou: (±1, 0) ou (0, ±1); (0, 0) se já começaram sobrepostos. */
+    public int normalX, normalY;
+
+    void set(Collider a, Collider b, float toi, int normalX, int normalY) {
+        this.a = a;
+        this.b = b;
+        this.toi = toi;
+        this.normalX = normalX;
+        this.normalY = normalY;
+    }
+}
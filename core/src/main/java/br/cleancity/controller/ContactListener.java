@@ -0,0 +1,20 @@
+package br.cleancity.controller;
+
+/**
+ * Regras de jogo que consomem os contatos de um {@link CollisionWorld} (registradas por camada de `a`).
+ */
+public interface ContactListener {
+    /**
+     * Contato começou, continua ou terminou (ver {@link Contact#phase}). Pode remover colliders do mundo.
+     */
+    void onContact(Contact contact);
+
+    /**
+     * Chamado antes de resolver um contato sólido x sólido; devolver false deixa os dois se sobreporem
+     * (o contato continua gerando eventos). Os gatilhos alcançados antes dele já podem ser consultados
+     * com {@link CollisionWorld#reachedBefore(Contact, int)}.
+     */
+    default boolean preSolve(Contact solid) {
+        return true;
+    }
+}
@@ -0,0 +1,374 @@
+package br.cleancity.controller;
+
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.TrashStore;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Campo de fluxo compartilhado: grade sobre o mundo com a distância (em células, vizinhança 4) de cada célula
+ * até o lixo mais próximo. Qualquer quantidade de NPCs se orienta por ele em O(1) cada (ver {@link #direction}).
+ *
+ * - Cada lixo é uma fonte na célula do seu canto inferior esquerdo (o tamanho pode ser ajustado pelo render);
+ *   cada célula guarda a distância e a fonte mais próxima.
+ * - Remoção de lixo é incremental: só a região cuja fonte era a célula removida (a "célula de Voronoi" dela)
+ *   é invalidada e repreenchida a partir da borda, com uma fila por baldes de distância.
+ * - Inclusão (ex.: voltar no tempo) só propaga a partir da nova fonte, baixando distâncias.
+ * - Lixo empurrado pelo vento ({@link #move}) só troca de lista na hora; as fontes esvaziadas e as novas do passo
+ *   inteiro são aplicadas juntas em {@link #applyMoves()}: uma invalidação e um repreenchimento por passo, não um
+ *   por item que trocou de célula.
+ * - Também indexa os ids de lixo por célula, para que a coleta dos NPCs teste só as células tocadas.
+ * - Células cujo centro cai num obstáculo do mapa (`world.obstacles`) ficam bloqueadas: a distância contorna
+ *   os obstáculos em vez de atravessá-los.
+ *
+ * {@link #sync()} detecta as mudanças feitas fora daqui (coleta do jogador, voltar no tempo) comparando o
+ * tamanho de `world.trash`; a comparação completa só roda quando o tamanho muda.
+ */
+public class FlowField {
+    /** Lado de cada célula, em unidades de mundo. */
+    public static final float CELL_SIZE = 16f;
+    /** Distância das células sem nenhum lixo alcançável. */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int NONE = -1;
+
+    private final GameWorld world;
+    private final int cols;
+    private final int rows;
+    private final int[] dist;
+    private final int[] source;       // célula-fonte mais próxima (NONE quando inalcançável)
+    private final int[] trashInCell;  // quantos lixos têm o canto nesta célula
+    private final int[] cellHead;     // primeiro id de lixo da célula (lista encadeada por `trashNext`)
+    private final boolean[] blocked;  // centro dentro de um obstáculo (nunca recebe distância por vizinhos)
+    private int[] trashNext = new int[0];
+    private int[] trashPrev = new int[0];
+    private int[] trashCell = new int[0]; // célula do lixo, ou NONE se não está no campo
+
+    private final IntArray[] buckets;  // fila por distância (Dial): buckets[d] = células com distância d
+    private int highest;               // maior balde com entradas (o Dial para nele)
+    private final IntArray region = new IntArray();
+    // Células que ficaram sem lixo e células que ganharam o primeiro lixo, ainda não aplicadas (ver refill)
+    private final IntArray emptied = new IntArray();
+    private final IntArray seeded = new IntArray();
+    private final int[] removedMark;   // == markStamp: fonte esvaziada no refill corrente
+    private int markStamp;
+    private int trackedCount;
+    private int[] seen = new int[0];
+    private int stamp;
+
+    /** Cria o campo para o mundo e o preenche com o lixo atual. */
+    public FlowField(GameWorld world) {
+        this.world = world;
+        this.cols = Math.max(1, (int) Math.ceil(world.worldWidth / CELL_SIZE));
+        this.rows = Math.max(1, (int) Math.ceil(world.worldHeight / CELL_SIZE));
+        int cells = cols * rows;
+        this.dist = new int[cells];
+        this.source = new int[cells];
+        this.trashInCell = new int[cells];
+        this.cellHead = new int[cells];
+        this.blocked = new boolean[cells];
+        this.removedMark = new int[cells];
+        markBlocked();
+        // Maior distância possível: a de Manhattan na grade livre; contornando obstáculos, o número de células
+        // (baldes além da distância de Manhattan só são criados se um desvio chegar neles)
+        int maxDist = world.obstacles.isEmpty() ? cols + rows : cells;
+        this.buckets = new IntArray[maxDist + 1];
+        for (int i = 0; i <= Math.min(maxDist, cols + rows); i++) buckets[i] = new IntArray(false, 16);
+        rebuild();
+    }
+
+    /** Recalcula tudo a partir de `world.trash` (início da fase ou estado desconhecido). */
+    public void rebuild() {
+        ensureTrashCapacity(world.spawnedTrashCount());
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(source, NONE);
+        Arrays.fill(trashInCell, 0);
+        Arrays.fill(cellHead, NONE);
+        Arrays.fill(trashCell, NONE);
+        emptied.clear();
+        seeded.clear();
+        trackedCount = 0;
+        TrashStore trash = world.trash;
+        for (int i = 0; i < trash.size; i++) {
+            int cell = link(trash.id[i], trash.x[i], trash.y[i]);
+            if (dist[cell] != 0) {
+                dist[cell] = 0;
+                source[cell] = cell;
+                buckets[0].add(cell);
+            }
+        }
+        propagate(0);
+    }
+
+    /** Alinha o campo com `world.trash` depois de mudanças feitas por outros sistemas. */
+    public void sync() {
+        TrashStore trash = world.trash;
+        if (trash.size == trackedCount) return;
+        ensureTrashCapacity(world.spawnedTrashCount());
+        stamp++;
+        for (int i = 0; i < trash.size; i++) {
+            int id = trash.id[i];
+            seen[id] = stamp;
+            if (trashCell[id] == NONE) add(id, trash.x[i], trash.y[i]);
+        }
+        for (int id = 0; id < trashCell.length; id++) {
+            if (trashCell[id] != NONE && seen[id] != stamp) remove(id);
+        }
+    }
+
+    /** Inclui um lixo (canto inferior esquerdo em x, y) como fonte (aplica também os `move` pendentes). */
+    public void add(int id, float x, float y) {
+        if (trashCell[id] != NONE) return;
+        if (dist[link(id, x, y)] != 0) seeded.add(trashCell[id]);
+        refill();
+    }
+
+    /**
+     * Acompanha um lixo que se moveu (ver `TrashPhysics`). Dentro da mesma célula o campo não muda; se trocou de
+     * célula, troca de lista e anota as fontes afetadas, aplicadas no próximo {@link #applyMoves()} (ou na próxima
+     * inclusão/remoção). Até lá, as distâncias ainda são as de antes dos movimentos.
+     */
+    public void move(int id, float x, float y) {
+        int cell = trashCell[id];
+        if (cell == NONE || cell == clampRow(y) * cols + clampCol(x)) return;
+        unlink(id, cell);
+        if (trashInCell[cell] == 0) emptied.add(cell);
+        int to = link(id, x, y);
+        if (trashInCell[to] == 1 && dist[to] != 0) seeded.add(to);
+    }
+
+    /** Aplica de uma vez as trocas de célula anotadas por {@link #move} desde a última chamada. */
+    public void applyMoves() {
+        if (emptied.size > 0 || seeded.size > 0) refill();
+    }
+
+    /** True se o ponto do mundo cai numa célula bloqueada por obstáculo. */
+    public boolean blockedAt(float x, float y) {
+        return blocked[clampRow(y) * cols + clampCol(x)];
+    }
+
+    /**
+     * Remove um lixo (coletado); se era o último da célula, repreenche a região que dependia dela (aplica também
+     * os `move` pendentes).
+     */
+    public void remove(int id) {
+        int cell = trashCell[id];
+        if (cell == NONE) return;
+        unlink(id, cell);
+        if (trashInCell[cell] == 0) emptied.add(cell);
+        refill();
+    }
+
+    /**
+     * Direção (unitária) para descer o campo a partir de um ponto do mundo; zero se não há lixo alcançável.
+     * Usa o gradiente das células vizinhas; na célula de um lixo, aponta direto para o centro do lixo mais próximo.
+     */
+    public Vector2 direction(float x, float y, Vector2 out) {
+        int cx = clampCol(x), cy = clampRow(y);
+        int c = cy * cols + cx;
+        int d = dist[c];
+        if (d == UNREACHABLE) return out.setZero();
+        if (d == 0) {
+            // Já na célula de um lixo: vai ao centro do mais próximo dali
+            TrashStore spawned = world.spawnedTrash();
+            float best = Float.MAX_VALUE, tx = x, ty = y;
+            for (int id = cellHead[c]; id != NONE; id = trashNext[id]) {
+                float mx = spawned.x[id] + spawned.width[id] * 0.5f, my = spawned.y[id] + spawned.height[id] * 0.5f;
+                float dx = mx - x, dy = my - y;
+                if (dx * dx + dy * dy < best) {
+                    best = dx * dx + dy * dy;
+                    tx = mx;
+                    ty = my;
+                }
+            }
+            return out.set(tx - x, ty - y).nor();
+        }
+
+        int left = cx > 0 ? dist[c - 1] : d, right = cx < cols - 1 ? dist[c + 1] : d;
+        int down = cy > 0 ? dist[c - cols] : d, up = cy < rows - 1 ? dist[c + cols] : d;
+        // Vizinhos inalcançáveis não contam (só ocorrem na borda de regiões sem lixo)
+        if (left == UNREACHABLE) left = d;
+        if (right == UNREACHABLE) right = d;
+        if (down == UNREACHABLE) down = d;
+        if (up == UNREACHABLE) up = d;
+        out.set(left - right, down - up);
+        if (out.isZero()) {
+            // Ponto de sela (dois lixos à mesma distância em lados opostos): desce pelo menor vizinho
+            int best = Math.min(Math.min(left, right), Math.min(down, up));
+            if (best >= d) return out;
+            if (best == left) out.set(-1f, 0f);
+            else if (best == right) out.set(1f, 0f);
+            else if (best == down) out.set(0f, -1f);
+            else out.set(0f, 1f);
+            return out;
+        }
+        return out.nor();
+    }
+
+    /** Distância (em células) até o lixo mais próximo a partir de um ponto do mundo. */
+    public int distanceAt(float x, float y) {
+        return dist[clampRow(y) * cols + clampCol(x)];
+    }
+
+    /** Índice da coluna da grade para uma coordenada x do mundo (limitado à grade). */
+    public int clampCol(float x) {
+        return Math.max(0, Math.min(cols - 1, (int) (x / CELL_SIZE)));
+    }
+
+    /** Índice da linha da grade para uma coordenada y do mundo (limitado à grade). */
+    public int clampRow(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) (y / CELL_SIZE)));
+    }
+
+    /** Colunas da grade. */
+    public int cols() {
+        return cols;
+    }
+
+    // ---- interno ----
+
+    private int link(int id, float x, float y) {
+        int cell = clampRow(y) * cols + clampCol(x);
+        trashCell[id] = cell;
+        trashPrev[id] = NONE;
+        trashNext[id] = cellHead[cell];
+        if (cellHead[cell] != NONE) trashPrev[cellHead[cell]] = id;
+        cellHead[cell] = id;
+        trashInCell[cell]++;
+        trackedCount++;
+        return cell;
+    }
+
+    private void unlink(int id, int cell) {
+        if (trashPrev[id] != NONE) trashNext[trashPrev[id]] = trashNext[id];
+        else cellHead[cell] = trashNext[id];
+        if (trashNext[id] != NONE) trashPrev[trashNext[id]] = trashPrev[id];
+        trashCell[id] = NONE;
+        trashInCell[cell]--;
+        trackedCount--;
+    }
+
+    // Bloqueia as células cujo centro cai dentro de algum obstáculo
+    private void markBlocked() {
+        Rectangle r = new Rectangle();
+        for (int i = 0; i < world.obstacles.size(); i++) {
+            world.obstacles.bounds(i, r);
+            int c0 = Math.max(0, (int) Math.ceil(r.x / CELL_SIZE - 0.5f));
+            int c1 = Math.min(cols - 1, (int) Math.ceil((r.x + r.width) / CELL_SIZE - 0.5f) - 1);
+            int r0 = Math.max(0, (int) Math.ceil(r.y / CELL_SIZE - 0.5f));
+            int r1 = Math.min(rows - 1, (int) Math.ceil((r.y + r.height) / CELL_SIZE - 0.5f) - 1);
+            for (int y = r0; y <= r1; y++) {
+                for (int x = c0; x <= c1; x++) blocked[y * cols + x] = true;
+            }
+        }
+    }
+
+    /**
+     * Aplica as fontes pendentes: invalida juntas as regiões de todas as fontes esvaziadas (cada uma é conexa:
+     * cada célula herdou a fonte de um vizinho), acende as novas fontes e repreenche tudo numa única propagação,
+     * a partir das novas fontes e da borda válida das regiões.
+     */
+    private void refill() {
+        markStamp++;
+        region.clear();
+        for (int i = 0; i < emptied.size; i++) {
+            int cell = emptied.get(i);
+            // Voltou a ter lixo no mesmo passo, ou já invalidada: continua fonte como estava
+            if (trashInCell[cell] > 0 || source[cell] != cell) continue;
+            removedMark[cell] = markStamp;
+            dist[cell] = UNREACHABLE;
+            source[cell] = NONE;
+            region.add(cell);
+        }
+        emptied.clear();
+        for (int i = 0; i < region.size; i++) {
+            int c = region.get(i);
+            int x = c % cols, y = c / cols;
+            if (x > 0) invalidate(c - 1);
+            if (x < cols - 1) invalidate(c + 1);
+            if (y > 0) invalidate(c - cols);
+            if (y < rows - 1) invalidate(c + cols);
+        }
+
+        // Repreenche a partir das células vizinhas que continuam válidas e das novas fontes
+        int lowest = Integer.MAX_VALUE;
+        for (int i = 0; i < region.size; i++) {
+            int c = region.get(i);
+            int x = c % cols, y = c / cols;
+            if (x > 0) lowest = Math.min(lowest, seedBorder(c - 1));
+            if (x < cols - 1) lowest = Math.min(lowest, seedBorder(c + 1));
+            if (y > 0) lowest = Math.min(lowest, seedBorder(c - cols));
+            if (y < rows - 1) lowest = Math.min(lowest, seedBorder(c + cols));
+        }
+        for (int i = 0; i < seeded.size; i++) {
+            int cell = seeded.get(i);
+            if (trashInCell[cell] == 0 || dist[cell] == 0) continue;
+            dist[cell] = 0;
+            source[cell] = cell;
+            buckets[0].add(cell);
+            lowest = 0;
+        }
+        seeded.clear();
+        if (lowest != Integer.MAX_VALUE) propagate(lowest);
+    }
+
+    // Invalida a célula se a fonte dela foi esvaziada neste refill
+    private void invalidate(int c) {
+        int src = source[c];
+        if (src == NONE || removedMark[src] != markStamp) return;
+        dist[c] = UNREACHABLE;
+        source[c] = NONE;
+        region.add(c);
+    }
+
+    // Enfileira uma célula válida da borda da região invalidada; devolve a distância dela
+    private int seedBorder(int c) {
+        if (source[c] == NONE) return Integer.MAX_VALUE;
+        buckets[dist[c]].add(c);
+        highest = Math.max(highest, dist[c]);
+        return dist[c];
+    }
+
+    // Dial: processa os baldes em ordem crescente; arestas de custo 1 só empurram para o balde seguinte
+    private void propagate(int from) {
+        for (int d = from; d <= highest && d < buckets.length - 1; d++) {
+            IntArray bucket = buckets[d];
+            if (bucket.size == 0) continue;
+            if (buckets[d + 1] == null) buckets[d + 1] = new IntArray(false, 16);
+            IntArray nextBucket = buckets[d + 1];
+            for (int i = 0; i < bucket.size; i++) {
+                int c = bucket.get(i);
+                if (dist[c] != d) continue; // entrada obsoleta
+                int x = c % cols, y = c / cols;
+                if (x > 0) relax(c - 1, d + 1, source[c], nextBucket);
+                if (x < cols - 1) relax(c + 1, d + 1, source[c], nextBucket);
+                if (y > 0) relax(c - cols, d + 1, source[c], nextBucket);
+                if (y < rows - 1) relax(c + cols, d + 1, source[c], nextBucket);
+            }
+            bucket.clear();
+        }
+        if (highest == buckets.length - 1) buckets[highest].clear();
+        highest = 0;
+    }
+
+    private void relax(int c, int d, int src, IntArray bucket) {
+        if (d >= dist[c] || blocked[c]) return;
+        dist[c] = d;
+        source[c] = src;
+        bucket.add(c);
+        highest = Math.max(highest, d);
+    }
+
+    private void ensureTrashCapacity(int n) {
+        if (trashCell.length >= n) return;
+        int old = trashCell.length;
+        trashCell = Arrays.copyOf(trashCell, n);
+        trashNext = Arrays.copyOf(trashNext, n);
+        trashPrev = Arrays.copyOf(trashPrev, n);
+        seen = Arrays.copyOf(seen, n);
+        Arrays.fill(trashCell, old, n, NONE);
+    }
+}
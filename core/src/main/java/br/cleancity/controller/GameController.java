@@ -3,6 +3,8 @@ package br.cleancity.controller;
 import br.cleancity.model.GameWorld;
 import br.cleancity.model.Player;
 import br.cleancity.model.Truck;
+import br.cleancity.telemetry.Telemetry;
+import br.cleancity.telemetry.TelemetryEvent;
 import com.badlogic.gdx.math.Vector2;
 
 /**
@@ -11,52 +13,98 @@ import com.badlogic.gdx.math.Vector2;
  * - Move o caminhão sempre para a direita; se sair da tela, ativa game over.
  * - Não atualiza o jogador quando o jogo acaba.
  * - Quando ativo, aplica entrada ao jogador, registra a última direção para render e faz clamping aos limites do mundo.
+ * - O jogador não entra nos obstáculos do mapa (`world.obstacles`): o movimento é limitado um eixo por vez, e ele
+ *   desliza pelas paredes. O caminhão não consulta os obstáculos: ele segue a faixa da rua, que os mapas deixam livre.
+ * - O fim de fase por tempo ou pela saída do caminhão é registrado na telemetria (ver `setTelemetry`).
+ * - `input` pode ser null quando a entrada vem de fora (servidor co-op), que usa apenas `updateWorld`/`movePlayer`.
  */
 public class GameController {
     private final GameWorld world;
     private final InputController input;
+    private Telemetry telemetry = Telemetry.NONE;
 
     private final Vector2 move = new Vector2();
+    private final Vector2 dir = new Vector2();
 
     public GameController(GameWorld world, InputController input) {
         this.world = world;
         this.input = input;
     }
 
+    /** Define onde registrar os eventos de jogo (padrão: desligado). */
+    public void setTelemetry(Telemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
     /**
      * Atualiza o estado do jogo para o frame atual, na ordem:
      * 1) Atualiza timer (se não estiver em game over).
      * 2) Move o caminhão e checa se saiu da tela (encerra o jogo).
      * 3) Se o jogo acabou, retorna.
-     * 4) Aplica entrada ao jogador, registra direção e faz clamping aos limites do mundo.
+     * 4) Aplica entrada ao jogador, registra direção e faz clamping aos limites do mundo. A entrada vem em
+     *    segmentos com o tempo exato de cada tecla dentro do frame (ver `InputController.beginTick`).
      * @param delta tempo em segundos desde o último frame
      */
     public void update(float delta) {
+        // Consome os eventos de entrada do frame mesmo após game over, para o estado das teclas seguir correto
+        int segments = input.beginTick(delta);
+        updateWorld(delta);
+
+        // Não atualiza o jogador após game over
+        if (world.gameOver) return;
+
+        for (int i = 0; i < segments; i++) {
+            movePlayer(world.player, input.segmentDirection(i, dir), input.segmentDuration(i));
+        }
+    }
+
+    /**
+     * Avança o relógio da fase e o caminhão (passos 1 e 2 de {@link #update(float)}).
+     * Separado para que o servidor co-op avance o mundo sem uma entrada local.
+     * @param delta tempo em segundos desde o último passo
+     */
+    public void updateWorld(float delta) {
+        // Marca o início do passo: a colisão contínua varre do ponto de partida até a posição final
+        Truck t = world.truck;
+        t.prevX = t.x;
+        world.player.prevX = world.player.x;
+        world.player.prevY = world.player.y;
+        if (world.partner != null) {
+            world.partner.prevX = world.partner.x;
+            world.partner.prevY = world.partner.y;
+        }
+
         // Timer e condição de derrota por tempo
         if (!world.gameOver) {
             world.timeLeft -= delta;
             if (world.timeLeft <= 0f) {
                 world.timeLeft = 0f;
                 world.gameOver = true;
+                telemetry.emit(TelemetryEvent.LEVEL_END, TelemetryEvent.END_TIME, world.score.value);
             }
         }
 
         // Move o caminhão apenas para a direita; sem quicar. Continua mesmo após game over.
-        Truck t = world.truck;
         t.x += Math.abs(t.speed) * delta;
         // Quando o caminhão sai da tela à direita, o jogo termina
         if (t.x > world.worldWidth) {
+            if (!world.gameOver) telemetry.emit(TelemetryEvent.LEVEL_END, TelemetryEvent.END_TRUCK_GONE, world.score.value);
             world.gameOver = true;
         }
+    }
 
-        // Não atualiza o jogador após game over
-        if (world.gameOver) return;
-
-        Player p = world.player;
-        Vector2 dir = input.getDirection();
+    /**
+     * Aplica uma direção a um jogador (parando nos obstáculos), registra a direção para render e faz clamping
+     * aos limites do mundo.
+     * É a mesma regra usada pelo servidor co-op e pela predição local do cliente.
+     * @param p jogador a mover
+     * @param dir direção normalizada (ver {@link InputController#toDirection(int, Vector2)})
+     * @param delta tempo em segundos
+     */
+    public void movePlayer(Player p, Vector2 dir, float delta) {
         move.set(dir).scl(p.speed * delta);
-        p.x += move.x;
-        p.y += move.y;
+        p.x += world.obstacles.clipX(p.x, p.y, p.width, p.height, move.x);
+        p.y += world.obstacles.clipY(p.x, p.y, p.width, p.height, move.y);
         // Guarda a última direção não-nula para renderização direcional
         if (dir.len2() > 0f) {
             p.faceX = dir.x;
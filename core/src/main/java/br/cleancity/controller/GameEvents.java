@@ -0,0 +1,66 @@
+package br.cleancity.controller;
+
+import br.cleancity.telemetry.SpscRing;
+
+/**
+ * Fila de eventos de jogo da simulação para a thread de render (áudio e mensagens do HUD).
+ *
+ * - Um produtor (a thread da simulação) e um consumidor (a thread de render/GL): um {@link SpscRing} com uma
+ *   coluna de `int` pré-alocada; nem `post` nem `poll` bloqueiam ou alocam.
+ * - Com a fila cheia (render parado), o evento é descartado e contado: são só efeitos (som, avisos) e a
+ *   simulação nunca espera pelo render.
+ */
+public class GameEvents {
+    /** Lixo coletado pelo jogador. */
+    public static final int TRASH_COLLECTED = 1;
+    /** Lixo entregue no caminhão. */
+    public static final int DELIVERY = 2;
+    /** Jogador atropelado pela frente do caminhão. */
+    public static final int DEATH = 3;
+    /** Rua limpa com pontuação suficiente (vitória). */
+    public static final int LEVEL_WON = 4;
+    /** Rua limpa, mas os rivais recolheram mais (derrota). */
+    public static final int LEVEL_OUTSCORED = 5;
+    /** Fase carregada (início, reinício ou próxima fase). */
+    public static final int LEVEL_LOADED = 6;
+    /** Voltar no tempo retomou uma fase que tinha acabado. */
+    public static final int LEVEL_RESUMED = 7;
+    /** Pedido de próxima fase com lixo ainda na rua (aviso no HUD). */
+    public static final int COLLECT_ALL_FIRST = 8;
+    /** Última fase concluída; o jogo volta à primeira (aviso no HUD). */
+    public static final int ALL_LEVELS_COMPLETED = 9;
+
+    /** Valor de {@link #poll()} quando a fila está vazia. */
+    public static final int NONE = 0;
+
+    private final SpscRing ring;
+    private final int[] events;
+
+    /** @param capacity eventos na fila (arredondado para potência de 2) */
+    public GameEvents(int capacity) {
+        this.ring = new SpscRing(capacity);
+        this.events = new int[ring.capacity()];
+    }
+
+    /** Enfileira um evento (só da thread da simulação). */
+    public void post(int event) {
+        int i = ring.claim();
+        if (i < 0) return;
+        events[i] = event;
+        ring.publish();
+    }
+
+    /** Próximo evento, ou {@link #NONE} se a fila está vazia (só da thread de render). */
+    public int poll() {
+        int i = ring.peek();
+        if (i < 0) return NONE;
+        int event = events[i];
+        ring.release();
+        return event;
+    }
+
+    /** Eventos descartados por fila cheia. */
+    public long droppedCount() {
+        return ring.droppedCount();
+    }
+}
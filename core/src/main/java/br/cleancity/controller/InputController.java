@@ -2,32 +2,414 @@ package br.cleancity.controller;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.controllers.Controller;
+import com.badlogic.gdx.controllers.ControllerListener;
+import com.badlogic.gdx.controllers.ControllerMapping;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.TimeUtils;
 
 /**
- * Lê o teclado e converte em uma direção normalizada para movimentação do jogador.
+ * Converte teclado e gamepad em direção de movimento do jogador, a partir de eventos com timestamp.
  *
  * Mapeamento:
- * - Setas ou WASD em X/Y (LEFT/RIGHT, A/D, DOWN/UP, S/W).
+ * - Setas ou WASD em X/Y (LEFT/RIGHT, A/D, DOWN/UP, S/W); no gamepad, d-pad ou analógico esquerdo.
+ * - Gamepad: Start reinicia a fase e A avança (equivalentes a R e N).
  * - Quando ambas as direções são pressionadas (diagonal), normaliza com `Vector2.nor()`
  *   para manter a mesma velocidade efetiva em qualquer direção.
  *
- * Implementação via polling de `Gdx.input`(fica checando constantemente o input).
+ * Implementação por eventos (`InputProcessor` + `ControllerListener`) em vez de polling:
+ * - Cada pressionar/soltar entra numa fila ordenada pelo instante em que o backend o entregou.
+ * - A cada tick, {@link #beginTick(float)} divide o intervalo do tick em segmentos de estado constante,
+ *   com a duração exata de cada tecla pressionada dentro do tick; o `GameController` move o jogador
+ *   segmento a segmento. Toques curtos entre frames não se perdem: uma tecla solta continua valendo até
+ *   {@link #MIN_TAP_NANOS} após ter sido pressionada.
+ * - Mede a latência entrada → simulação e entrada → frame (ver {@link InputLatencyStats}).
+ *
+ * Os eventos chegam na thread de render (GL) e os ticks podem rodar em outra (ver `Simulation`): a fila e
+ * as medidas de latência são protegidas pelo monitor deste objeto (seções curtas, sem alocação).
  */
-public class InputController {
+public class InputController extends InputAdapter implements ControllerListener {
+    /** Bits de direção, usados também para enviar a entrada pela rede no modo co-op. */
+    public static final int LEFT = 1, RIGHT = 2, DOWN = 4, UP = 8;
+
+    /** Duração mínima de um toque (pressionar e soltar no mesmo frame ainda move o jogador). */
+    public static final long MIN_TAP_NANOS = 16_000_000L;
+
+    // Fontes de entrada: cada tecla, cada direção do d-pad e do analógico tem um bit próprio
+    private static final int K_LEFT = 1, K_A = 1 << 1, K_RIGHT = 1 << 2, K_D = 1 << 3,
+        K_DOWN = 1 << 4, K_S = 1 << 5, K_UP = 1 << 6, K_W = 1 << 7,
+        PAD_LEFT = 1 << 8, PAD_RIGHT = 1 << 9, PAD_DOWN = 1 << 10, PAD_UP = 1 << 11,
+        STICK_LEFT = 1 << 12, STICK_RIGHT = 1 << 13, STICK_DOWN = 1 << 14, STICK_UP = 1 << 15;
+    private static final int SOURCES = 16;
+    private static final int SRC_LEFT = K_LEFT | K_A | PAD_LEFT | STICK_LEFT;
+    private static final int SRC_RIGHT = K_RIGHT | K_D | PAD_RIGHT | STICK_RIGHT;
+    private static final int SRC_DOWN = K_DOWN | K_S | PAD_DOWN | STICK_DOWN;
+    private static final int SRC_UP = K_UP | K_W | PAD_UP | STICK_UP;
+
+    private static final float STICK_DEADZONE = 0.35f;
+    private static final int QUEUE = 256;
+
     private final Vector2 dir = new Vector2();
 
+    // Fila de eventos ordenada por tempo (arrays paralelos, sem alocação)
+    private final long[] eventTime = new long[QUEUE];
+    private final int[] eventSource = new int[QUEUE];
+    private final boolean[] eventDown = new boolean[QUEUE];
+    private int eventCount;
+    private final long[] pressTime = new long[SOURCES];
+
+    /** Fontes pressionadas após o último evento já aplicado pela simulação. */
+    private int heldSources;
+    /** Fontes pressionadas considerando também eventos ainda não aplicados. */
+    private int latestSources;
+    private long lastTickNanos = -1;
+
+    // Segmentos do último tick
+    private final int[] segmentBits = new int[QUEUE + 1];
+    private final float[] segmentDuration = new float[QUEUE + 1];
+    private int segmentCount;
+
+    // Latência entrada → frame: eventos já aplicados (instante do evento e do tick que o aplicou), em ordem; os
+    // `shownCount` primeiros estão no frame desenhado por último e são medidos no início do próximo
+    private final InputLatencyStats latency = new InputLatencyStats();
+    private final long[] appliedTimes = new long[QUEUE];
+    private final long[] appliedTick = new long[QUEUE];
+    private int appliedCount;
+    private int shownCount;
+
+    private boolean restartRequested;
+    private boolean nextRequested;
+    private boolean pauseRequested;
+    private float scrollSteps;
+
     /**
      * Retorna um vetor direção (x,y) com valores em {-1,0,1}, normalizado quando diagonal.
-     * Usa setas e WASD.
+     * Considera o estado atual das teclas/gamepad.
      */
     public Vector2 getDirection() {
-        dir.set(0f, 0f);
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A)) dir.x -= 1f;
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D)) dir.x += 1f;
-        if (Gdx.input.isKeyPressed(Input.Keys.DOWN) || Gdx.input.isKeyPressed(Input.Keys.S)) dir.y -= 1f;
-        if (Gdx.input.isKeyPressed(Input.Keys.UP) || Gdx.input.isKeyPressed(Input.Keys.W)) dir.y += 1f;
-        if (dir.len2() > 1f) dir.nor();
-        return dir;
+        return toDirection(getDirectionBits(), dir);
+    }
+
+    /** Combinação de bits `LEFT|RIGHT|DOWN|UP` pressionados agora. */
+    public int getDirectionBits() {
+        return directionBits(latestSources);
+    }
+
+    /**
+     * Fecha o tick atual: aplica, em ordem, os eventos ocorridos desde o tick anterior e divide o intervalo
+     * em segmentos de direção constante, cujas durações somam `delta`.
+     * @param delta duração do tick em segundos
+     * @return quantidade de segmentos (ver {@link #segmentDirection(int, Vector2)} e {@link #segmentDuration(int)})
+     */
+    public synchronized int beginTick(float delta) {
+        long now = TimeUtils.nanoTime();
+        long start = lastTickNanos < 0 ? now - (long) (delta * 1e9f) : lastTickNanos;
+        lastTickNanos = now;
+
+        segmentCount = 0;
+        long segStart = start;
+        int consumed = 0;
+        while (consumed < eventCount && eventTime[consumed] <= now) {
+            long t = Math.max(eventTime[consumed], start);
+            addSegment(directionBits(heldSources), t - segStart);
+            segStart = t;
+            int src = eventSource[consumed];
+            if (eventDown[consumed]) heldSources |= src; else heldSources &= ~src;
+            latency.recordSimulation(now - eventTime[consumed]);
+            addApplied(eventTime[consumed], now);
+            consumed++;
+        }
+        addSegment(directionBits(heldSources), now - segStart);
+        System.arraycopy(eventTime, consumed, eventTime, 0, eventCount - consumed);
+        System.arraycopy(eventSource, consumed, eventSource, 0, eventCount - consumed);
+        System.arraycopy(eventDown, consumed, eventDown, 0, eventCount - consumed);
+        eventCount -= consumed;
+
+        // Converte as durações reais (ns) para o tempo de simulação do tick
+        long total = now - start;
+        if (total <= 0 || segmentCount == 0) {
+            segmentBits[0] = directionBits(heldSources);
+            segmentDuration[0] = delta;
+            segmentCount = 1;
+        } else {
+            for (int i = 0; i < segmentCount; i++) segmentDuration[i] = delta * (segmentDuration[i] / total);
+        }
+        return segmentCount;
+    }
+
+    /** Instante (`TimeUtils.nanoTime`) do último {@link #beginTick(float)}, ou -1 antes do primeiro. */
+    public synchronized long lastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * Chamado pela thread de render a cada frame, com o tick que ele desenha: fecha a medida entrada → frame dos
+     * eventos mostrados no frame anterior (já apresentado, depois do `swapBuffers`) e marca os que este mostra.
+     * @param tickNanos {@link #lastTickNanos()} do tick desenhado (ex.: `WorldSnapshot.inputNanos`)
+     */
+    public synchronized void frameDrawn(long tickNanos) {
+        long now = TimeUtils.nanoTime();
+        for (int i = 0; i < shownCount; i++) latency.recordFrame(now - appliedTimes[i]);
+        System.arraycopy(appliedTimes, shownCount, appliedTimes, 0, appliedCount - shownCount);
+        System.arraycopy(appliedTick, shownCount, appliedTick, 0, appliedCount - shownCount);
+        appliedCount -= shownCount;
+        shownCount = 0;
+        while (shownCount < appliedCount && appliedTick[shownCount] <= tickNanos) shownCount++;
+    }
+
+    /** Direção do segmento `i` do último tick. */
+    public Vector2 segmentDirection(int i, Vector2 out) {
+        return toDirection(segmentBits[i], out);
+    }
+
+    /** Duração (segundos de simulação) do segmento `i` do último tick. */
+    public float segmentDuration(int i) {
+        return segmentDuration[i];
+    }
+
+    /** Resumo da latência de entrada desde a última chamada (e zera as medidas), ou null se não houve eventos. */
+    public synchronized String drainLatencyReport() {
+        if (latency.count() == 0) return null;
+        String summary = latency.summary();
+        latency.reset();
+        return summary;
+    }
+
+    /** Zera as medidas de latência. */
+    public synchronized void resetLatency() {
+        latency.reset();
+    }
+
+    /** True uma vez após o botão de reiniciar do gamepad ser pressionado. */
+    public boolean consumeRestart() {
+        boolean r = restartRequested;
+        restartRequested = false;
+        return r;
+    }
+
+    /** True uma vez após o botão de avançar fase do gamepad ser pressionado. */
+    public boolean consumeNext() {
+        boolean r = nextRequested;
+        nextRequested = false;
+        return r;
+    }
+
+    /** True uma vez após o botão de pausa (Back/Select) do gamepad ser pressionado. */
+    public boolean consumePause() {
+        boolean r = pauseRequested;
+        pauseRequested = false;
+        return r;
+    }
+
+    /** Passos da roda do mouse desde a última chamada (positivo = rolar para baixo, afastar). */
+    public float consumeScroll() {
+        float r = scrollSteps;
+        scrollSteps = 0f;
+        return r;
+    }
+
+    // Com render sob demanda (pausa, tela de fim de fase), uma entrada pede um frame novo. O backend já faz
+    // isso para teclado; os eventos de gamepad não.
+    private static void requestFrame() {
+        if (Gdx.graphics != null) Gdx.graphics.requestRendering();
+    }
+
+    // Sem frames desenhados (ex.: outra tela), descarta o evento aplicado mais antigo
+    private void addApplied(long time, long tickNanos) {
+        if (appliedCount == QUEUE) {
+            System.arraycopy(appliedTimes, 1, appliedTimes, 0, QUEUE - 1);
+            System.arraycopy(appliedTick, 1, appliedTick, 0, QUEUE - 1);
+            appliedCount--;
+            if (shownCount > 0) shownCount--;
+        }
+        appliedTimes[appliedCount] = time;
+        appliedTick[appliedCount] = tickNanos;
+        appliedCount++;
+    }
+
+    // Guarda a duração em nanossegundos (convertida no fim de beginTick); junta segmentos iguais
+    private void addSegment(int bits, long nanos) {
+        if (nanos <= 0) return;
+        if (segmentCount > 0 && segmentBits[segmentCount - 1] == bits) {
+            segmentDuration[segmentCount - 1] += nanos;
+            return;
+        }
+        segmentBits[segmentCount] = bits;
+        segmentDuration[segmentCount] = nanos;
+        segmentCount++;
+    }
+
+    private static int directionBits(int sources) {
+        int bits = 0;
+        if ((sources & SRC_LEFT) != 0) bits |= LEFT;
+        if ((sources & SRC_RIGHT) != 0) bits |= RIGHT;
+        if ((sources & SRC_DOWN) != 0) bits |= DOWN;
+        if ((sources & SRC_UP) != 0) bits |= UP;
+        return bits;
+    }
+
+    /**
+     * Enfileira uma mudança de estado mantendo a ordem por tempo. Soltar antes de {@link #MIN_TAP_NANOS}
+     * é adiado para que o toque tenha efeito.
+     */
+    private synchronized void push(int source, boolean down, long time) {
+        int idx = Integer.numberOfTrailingZeros(source);
+        if (down) {
+            if ((latestSources & source) != 0) return; // repetição
+            pressTime[idx] = time;
+            latestSources |= source;
+        } else {
+            if ((latestSources & source) == 0) return;
+            time = Math.max(time, pressTime[idx] + MIN_TAP_NANOS);
+            latestSources &= ~source;
+        }
+
+        if (eventCount == QUEUE) {
+            // Fila cheia (simulação parada): aplica o evento mais antigo direto no estado
+            if (eventDown[0]) heldSources |= eventSource[0]; else heldSources &= ~eventSource[0];
+            System.arraycopy(eventTime, 1, eventTime, 0, QUEUE - 1);
+            System.arraycopy(eventSource, 1, eventSource, 0, QUEUE - 1);
+            System.arraycopy(eventDown, 1, eventDown, 0, QUEUE - 1);
+            eventCount--;
+        }
+        int i = eventCount++;
+        while (i > 0 && eventTime[i - 1] > time) {
+            eventTime[i] = eventTime[i - 1];
+            eventSource[i] = eventSource[i - 1];
+            eventDown[i] = eventDown[i - 1];
+            i--;
+        }
+        eventTime[i] = time;
+        eventSource[i] = source;
+        eventDown[i] = down;
+    }
+
+    // Instante em que o backend recebeu o evento (cai para o relógio atual se indisponível)
+    private static long eventNanos() {
+        long t = Gdx.input != null ? Gdx.input.getCurrentEventTime() : 0L;
+        return t > 0 ? t : TimeUtils.nanoTime();
+    }
+
+    private static int keySource(int keycode) {
+        switch (keycode) {
+            case Input.Keys.LEFT: return K_LEFT;
+            case Input.Keys.A: return K_A;
+            case Input.Keys.RIGHT: return K_RIGHT;
+            case Input.Keys.D: return K_D;
+            case Input.Keys.DOWN: return K_DOWN;
+            case Input.Keys.S: return K_S;
+            case Input.Keys.UP: return K_UP;
+            case Input.Keys.W: return K_W;
+            default: return 0;
+        }
+    }
+
+    @Override
+    public boolean keyDown(int keycode) {
+        int src = keySource(keycode);
+        if (src != 0) push(src, true, eventNanos());
+        requestFrame();
+        return false;
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        int src = keySource(keycode);
+        if (src != 0) push(src, false, eventNanos());
+        return false;
+    }
+
+    @Override
+    public boolean scrolled(float amountX, float amountY) {
+        scrollSteps += amountY;
+        requestFrame();
+        return false;
+    }
+
+    /**
+     * Se a janela perde o foco com teclas pressionadas, o backend não entrega os `keyUp`:
+     * solta tudo para o jogador não ficar andando sozinho.
+     */
+    public synchronized void releaseAll() {
+        long now = TimeUtils.nanoTime();
+        for (int i = 0; i < SOURCES; i++) {
+            int src = 1 << i;
+            if ((latestSources & src) != 0) push(src, false, now);
+        }
+    }
+
+    // Gamepad
+
+    @Override
+    public void connected(Controller controller) {
+    }
+
+    @Override
+    public void disconnected(Controller controller) {
+        releaseAll();
+    }
+
+    @Override
+    public boolean buttonDown(Controller controller, int buttonCode) {
+        ControllerMapping m = controller.getMapping();
+        int src = padSource(m, buttonCode);
+        if (src != 0) push(src, true, TimeUtils.nanoTime());
+        if (buttonCode == m.buttonStart) restartRequested = true;
+        if (buttonCode == m.buttonA) nextRequested = true;
+        if (buttonCode == m.buttonBack) pauseRequested = true;
+        requestFrame();
+        return false;
+    }
+
+    @Override
+    public boolean buttonUp(Controller controller, int buttonCode) {
+        int src = padSource(controller.getMapping(), buttonCode);
+        if (src != 0) push(src, false, TimeUtils.nanoTime());
+        return false;
+    }
+
+    @Override
+    public boolean axisMoved(Controller controller, int axisCode, float value) {
+        ControllerMapping m = controller.getMapping();
+        long now = TimeUtils.nanoTime();
+        if (axisCode == m.axisLeftX) {
+            stick(STICK_LEFT, value < -STICK_DEADZONE, now);
+            stick(STICK_RIGHT, value > STICK_DEADZONE, now);
+        } else if (axisCode == m.axisLeftY) {
+            // Eixo Y do analógico cresce para baixo
+            stick(STICK_UP, value < -STICK_DEADZONE, now);
+            stick(STICK_DOWN, value > STICK_DEADZONE, now);
+        }
+        return false;
+    }
+
+    private void stick(int source, boolean active, long time) {
+        if (active == ((latestSources & source) != 0)) return;
+        push(source, active, time);
+        requestFrame(); // só mudanças de estado (o ruído do analógico não acorda o render)
+    }
+
+    private static int padSource(ControllerMapping m, int buttonCode) {
+        if (buttonCode == m.buttonDpadLeft) return PAD_LEFT;
+        if (buttonCode == m.buttonDpadRight) return PAD_RIGHT;
+        if (buttonCode == m.buttonDpadDown) return PAD_DOWN;
+        if (buttonCode == m.buttonDpadUp) return PAD_UP;
+        return 0;
+    }
+
+    /**
+     * Converte bits de direção no vetor de movimento (mesma regra para jogo local, servidor e predição).
+     * @param bits combinação de `LEFT|RIGHT|DOWN|UP`
+     * @param out vetor de saída (reutilizado para não alocar)
+     */
+    public static Vector2 toDirection(int bits, Vector2 out) {
+        out.set(0f, 0f);
+        if ((bits & LEFT) != 0) out.x -= 1f;
+        if ((bits & RIGHT) != 0) out.x += 1f;
+        if ((bits & DOWN) != 0) out.y -= 1f;
+        if ((bits & UP) != 0) out.y += 1f;
+        if (out.len2() > 1f) out.nor();
+        return out;
     }
 }
@@ -0,0 +1,83 @@
+package br.cleancity.controller;
+
+import java.util.Arrays;
+
+/**
+ * Acumula latências de entrada num histograma fixo (sem alocar por amostra).
+ *
+ * Duas medidas, ambas a partir do instante em que o backend entregou o evento:
+ * - entrada → simulação: até o tick que aplicou o evento;
+ * - entrada → frame: até o início do frame seguinte, ou seja, depois do `swapBuffers` do frame que já
+ *   mostra o efeito. É a medida que muda com vsync e limite de FPS. Com a simulação em thread própria
+ *   (`Simulation`), é medida na thread de render: cada cópia publicada leva o instante do tick que a gerou,
+ *   e os eventos aplicados até ele contam como mostrados no frame que a desenha (`InputController.frameDrawn`).
+ */
+public class InputLatencyStats {
+    private static final long BUCKET_NANOS = 250_000L; // 0,25 ms
+    private static final int BUCKETS = 800;            // até 200 ms (o último balde acumula o excedente)
+
+    private final Histogram simulation = new Histogram();
+    private final Histogram frame = new Histogram();
+
+    void recordSimulation(long nanos) {
+        simulation.add(nanos);
+    }
+
+    void recordFrame(long nanos) {
+        frame.add(nanos);
+    }
+
+    /** Quantidade de eventos medidos desde o último `reset()` (a medida de frame chega depois da de simulação). */
+    public int count() {
+        return Math.max(simulation.count, frame.count);
+    }
+
+    /** Zera as duas medidas (ex.: a cada janela de relatório). */
+    public void reset() {
+        simulation.reset();
+        frame.reset();
+    }
+
+    /** Resumo legível: média, p50, p99 e máximo em milissegundos para as duas medidas. */
+    public String summary() {
+        return "entrada→simulação " + simulation.describe() + " | entrada→frame " + frame.describe();
+    }
+
+    private static final class Histogram {
+        final int[] buckets = new int[BUCKETS];
+        int count;
+        long total;
+        long max;
+
+        void add(long nanos) {
+            if (nanos < 0) nanos = 0;
+            buckets[(int) Math.min(BUCKETS - 1, nanos / BUCKET_NANOS)]++;
+            count++;
+            total += nanos;
+            if (nanos > max) max = nanos;
+        }
+
+        void reset() {
+            Arrays.fill(buckets, 0);
+            count = 0;
+            total = 0;
+            max = 0;
+        }
+
+        double percentileMs(double p) {
+            int target = (int) Math.ceil(count * p);
+            int seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= target) return (i + 1) * BUCKET_NANOS / 1e6;
+            }
+            return max / 1e6;
+        }
+
+        String describe() {
+            if (count == 0) return "(sem eventos)";
+            return String.format("média %.2f ms, p50 %.2f ms, p99 %.2f ms, máx %.2f ms (%d eventos)",
+                total / 1e6 / count, percentileMs(0.5), percentileMs(0.99), max / 1e6, count);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package br.cleancity.controller;
+
+import br.cleancity.model.TrashStore;
+
+/** {@link TrashKernel} escalar: um item por iteração, sem objetos nem chamadas no laço. */
+final class ScalarTrashKernel implements TrashKernel {
+    @Override
+    public int integrate(TrashStore trash, Forces f, float delta) {
+        return integrate(trash, f, delta, 0, trash.size);
+    }
+
+    /** Integra só as posições [from, to) (o kernel vetorial usa para o resto que não enche um vetor). */
+    static int integrate(TrashStore trash, Forces f, float delta, int from, int to) {
+        final float[] x = trash.x, y = trash.y, w = trash.width, h = trash.height;
+        final float[] vx = trash.vx, vy = trash.vy, mobility = trash.mobility;
+        final float invR2 = 1f / (f.wakeRadius * f.wakeRadius);
+        int awake = 0;
+        for (int i = from; i < to; i++) {
+            float m = mobility[i];
+            float dx = x[i] + w[i] * 0.5f - f.wakeX, dy = y[i] + h[i] * 0.5f - f.wakeY;
+            float near = 1f - (dx * dx + dy * dy) * invR2;
+            float wake = (near > 0f ? near : 0f) * m;
+            float ax = f.windX * m + wake * f.wakePush;
+            float ay = f.windY * m + wake * dy * f.wakeSpread;
+            float nvx = (vx[i] + ax * delta) * f.damping;
+            float nvy = (vy[i] + ay * delta) * f.damping;
+            if (nvx * nvx + nvy * nvy < f.sleepSpeed2 && ax * ax + ay * ay < f.grip2) {
+                nvx = 0f;
+                nvy = 0f;
+            } else {
+                awake++;
+            }
+            vx[i] = nvx;
+            vy[i] = nvy;
+            // Limites com comparações simples (Math.min/max tratam NaN e -0 à parte e custam o dobro aqui)
+            float nx = x[i] + nvx * delta, ny = y[i] + nvy * delta;
+            float limitX = f.maxX - w[i], limitY = f.maxY - h[i];
+            nx = nx > 0f ? nx : 0f;
+            ny = ny > 0f ? ny : 0f;
+            x[i] = nx < limitX ? nx : limitX;
+            y[i] = ny < limitY ? ny : limitY;
+        }
+        return awake;
+    }
+
+    @Override
+    public String name() {
+        return "escalar";
+    }
+}
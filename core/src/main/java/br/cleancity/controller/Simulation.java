@@ -0,0 +1,292 @@
+package br.cleancity.controller;
+
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.Level;
+import br.cleancity.model.Player;
+import br.cleancity.model.RewindBuffer;
+import br.cleancity.profiling.LevelLoadEvent;
+import br.cleancity.profiling.TickEvent;
+import br.cleancity.telemetry.Heatmaps;
+import br.cleancity.telemetry.Telemetry;
+import br.cleancity.telemetry.TelemetryEvent;
+import com.badlogic.gdx.Gdx;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulação do jogo solo numa thread própria ("simulation"), a {@link #TICK_RATE} ticks por segundo.
+ *
+ * É dona do mundo e de tudo que o altera: `GameController`, `TrashPhysics`, `CollisionHandler`,
+ * `SweeperController`, o histórico de voltar no tempo e as cargas de fase. A thread de render nunca toca nesse mundo:
+ * - Estado → render: a cada tick o mundo é copiado num {@link WorldSnapshot} e publicado num buffer triplo
+ *   (uma cópia sendo escrita, uma pronta, uma sendo desenhada), trocadas por `AtomicReference.getAndSet`.
+ *   Nenhum lado espera pelo outro; o render sempre pega a cópia mais nova disponível (ver {@link #latest()}).
+ * - Eventos → render: sons e avisos do HUD chegam pela fila {@link GameEvents} (produtor único: esta thread).
+ * - Análise: eventos vão para a `Telemetry` e, a cada tick, a posição do jogador para os `Heatmaps` (buffers
+ *   circulares sem trava, esvaziados por threads de fundo; esta thread é o produtor único dos dois).
+ * - Render → simulação: reiniciar, próxima fase e voltar no tempo são pedidos por {@link #request(int)}
+ *   (bits num `AtomicInteger`, atendidos no início do tick seguinte); a entrada de movimento vem do
+ *   `InputController`, cuja fila de eventos é sincronizada.
+ *
+ * Uma simulação pesada atrasa os ticks, mas não o envio dos frames: o render segue desenhando a última cópia.
+ * Se a thread atrasar muito (ex.: processo suspenso), ela não tenta recuperar todos os ticks perdidos.
+ */
+public class Simulation implements Runnable {
+    /** Ticks por segundo (passo fixo). */
+    public static final float TICK_RATE = 120f;
+
+    /** Pedidos para {@link #request(int)}. */
+    public static final int CMD_RESTART = 1, CMD_NEXT = 1 << 1, CMD_REWIND = 1 << 2;
+
+    // Quanto cada Backspace volta no tempo
+    private static final float REWIND_STEP_SECONDS = 3f;
+
+    private final float worldWidth;
+    private final float worldHeight;
+    private final List<Level> levels;
+    private final InputController input;
+    private final GameEvents events;
+    private final Telemetry telemetry;
+    private final Heatmaps heatmaps;
+    private final float[] hitboxSizes;
+    private final TrashKernel trashKernel = TrashKernel.best();
+    // Histórico para voltar no tempo (20 s; keyframe a cada meio segundo)
+    private final RewindBuffer rewind = new RewindBuffer((int) (TICK_RATE * 20), (int) (TICK_RATE / 2), 512 * 1024);
+
+    private final AtomicInteger commands = new AtomicInteger();
+    private final AtomicReference<WorldSnapshot> ready = new AtomicReference<>(new WorldSnapshot());
+    private WorldSnapshot back = new WorldSnapshot();   // só a simulação escreve
+    private WorldSnapshot front = new WorldSnapshot();  // só o render lê
+
+    private Thread thread;
+    private volatile boolean running;
+    private volatile boolean paused;
+    private volatile Throwable failure;
+
+    // Estado da simulação (só esta thread, depois de start)
+    private GameWorld world;
+    private GameController controller;
+    private CollisionHandler collisions;
+    private SweeperController sweepers;
+    private TrashPhysics trashPhysics;
+    private int levelIndex;
+    private int epoch;
+    private long tick;
+
+    /**
+     * @param worldWidth largura do mundo
+     * @param worldHeight altura do mundo
+     * @param levels fases, na ordem de progressão
+     * @param input entrada do jogador (consumida a cada tick)
+     * @param events fila de eventos para a thread de render
+     * @param telemetry telemetria de jogo (esta thread passa a ser o produtor único)
+     * @param heatmaps mapas de calor por fase (idem)
+     * @param hitboxSizes tamanhos desenhados pelo `GameRenderer` (ver `GameRenderer.entitySizes`)
+     */
+    public Simulation(float worldWidth, float worldHeight, List<Level> levels, InputController input,
+                      GameEvents events, Telemetry telemetry, Heatmaps heatmaps, float[] hitboxSizes) {
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.levels = levels;
+        this.input = input;
+        this.events = events;
+        this.telemetry = telemetry;
+        this.heatmaps = heatmaps;
+        this.hitboxSizes = hitboxSizes.clone();
+    }
+
+    /** Carrega a primeira fase, publica a primeira cópia e inicia a thread. */
+    public void start() {
+        loadLevel(0);
+        publish();
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Para a simulação e aguarda a thread terminar. */
+    public void stop() {
+        running = false;
+        if (thread == null) return;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Pausa ou retoma os ticks (pausa do jogador, tela de fim de fase parada, janela sem foco ou minimizada). */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        if (!paused && thread != null) LockSupport.unpark(thread);
+    }
+
+    /** Pede uma ação ({@link #CMD_RESTART}, {@link #CMD_NEXT}, {@link #CMD_REWIND}) para o próximo tick. */
+    public void request(int command) {
+        commands.getAndAccumulate(command, (a, b) -> a | b);
+    }
+
+    /**
+     * Cópia mais recente do mundo (thread de render). A cópia devolvida fica com o render até a próxima
+     * chamada; a simulação não a altera nesse meio tempo.
+     */
+    public WorldSnapshot latest() {
+        if (ready.get().tick > front.tick) front = ready.getAndSet(front);
+        return front;
+    }
+
+    /** Erro que encerrou a thread da simulação, ou null. */
+    public Throwable failure() {
+        return failure;
+    }
+
+    @Override
+    public void run() {
+        final float tickDelta = 1f / TICK_RATE;
+        final long tickNanos = (long) (1_000_000_000L / TICK_RATE);
+        long next = System.nanoTime();
+        try {
+            while (running) {
+                if (paused) {
+                    // Parada até setPaused(false) ou stop() (sem acordar periodicamente)
+                    LockSupport.park(this);
+                    next = System.nanoTime();
+                    continue;
+                }
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                    continue;
+                }
+                tick(tickDelta);
+                publish();
+                next += tickNanos;
+                long now = System.nanoTime();
+                if (now - next > tickNanos * 5) next = now;
+            }
+        } catch (Throwable e) {
+            failure = e;
+            Gdx.app.error("Simulation", "Simulação encerrada por erro", e);
+        }
+    }
+
+    private void tick(float delta) {
+        int cmd = commands.getAndSet(0);
+        if ((cmd & CMD_RESTART) != 0) restart();
+        else if ((cmd & CMD_NEXT) != 0) nextLevel();
+        if ((cmd & CMD_REWIND) != 0) rewindBack();
+
+        TickEvent event = new TickEvent();
+        event.begin();
+        controller.update(delta);
+        trashPhysics.update(delta);
+        sweepers.update(delta);
+        collisions.update();
+        event.end();
+        Player p = world.player;
+        if (!world.gameOver) heatmaps.record(Heatmaps.PRESENCE, p.x + p.width * 0.5f, p.y + p.height * 0.5f);
+        if (event.shouldCommit()) {
+            event.delta = (long) (delta * 1e9);
+            event.trashCount = world.trash.size;
+            event.collisionsResolved = collisions.contactsResolved();
+            event.trashCollected = collisions.trashCollected();
+            event.trashAwake = trashPhysics.awakeCount();
+            event.commit();
+        }
+        rewind.record(world, delta);
+        tick++;
+    }
+
+    // Escreve a cópia livre e a troca pela que estava pronta
+    private void publish() {
+        back.capture(world, levelIndex, epoch, tick);
+        back.inputNanos = input.lastTickNanos();
+        back = ready.getAndSet(back);
+    }
+
+    /**
+     * Carrega a fase informada (reinicia mundo e controladores).
+     */
+    private void loadLevel(int index) {
+        LevelLoadEvent load = new LevelLoadEvent();
+        load.begin();
+        levelIndex = Math.max(0, Math.min(index, levels.size() - 1));
+        epoch++;
+        world = new GameWorld(worldWidth, worldHeight, levels.get(levelIndex));
+        world.spawnSweepers();
+        applyHitboxSizes();
+        controller = new GameController(world, input);
+        controller.setTelemetry(telemetry);
+        collisions = new CollisionHandler(world, events);
+        collisions.setTelemetry(telemetry);
+        collisions.setHeatmaps(heatmaps);
+        sweepers = new SweeperController(world, collisions);
+        trashPhysics = new TrashPhysics(world, collisions, sweepers, trashKernel);
+        rewind.clear();
+        load.end();
+        if (load.shouldCommit()) {
+            load.set(levelIndex, world.level, world.seed);
+            load.commit();
+        }
+        telemetry.emit(TelemetryEvent.LEVEL_START, levelIndex, world.trash.size);
+        heatmaps.begin(levelIndex, worldWidth, worldHeight);
+        events.post(GameEvents.LEVEL_LOADED);
+    }
+
+    // Tamanhos das hitboxes iguais aos desenhados (o render não altera o mundo da simulação)
+    private void applyHitboxSizes() {
+        float[] s = hitboxSizes;
+        world.player.width = s[0];
+        world.player.height = s[1];
+        world.truck.width = s[2];
+        world.truck.height = s[3];
+        world.setTrashSize(s[4], s[5]);
+        for (int i = 0; i < world.sweepers.size; i++) {
+            Player p = world.sweepers.get(i);
+            p.width = s[0];
+            p.height = s[1];
+        }
+    }
+
+    private void restart() {
+        telemetry.emit(TelemetryEvent.RESTART, levelIndex, (int) Math.ceil(world.timeLeft));
+        loadLevel(levelIndex);
+    }
+
+    private void nextLevel() {
+        if (levels.isEmpty()) return;
+        // Rua limpa, mas os rivais recolheram mais: é derrota, só dá para reiniciar
+        if (world.gameOver && !world.gameWon) return;
+
+        // Não avança de nível se ainda houver lixo para coletar ou entregar
+        if (!world.trash.isEmpty() || world.carriedTrash > 0) {
+            events.post(GameEvents.COLLECT_ALL_FIRST);
+            return;
+        }
+
+        int next = levelIndex + 1;
+        if (next >= levels.size()) {
+            next = 0; // volta ao primeiro ao finalizar a lista
+            events.post(GameEvents.ALL_LEVELS_COMPLETED);
+        }
+        loadLevel(next);
+    }
+
+    /**
+     * Volta o mundo alguns segundos usando o histórico gravado, sem recriar a fase.
+     * Se a fase tinha acabado e volta a estar em andamento, avisa o render (a música é retomada).
+     */
+    private void rewindBack() {
+        int t = rewind.tickSecondsAgo(REWIND_STEP_SECONDS);
+        if (t < 0) return;
+        boolean wasOver = world.gameOver;
+        if (rewind.restore(world, t) && wasOver && !world.gameOver) {
+            events.post(GameEvents.LEVEL_RESUMED);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package br.cleancity.controller;
+
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.Player;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Move os varredores rivais (`world.sweepers`) e aplica a coleta deles.
+ *
+ * - Direção: lida do {@link FlowField} compartilhado na célula do centro de cada varredor (O(1) por NPC,
+ *   independente de quantos NPCs ou lixos existam). O campo é atualizado de forma incremental a cada coleta.
+ * - Coleta: cada varredor é um collider da camada `CollisionHandler.SWEEPER` que procura só lixo no mesmo
+ *   {@link CollisionWorld} do jogador (varredura do passo, só as células tocadas). O lixo recolhido sai da rua
+ *   e conta em `world.rivalTrash`.
+ * - Os varredores ignoram o caminhão (não são atropelados nem entregam), mas não atravessam os obstáculos do mapa:
+ *   o campo desvia deles e o movimento é limitado como o do jogador.
+ */
+public class SweeperController implements ContactListener {
+    private final GameWorld world;
+    private final CollisionWorld collisions;
+    private final FlowField field;
+    private final Vector2 dir = new Vector2();
+
+    public SweeperController(GameWorld world, CollisionHandler collisions) {
+        this.world = world;
+        this.collisions = collisions.collisionWorld();
+        this.field = new FlowField(world);
+        this.collisions.setListener(CollisionHandler.SWEEPER, this);
+        for (int i = 0; i < world.sweepers.size; i++) {
+            this.collisions.add(Collider.player(world.sweepers.get(i), CollisionHandler.SWEEPER, CollisionHandler.TRASH));
+        }
+    }
+
+    /** Campo de fluxo usado pelos varredores (ex.: depuração). */
+    public FlowField field() {
+        return field;
+    }
+
+    /**
+     * Avança os varredores um passo (só o movimento; a coleta acontece no passo de colisão). Chamar antes do
+     * `CollisionHandler.update()`: os jogadores foram registrados antes no mundo de colisão e têm prioridade
+     * no lixo disputado no mesmo passo.
+     * @param delta tempo em segundos
+     */
+    public void update(float delta) {
+        if (world.gameOver || world.sweepers.size == 0) return;
+        field.sync(); // coletas do jogador e voltas no tempo
+
+        for (int i = 0; i < world.sweepers.size; i++) {
+            Player s = world.sweepers.get(i);
+            s.prevX = s.x;
+            s.prevY = s.y;
+            field.direction(s.x + s.width * 0.5f, s.y + s.height * 0.5f, dir);
+            if (dir.isZero()) continue;
+
+            s.x += world.obstacles.clipX(s.x, s.y, s.width, s.height, dir.x * s.speed * delta);
+            s.y += world.obstacles.clipY(s.x, s.y, s.width, s.height, dir.y * s.speed * delta);
+            s.faceX = dir.x;
+            s.faceY = dir.y;
+            if (s.x < 0) s.x = 0;
+            if (s.y < 0) s.y = 0;
+            if (s.x + s.width > world.worldWidth) s.x = world.worldWidth - s.width;
+            if (s.y + s.height > world.worldHeight) s.y = world.worldHeight - s.height;
+        }
+    }
+
+    @Override
+    public void onContact(Contact c) {
+        if (world.gameOver || c.phase == Contact.END) return;
+        int id = c.b.trash;
+        world.removeTrash(id);
+        collisions.remove(c.b);
+        field.remove(id);
+        world.rivalTrash++;
+    }
+}
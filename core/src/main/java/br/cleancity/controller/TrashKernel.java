@@ -0,0 +1,65 @@
+package br.cleancity.controller;
+
+import br.cleancity.model.TrashStore;
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Passo de integração do lixo (ver {@link TrashPhysics}): um laço sobre os arrays primitivos do {@link TrashStore},
+ * sem objetos por item.
+ *
+ * Por item: aceleração do vento e da esteira do caminhão (escaladas pela mobilidade), amortecimento, repouso e
+ * limites do mundo. As implementações devem dar o mesmo resultado (a menos de arredondamento):
+ * - {@link ScalarTrashKernel}: laço escalar, roda em qualquer JVM (e o JIT ainda pode vetorizar partes dele);
+ * - `VectorTrashKernel` (source set `vector`): Vector API do JDK (`jdk.incubator.vector`), várias lanes por
+ *   instrução. Só existe quando a JVM roda com `--add-modules jdk.incubator.vector`; senão {@link #best()} usa o
+ *   escalar.
+ */
+public interface TrashKernel {
+    /**
+     * Integra um passo sobre as posições [0, `trash.size`).
+     * @return quantos itens ficaram com velocidade (os outros estão em repouso e não se moveram)
+     */
+    int integrate(TrashStore trash, Forces forces, float delta);
+
+    /** Nome para logs e benchmarks. */
+    String name();
+
+    /** Forças e parâmetros de um passo, iguais para todo o lixo. */
+    final class Forces {
+        /** Aceleração do vento (unidades/s², já com a intensidade da rajada). */
+        public float windX, windY;
+        /** Centro da esteira do caminhão e raio dela. */
+        public float wakeX, wakeY, wakeRadius = 1f;
+        /** Aceleração para frente no centro da esteira; a lateral é `wakeSpread` × distância vertical ao centro. */
+        public float wakePush, wakeSpread;
+        /** Fator de velocidade que sobra depois do passo (amortecimento). */
+        public float damping = 1f;
+        /** Repouso: velocidade² e aceleração² abaixo destes limites zeram a velocidade (o lixo assenta). */
+        public float sleepSpeed2, grip2;
+        /** Limites do mundo (o canto superior direito de cada item fica dentro deles). */
+        public float maxX, maxY;
+    }
+
+    /** Implementação escalar. */
+    static TrashKernel scalar() {
+        return new ScalarTrashKernel();
+    }
+
+    /** Implementação com a Vector API, ou null se o módulo não está disponível nesta JVM (ou não há SIMD). */
+    static TrashKernel vector() {
+        try {
+            return (TrashKernel) Class.forName("br.cleancity.controller.VectorTrashKernel")
+                .getDeclaredConstructor().newInstance();
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /** A vetorial quando disponível; senão a escalar. */
+    static TrashKernel best() {
+        TrashKernel kernel = vector();
+        if (kernel == null) kernel = scalar();
+        if (Gdx.app != null) Gdx.app.log("TrashKernel", "Física do lixo: " + kernel.name());
+        return kernel;
+    }
+}
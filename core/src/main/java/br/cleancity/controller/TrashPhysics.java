@@ -0,0 +1,212 @@
+package br.cleancity.controller;
+
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.TrashStore;
+import br.cleancity.model.Truck;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Física do lixo na rua: rajadas de vento e a esteira do caminhão empurram o lixo leve, que desliza e assenta.
+ *
+ * - Forças: rajadas intermitentes (calmaria, rajada com subida e descida suaves, direção sorteada) e a esteira do
+ *   caminhão, que empurra para frente e para os lados o lixo num raio em volta dele, mais forte perto do centro.
+ *   A aceleração de cada item é escalada pela mobilidade da variante (`TrashStore.MOBILITY`): lixo pesado resiste
+ *   ao vento fraco (aderência) e só a esteira o tira do lugar.
+ * - Integração: um passo de velocidade e amortecimento. Com vento, ou com muito lixo ainda em movimento, o passo
+ *   percorre o store inteiro em laços sobre os arrays primitivos ({@link TrashKernel}: Vector API quando
+ *   disponível, escalar nos outros casos). Na calmaria só o lixo em movimento e o lixo perto do caminhão (pela
+ *   grade do mundo de colisão) são integrados, item a item: abaixo das velocidades e acelerações de repouso o item
+ *   para, e lixo parado longe do caminhão não custa nada.
+ * - Sincronização (escalar, só os itens que se moveram): lixo que entraria numa célula bloqueada do mapa volta e
+ *   para; os outros são levados ao `GameWorld` (contagens do desenho afastado, última posição para voltar no tempo),
+ *   ao mundo de colisão e ao campo de fluxo dos varredores. As estruturas só mudam de célula quando o item muda,
+ *   em O(1) por item; o campo de fluxo é repreenchido uma vez por passo, com todas as trocas juntas.
+ *
+ * O sorteio das rajadas usa um gerador próprio, com a seed da fase: não altera a geração do lixo. Só o jogo solo
+ * roda a física; no co-op o lixo fica parado (o protocolo replica só as coletas, não as posições).
+ */
+public class TrashPhysics {
+    /** Amortecimento da velocidade (fração perdida por segundo ≈ 1 - e^-DAMPING). */
+    public static final float DAMPING = 3.5f;
+    /** Aceleração máxima de uma rajada (unidades/s²) num lixo de mobilidade 1. */
+    public static final float GUST_ACCEL = 140f;
+    /** Aceleração mínima para tirar um lixo do repouso (aderência). */
+    public static final float GRIP = 30f;
+    /** Abaixo desta velocidade (unidades/s), sem força acima da aderência, o lixo assenta. */
+    public static final float SLEEP_SPEED = 2f;
+
+    private static final float CALM_MIN = 4f, CALM_MAX = 9f;
+    private static final float GUST_MIN = 1f, GUST_MAX = 2.5f;
+    // Esteira: raio em relação ao maior lado do caminhão e aceleração em relação à velocidade dele
+    private static final float WAKE_RADIUS_SCALE = 1.25f, WAKE_PUSH_SCALE = 14f, WAKE_SPREAD = 0.8f;
+    // Na calmaria, passa a percorrer o store inteiro quando mais de 1/DENSE_FRACTION do lixo está em movimento
+    private static final int DENSE_FRACTION = 4;
+
+    private final GameWorld world;
+    private final CollisionHandler collisions;
+    private final SweeperController sweepers;
+    private final TrashKernel kernel;
+    private final TrashKernel.Forces forces = new TrashKernel.Forces();
+    private final RandomXS128 random;
+
+    private float gustTime, gustLength, gustAngle, gustStrength;
+    private boolean gust;
+    private int awake;
+    // Posições do início do passo (para achar quem se moveu e de onde)
+    private float[] prevX = new float[0], prevY = new float[0];
+    // Ids em movimento depois do último passo e candidatos do passo item a item (repetidos descartados por `seen`)
+    private final IntArray awakeIds = new IntArray();
+    private final IntArray candidates = new IntArray();
+    private int[] seen = new int[0];
+    private int stamp;
+
+    /**
+     * @param sweepers dono do campo de fluxo que acompanha o lixo
+     * @param kernel integração (ver {@link TrashKernel#best()})
+     */
+    public TrashPhysics(GameWorld world, CollisionHandler collisions, SweeperController sweepers, TrashKernel kernel) {
+        this.world = world;
+        this.collisions = collisions;
+        this.sweepers = sweepers;
+        this.kernel = kernel;
+        this.random = new RandomXS128(world.seed ^ 0x5DEECE66DL);
+        forces.damping = 1f;
+        forces.sleepSpeed2 = SLEEP_SPEED * SLEEP_SPEED;
+        forces.grip2 = GRIP * GRIP;
+        forces.maxX = world.worldWidth;
+        forces.maxY = world.worldHeight;
+        gustLength = MathUtils.lerp(CALM_MIN, CALM_MAX, random.nextFloat());
+    }
+
+    /** Itens que terminaram o último passo com velocidade. */
+    public int awakeCount() {
+        return awake;
+    }
+
+    /** True durante uma rajada de vento. */
+    public boolean gusting() {
+        return gust;
+    }
+
+    /**
+     * Avança o lixo um passo. Chamar depois do movimento do caminhão e antes do `CollisionHandler.update()`,
+     * para as coletas do passo verem o lixo já na posição nova. Não faz nada depois do fim da fase.
+     * @param delta tempo em segundos
+     */
+    public void update(float delta) {
+        if (world.gameOver) return;
+        updateForces(delta);
+        TrashStore trash = world.trash;
+        if (forces.windX != 0f || forces.windY != 0f || awakeIds.size * DENSE_FRACTION > trash.size) {
+            updateAll(trash, delta);
+        } else {
+            updateActive(trash, delta);
+        }
+        // Trocas de célula do passo inteiro num único repreenchimento do campo de fluxo
+        if (world.sweepers.size > 0) sweepers.field().applyMoves();
+    }
+
+    // Passo sobre o store inteiro (kernel) e passada escalar sobre quem se moveu
+    private void updateAll(TrashStore trash, float delta) {
+        int n = trash.size;
+        if (prevX.length < n) {
+            prevX = Arrays.copyOf(prevX, trash.x.length);
+            prevY = Arrays.copyOf(prevY, trash.x.length);
+        }
+        System.arraycopy(trash.x, 0, prevX, 0, n);
+        System.arraycopy(trash.y, 0, prevY, 0, n);
+        awake = kernel.integrate(trash, forces, delta);
+        awakeIds.clear();
+        if (awake == 0) return;
+        final float[] x = trash.x, y = trash.y, vx = trash.vx, vy = trash.vy, px = prevX, py = prevY;
+        for (int i = 0; i < n; i++) {
+            if (vx[i] != 0f || vy[i] != 0f) awakeIds.add(trash.id[i]);
+            if (x[i] != px[i] || y[i] != py[i]) moved(trash, i, px[i], py[i]);
+        }
+    }
+
+    // Calmaria: só o lixo em movimento e o que está na esteira do caminhão, item a item (sempre escalar)
+    private void updateActive(TrashStore trash, float delta) {
+        if (seen.length < world.spawnedTrashCount()) seen = Arrays.copyOf(seen, world.spawnedTrashCount());
+        stamp++;
+        candidates.clear();
+        for (int i = 0; i < awakeIds.size; i++) {
+            seen[awakeIds.get(i)] = stamp;
+            candidates.add(awakeIds.get(i));
+        }
+        int firstNear = candidates.size;
+        if (forces.wakePush > 0f) {
+            float r = forces.wakeRadius, margin = CollisionWorld.CELL_SIZE;
+            float cx = forces.wakeX, cy = forces.wakeY;
+            collisions.trashNear(cx - r - margin, cy - r - margin, cx + r, cy + r, candidates);
+        }
+        awake = 0;
+        awakeIds.clear();
+        for (int i = 0; i < candidates.size; i++) {
+            int id = candidates.get(i);
+            if (i >= firstNear) {
+                if (seen[id] == stamp) continue; // já estava entre os que se moviam
+                seen[id] = stamp;
+            }
+            int slot = trash.slotOf(id);
+            if (slot < 0) continue; // coletado
+            float ox = trash.x[slot], oy = trash.y[slot];
+            if (ScalarTrashKernel.integrate(trash, forces, delta, slot, slot + 1) > 0) {
+                awake++;
+                awakeIds.add(id);
+            }
+            if (trash.x[slot] != ox || trash.y[slot] != oy) moved(trash, slot, ox, oy);
+        }
+    }
+
+    private void updateForces(float delta) {
+        gustTime += delta;
+        if (gustTime >= gustLength) {
+            gustTime = 0f;
+            gust = !gust;
+            if (gust) {
+                gustLength = MathUtils.lerp(GUST_MIN, GUST_MAX, random.nextFloat());
+                gustAngle = random.nextFloat() * MathUtils.PI2;
+                gustStrength = MathUtils.lerp(0.4f, 1f, random.nextFloat()) * GUST_ACCEL;
+            } else {
+                gustLength = MathUtils.lerp(CALM_MIN, CALM_MAX, random.nextFloat());
+            }
+        }
+        // Rajada sobe e desce como meio seno; na calmaria, sem vento
+        float strength = gust ? gustStrength * MathUtils.sin(MathUtils.PI * gustTime / gustLength) : 0f;
+        forces.windX = MathUtils.cos(gustAngle) * strength;
+        forces.windY = MathUtils.sin(gustAngle) * strength;
+
+        Truck t = world.truck;
+        forces.wakeX = t.x + t.width * 0.5f;
+        forces.wakeY = t.y + t.height * 0.5f;
+        forces.wakeRadius = Math.max(1f, Math.max(t.width, t.height) * WAKE_RADIUS_SCALE);
+        forces.wakePush = Math.abs(t.speed) * WAKE_PUSH_SCALE;
+        forces.wakeSpread = forces.wakePush * WAKE_SPREAD / forces.wakeRadius;
+        forces.damping = (float) Math.exp(-DAMPING * delta);
+    }
+
+    // Lixo que se moveu: obstáculos e estruturas que indexam o lixo pela posição
+    private void moved(TrashStore trash, int slot, float oldX, float oldY) {
+        FlowField field = sweepers.field();
+        float halfW = trash.width[slot] * 0.5f, halfH = trash.height[slot] * 0.5f;
+        float x = trash.x[slot], y = trash.y[slot];
+        if (!world.obstacles.isEmpty() && field.blockedAt(x + halfW, y + halfH)
+            && !field.blockedAt(oldX + halfW, oldY + halfH)) {
+            // Bateu num obstáculo: fica onde estava, parado
+            trash.x[slot] = oldX;
+            trash.y[slot] = oldY;
+            trash.vx[slot] = 0f;
+            trash.vy[slot] = 0f;
+            return;
+        }
+        world.trashMoved(slot, oldX, oldY);
+        int id = trash.id[slot];
+        collisions.trashMoved(id, x, y);
+        if (world.sweepers.size > 0) field.move(id, x, y);
+    }
+}
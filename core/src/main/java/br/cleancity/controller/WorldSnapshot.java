@@ -0,0 +1,79 @@
+package br.cleancity.controller;
+
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.Player;
+
+/**
+ * Cópia do estado da simulação em um tick, lida pela thread de render (ver {@link Simulation}).
+ *
+ * A cópia é um {@link GameWorld} próprio da mesma fase e seed: o lixo gerado é idêntico, então basta copiar
+ * o lixo que continua na rua, além de jogador, caminhão, varredores, relógio e placar. Assim o `GameRenderer`
+ * e o HUD desenham a cópia sem nenhuma mudança e sem tocar no mundo da simulação.
+ * O mundo da cópia só é recriado quando a fase muda; fora isso, {@link #capture} não aloca.
+ */
+public class WorldSnapshot {
+    /** Mundo copiado (null até o primeiro tick publicado). */
+    public GameWorld world;
+    /** Tick da simulação em que a cópia foi feita. */
+    public long tick = -1;
+    /** `InputController.lastTickNanos()` do tick copiado: a entrada que este frame já mostra. */
+    public long inputNanos = -1;
+    /** Índice da fase. */
+    public int levelIndex;
+    private int epoch = -1;
+
+    /**
+     * Copia o estado da simulação.
+     * @param sim mundo da simulação
+     * @param levelIndex índice da fase
+     * @param epoch contador de cargas de fase (muda a cada início, reinício ou troca de fase)
+     * @param tick tick da simulação
+     */
+    void capture(GameWorld sim, int levelIndex, int epoch, long tick) {
+        if (world == null || this.epoch != epoch) {
+            world = new GameWorld(sim.worldWidth, sim.worldHeight, sim.level, sim.seed);
+            this.epoch = epoch;
+        }
+        this.tick = tick;
+        this.levelIndex = levelIndex;
+        GameWorld w = world;
+
+        w.timeLeft = sim.timeLeft;
+        w.gameOver = sim.gameOver;
+        w.gameWon = sim.gameWon;
+        w.carriedTrash = sim.carriedTrash;
+        w.rivalTrash = sim.rivalTrash;
+        w.score.value = sim.score.value;
+
+        w.truck.x = sim.truck.x;
+        w.truck.y = sim.truck.y;
+        w.truck.prevX = sim.truck.prevX;
+        w.truck.speed = sim.truck.speed;
+        w.truck.width = sim.truck.width;
+        w.truck.height = sim.truck.height;
+
+        copy(sim.player, w.player);
+        if (sim.partner != null) copy(sim.partner, w.spawnPartner());
+        while (w.sweepers.size < sim.sweepers.size) {
+            Player s = sim.sweepers.get(w.sweepers.size);
+            w.sweepers.add(new Player(s.x, s.y, s.width, s.height, s.speed));
+        }
+        for (int i = 0; i < sim.sweepers.size; i++) copy(sim.sweepers.get(i), w.sweepers.get(i));
+
+        // Mesmo lixo, na mesma ordem da simulação (cópia dos arrays)
+        w.trash.copyFrom(sim.trash);
+        w.trashClusters.copyFrom(sim.trashClusters);
+    }
+
+    private static void copy(Player from, Player to) {
+        to.x = from.x;
+        to.y = from.y;
+        to.prevX = from.prevX;
+        to.prevY = from.prevY;
+        to.width = from.width;
+        to.height = from.height;
+        to.faceX = from.faceX;
+        to.faceY = from.faceY;
+        to.isDefeated = from.isDefeated;
+    }
+}
@@ -1,7 +1,10 @@
 package br.cleancity.model;
 
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.utils.Array;
+
+import java.util.Arrays;
 import br.cleancity.model.Truck;
 import br.cleancity.model.Level;
 
@@ -14,7 +17,9 @@ import br.cleancity.model.Level;
  * ao final do tempo total (incluindo a própria largura), o que define uma condição natural de fim.
  *
  * Geração de lixo (`spawnTrash`): posiciona itens aleatoriamente evitando a área inicial do jogador
- * (um retângulo em torno do spawn) para não gerar coleta imediata.
+ * (um retângulo em torno do spawn) para não gerar coleta imediata. Usa um gerador próprio com `seed`
+ * conhecida, de modo que a mesma seed reproduz exatamente a mesma fase (ex.: servidor e clientes no co-op).
+ * O lixo também não nasce dentro dos obstáculos do mapa da fase (`obstacles`).
  */
 @SuppressWarnings("unused")
 public class GameWorld {
@@ -25,10 +30,16 @@ public class GameWorld {
 
     /** Entidade do jogador. */
     public final Player player;
+    /** Segundo jogador no modo cooperativo (null no jogo solo). */
+    public Player partner;
+    /** Varredores rivais (NPCs) que disputam o lixo; vazio até `spawnSweepers`. */
+    public final Array<Player> sweepers = new Array<>();
     /** Controle de pontuação. */
     public final Score score;
-    /** Lista de objetos de lixo espalhados no mundo. */
-    public final Array<Trash> trashList = new Array<>();
+    /** Lixo espalhado no mundo (estrutura de arrays, remoção O(1); ver {@link TrashStore}). */
+    public final TrashStore trash;
+    /** Contagem do lixo na rua por célula, para o desenho afastado; mantida por {@link #removeTrash}. */
+    public final TrashClusters trashClusters;
     /** Caminhão coletor que se move da esquerda para a direita. */
     public final Truck truck;
     /** Parâmetros da fase atual. */
@@ -43,6 +54,19 @@ public class GameWorld {
     public boolean gameWon = false;
     /** Quantidade de lixo carregado pelo jogador e ainda não entregue ao caminhão. */
     public int carriedTrash = 0;
+    /** Lixo recolhido pelos varredores rivais; com a rua limpa, o jogador vence se tiver ao menos essa pontuação. */
+    public int rivalTrash = 0;
+    /** Obstáculos estáticos do mapa da fase (vazio se a fase não tem mapa). */
+    public final ObstacleMap obstacles;
+    /** Seed usada na geração do lixo desta fase. */
+    public final long seed;
+
+    private final RandomXS128 random;
+    /**
+     * Todo lixo já gerado, na posição igual ao id (inclusive os já coletados; nunca tem remoções), com a última
+     * posição de cada um na rua (ver {@link #trashMoved}).
+     */
+    private final TrashStore spawnedTrash;
 
     /**
      * Cria um mundo com tempo padrão de 60s.
@@ -63,9 +87,29 @@ public class GameWorld {
      * Cria um mundo usando uma definição de fase (Level).
      */
     public GameWorld(float worldWidth, float worldHeight, Level level) {
+        this(worldWidth, worldHeight, level, MathUtils.random.nextLong());
+    }
+
+    /**
+     * Cria um mundo usando uma definição de fase e uma seed fixa para a geração do lixo.
+     */
+    public GameWorld(float worldWidth, float worldHeight, Level level, long seed) {
+        this(worldWidth, worldHeight, level, seed, ObstacleMap.forLevel(level, worldWidth, worldHeight));
+    }
+
+    /**
+     * Cria um mundo com obstáculos já carregados (ex.: benchmarks, sem `Gdx.files`).
+     */
+    public GameWorld(float worldWidth, float worldHeight, Level level, long seed, ObstacleMap obstacles) {
+        this.obstacles = obstacles;
+        this.seed = seed;
+        this.random = new RandomXS128(seed);
         this.worldWidth = worldWidth;
         this.worldHeight = worldHeight;
         this.level = level;
+        this.trashClusters = new TrashClusters(worldWidth, worldHeight);
+        this.trash = new TrashStore(level.trashCount);
+        this.spawnedTrash = new TrashStore(level.trashCount);
         this.totalTime = level.totalTime;
         this.timeLeft = this.totalTime;
 
@@ -87,16 +131,98 @@ public class GameWorld {
             float x, y;
             int guard = 0;
             do {
-                x = MathUtils.random(0f, worldWidth - size);
-                y = MathUtils.random(0f, worldHeight - size);
+                x = random.nextFloat() * (worldWidth - size);
+                y = random.nextFloat() * (worldHeight - size);
                 guard++;
                 if (guard > 1000) break; // segurança para evitar loop infinito
-            } while (overlaps(x, y, size, size, player.x, player.y, player.width * 3f, player.height * 3f));
-            Trash trash = new Trash(x, y, size, size);
-            // Atribui uma chave de sprite estável para não mudar após remoções na lista
-            String[] keys = new String[] {"Trash_Pixel1","Trash_Pixel2","Trash_Pixel3","Trash_Pixel4","Trash_Pixel5","Trash_Pixel6"};
-            if (trash.spriteKey == null && keys.length > 0) trash.spriteKey = keys[i % keys.length];
-            trashList.add(trash);
+            } while (overlaps(x, y, size, size, player.x, player.y, player.width * 3f, player.height * 3f)
+                || obstacles.overlaps(x, y, size, size));
+            // Variante de sprite estável: não muda com as remoções
+            int id = spawnedTrash.size;
+            int variant = i % TrashStore.SPRITE_KEYS.length;
+            spawnedTrash.add(id, x, y, size, size, variant);
+            trash.add(id, x, y, size, size, variant);
+            trashClusters.add(x, y);
+        }
+    }
+
+    /**
+     * Tira um lixo da rua (coleta pelo jogador ou por um varredor), atualizando {@link #trashClusters}.
+     * @return false se o lixo já não estava na rua
+     */
+    public boolean removeTrash(int id) {
+        int slot = trash.slotOf(id);
+        if (slot < 0) return false;
+        trashClusters.remove(trash.x[slot], trash.y[slot]);
+        trash.removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Registra que o lixo da posição `slot` de {@link #trash} foi movido (ver `TrashPhysics`) a partir de
+     * (oldX, oldY): reclassifica em {@link #trashClusters} e guarda a posição nova em {@link #spawnedTrash()}.
+     */
+    public void trashMoved(int slot, float oldX, float oldY) {
+        float x = trash.x[slot], y = trash.y[slot];
+        trashClusters.move(oldX, oldY, x, y);
+        int id = trash.id[slot];
+        spawnedTrash.x[id] = x;
+        spawnedTrash.y[id] = y;
+    }
+
+    /**
+     * Devolve à rua um lixo já coletado, parado na última posição em que esteve (ex.: voltar no tempo). Não recalcula
+     * {@link #trashClusters}: quem devolve vários de uma vez chama `trashClusters.rebuild(trash)` no fim.
+     */
+    public void restoreTrash(int id) {
+        if (!trash.contains(id)) trash.add(spawnedTrash, id);
+    }
+
+    /**
+     * Define o tamanho de todo o lixo da fase, na rua e já coletado (hitbox igual ao sprite desenhado).
+     * Com um `CollisionHandler` já criado, chamar `refreshTrash()` depois.
+     */
+    public void setTrashSize(float width, float height) {
+        Arrays.fill(trash.width, 0, trash.size, width);
+        Arrays.fill(trash.height, 0, trash.size, height);
+        Arrays.fill(spawnedTrash.width, 0, spawnedTrash.size, width);
+        Arrays.fill(spawnedTrash.height, 0, spawnedTrash.size, height);
+    }
+
+    /** Quantidade de lixo já gerada nesta fase; os ids ficam em [0, spawnedTrashCount()). */
+    public int spawnedTrashCount() {
+        return spawnedTrash.size;
+    }
+
+    /** Todo lixo já gerado, com posição no store igual ao id (também os já coletados), na última posição. Só leitura. */
+    public TrashStore spawnedTrash() {
+        return spawnedTrash;
+    }
+
+    /**
+     * Adiciona o segundo jogador (co-op) ao lado do spawn do primeiro, com o mesmo tamanho e velocidade.
+     * Deve ser chamado após a geração do lixo para não alterar a sequência da seed.
+     */
+    public Player spawnPartner() {
+        if (partner == null) {
+            partner = new Player(player.x + player.width * 1.5f, player.y, player.width, player.height, player.speed);
+        }
+        return partner;
+    }
+
+    /**
+     * Posiciona os varredores rivais da fase (`level.sweeperCount`), espalhados pelas bordas de cima e de baixo.
+     * Não usa o gerador aleatório, para não alterar a sequência da seed. Usado só no jogo solo.
+     * Quem cairia dentro de um obstáculo é empurrado para a direita até um lugar livre.
+     */
+    public void spawnSweepers() {
+        int count = level.sweeperCount;
+        for (int i = sweepers.size; i < count; i++) {
+            boolean top = (i & 1) == 0;
+            float x = worldWidth * ((i / 2) + 1f) / ((count + 1) / 2 + 1f) - player.width * 0.5f;
+            float y = top ? worldHeight - player.height - 4f : 4f;
+            while (obstacles.overlaps(x, y, player.width, player.height) && x + player.width * 2f < worldWidth) x += 4f;
+            sweepers.add(new Player(x, y, player.width, player.height, level.playerSpeed * 0.7f));
         }
     }
 
@@ -1,5 +1,8 @@
 package br.cleancity.model;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Define os parâmetros de uma fase (nível) do jogo.
  */
@@ -18,11 +21,41 @@ public class Level {
     public final float truckHeight;
     /** Chave do sprite de fundo para este nível. */
     public final String backgroundKey;
+    /** Quantidade de varredores rivais (NPCs) que disputam o lixo no jogo solo. */
+    public final int sweeperCount;
+    /** Fase noturna: o mundo é escurecido e iluminado por postes, faróis e lanterna (mapa de luz). */
+    public final boolean night;
+    /** Mapa Tiled (TMX, arquivo interno) com os obstáculos da rua, ou null se a fase não tem obstáculos (ver {@link ObstacleMap}). */
+    public final String mapPath;
 
     /**
      * Cria um nível com os parâmetros informados.
      */
     public Level(float totalTime, int trashCount, float trashSize, float playerSpeed, float truckWidth, float truckHeight, String backgroundKey) {
+        this(totalTime, trashCount, trashSize, playerSpeed, truckWidth, truckHeight, backgroundKey, 0);
+    }
+
+    /**
+     * Cria um nível com varredores rivais.
+     */
+    public Level(float totalTime, int trashCount, float trashSize, float playerSpeed, float truckWidth, float truckHeight, String backgroundKey, int sweeperCount) {
+        this(totalTime, trashCount, trashSize, playerSpeed, truckWidth, truckHeight, backgroundKey, sweeperCount, false);
+    }
+
+    /**
+     * Cria um nível com varredores rivais, opcionalmente noturno.
+     */
+    public Level(float totalTime, int trashCount, float trashSize, float playerSpeed, float truckWidth, float truckHeight, String backgroundKey, int sweeperCount, boolean night) {
+        this(totalTime, trashCount, trashSize, playerSpeed, truckWidth, truckHeight, backgroundKey, sweeperCount, night, null);
+    }
+
+    /**
+     * Cria um nível completo, com o mapa de obstáculos.
+     */
+    public Level(float totalTime, int trashCount, float trashSize, float playerSpeed, float truckWidth, float truckHeight, String backgroundKey, int sweeperCount, boolean night, String mapPath) {
+        this.mapPath = mapPath;
+        this.night = night;
+        this.sweeperCount = sweeperCount;
         this.totalTime = totalTime;
         this.trashCount = trashCount;
         this.trashSize = trashSize;
@@ -31,4 +64,22 @@ public class Level {
         this.truckHeight = truckHeight;
         this.backgroundKey = backgroundKey;
     }
+
+    // Bancos, lixeiras, postes e arbustos das calçadas (os fundos de 1536 px compartilham o mesmo desenho)
+    private static final String SIDEWALK_MAP = "maps/calcadas.tmx";
+
+    /**
+     * Lista de fases padrão do jogo, na ordem de progressão.
+     * Compartilhada entre o jogo local e o servidor cooperativo.
+     */
+    public static List<Level> defaultLevels() {
+        List<Level> levels = new ArrayList<>();
+        // totalTime, trashCount, trashSize, playerSpeed, truckW, truckH, backgroundKey, sweeperCount, night, mapPath
+        levels.add(new Level(60f, 15, 18f, 250f, 64f, 32f, "Street"));
+        levels.add(new Level(50f, 18, 20f, 260f, 64f, 32f, "StreetLDestN", 0, false, SIDEWALK_MAP));
+        levels.add(new Level(40f, 22, 18f, 270f, 64f, 32f, "StreetRedUrban", 1, false, SIDEWALK_MAP));
+        levels.add(new Level(35f, 24, 18f, 280f, 64f, 32f, "StreetMedianNight", 2, true, SIDEWALK_MAP));
+        levels.add(new Level(27f, 28, 16f, 280f, 64f, 32f, "StreetBiscuit", 3, false, SIDEWALK_MAP));
+        return levels;
+    }
 }
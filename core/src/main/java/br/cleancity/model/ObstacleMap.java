@@ -0,0 +1,321 @@
+package br.cleancity.model;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.XmlReader;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Obstáculos estáticos de uma fase (prédios, carros estacionados, lixeiras), lidos de um mapa Tiled (TMX)
+ * e indexados por uma BVH (hierarquia de volumes envolventes) para as consultas de movimento.
+ *
+ * - Mapa: objetos das camadas de objetos chamadas {@link #LAYER_NAME}. Cada objeto vira a caixa alinhada que o
+ *   envolve (retângulos, elipses, polígonos e objetos de tile, considerando a rotação); pontos e textos são
+ *   ignorados. As coordenadas do mapa (pixels, y para baixo) são esticadas para o mundo, como o fundo da fase.
+ *   Só o XML é lido (sem tilesets nem texturas), então também funciona no servidor co-op e nos benchmarks.
+ * - BVH: montada uma vez na carga, dividindo na mediana dos centros pelo eixo mais longo até folhas de até
+ *   {@link #LEAF_SIZE} caixas. Nós e caixas ficam em arrays primitivos; a busca usa uma pilha fixa.
+ *   Uma consulta visita O(log n) nós mais os obstáculos da região, então milhares de obstáculos custam pouco.
+ * - Movimento: {@link #clipX}/{@link #clipY} limitam o deslocamento de uma caixa num eixo até a face do primeiro
+ *   obstáculo do caminho (varredura: passos grandes não atravessam). Movendo um eixo por vez, a caixa desliza
+ *   pelas paredes. Obstáculos que já sobrepõem a caixa no início do movimento não a prendem.
+ *
+ * Consultas reutilizam buffers internos: cada instância é usada por uma thread (a do seu `GameWorld`).
+ */
+public final class ObstacleMap {
+    /** Nome das camadas de objetos do TMX com os obstáculos. */
+    public static final String LAYER_NAME = "obstaculos";
+    /** Fase sem obstáculos. */
+    public static final ObstacleMap EMPTY = new ObstacleMap(new float[0], 0);
+
+    private static final int LEAF_SIZE = 4;
+    // Folga nas comparações de faces: encostado numa parede não conta como sobreposto a ela
+    private static final float EPSILON = 1e-3f;
+    // TMX já lidos: caminho@tamanho do mundo → retângulos
+    private static final Map<String, float[]> parsed = new ConcurrentHashMap<>();
+
+    private final int count;
+    // Caixas em ordem de folha: minX, minY, maxX, maxY
+    private final float[] boxes;
+    // Nós: caixa (4 floats); folha se size > 0 (caixas [first, first + size)), senão filhos em nó + 1 e `first`
+    private final float[] nodeBoxes;
+    private final int[] nodeFirst;
+    private final int[] nodeSize;
+    private int nodeCount;
+
+    private final int[] stack = new int[64];
+    private final IntArray hits = new IntArray();
+
+    /**
+     * Monta o índice sobre retângulos do mundo.
+     * @param rects `x, y, largura, altura` por obstáculo
+     * @param n quantidade de obstáculos em `rects`
+     */
+    private ObstacleMap(float[] rects, int n) {
+        this.count = n;
+        this.boxes = new float[n * 4];
+        this.nodeBoxes = new float[Math.max(1, 2 * n) * 4];
+        this.nodeFirst = new int[Math.max(1, 2 * n)];
+        this.nodeSize = new int[Math.max(1, 2 * n)];
+        if (n == 0) return;
+
+        int[] order = new int[n];
+        float[] centers = new float[n * 2];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            centers[i * 2] = rects[i * 4] + rects[i * 4 + 2] * 0.5f;
+            centers[i * 2 + 1] = rects[i * 4 + 1] + rects[i * 4 + 3] * 0.5f;
+        }
+        build(rects, order, centers, 0, n);
+        for (int i = 0; i < n; i++) {
+            int r = order[i] * 4;
+            boxes[i * 4] = rects[r];
+            boxes[i * 4 + 1] = rects[r + 1];
+            boxes[i * 4 + 2] = rects[r] + rects[r + 2];
+            boxes[i * 4 + 3] = rects[r + 1] + rects[r + 3];
+        }
+    }
+
+    /**
+     * Obstáculos a partir de retângulos já em coordenadas do mundo.
+     * @param rects `x, y, largura, altura` por obstáculo
+     */
+    public static ObstacleMap of(float[] rects) {
+        return rects.length < 4 ? EMPTY : new ObstacleMap(rects, rects.length / 4);
+    }
+
+    /**
+     * Obstáculos do mapa da fase (`level.mapPath`, arquivo interno), ou {@link #EMPTY} se a fase não tem mapa.
+     * Sem `Gdx.files` (verificação do co-op pela linha de comando, benchmarks), o mapa é procurado no classpath.
+     * O TMX é lido uma vez por tamanho de mundo (recomeçar ou repetir a fase não relê o XML); cada chamada monta
+     * uma BVH própria, pois as consultas não são compartilháveis entre threads.
+     * Se o mapa não puder ser lido, registra o erro e segue sem obstáculos.
+     */
+    public static ObstacleMap forLevel(Level level, float worldWidth, float worldHeight) {
+        if (level.mapPath == null) return EMPTY;
+        String key = level.mapPath + '@' + worldWidth + 'x' + worldHeight;
+        float[] rects = parsed.get(key);
+        if (rects == null) {
+            try {
+                InputStream in = Gdx.files != null ? Gdx.files.internal(level.mapPath).read()
+                    : ObstacleMap.class.getResourceAsStream("/" + level.mapPath);
+                if (in == null) throw new GdxRuntimeException("mapa não encontrado: " + level.mapPath);
+                rects = readRects(in, worldWidth, worldHeight);
+            } catch (RuntimeException e) {
+                if (Gdx.app != null) Gdx.app.error("ObstacleMap", "Falha ao ler o mapa " + level.mapPath, e);
+                return EMPTY;
+            }
+            parsed.put(key, rects);
+        }
+        return of(rects);
+    }
+
+    /** Lê as camadas {@link #LAYER_NAME} de um TMX e estica o mapa para o tamanho do mundo. */
+    public static ObstacleMap load(FileHandle tmx, float worldWidth, float worldHeight) {
+        return of(readRects(tmx.read(), worldWidth, worldHeight));
+    }
+
+    // Retângulos do mundo (`x, y, largura, altura`) das camadas de obstáculos; fecha o stream
+    private static float[] readRects(InputStream tmx, float worldWidth, float worldHeight) {
+        XmlReader.Element map = new XmlReader().parse(tmx);
+        float mapWidth = map.getIntAttribute("width") * map.getIntAttribute("tilewidth");
+        float mapHeight = map.getIntAttribute("height") * map.getIntAttribute("tileheight");
+        float sx = worldWidth / mapWidth, sy = worldHeight / mapHeight;
+
+        FloatArray rects = new FloatArray();
+        FloatArray points = new FloatArray();
+        for (XmlReader.Element layer : map.getChildrenByNameRecursively("objectgroup")) {
+            if (!LAYER_NAME.equalsIgnoreCase(layer.getAttribute("name", ""))) continue;
+            float offsetX = layer.getFloatAttribute("offsetx", 0f);
+            float offsetY = layer.getFloatAttribute("offsety", 0f);
+            for (XmlReader.Element o : layer.getChildrenByName("object")) {
+                if (o.getChildByName("point") != null || o.getChildByName("text") != null) continue;
+                if (!localPoints(o, points)) continue;
+
+                // Rotação em graus, sentido horário (y para baixo), em torno de (x, y) do objeto
+                float x = o.getFloatAttribute("x", 0f) + offsetX, y = o.getFloatAttribute("y", 0f) + offsetY;
+                double angle = Math.toRadians(o.getFloatAttribute("rotation", 0f));
+                float cos = (float) Math.cos(angle), sin = (float) Math.sin(angle);
+                float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+                for (int i = 0; i < points.size; i += 2) {
+                    float px = x + points.get(i) * cos - points.get(i + 1) * sin;
+                    float py = y + points.get(i) * sin + points.get(i + 1) * cos;
+                    minX = Math.min(minX, px);
+                    maxX = Math.max(maxX, px);
+                    minY = Math.min(minY, py);
+                    maxY = Math.max(maxY, py);
+                }
+                if (maxX <= minX || maxY <= minY) continue;
+                rects.add(minX * sx, (mapHeight - maxY) * sy, (maxX - minX) * sx, (maxY - minY) * sy);
+            }
+        }
+        return rects.toArray();
+    }
+
+    // Pontos do contorno do objeto, relativos a (x, y); false se o objeto não tem área
+    private static boolean localPoints(XmlReader.Element o, FloatArray out) {
+        out.clear();
+        XmlReader.Element shape = o.getChildByName("polygon");
+        if (shape == null) shape = o.getChildByName("polyline");
+        if (shape != null) {
+            for (String pair : shape.getAttribute("points", "").trim().split("\\s+")) {
+                int comma = pair.indexOf(',');
+                if (comma < 0) continue;
+                out.add(Float.parseFloat(pair.substring(0, comma)), Float.parseFloat(pair.substring(comma + 1)));
+            }
+            return out.size >= 4;
+        }
+        float w = o.getFloatAttribute("width", 0f), h = o.getFloatAttribute("height", 0f);
+        if (w <= 0f || h <= 0f) return false;
+        // Objetos de tile (com `gid`) são ancorados pela base
+        float top = o.hasAttribute("gid") ? -h : 0f;
+        out.add(0f, top, w, top);
+        out.add(0f, top + h, w, top + h);
+        return true;
+    }
+
+    /** Quantidade de obstáculos. */
+    public int size() {
+        return count;
+    }
+
+    /** True se não há obstáculos. */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /** Caixa do obstáculo `i` (0 ≤ i < {@link #size()}, em ordem interna). */
+    public Rectangle bounds(int i, Rectangle out) {
+        int b = i * 4;
+        return out.set(boxes[b], boxes[b + 1], boxes[b + 2] - boxes[b], boxes[b + 3] - boxes[b + 1]);
+    }
+
+    /** True se a caixa sobrepõe algum obstáculo (encostar não conta). */
+    public boolean overlaps(float x, float y, float width, float height) {
+        if (count == 0) return false;
+        query(x + EPSILON, y + EPSILON, x + width - EPSILON, y + height - EPSILON);
+        return hits.size > 0;
+    }
+
+    /**
+     * Deslocamento em x que a caixa pode fazer sem entrar num obstáculo.
+     * @return `dx` limitado à face do primeiro obstáculo do caminho (mesmo sinal, ou zero)
+     */
+    public float clipX(float x, float y, float width, float height, float dx) {
+        if (count == 0 || dx == 0f) return dx;
+        if (dx > 0f) query(x + width - EPSILON, y + EPSILON, x + width + dx, y + height - EPSILON);
+        else query(x + dx, y + EPSILON, x + EPSILON, y + height - EPSILON);
+        for (int i = 0; i < hits.size; i++) {
+            int b = hits.get(i) * 4;
+            if (dx > 0f) {
+                if (boxes[b] >= x + width - EPSILON) dx = Math.max(0f, Math.min(dx, boxes[b] - (x + width)));
+            } else if (boxes[b + 2] <= x + EPSILON) {
+                dx = Math.min(0f, Math.max(dx, boxes[b + 2] - x));
+            }
+        }
+        return dx;
+    }
+
+    /**
+     * Deslocamento em y que a caixa pode fazer sem entrar num obstáculo.
+     * @return `dy` limitado à face do primeiro obstáculo do caminho (mesmo sinal, ou zero)
+     */
+    public float clipY(float x, float y, float width, float height, float dy) {
+        if (count == 0 || dy == 0f) return dy;
+        if (dy > 0f) query(x + EPSILON, y + height - EPSILON, x + width - EPSILON, y + height + dy);
+        else query(x + EPSILON, y + dy, x + width - EPSILON, y + EPSILON);
+        for (int i = 0; i < hits.size; i++) {
+            int b = hits.get(i) * 4;
+            if (dy > 0f) {
+                if (boxes[b + 1] >= y + height - EPSILON) dy = Math.max(0f, Math.min(dy, boxes[b + 1] - (y + height)));
+            } else if (boxes[b + 3] <= y + EPSILON) {
+                dy = Math.min(0f, Math.max(dy, boxes[b + 3] - y));
+            }
+        }
+        return dy;
+    }
+
+    // Obstáculos cuja caixa sobrepõe a região [x0, x1] x [y0, y1] (interior), em `hits`
+    private void query(float x0, float y0, float x1, float y1) {
+        hits.clear();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int nb = node * 4;
+            if (nodeBoxes[nb] > x1 || nodeBoxes[nb + 2] < x0 || nodeBoxes[nb + 1] > y1 || nodeBoxes[nb + 3] < y0) continue;
+            int size = nodeSize[node];
+            if (size == 0) {
+                stack[top++] = node + 1;
+                stack[top++] = nodeFirst[node];
+                continue;
+            }
+            for (int i = nodeFirst[node], end = i + size; i < end; i++) {
+                int b = i * 4;
+                if (boxes[b] < x1 && boxes[b + 2] > x0 && boxes[b + 1] < y1 && boxes[b + 3] > y0) hits.add(i);
+            }
+        }
+    }
+
+    // Monta o nó das caixas order[lo, hi) e devolve o índice dele (filho esquerdo logo em seguida)
+    private int build(float[] rects, int[] order, float[] centers, int lo, int hi) {
+        int node = nodeCount++;
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        float cMinX = Float.MAX_VALUE, cMinY = Float.MAX_VALUE, cMaxX = -Float.MAX_VALUE, cMaxY = -Float.MAX_VALUE;
+        for (int i = lo; i < hi; i++) {
+            int r = order[i];
+            minX = Math.min(minX, rects[r * 4]);
+            minY = Math.min(minY, rects[r * 4 + 1]);
+            maxX = Math.max(maxX, rects[r * 4] + rects[r * 4 + 2]);
+            maxY = Math.max(maxY, rects[r * 4 + 1] + rects[r * 4 + 3]);
+            cMinX = Math.min(cMinX, centers[r * 2]);
+            cMaxX = Math.max(cMaxX, centers[r * 2]);
+            cMinY = Math.min(cMinY, centers[r * 2 + 1]);
+            cMaxY = Math.max(cMaxY, centers[r * 2 + 1]);
+        }
+        nodeBoxes[node * 4] = minX;
+        nodeBoxes[node * 4 + 1] = minY;
+        nodeBoxes[node * 4 + 2] = maxX;
+        nodeBoxes[node * 4 + 3] = maxY;
+
+        if (hi - lo <= LEAF_SIZE) {
+            nodeFirst[node] = lo;
+            nodeSize[node] = hi - lo;
+            return node;
+        }
+        int axis = cMaxX - cMinX >= cMaxY - cMinY ? 0 : 1;
+        int mid = (lo + hi) >>> 1;
+        select(order, centers, axis, lo, hi - 1, mid);
+        build(rects, order, centers, lo, mid);
+        nodeFirst[node] = build(rects, order, centers, mid, hi);
+        nodeSize[node] = 0;
+        return node;
+    }
+
+    // Quickselect: deixa em order[k] o k-ésimo centro no eixo, menores antes e maiores depois
+    private static void select(int[] order, float[] centers, int axis, int lo, int hi, int k) {
+        while (lo < hi) {
+            float pivot = centers[order[(lo + hi) >>> 1] * 2 + axis];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (centers[order[i] * 2 + axis] < pivot) i++;
+                while (centers[order[j] * 2 + axis] > pivot) j--;
+                if (i <= j) {
+                    int t = order[i];
+                    order[i++] = order[j];
+                    order[j--] = t;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+}
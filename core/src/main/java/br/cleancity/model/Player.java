@@ -14,6 +14,8 @@ public class Player {
     public float height;
     /** Velocidade em unidades por segundo. */
     public float speed;
+    /** Posição no início do passo atual (usada na colisão contínua). */
+    public float prevX, prevY;
     /** Última direção de movimento usada para render (unitária, ou 0 se parado). */
     public float faceX = 0f;
     public float faceY = -1f; // por padrão olhando para frente
@@ -27,6 +29,8 @@ public class Player {
     public Player(float x, float y, float width, float height, float speed) {
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
         this.width = width;
         this.height = height;
         this.speed = speed;
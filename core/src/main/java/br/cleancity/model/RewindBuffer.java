@@ -0,0 +1,374 @@
+package br.cleancity.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Histórico em memória dos últimos ticks do {@link GameWorld}, usado para "voltar no tempo" e para depuração.
+ *
+ * Cada tick grava um registro compacto num buffer circular de bytes (`ByteBuffer` direto, alocado uma vez):
+ * - Keyframe (a cada `keyframeInterval` ticks): todos os campos e o bitset de lixo coletado.
+ * - Delta: máscara dos campos que diferem do keyframe e os ids de lixo coletados desde ele.
+ * Como o delta é sempre contra o keyframe (e não contra o tick anterior), restaurar qualquer tick custa
+ * decodificar no máximo dois registros, independente de quão longe se volta.
+ *
+ * Estado gravado: caminhão (x, velocidade), tempo restante, jogador e parceiro (posição, direção),
+ * pontuação, `carriedTrash`, lixo dos rivais e flags (game over, vitória, derrota de cada jogador).
+ * Tamanhos de hitbox não são gravados: o `GameRenderer` os sincroniza a cada frame. Os varredores rivais
+ * também não: ao voltar no tempo eles seguem de onde estão, atrás do lixo restaurado. A posição do lixo empurrado
+ * pelo vento também não é gravada: o lixo restaurado volta parado na última posição em que esteve na rua.
+ *
+ * Memória: limitada por `capacityTicks` e `capacityBytes`; registros antigos são descartados ao serem
+ * sobrescritos. Cada delta ocupa só os campos da máscara. {@link #record(GameWorld, float)} não aloca.
+ *
+ * Ids de lixo são gravados em 16 bits: fases com mais de {@link #MAX_TRASH} lixos não são gravadas.
+ */
+public class RewindBuffer {
+    /** Maior quantidade de lixo de uma fase que ainda cabe nos ids de 16 bits dos registros. */
+    public static final int MAX_TRASH = 0xFFFF;
+
+    private static final byte KEY = 1, DELTA = 2;
+
+    // Campos float e int replicados, na ordem de codificação
+    private static final int F_TRUCK_X = 0, F_TRUCK_SPEED = 1, F_TIME = 2,
+        F_P_X = 3, F_P_Y = 4, F_P_FX = 5, F_P_FY = 6,
+        F_Q_X = 7, F_Q_Y = 8, F_Q_FX = 9, F_Q_FY = 10, FLOATS = 11;
+    private static final int I_SCORE = 0, I_CARRIED = 1, I_FLAGS = 2, I_RIVAL = 3, INTS = 4;
+
+    private static final int FL_GAME_OVER = 1, FL_GAME_WON = 1 << 1, FL_P_DEFEATED = 1 << 2,
+        FL_Q_DEFEATED = 1 << 3, FL_PARTNER = 1 << 4;
+
+    private final ByteBuffer data;
+    private final int capacityTicks;
+    private final int keyframeInterval;
+
+    // Índice por tick (posição tick % capacityTicks)
+    private final int[] offset;
+    private final int[] length;
+    private final int[] keyTick;
+    private final float[] time;
+
+    private int oldest = 0;     // tick mais antigo ainda no buffer
+    private int next = 0;       // próximo tick a gravar
+    private int writePos = 0;
+    private float clock = 0f;
+    private int sinceKey = Integer.MAX_VALUE;
+    private int lastKey = -1;
+
+    // Scratch (pré-alocado) para capturar/decodificar sem alocar
+    private final float[] floats = new float[FLOATS];
+    private final int[] ints = new int[INTS];
+    private final float[] keyFloats = new float[FLOATS];
+    private final int[] keyInts = new int[INTS];
+    private long[] bits = new long[0];
+    private long[] keyBits = new long[0];
+
+    /**
+     * @param capacityTicks quantidade máxima de ticks lembrados
+     * @param keyframeInterval ticks entre keyframes
+     * @param capacityBytes tamanho do buffer de registros
+     */
+    public RewindBuffer(int capacityTicks, int keyframeInterval, int capacityBytes) {
+        this.capacityTicks = capacityTicks;
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+        this.data = ByteBuffer.allocateDirect(capacityBytes);
+        this.offset = new int[capacityTicks];
+        this.length = new int[capacityTicks];
+        this.keyTick = new int[capacityTicks];
+        this.time = new float[capacityTicks];
+    }
+
+    /** Descarta todo o histórico (ex.: ao carregar outra fase). */
+    public void clear() {
+        oldest = 0;
+        next = 0;
+        writePos = 0;
+        clock = 0f;
+        sinceKey = Integer.MAX_VALUE;
+        lastKey = -1;
+    }
+
+    /** Quantidade de ticks disponíveis para restaurar. */
+    public int size() {
+        return next - firstRestorable();
+    }
+
+    /**
+     * Grava o estado atual como um novo tick.
+     * @param delta duração do tick em segundos (para localizar ticks por tempo)
+     * @return false se o registro não couber no buffer (capacidade pequena demais para o lixo da fase) ou se a fase
+     *     tiver mais de {@link #MAX_TRASH} lixos
+     */
+    public boolean record(GameWorld world, float delta) {
+        if (world.spawnedTrashCount() > MAX_TRASH) return false;
+        capture(world);
+        int trashWords = (world.spawnedTrashCount() + 63) >>> 6;
+        ensureBits(trashWords);
+        capturePresent(world);
+
+        boolean key = sinceKey >= keyframeInterval || lastKey < oldest;
+        int newlyCollected = 0, mask = 0;
+        if (!key) {
+            mask = deltaMask();
+            for (int w = 0; w < trashWords; w++) newlyCollected += Long.bitCount(bits[w] & ~keyBits[w]);
+            // Delta maior que um keyframe não compensa
+            if (newlyCollected * 2 > trashWords * 8) key = true;
+        }
+        int size = key
+            ? 1 + FLOATS * 4 + INTS * 4 + 2 + trashWords * 8
+            : 1 + 2 + Integer.bitCount(mask) * 4 + 2 + newlyCollected * 2;
+        if (size > data.capacity()) return false;
+
+        int pos = reserve(size);
+        int tick = next;
+        int slot = tick % capacityTicks;
+        int end;
+        if (key) {
+            end = writeKey(pos, world.spawnedTrashCount(), trashWords);
+            lastKey = tick;
+            sinceKey = 0;
+            System.arraycopy(floats, 0, keyFloats, 0, FLOATS);
+            System.arraycopy(ints, 0, keyInts, 0, INTS);
+            System.arraycopy(bits, 0, keyBits, 0, trashWords);
+        } else {
+            end = writeDelta(pos, trashWords, newlyCollected, mask);
+        }
+        sinceKey++;
+        clock += delta;
+        offset[slot] = pos;
+        length[slot] = end - pos;
+        keyTick[slot] = lastKey;
+        time[slot] = clock;
+        writePos = end;
+        next++;
+        return true;
+    }
+
+    /**
+     * Tick gravado há pelo menos `seconds` segundos (ou o mais antigo disponível), ou -1 se vazio.
+     */
+    public int tickSecondsAgo(float seconds) {
+        int first = firstRestorable();
+        if (first >= next) return -1;
+        float target = time[(next - 1) % capacityTicks] - seconds;
+        // Busca binária: os tempos crescem com o tick
+        int lo = first, hi = next - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (time[mid % capacityTicks] <= target) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /**
+     * Restaura o mundo para o estado do tick informado, sem recriá-lo: campos são sobrescritos e
+     * `trash` é remontado a partir do bitset (com os dados de cada id em `spawnedTrash`; `trashClusters` é recontado).
+     * Os ticks posteriores são descartados, e a gravação continua a partir do tick restaurado.
+     * @return false se o tick não estiver mais disponível
+     */
+    public boolean restore(GameWorld world, int tick) {
+        if (tick < firstRestorable() || tick >= next) return false;
+        int slot = tick % capacityTicks;
+        int key = keyTick[slot];
+
+        int words = readKey(offset[key % capacityTicks]);
+        if (key != tick) readDelta(offset[slot]);
+        apply(world, words);
+
+        // O histórico "depois" do tick restaurado deixa de existir
+        next = tick + 1;
+        writePos = offset[slot] + length[slot];
+        clock = time[slot];
+        lastKey = key;
+        sinceKey = tick - key + 1;
+        int kSlot = key % capacityTicks;
+        readKey(offset[kSlot]);
+        System.arraycopy(floats, 0, keyFloats, 0, FLOATS);
+        System.arraycopy(ints, 0, keyInts, 0, INTS);
+        System.arraycopy(bits, 0, keyBits, 0, words);
+        return true;
+    }
+
+    private int firstRestorable() {
+        // Deltas cujo keyframe foi sobrescrito não podem ser restaurados
+        int t = oldest;
+        while (t < next && keyTick[t % capacityTicks] < oldest) t++;
+        return t;
+    }
+
+    /**
+     * Reserva `size` bytes contíguos após o último registro, voltando ao início do buffer quando necessário,
+     * e descarta os ticks mais antigos cujos bytes seriam sobrescritos.
+     */
+    private int reserve(int size) {
+        int pos = writePos;
+        if (pos + size > data.capacity()) {
+            // Os registros entre pos e o fim do buffer são os mais antigos: saem antes de voltar ao início
+            while (oldest < next && offset[oldest % capacityTicks] >= pos) oldest++;
+            pos = 0;
+        }
+        while (oldest < next) {
+            int s = oldest % capacityTicks;
+            int start = offset[s];
+            boolean overlaps = start < pos + size && start + length[s] > pos;
+            if (!overlaps && next - oldest < capacityTicks) break;
+            oldest++;
+        }
+        return pos;
+    }
+
+    private void capture(GameWorld world) {
+        Player p = world.player;
+        Player q = world.partner;
+        floats[F_TRUCK_X] = world.truck.x;
+        floats[F_TRUCK_SPEED] = world.truck.speed;
+        floats[F_TIME] = world.timeLeft;
+        floats[F_P_X] = p.x;
+        floats[F_P_Y] = p.y;
+        floats[F_P_FX] = p.faceX;
+        floats[F_P_FY] = p.faceY;
+        floats[F_Q_X] = q != null ? q.x : 0f;
+        floats[F_Q_Y] = q != null ? q.y : 0f;
+        floats[F_Q_FX] = q != null ? q.faceX : 0f;
+        floats[F_Q_FY] = q != null ? q.faceY : 0f;
+        ints[I_SCORE] = world.score.value;
+        ints[I_CARRIED] = world.carriedTrash;
+        ints[I_RIVAL] = world.rivalTrash;
+        ints[I_FLAGS] = (world.gameOver ? FL_GAME_OVER : 0)
+            | (world.gameWon ? FL_GAME_WON : 0)
+            | (p.isDefeated ? FL_P_DEFEATED : 0)
+            | (q != null && q.isDefeated ? FL_Q_DEFEATED : 0)
+            | (q != null ? FL_PARTNER : 0);
+    }
+
+    // bits[id] = 1 quando o lixo já foi coletado
+    private void capturePresent(GameWorld world) {
+        int n = world.spawnedTrashCount();
+        int words = (n + 63) >>> 6;
+        for (int w = 0; w < words; w++) bits[w] = -1L;
+        if ((n & 63) != 0) bits[words - 1] = (1L << (n & 63)) - 1;
+        int[] ids = world.trash.id;
+        for (int i = 0; i < world.trash.size; i++) {
+            int id = ids[i];
+            bits[id >>> 6] &= ~(1L << (id & 63));
+        }
+    }
+
+    private void ensureBits(int words) {
+        // Só aloca quando a fase tem mais lixo do que qualquer anterior
+        if (bits.length < words) {
+            bits = new long[words];
+            long[] k = new long[words];
+            System.arraycopy(keyBits, 0, k, 0, keyBits.length);
+            keyBits = k;
+        }
+    }
+
+    // Os dois `write` retornam a posição logo após o registro
+    private int writeKey(int pos, int trashCount, int words) {
+        data.put(pos++, KEY);
+        for (int i = 0; i < FLOATS; i++, pos += 4) data.putFloat(pos, floats[i]);
+        for (int i = 0; i < INTS; i++, pos += 4) data.putInt(pos, ints[i]);
+        data.putShort(pos, (short) trashCount);
+        pos += 2;
+        for (int w = 0; w < words; w++, pos += 8) data.putLong(pos, bits[w]);
+        return pos;
+    }
+
+    // Campos que diferem do keyframe: bits 0..FLOATS-1 para floats, os seguintes para ints (todos de 4 bytes)
+    private int deltaMask() {
+        int mask = 0;
+        for (int i = 0; i < FLOATS; i++) if (floats[i] != keyFloats[i]) mask |= 1 << i;
+        for (int i = 0; i < INTS; i++) if (ints[i] != keyInts[i]) mask |= 1 << (FLOATS + i);
+        return mask;
+    }
+
+    private int writeDelta(int pos, int words, int newlyCollected, int mask) {
+        data.put(pos++, DELTA);
+        data.putShort(pos, (short) mask);
+        pos += 2;
+        for (int i = 0; i < FLOATS; i++) {
+            if ((mask & (1 << i)) != 0) { data.putFloat(pos, floats[i]); pos += 4; }
+        }
+        for (int i = 0; i < INTS; i++) {
+            if ((mask & (1 << (FLOATS + i))) != 0) { data.putInt(pos, ints[i]); pos += 4; }
+        }
+        data.putShort(pos, (short) newlyCollected);
+        pos += 2;
+        for (int w = 0; w < words; w++) {
+            long diff = bits[w] & ~keyBits[w];
+            while (diff != 0) {
+                int b = Long.numberOfTrailingZeros(diff);
+                data.putShort(pos, (short) ((w << 6) + b));
+                pos += 2;
+                diff &= diff - 1;
+            }
+        }
+        return pos;
+    }
+
+    // Decodifica um keyframe para floats/ints/bits e retorna a quantidade de palavras do bitset
+    private int readKey(int pos) {
+        pos++;
+        for (int i = 0; i < FLOATS; i++, pos += 4) floats[i] = data.getFloat(pos);
+        for (int i = 0; i < INTS; i++, pos += 4) ints[i] = data.getInt(pos);
+        int n = data.getShort(pos) & 0xFFFF;
+        pos += 2;
+        int words = (n + 63) >>> 6;
+        ensureBits(words);
+        for (int w = 0; w < words; w++, pos += 8) bits[w] = data.getLong(pos);
+        return words;
+    }
+
+    // Aplica um delta sobre o keyframe já decodificado em floats/ints/bits
+    private void readDelta(int pos) {
+        pos++;
+        int mask = data.getShort(pos) & 0xFFFF;
+        pos += 2;
+        for (int i = 0; i < FLOATS; i++) {
+            if ((mask & (1 << i)) != 0) { floats[i] = data.getFloat(pos); pos += 4; }
+        }
+        for (int i = 0; i < INTS; i++) {
+            if ((mask & (1 << (FLOATS + i))) != 0) { ints[i] = data.getInt(pos); pos += 4; }
+        }
+        int count = data.getShort(pos) & 0xFFFF;
+        pos += 2;
+        for (int k = 0; k < count; k++, pos += 2) {
+            int id = data.getShort(pos) & 0xFFFF;
+            bits[id >>> 6] |= 1L << (id & 63);
+        }
+    }
+
+    private void apply(GameWorld world, int words) {
+        world.truck.x = floats[F_TRUCK_X];
+        world.truck.speed = floats[F_TRUCK_SPEED];
+        world.timeLeft = floats[F_TIME];
+        Player p = world.player;
+        p.x = floats[F_P_X];
+        p.y = floats[F_P_Y];
+        p.faceX = floats[F_P_FX];
+        p.faceY = floats[F_P_FY];
+        world.score.value = ints[I_SCORE];
+        world.carriedTrash = ints[I_CARRIED];
+        world.rivalTrash = ints[I_RIVAL];
+        int flags = ints[I_FLAGS];
+        world.gameOver = (flags & FL_GAME_OVER) != 0;
+        world.gameWon = (flags & FL_GAME_WON) != 0;
+        p.isDefeated = (flags & FL_P_DEFEATED) != 0;
+        if ((flags & FL_PARTNER) != 0) {
+            Player q = world.spawnPartner();
+            q.x = floats[F_Q_X];
+            q.y = floats[F_Q_Y];
+            q.faceX = floats[F_Q_FX];
+            q.faceY = floats[F_Q_FY];
+            q.isDefeated = (flags & FL_Q_DEFEATED) != 0;
+        }
+
+        // Remonta o lixo na rua em ordem de id
+        world.trash.clear();
+        int n = Math.min(world.spawnedTrashCount(), words << 6);
+        for (int id = 0; id < n; id++) {
+            if ((bits[id >>> 6] & (1L << (id & 63))) == 0) world.restoreTrash(id);
+        }
+        world.trashClusters.rebuild(world.trash);
+    }
+}
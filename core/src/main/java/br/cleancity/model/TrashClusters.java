@@ -0,0 +1,190 @@
+package br.cleancity.model;
+
+import java.util.Arrays;
+
+/**
+ * Lixo na rua contado por célula do mundo, em vários níveis de detalhe, para o desenho afastado (LOD).
+ *
+ * - Nível 0: células de {@link #BASE_CELL} unidades; cada nível seguinte junta 2×2 células do anterior, até
+ *   uma célula cobrir o mundo inteiro.
+ * - Por célula: quantidade de lixo e soma das posições (canto inferior esquerdo de cada lixo), para desenhar
+ *   o grupo no centróide.
+ * - {@link #add}/{@link #remove} custam O(níveis): o `GameWorld` chama a cada lixo gerado ou recolhido, e o
+ *   `GameRenderer` percorre só as células visíveis do nível escolhido, sem olhar cada lixo. {@link #move} (lixo
+ *   empurrado pelo vento, muitos por passo) mexe só no nível 0; os outros são remontados dele quando lidos.
+ *
+ * O lixo é classificado pela posição (`x`, `y`); o lixo empurrado pelo vento é reclassificado por {@link #move}.
+ * O tamanho pode mudar (o servidor co-op ajusta as hitboxes ao sprite) sem afetar as contagens.
+ */
+public final class TrashClusters {
+    /** Lado da célula no nível 0, em unidades do mundo. */
+    public static final float BASE_CELL = 32f;
+    private static final float INV_BASE_CELL = 1f / BASE_CELL;
+
+    private final int levels;
+    private final int[] cols, rows;
+    private final float[] cellSize;
+    private final int[][] counts;
+    private final float[][] sumX, sumY;
+    // Níveis acima do 0 desatualizados por move()
+    private boolean coarseStale;
+
+    public TrashClusters(float worldWidth, float worldHeight) {
+        int n = 1;
+        for (float s = BASE_CELL; s < worldWidth || s < worldHeight; s *= 2f) n++;
+        levels = n;
+        cols = new int[n];
+        rows = new int[n];
+        cellSize = new float[n];
+        counts = new int[n][];
+        sumX = new float[n][];
+        sumY = new float[n][];
+        float s = BASE_CELL;
+        for (int k = 0; k < n; k++, s *= 2f) {
+            cellSize[k] = s;
+            cols[k] = Math.max(1, (int) Math.ceil(worldWidth / s));
+            rows[k] = Math.max(1, (int) Math.ceil(worldHeight / s));
+            counts[k] = new int[cols[k] * rows[k]];
+            sumX[k] = new float[counts[k].length];
+            sumY[k] = new float[counts[k].length];
+        }
+    }
+
+    /** Conta um lixo novo na rua (canto inferior esquerdo em x, y). */
+    public void add(float x, float y) {
+        update(x, y, 1);
+    }
+
+    /** Desconta um lixo que saiu da rua. */
+    public void remove(float x, float y) {
+        update(x, y, -1);
+    }
+
+    /**
+     * Reclassifica um lixo que se moveu de (oldX, oldY) para (x, y). Só o nível 0 é atualizado na hora; os outros
+     * são remontados dele (2×2 células por célula) na próxima leitura ou cópia, uma vez por passo em vez de uma
+     * vez por lixo movido.
+     */
+    public void move(float oldX, float oldY, float x, float y) {
+        int from = row(oldY) * cols[0] + col(oldX), to = row(y) * cols[0] + col(x);
+        if (from == to) {
+            sumX[0][to] += x - oldX;
+            sumY[0][to] += y - oldY;
+        } else {
+            update(0, from, oldX, oldY, -1);
+            update(0, to, x, y, 1);
+        }
+        coarseStale = true;
+    }
+
+    private void update(float x, float y, int delta) {
+        int col = col(x), row = row(y);
+        for (int k = 0; k < levels; k++) update(k, (row >> k) * cols[k] + (col >> k), x, y, delta);
+    }
+
+    private void update(int k, int i, float x, float y, int delta) {
+        counts[k][i] += delta;
+        if (counts[k][i] == 0) {
+            // Célula vazia: zera as somas (sem acumular erro de arredondamento)
+            sumX[k][i] = 0f;
+            sumY[k][i] = 0f;
+        } else {
+            sumX[k][i] += delta * x;
+            sumY[k][i] += delta * y;
+        }
+    }
+
+    // Remonta os níveis acima do 0 somando 2×2 células do nível anterior
+    private void refreshCoarse() {
+        if (!coarseStale) return;
+        coarseStale = false;
+        for (int k = 1; k < levels; k++) {
+            int[] c = counts[k], fc = counts[k - 1];
+            float[] sx = sumX[k], sy = sumY[k], fsx = sumX[k - 1], fsy = sumY[k - 1];
+            Arrays.fill(c, 0);
+            Arrays.fill(sx, 0f);
+            Arrays.fill(sy, 0f);
+            int fineCols = cols[k - 1], fineRows = rows[k - 1], coarseCols = cols[k];
+            for (int row = 0; row < fineRows; row++) {
+                for (int col = 0; col < fineCols; col++) {
+                    int fine = row * fineCols + col, coarse = (row >> 1) * coarseCols + (col >> 1);
+                    c[coarse] += fc[fine];
+                    sx[coarse] += fsx[fine];
+                    sy[coarse] += fsy[fine];
+                }
+            }
+        }
+    }
+
+    // Célula no nível 0; a do nível k é a coluna/linha deslocada k bits (cada nível dobra o lado da célula)
+    private int col(float x) {
+        return Math.min(cols[0] - 1, Math.max(0, (int) (x * INV_BASE_CELL)));
+    }
+
+    private int row(float y) {
+        return Math.min(rows[0] - 1, Math.max(0, (int) (y * INV_BASE_CELL)));
+    }
+
+    /** Recalcula tudo a partir do lixo na rua (ex.: depois de voltar no tempo). */
+    public void rebuild(TrashStore trash) {
+        coarseStale = false;
+        for (int k = 0; k < levels; k++) {
+            Arrays.fill(counts[k], 0);
+            Arrays.fill(sumX[k], 0f);
+            Arrays.fill(sumY[k], 0f);
+        }
+        for (int i = 0; i < trash.size; i++) add(trash.x[i], trash.y[i]);
+    }
+
+    /** Copia as contagens de outro mundo do mesmo tamanho (cópia publicada pela simulação). */
+    public void copyFrom(TrashClusters other) {
+        other.refreshCoarse();
+        coarseStale = false;
+        for (int k = 0; k < levels; k++) {
+            System.arraycopy(other.counts[k], 0, counts[k], 0, counts[k].length);
+            System.arraycopy(other.sumX[k], 0, sumX[k], 0, sumX[k].length);
+            System.arraycopy(other.sumY[k], 0, sumY[k], 0, sumY[k].length);
+        }
+    }
+
+    /** Nível mais detalhado cujas células têm ao menos `minCellSize` de lado (ou o último). */
+    public int levelFor(float minCellSize) {
+        refreshCoarse();
+        int k = 0;
+        while (k < levels - 1 && cellSize[k] < minCellSize) k++;
+        return k;
+    }
+
+    public int levels() {
+        return levels;
+    }
+
+    public float cellSize(int level) {
+        return cellSize[level];
+    }
+
+    public int cols(int level) {
+        return cols[level];
+    }
+
+    public int rows(int level) {
+        return rows[level];
+    }
+
+    /** Lixo na célula. */
+    public int count(int level, int col, int row) {
+        return counts[level][row * cols[level] + col];
+    }
+
+    /** X médio (canto inferior esquerdo) do lixo da célula; só vale com `count > 0`. */
+    public float meanX(int level, int col, int row) {
+        int i = row * cols[level] + col;
+        return sumX[level][i] / counts[level][i];
+    }
+
+    /** Y médio (canto inferior esquerdo) do lixo da célula; só vale com `count > 0`. */
+    public float meanY(int level, int col, int row) {
+        int i = row * cols[level] + col;
+        return sumY[level][i] / counts[level][i];
+    }
+}
@@ -0,0 +1,178 @@
+package br.cleancity.model;
+
+import java.util.Arrays;
+
+/**
+ * Lixo guardado em estrutura de arrays: posição, tamanho, velocidade e mobilidade em `float[]` paralelos, variante
+ * de sprite em `byte[]` e o id estável (ordem de geração na fase) em `int[]`.
+ *
+ * - Os itens ocupam as posições [0, {@link #size}) de cada array; percorrer o lixo é ler arrays contíguos, sem
+ *   seguir uma referência por item.
+ * - {@link #remove(int)} é O(1): o último item ocupa a posição do removido (a ordem não é preservada) e um
+ *   índice id → posição acompanha as trocas.
+ * - Os arrays são públicos para os laços quentes (colisão, render); crescem em {@link #add}, então não guarde a
+ *   referência de um array entre uma inclusão e outra.
+ */
+public final class TrashStore {
+    /** Sprites das variantes de lixo (índice = `variant`). */
+    public static final String[] SPRITE_KEYS = {
+        "Trash_Pixel1", "Trash_Pixel2", "Trash_Pixel3", "Trash_Pixel4", "Trash_Pixel5", "Trash_Pixel6"};
+    /** Mobilidade de cada variante (1 = leve, voa com qualquer vento; perto de 0 = pesado, quase não sai do lugar). */
+    public static final float[] MOBILITY = {1f, 0.85f, 0.65f, 0.5f, 0.3f, 0.15f};
+
+    private static final int ABSENT = -1;
+
+    /** Canto inferior esquerdo. */
+    public float[] x, y;
+    public float[] width, height;
+    /** Velocidade (unidades por segundo); zero no lixo parado. Ver `TrashPhysics`. */
+    public float[] vx, vy;
+    /** Fator de aceleração pelo vento e pela esteira do caminhão, pela variante ({@link #MOBILITY}). */
+    public float[] mobility;
+    /** Variante do sprite (índice em {@link #SPRITE_KEYS}). */
+    public byte[] variant;
+    /** Id estável do item. */
+    public int[] id;
+    /** Quantidade de itens. */
+    public int size;
+
+    private int[] slotById;
+
+    public TrashStore() {
+        this(16);
+    }
+
+    public TrashStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        mobility = new float[capacity];
+        variant = new byte[capacity];
+        id = new int[capacity];
+        slotById = new int[capacity];
+        Arrays.fill(slotById, ABSENT);
+    }
+
+    /**
+     * Inclui um item no fim, parado.
+     * @return a posição do item
+     * @throws IllegalArgumentException se o id já está no store
+     */
+    public int add(int itemId, float itemX, float itemY, float itemWidth, float itemHeight, int itemVariant) {
+        if (contains(itemId)) throw new IllegalArgumentException("lixo repetido: " + itemId);
+        if (size == x.length) grow(size * 2);
+        if (itemId >= slotById.length) {
+            int old = slotById.length;
+            slotById = Arrays.copyOf(slotById, Math.max(itemId + 1, old * 2));
+            Arrays.fill(slotById, old, slotById.length, ABSENT);
+        }
+        int i = size++;
+        x[i] = itemX;
+        y[i] = itemY;
+        width[i] = itemWidth;
+        height[i] = itemHeight;
+        vx[i] = 0f;
+        vy[i] = 0f;
+        mobility[i] = MOBILITY[itemVariant];
+        variant[i] = (byte) itemVariant;
+        id[i] = itemId;
+        slotById[itemId] = i;
+        return i;
+    }
+
+    /** Copia o item da posição `slot` de outro store (com a velocidade). */
+    public int add(TrashStore from, int slot) {
+        int i = add(from.id[slot], from.x[slot], from.y[slot], from.width[slot], from.height[slot], from.variant[slot]);
+        vx[i] = from.vx[slot];
+        vy[i] = from.vy[slot];
+        return i;
+    }
+
+    /** Posição do item, ou -1 se não está no store. */
+    public int slotOf(int itemId) {
+        return itemId >= 0 && itemId < slotById.length ? slotById[itemId] : ABSENT;
+    }
+
+    public boolean contains(int itemId) {
+        return slotOf(itemId) != ABSENT;
+    }
+
+    /**
+     * Remove pelo id, em O(1) (troca com o último).
+     * @return false se o id não estava no store
+     */
+    public boolean remove(int itemId) {
+        int slot = slotOf(itemId);
+        if (slot == ABSENT) return false;
+        removeAt(slot);
+        return true;
+    }
+
+    /** Remove a posição `slot`, em O(1): o último item passa a ocupá-la. */
+    public void removeAt(int slot) {
+        if (slot < 0 || slot >= size) throw new IndexOutOfBoundsException("posição " + slot + ", tamanho " + size);
+        slotById[id[slot]] = ABSENT;
+        int last = --size;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            width[slot] = width[last];
+            height[slot] = height[last];
+            vx[slot] = vx[last];
+            vy[slot] = vy[last];
+            mobility[slot] = mobility[last];
+            variant[slot] = variant[last];
+            id[slot] = id[last];
+            slotById[id[slot]] = slot;
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Esvazia (mantém a capacidade). */
+    public void clear() {
+        for (int i = 0; i < size; i++) slotById[id[i]] = ABSENT;
+        size = 0;
+    }
+
+    /** Passa a ter exatamente os itens de outro store, na mesma ordem. */
+    public void copyFrom(TrashStore other) {
+        clear();
+        if (x.length < other.size) grow(other.size);
+        if (slotById.length < other.slotById.length) {
+            int old = slotById.length;
+            slotById = Arrays.copyOf(slotById, other.slotById.length);
+            Arrays.fill(slotById, old, slotById.length, ABSENT);
+        }
+        int n = other.size;
+        System.arraycopy(other.x, 0, x, 0, n);
+        System.arraycopy(other.y, 0, y, 0, n);
+        System.arraycopy(other.width, 0, width, 0, n);
+        System.arraycopy(other.height, 0, height, 0, n);
+        System.arraycopy(other.vx, 0, vx, 0, n);
+        System.arraycopy(other.vy, 0, vy, 0, n);
+        System.arraycopy(other.mobility, 0, mobility, 0, n);
+        System.arraycopy(other.variant, 0, variant, 0, n);
+        System.arraycopy(other.id, 0, id, 0, n);
+        for (int i = 0; i < n; i++) slotById[id[i]] = i;
+        size = n;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        mobility = Arrays.copyOf(mobility, capacity);
+        variant = Arrays.copyOf(variant, capacity);
+        id = Arrays.copyOf(id, capacity);
+    }
+}
@@ -14,6 +14,8 @@ public class Truck {
     public float height;
     /** Velocidade horizontal em unidades por segundo. */
     public float speed;
+    /** Posição X no início do passo atual (usada na colisão contínua). */
+    public float prevX;
 
     /**
      * Cria um caminhão com posição, tamanho e velocidade informados.
@@ -21,6 +23,7 @@ public class Truck {
     public Truck(float x, float y, float width, float height, float speed) {
         this.x = x;
         this.y = y;
+        this.prevX = x;
         this.width = width;
         this.height = height;
         this.speed = speed;
@@ -0,0 +1,259 @@
+package br.cleancity.net;
+
+import br.cleancity.audio.Mfx;
+import br.cleancity.audio.Sfx;
+import br.cleancity.audio.SoundManager;
+import br.cleancity.controller.GameController;
+import br.cleancity.controller.InputController;
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.Level;
+import br.cleancity.model.Player;
+import com.badlogic.gdx.math.Vector2;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.List;
+
+/**
+ * Cliente do modo cooperativo.
+ *
+ * - Envia a entrada de cada frame (com redundância das entradas ainda não confirmadas) e o ack do último snapshot.
+ * - Recebe snapshots em delta, reconstrói o estado a partir da base indicada e aplica ao mundo local.
+ * - Predição: o próprio jogador é movido localmente na hora com a mesma regra do servidor
+ *   (`GameController.movePlayer`); ao chegar um snapshot, a posição autoritativa é aplicada e as entradas
+ *   que o servidor ainda não processou são reaplicadas (reconciliação).
+ * - O lixo é removido por id conforme o servidor informa (apenas remoções próximas ao jogador).
+ *
+ * Não usa `Gdx.*`, então também funciona sem janela (ver {@link CoopLoopbackCheck}). `audio` pode ser null.
+ */
+public class CoopClient {
+    private static final int INPUT_BUFFER = 64;
+
+    private final DatagramChannel channel;
+    private final SoundManager audio;
+    private final List<Level> levels = Level.defaultLevels();
+    private final ByteBuffer in = ByteBuffer.allocateDirect(NetProtocol.MAX_PACKET);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(NetProtocol.MAX_PACKET);
+    private final Snapshot[] received = new Snapshot[NetProtocol.HISTORY];
+    private final Snapshot decoded = new Snapshot();
+    private final Vector2 dir = new Vector2();
+
+    // Entradas enviadas e ainda não confirmadas (buffer circular por número de sequência)
+    private final int[] inputBits = new int[INPUT_BUFFER];
+    private final float[] inputDelta = new float[INPUT_BUFFER];
+    private int nextSeq = 1;
+    private int serverSeq = 0;
+
+    private final float[] hitboxSizes = new float[6];
+    private float helloTimer;
+    private int slot = -1;
+    private float worldWidth, worldHeight;
+    private int latestTick = -1;
+    private int epoch = -1;
+
+    private GameWorld world;
+    private GameController controller;
+    private long bytesReceived;
+
+    public CoopClient(String host, int port, SoundManager audio) throws IOException {
+        this.audio = audio;
+        this.channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.connect(new InetSocketAddress(host, port));
+        for (int i = 0; i < received.length; i++) received[i] = new Snapshot();
+    }
+
+    /** Informa as hitboxes desenhadas (jogador, caminhão, lixo) para o servidor usar as mesmas. */
+    public void setHitboxSizes(float[] sizes) {
+        System.arraycopy(sizes, 0, hitboxSizes, 0, hitboxSizes.length);
+    }
+
+    /**
+     * Processa a rede e a entrada de um frame.
+     * @param delta tempo do frame em segundos
+     * @param bits direção (`InputController.LEFT|RIGHT|DOWN|UP`) e botões (`NetProtocol.BTN_*`)
+     */
+    public void update(float delta, int bits) throws IOException {
+        receiveAll();
+
+        if (slot < 0) {
+            helloTimer -= delta;
+            if (helloTimer <= 0f) {
+                helloTimer = NetProtocol.HELLO_INTERVAL;
+                sendHello();
+            }
+            return;
+        }
+        if (world == null) return;
+
+        // Registra a entrada e prevê o próprio movimento sem esperar o servidor
+        int seq = nextSeq++;
+        inputBits[seq % INPUT_BUFFER] = bits;
+        inputDelta[seq % INPUT_BUFFER] = delta;
+        if (!world.gameOver) controller.movePlayer(ownPlayer(), InputController.toDirection(bits, dir), delta);
+
+        sendInputs();
+    }
+
+    /** Mundo replicado (null até o primeiro snapshot completo). */
+    public GameWorld world() {
+        return world;
+    }
+
+    /** Slot do jogador local (0 ou 1), ou -1 enquanto não aceito pelo servidor. */
+    public int slot() {
+        return slot;
+    }
+
+    /** Total de bytes recebidos do servidor. */
+    public long bytesReceived() {
+        return bytesReceived;
+    }
+
+    /** Avisa o servidor e fecha o socket. */
+    public void dispose() {
+        try {
+            out.clear();
+            out.put(NetProtocol.BYE);
+            out.flip();
+            channel.write(out);
+        } catch (IOException ignored) {
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private Player ownPlayer() {
+        return slot == 0 ? world.player : world.spawnPartner();
+    }
+
+    private void sendHello() throws IOException {
+        out.clear();
+        out.put(NetProtocol.HELLO);
+        for (float s : hitboxSizes) out.putFloat(s);
+        out.flip();
+        channel.write(out);
+    }
+
+    private void sendInputs() throws IOException {
+        int first = Math.max(serverSeq + 1, nextSeq - NetProtocol.MAX_INPUTS_PER_PACKET);
+        out.clear();
+        out.put(NetProtocol.INPUT);
+        out.putInt(latestTick);
+        out.put((byte) (nextSeq - first));
+        for (int s = first; s < nextSeq; s++) {
+            out.putInt(s);
+            out.put((byte) inputBits[s % INPUT_BUFFER]);
+            out.putFloat(inputDelta[s % INPUT_BUFFER]);
+        }
+        out.flip();
+        channel.write(out);
+    }
+
+    private void receiveAll() throws IOException {
+        while (true) {
+            in.clear();
+            if (channel.receive(in) == null) return;
+            in.flip();
+            bytesReceived += in.remaining();
+            if (!in.hasRemaining()) continue;
+            try {
+                byte type = in.get();
+                if (type == NetProtocol.WELCOME) onWelcome();
+                else if (type == NetProtocol.SNAPSHOT) onSnapshot();
+            } catch (RuntimeException e) {
+                // Pacote malformado: descarta
+            }
+        }
+    }
+
+    private void onWelcome() {
+        if (slot >= 0) return;
+        slot = in.get();
+        worldWidth = in.getFloat();
+        worldHeight = in.getFloat();
+    }
+
+    private void onSnapshot() {
+        if (slot < 0) return;
+        int tick = in.getInt();
+        int baseTick = in.getInt();
+        int snapEpoch = in.get() & 0xFF;
+        int lastInputSeq = in.getInt();
+
+        Snapshot base = null;
+        if (baseTick >= 0) {
+            base = received[baseTick % NetProtocol.HISTORY];
+            // Sem a base (muito antiga ou de outra fase) não há como reconstruir: descarta e espera o próximo
+            if (base.tick != baseTick || base.epoch != snapEpoch || snapEpoch != epoch) return;
+        } else if (snapEpoch != epoch) {
+            if (tick <= latestTick) return; // snapshot completo atrasado de uma fase anterior
+            int levelIndex = in.get();
+            long seed = in.getLong();
+            startLevel(snapEpoch, levelIndex, seed);
+        } else {
+            in.get();
+            in.getLong();
+        }
+        if (world == null) return;
+
+        decoded.readDelta(in, base);
+        decoded.tick = tick;
+        decoded.epoch = snapEpoch;
+        int removed = in.getShort() & 0xFFFF;
+        for (int i = 0; i < removed; i++) world.removeTrash(in.getShort() & 0xFFFF);
+
+        // Snapshot fora de ordem: as remoções valem, mas o estado é mais antigo que o atual
+        if (tick <= latestTick) return;
+        latestTick = tick;
+        received[tick % NetProtocol.HISTORY].copyFrom(decoded);
+
+        int prevScore = world.score.value;
+        int prevCarried = world.carriedTrash;
+        boolean wasOver = world.gameOver;
+        decoded.apply(world);
+        playEvents(prevScore, prevCarried, wasOver);
+
+        // Reconciliação: parte da posição autoritativa e reaplica o que o servidor ainda não processou
+        serverSeq = Math.max(serverSeq, lastInputSeq);
+        if (!world.gameOver) {
+            Player own = ownPlayer();
+            for (int s = Math.max(serverSeq + 1, nextSeq - INPUT_BUFFER); s < nextSeq; s++) {
+                controller.movePlayer(own, InputController.toDirection(inputBits[s % INPUT_BUFFER], dir),
+                    inputDelta[s % INPUT_BUFFER]);
+            }
+        }
+    }
+
+    private void startLevel(int snapEpoch, int levelIndex, long seed) {
+        epoch = snapEpoch;
+        Level level = levels.get(Math.max(0, Math.min(levelIndex, levels.size() - 1)));
+        world = new GameWorld(worldWidth, worldHeight, level, seed);
+        controller = new GameController(world, null);
+        if (audio != null) audio.fadeIn(Mfx.TRACK, 1.5f, 1f);
+    }
+
+    // Reproduz localmente os sons que o CollisionHandler tocaria no jogo solo
+    private void playEvents(int prevScore, int prevCarried, boolean wasOver) {
+        if (audio == null) return;
+        if (world.carriedTrash > prevCarried) audio.playS(Sfx.C_TRASH, 0.8f);
+        if (world.score.value > prevScore) audio.playS(Sfx.DELIVERY);
+        if (!wasOver && world.gameOver) {
+            boolean defeated = world.player.isDefeated || (world.partner != null && world.partner.isDefeated);
+            if (world.gameWon) {
+                audio.fadeOut(Mfx.TRACK, 0.6f);
+                audio.waitAndRun(500, () -> audio.playS(Sfx.WIN, 1.5f));
+            } else if (defeated) {
+                audio.fadeOut(Mfx.TRACK, 0.6f);
+                audio.waitAndRun(500, () -> {
+                    audio.playS(Sfx.DEATH);
+                    audio.playS(Sfx.LOSE);
+                });
+            }
+        }
+    }
+}
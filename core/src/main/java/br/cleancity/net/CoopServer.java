@@ -0,0 +1,489 @@
+package br.cleancity.net;
+
+import br.cleancity.controller.CollisionHandler;
+import br.cleancity.controller.GameController;
+import br.cleancity.controller.InputController;
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.Level;
+import br.cleancity.model.Player;
+import br.cleancity.model.TrashStore;
+import br.cleancity.profiling.LevelLoadEvent;
+import br.cleancity.profiling.TickEvent;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Servidor autoritativo do modo cooperativo (dois jogadores, um caminhão).
+ *
+ * Roda a simulação com as mesmas regras do jogo solo (`GameController` para relógio/caminhão/movimento e
+ * `CollisionHandler` para morte, coleta, entrega e vitória) em uma thread própria, a {@link NetProtocol#TICK_RATE}
+ * ticks por segundo, usando um `DatagramChannel` não bloqueante com `Selector` (NIO UDP).
+ *
+ * Por tick:
+ * 1) Lê todos os datagramas pendentes (HELLO, INPUT, BYE).
+ * 2) Avança relógio e caminhão; aplica as entradas enfileiradas de cada cliente em ordem de sequência. O tempo de
+ *    movimento informado pelo cliente é limitado ao do tick (mais uma pequena folga); deltas inválidos são ignorados.
+ * 3) Resolve colisões e pedidos de reinício/próxima fase.
+ * 4) Envia a cada cliente um snapshot em delta contra o último snapshot que ele confirmou, com as
+ *    remoções de lixo dentro do raio de interesse do seu jogador.
+ *
+ * Métricas: custo médio/máximo do tick e bytes enviados por cliente, registrados a cada 5 segundos.
+ * Pode rodar embutido no jogo (host) ou dedicado via {@link #main(String[])}.
+ */
+public class CoopServer implements Runnable {
+    private static final int MAX_CLIENTS = 2;
+    private static final float METRICS_INTERVAL = 5f;
+    // Tempo de movimento que um cliente pode acumular além do tick (atraso/rajada de pacotes); o excesso é descartado
+    private static final float MOVE_ALLOWANCE = 0.1f;
+    // Hitboxes informadas no HELLO: no mínimo 1 unidade e no máximo esta fração do mundo em cada eixo
+    private static final float MAX_HITBOX_FRACTION = 0.5f;
+
+    private final int port;
+    private final float worldWidth;
+    private final float worldHeight;
+    private final List<Level> levels = Level.defaultLevels();
+    private final RandomXS128 random = new RandomXS128();
+
+    private final ClientSlot[] clients = new ClientSlot[MAX_CLIENTS];
+    private final ByteBuffer in = ByteBuffer.allocateDirect(NetProtocol.MAX_PACKET);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(NetProtocol.MAX_PACKET);
+    private final Vector2 dir = new Vector2();
+    private final BitSet present = new BitSet();
+
+    private DatagramChannel channel;
+    private Selector selector;
+    private Thread thread;
+    private volatile boolean running;
+
+    // Estado da simulação
+    private GameWorld world;
+    private GameController controller;
+    private CollisionHandler collisions;
+    private int levelIndex;
+    private int epoch;
+    private int tick;
+    private float[] hitboxSizes;
+
+    // Métricas
+    private long tickNanosTotal;
+    private long tickNanosMax;
+    private int ticksInWindow;
+    private float metricsTimer;
+    private volatile String lastMetrics = "";
+
+    public CoopServer(int port, float worldWidth, float worldHeight) {
+        this.port = port;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+    }
+
+    /** Abre o socket e inicia a thread de simulação. */
+    public void start() throws IOException {
+        channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.bind(new InetSocketAddress(port));
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+        loadLevel(0);
+        running = true;
+        thread = new Thread(this, "coop-server");
+        thread.setDaemon(true);
+        thread.start();
+        log("Servidor co-op ouvindo na porta " + localPort());
+    }
+
+    /** Para a simulação, aguarda a thread terminar e fecha o socket. */
+    public void stop() {
+        running = false;
+        if (selector != null) selector.wakeup();
+        if (thread != null) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            if (selector != null) selector.close();
+            if (channel != null) channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** Porta efetivamente usada (útil quando criado com porta 0). */
+    public int localPort() {
+        try {
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException | NullPointerException e) {
+            return port;
+        }
+    }
+
+    /** Último resumo de métricas (custo do tick e banda por cliente). */
+    public String metrics() {
+        return lastMetrics;
+    }
+
+    /** Mundo autoritativo; só deve ser lido com o servidor parado. */
+    GameWorld world() {
+        return world;
+    }
+
+    @Override
+    public void run() {
+        final float tickDelta = 1f / NetProtocol.TICK_RATE;
+        final long tickNanos = (long) (1_000_000_000L / NetProtocol.TICK_RATE);
+        long next = System.nanoTime();
+        while (running) {
+            try {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    selector.select(Math.max(1L, wait / 1_000_000L));
+                    selector.selectedKeys().clear();
+                }
+                receiveAll();
+
+                long now = System.nanoTime();
+                if (now < next) continue;
+                tick(tickDelta);
+                recordTickCost(System.nanoTime() - now, tickDelta);
+                next += tickNanos;
+                // Se atrasou muito (ex.: pausa do processo), não tenta recuperar todos os ticks perdidos
+                if (now - next > tickNanos * 5) next = now;
+            } catch (IOException e) {
+                if (running) log("Erro de rede no servidor co-op: " + e.getMessage());
+            }
+        }
+    }
+
+    private void loadLevel(int index) {
+        LevelLoadEvent load = new LevelLoadEvent();
+        load.begin();
+        levelIndex = Math.max(0, Math.min(index, levels.size() - 1));
+        epoch = (epoch + 1) & 0xFF;
+        world = new GameWorld(worldWidth, worldHeight, levels.get(levelIndex), random.nextLong());
+        controller = new GameController(world, null);
+        collisions = new CollisionHandler(world, null);
+        if (clients[1] != null) world.spawnPartner();
+
+        applyHitboxSizes();
+        load.end();
+        if (load.shouldCommit()) {
+            load.set(levelIndex, world.level, world.seed);
+            load.commit();
+        }
+    }
+
+    // Usa as hitboxes desenhadas pelo primeiro cliente que as informou (iguais às do jogo solo)
+    private void applyHitboxSizes() {
+        float[] s = hitboxSizes;
+        if (s == null) return;
+        world.player.width = s[0];
+        world.player.height = s[1];
+        if (world.partner != null) {
+            world.partner.width = s[0];
+            world.partner.height = s[1];
+        }
+        world.truck.width = s[2];
+        world.truck.height = s[3];
+        world.setTrashSize(s[4], s[5]);
+        if (collisions != null) collisions.refreshTrash();
+    }
+
+    /**
+     * Valida as hitboxes do HELLO (jogador, caminhão e lixo, largura e altura): todas finitas e positivas, senão o
+     * pacote não define as hitboxes (zeros = cliente ainda não sabe). Limita cada uma a
+     * [1, {@link #MAX_HITBOX_FRACTION} do mundo].
+     */
+    private boolean sanitizeHitboxes(float[] s) {
+        for (float v : s) {
+            if (!Float.isFinite(v) || v <= 0f) return false;
+        }
+        for (int i = 0; i < s.length; i++) {
+            float max = (i % 2 == 0 ? worldWidth : worldHeight) * MAX_HITBOX_FRACTION;
+            s[i] = Math.max(1f, Math.min(s[i], max));
+        }
+        return true;
+    }
+
+    private void tick(float delta) throws IOException {
+        tick++;
+
+        TickEvent event = new TickEvent();
+        event.begin();
+        int buttons = 0;
+        controller.updateWorld(delta);
+        for (ClientSlot c : clients) {
+            if (c == null) continue;
+            Player p = playerFor(c);
+            // O tempo de movimento vem do cliente: cada tick libera `delta`, acumulando no máximo
+            // `delta + MOVE_ALLOWANCE`; o que passar disso é descartado (sem acelerar nem "teleportar")
+            c.moveBudget = Math.min(c.moveBudget + delta, delta + MOVE_ALLOWANCE);
+            for (int i = 0; i < c.queued; i++) {
+                int bits = c.queueBits[i];
+                buttons |= bits;
+                float d = Math.min(c.queueDelta[i], c.moveBudget);
+                if (!world.gameOver && d > 0f) {
+                    controller.movePlayer(p, InputController.toDirection(bits, dir), d);
+                    c.moveBudget -= d;
+                }
+                c.lastInputSeq = c.queueSeq[i];
+            }
+            c.queued = 0;
+        }
+        collisions.update();
+        event.end();
+        if (event.shouldCommit()) {
+            event.delta = (long) (delta * 1e9);
+            event.trashCount = world.trash.size;
+            event.collisionsResolved = collisions.contactsResolved();
+            event.trashCollected = collisions.trashCollected();
+            event.server = true;
+            event.commit();
+        }
+
+        if ((buttons & NetProtocol.BTN_RESTART) != 0) {
+            loadLevel(levelIndex);
+        } else if ((buttons & NetProtocol.BTN_NEXT) != 0 && world.trash.isEmpty() && world.carriedTrash == 0) {
+            loadLevel((levelIndex + 1) % levels.size());
+        }
+
+        present.clear();
+        for (int i = 0; i < world.trash.size; i++) present.set(world.trash.id[i]);
+
+        for (int i = 0; i < clients.length; i++) {
+            ClientSlot c = clients[i];
+            if (c == null) continue;
+            c.idle += delta;
+            if (c.idle > NetProtocol.CLIENT_TIMEOUT) {
+                log("Cliente " + i + " desconectado por inatividade");
+                clients[i] = null;
+                continue;
+            }
+            sendSnapshot(c);
+        }
+    }
+
+    private Player playerFor(ClientSlot c) {
+        return c.slot == 0 ? world.player : world.spawnPartner();
+    }
+
+    /**
+     * Monta o snapshot do cliente: delta contra a base confirmada e remoções de lixo que o cliente
+     * ainda não conhece, apenas dentro do raio de interesse (ou todas quando a fase terminou).
+     */
+    private void sendSnapshot(ClientSlot c) throws IOException {
+        Snapshot base = null;
+        if (c.ackTick >= 0 && tick - c.ackTick < NetProtocol.HISTORY) {
+            Snapshot b = c.history[c.ackTick % NetProtocol.HISTORY];
+            if (b.tick == c.ackTick && b.epoch == epoch) base = b;
+        }
+
+        Snapshot cur = c.history[tick % NetProtocol.HISTORY];
+        cur.capture(world, tick, epoch);
+        cur.knownRemoved.clear();
+        if (base != null) cur.knownRemoved.or(base.knownRemoved);
+
+        out.clear();
+        out.put(NetProtocol.SNAPSHOT);
+        out.putInt(tick);
+        out.putInt(base != null ? base.tick : -1);
+        out.put((byte) epoch);
+        out.putInt(c.lastInputSeq);
+        if (base == null) {
+            out.put((byte) levelIndex);
+            out.putLong(world.seed);
+        }
+        cur.writeDelta(out, base);
+
+        // Remoções de lixo: só o que está perto do jogador deste cliente (interest management)
+        int countPos = out.position();
+        out.putShort((short) 0);
+        int count = 0;
+        Player p = playerFor(c);
+        float cx = p.x + p.width * 0.5f;
+        float cy = p.y + p.height * 0.5f;
+        float r2 = NetProtocol.INTEREST_RADIUS * NetProtocol.INTEREST_RADIUS;
+        TrashStore spawned = world.spawnedTrash();
+        for (int id = present.nextClearBit(0); id < spawned.size; id = present.nextClearBit(id + 1)) {
+            if (cur.knownRemoved.get(id)) continue;
+            if (out.remaining() < 2) break; // o restante segue no próximo tick
+            float dx = spawned.x[id] + spawned.width[id] * 0.5f - cx;
+            float dy = spawned.y[id] + spawned.height[id] * 0.5f - cy;
+            if (!world.gameOver && dx * dx + dy * dy > r2) continue;
+            out.putShort((short) id);
+            cur.knownRemoved.set(id);
+            count++;
+        }
+        out.putShort(countPos, (short) count);
+
+        out.flip();
+        int sent = channel.send(out, c.address);
+        c.bytesInWindow += sent;
+    }
+
+    private void receiveAll() throws IOException {
+        while (true) {
+            in.clear();
+            SocketAddress from = channel.receive(in);
+            if (from == null) return;
+            in.flip();
+            if (!in.hasRemaining()) continue;
+            try {
+                handle(from, in.get());
+            } catch (RuntimeException e) {
+                // Pacote malformado: descarta
+            }
+        }
+    }
+
+    private void handle(SocketAddress from, byte type) throws IOException {
+        ClientSlot c = find(from);
+        switch (type) {
+            case NetProtocol.HELLO:
+                if (c == null) c = join(from);
+                if (c == null) return; // servidor cheio
+                if (hitboxSizes == null && in.remaining() >= 24) {
+                    float[] s = new float[6];
+                    for (int i = 0; i < 6; i++) s[i] = in.getFloat();
+                    if (sanitizeHitboxes(s)) {
+                        hitboxSizes = s;
+                        applyHitboxSizes();
+                    }
+                }
+                out.clear();
+                out.put(NetProtocol.WELCOME);
+                out.put((byte) c.slot);
+                out.putFloat(worldWidth);
+                out.putFloat(worldHeight);
+                out.flip();
+                channel.send(out, from);
+                break;
+            case NetProtocol.INPUT:
+                if (c == null) return;
+                c.idle = 0f;
+                c.ackTick = Math.max(c.ackTick, in.getInt());
+                int n = in.get() & 0xFF;
+                for (int i = 0; i < n; i++) {
+                    int seq = in.getInt();
+                    int bits = in.get() & 0xFF;
+                    float d = in.getFloat();
+                    if (seq <= c.lastQueuedSeq || c.queued == c.queueSeq.length) continue;
+                    if (!Float.isFinite(d) || d < 0f) continue; // delta inválido: a entrada é ignorada
+                    c.queueSeq[c.queued] = seq;
+                    c.queueBits[c.queued] = bits;
+                    c.queueDelta[c.queued] = d;
+                    c.queued++;
+                    c.lastQueuedSeq = seq;
+                }
+                break;
+            case NetProtocol.BYE:
+                if (c != null) {
+                    log("Cliente " + c.slot + " saiu");
+                    clients[c.slot] = null;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private ClientSlot find(SocketAddress address) {
+        for (ClientSlot c : clients) {
+            if (c != null && c.address.equals(address)) return c;
+        }
+        return null;
+    }
+
+    private ClientSlot join(SocketAddress address) {
+        for (int i = 0; i < clients.length; i++) {
+            if (clients[i] == null) {
+                clients[i] = new ClientSlot(address, i);
+                if (i == 1) {
+                    Player q = world.spawnPartner();
+                    if (hitboxSizes != null) {
+                        q.width = hitboxSizes[0];
+                        q.height = hitboxSizes[1];
+                    }
+                }
+                log("Cliente " + i + " conectado de " + address);
+                return clients[i];
+            }
+        }
+        return null;
+    }
+
+    private void recordTickCost(long nanos, float tickDelta) {
+        tickNanosTotal += nanos;
+        tickNanosMax = Math.max(tickNanosMax, nanos);
+        ticksInWindow++;
+        metricsTimer += tickDelta;
+        if (metricsTimer < METRICS_INTERVAL) return;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("tick médio %.1f µs (máx %.1f µs)",
+            tickNanosTotal / 1000.0 / Math.max(1, ticksInWindow), tickNanosMax / 1000.0));
+        for (ClientSlot c : clients) {
+            if (c == null) continue;
+            sb.append(String.format(", cliente %d: %.2f kB/s", c.slot, c.bytesInWindow / 1024.0 / metricsTimer));
+            c.bytesInWindow = 0;
+        }
+        lastMetrics = sb.toString();
+        log(lastMetrics);
+        tickNanosTotal = 0;
+        tickNanosMax = 0;
+        ticksInWindow = 0;
+        metricsTimer = 0f;
+    }
+
+    private static void log(String msg) {
+        if (Gdx.app != null) Gdx.app.log("CoopServer", msg);
+        else System.out.println("[CoopServer] " + msg);
+    }
+
+    /** Estado de rede de um cliente conectado. */
+    private static final class ClientSlot {
+        final SocketAddress address;
+        final int slot;
+        final Snapshot[] history = new Snapshot[NetProtocol.HISTORY];
+        // Entradas recebidas e ainda não aplicadas (em ordem de sequência)
+        final int[] queueSeq = new int[64];
+        final int[] queueBits = new int[64];
+        final float[] queueDelta = new float[64];
+        int queued;
+        int lastQueuedSeq;
+        int lastInputSeq;
+        float moveBudget; // segundos de movimento que ainda podem ser aplicados (ver tick)
+        int ackTick = -1;
+        float idle;
+        long bytesInWindow;
+
+        ClientSlot(SocketAddress address, int slot) {
+            this.address = address;
+            this.slot = slot;
+            for (int i = 0; i < history.length; i++) history[i] = new Snapshot();
+        }
+    }
+
+    /**
+     * Servidor dedicado (sem janela): `java -cp CleanCity-1.0.0.jar br.cleancity.net.CoopServer [porta]`.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : NetProtocol.DEFAULT_PORT;
+        CoopServer server = new CoopServer(port, 1280f, 720f);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,42 @@
+package br.cleancity.net;
+
+/**
+ * Constantes e formato dos pacotes UDP do modo cooperativo.
+ *
+ * Pacotes (o primeiro byte é o tipo):
+ * - HELLO (cliente → servidor): tamanhos de hitbox desenhados pelo cliente (6 floats, zeros se desconhecidos).
+ * - WELCOME (servidor → cliente): slot do jogador (0 = `world.player`, 1 = `world.partner`) e dimensões do mundo.
+ * - INPUT (cliente → servidor): último tick de snapshot recebido (ack) e as entradas mais recentes ainda não
+ *   confirmadas, cada uma com número de sequência, bits (direção + botões) e delta em segundos. A redundância
+ *   cobre perdas de pacotes sem retransmissão explícita.
+ * - SNAPSHOT (servidor → cliente): estado do mundo codificado como delta contra o último snapshot confirmado
+ *   pelo cliente (ou completo quando não há base), seguido dos ids de lixo removidos próximos ao jogador.
+ * - BYE (cliente → servidor): libera o slot.
+ */
+public final class NetProtocol {
+    /** Porta UDP padrão do servidor co-op. */
+    public static final int DEFAULT_PORT = 27960;
+    /** Frequência de simulação do servidor (ticks por segundo). */
+    public static final float TICK_RATE = 30f;
+
+    /** Botões enviados junto com os bits de direção de `InputController`. */
+    public static final int BTN_RESTART = 16, BTN_NEXT = 32;
+
+    static final byte HELLO = 1, WELCOME = 2, INPUT = 3, SNAPSHOT = 4, BYE = 5;
+
+    /** Tamanho máximo de um datagrama (abaixo do MTU típico para evitar fragmentação). */
+    static final int MAX_PACKET = 1200;
+    /** Quantidade de snapshots lembrados por cliente (bases possíveis para o delta). */
+    static final int HISTORY = 64;
+    /** Máximo de entradas redundantes por pacote INPUT. */
+    static final int MAX_INPUTS_PER_PACKET = 8;
+    /** Raio (unidades de mundo) em torno do jogador dentro do qual remoções de lixo são enviadas. */
+    static final float INTEREST_RADIUS = 320f;
+    /** Segundos sem pacotes até o servidor liberar o slot do cliente. */
+    static final float CLIENT_TIMEOUT = 5f;
+    /** Intervalo (segundos) entre reenvios de HELLO enquanto o cliente não é aceito. */
+    static final float HELLO_INTERVAL = 0.5f;
+
+    private NetProtocol() {
+    }
+}
@@ -0,0 +1,135 @@
+package br.cleancity.net;
+
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.Player;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * Estado replicado do mundo em um tick do servidor (tudo, exceto a lista de lixo).
+ *
+ * A codificação é um delta por campo: uma máscara de 16 bits indica quais campos mudaram em relação
+ * ao snapshot base e apenas esses são escritos. Sem base, todos os campos são escritos.
+ * O lixo é replicado à parte como ids removidos; `knownRemoved` guarda, no servidor, quais remoções
+ * o cliente passa a conhecer se receber este snapshot.
+ */
+final class Snapshot {
+    private static final int F_TRUCK_X = 1, F_TRUCK_SPEED = 1 << 1, F_TIME = 1 << 2, F_SCORE = 1 << 3,
+        F_CARRIED = 1 << 4, F_FLAGS = 1 << 5, F_P0_POS = 1 << 6, F_P0_FACE = 1 << 7,
+        F_P1_POS = 1 << 8, F_P1_FACE = 1 << 9;
+
+    static final int FL_GAME_OVER = 1, FL_GAME_WON = 1 << 1, FL_P0_DEFEATED = 1 << 2,
+        FL_P1_DEFEATED = 1 << 3, FL_PARTNER = 1 << 4;
+
+    int tick = -1;
+    int epoch = -1;
+    float truckX, truckSpeed, timeLeft;
+    int score, carried, flags;
+    float p0x, p0y, p0fx, p0fy;
+    float p1x, p1y, p1fx, p1fy;
+    final BitSet knownRemoved = new BitSet();
+
+    /** Copia o estado atual do mundo (sem o lixo). */
+    void capture(GameWorld world, int tick, int epoch) {
+        this.tick = tick;
+        this.epoch = epoch;
+        truckX = world.truck.x;
+        truckSpeed = world.truck.speed;
+        timeLeft = world.timeLeft;
+        score = world.score.value;
+        carried = world.carriedTrash;
+        Player p = world.player;
+        Player q = world.partner;
+        flags = (world.gameOver ? FL_GAME_OVER : 0)
+            | (world.gameWon ? FL_GAME_WON : 0)
+            | (p.isDefeated ? FL_P0_DEFEATED : 0)
+            | (q != null && q.isDefeated ? FL_P1_DEFEATED : 0)
+            | (q != null ? FL_PARTNER : 0);
+        p0x = p.x; p0y = p.y; p0fx = p.faceX; p0fy = p.faceY;
+        if (q != null) {
+            p1x = q.x; p1y = q.y; p1fx = q.faceX; p1fy = q.faceY;
+        }
+    }
+
+    /** Aplica este estado ao mundo do cliente (o lixo é tratado separadamente). */
+    void apply(GameWorld world) {
+        world.truck.x = truckX;
+        world.truck.speed = truckSpeed;
+        world.timeLeft = timeLeft;
+        world.score.value = score;
+        world.carriedTrash = carried;
+        world.gameOver = (flags & FL_GAME_OVER) != 0;
+        world.gameWon = (flags & FL_GAME_WON) != 0;
+        Player p = world.player;
+        p.x = p0x; p.y = p0y; p.faceX = p0fx; p.faceY = p0fy;
+        p.isDefeated = (flags & FL_P0_DEFEATED) != 0;
+        if ((flags & FL_PARTNER) != 0) {
+            Player q = world.spawnPartner();
+            q.x = p1x; q.y = p1y; q.faceX = p1fx; q.faceY = p1fy;
+            q.isDefeated = (flags & FL_P1_DEFEATED) != 0;
+        }
+    }
+
+    /** Copia os campos replicados (não copia `knownRemoved`). */
+    void copyFrom(Snapshot o) {
+        tick = o.tick;
+        epoch = o.epoch;
+        truckX = o.truckX; truckSpeed = o.truckSpeed; timeLeft = o.timeLeft;
+        score = o.score; carried = o.carried; flags = o.flags;
+        p0x = o.p0x; p0y = o.p0y; p0fx = o.p0fx; p0fy = o.p0fy;
+        p1x = o.p1x; p1y = o.p1y; p1fx = o.p1fx; p1fy = o.p1fy;
+    }
+
+    /**
+     * Escreve a máscara e os campos que diferem de `base` (todos, quando `base` é null).
+     */
+    void writeDelta(ByteBuffer out, Snapshot base) {
+        int mask = 0;
+        if (base == null || truckX != base.truckX) mask |= F_TRUCK_X;
+        if (base == null || truckSpeed != base.truckSpeed) mask |= F_TRUCK_SPEED;
+        if (base == null || timeLeft != base.timeLeft) mask |= F_TIME;
+        if (base == null || score != base.score) mask |= F_SCORE;
+        if (base == null || carried != base.carried) mask |= F_CARRIED;
+        if (base == null || flags != base.flags) mask |= F_FLAGS;
+        if (base == null || p0x != base.p0x || p0y != base.p0y) mask |= F_P0_POS;
+        if (base == null || p0fx != base.p0fx || p0fy != base.p0fy) mask |= F_P0_FACE;
+        if (base == null || p1x != base.p1x || p1y != base.p1y) mask |= F_P1_POS;
+        if (base == null || p1fx != base.p1fx || p1fy != base.p1fy) mask |= F_P1_FACE;
+
+        out.putShort((short) mask);
+        if ((mask & F_TRUCK_X) != 0) out.putFloat(truckX);
+        if ((mask & F_TRUCK_SPEED) != 0) out.putFloat(truckSpeed);
+        if ((mask & F_TIME) != 0) out.putFloat(timeLeft);
+        if ((mask & F_SCORE) != 0) out.putInt(score);
+        if ((mask & F_CARRIED) != 0) out.putShort((short) carried);
+        if ((mask & F_FLAGS) != 0) out.put((byte) flags);
+        if ((mask & F_P0_POS) != 0) { out.putFloat(p0x); out.putFloat(p0y); }
+        if ((mask & F_P0_FACE) != 0) { out.put(quantizeFace(p0fx)); out.put(quantizeFace(p0fy)); }
+        if ((mask & F_P1_POS) != 0) { out.putFloat(p1x); out.putFloat(p1y); }
+        if ((mask & F_P1_FACE) != 0) { out.put(quantizeFace(p1fx)); out.put(quantizeFace(p1fy)); }
+    }
+
+    /**
+     * Lê um delta escrito por {@link #writeDelta}: parte de `base` (ou de zeros) e sobrescreve os campos presentes.
+     */
+    void readDelta(ByteBuffer in, Snapshot base) {
+        if (base != null) copyFrom(base);
+        int mask = in.getShort() & 0xFFFF;
+        if ((mask & F_TRUCK_X) != 0) truckX = in.getFloat();
+        if ((mask & F_TRUCK_SPEED) != 0) truckSpeed = in.getFloat();
+        if ((mask & F_TIME) != 0) timeLeft = in.getFloat();
+        if ((mask & F_SCORE) != 0) score = in.getInt();
+        if ((mask & F_CARRIED) != 0) carried = in.getShort() & 0xFFFF;
+        if ((mask & F_FLAGS) != 0) flags = in.get() & 0xFF;
+        if ((mask & F_P0_POS) != 0) { p0x = in.getFloat(); p0y = in.getFloat(); }
+        if ((mask & F_P0_FACE) != 0) { p0fx = in.get() / 127f; p0fy = in.get() / 127f; }
+        if ((mask & F_P1_POS) != 0) { p1x = in.getFloat(); p1y = in.getFloat(); }
+        if ((mask & F_P1_FACE) != 0) { p1fx = in.get() / 127f; p1fy = in.get() / 127f; }
+    }
+
+    // A direção de face é unitária (ou 0): um byte por eixo é suficiente para o render
+    private static byte quantizeFace(float v) {
+        return (byte) Math.round(Math.max(-1f, Math.min(1f, v)) * 127f);
+    }
+}
@@ -0,0 +1,56 @@
+package br.cleancity.profiling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador global de carga de assets (leitura, decodificação e upload), de qualquer thread.
+ *
+ * Usado pelo {@link HitchRecorder} para saber quanto tempo de I/O de assets caiu dentro de um frame.
+ * Custa dois `System.nanoTime()` e três operações atômicas por asset; fica sempre ligado.
+ *
+ * Uso: `long start = AssetActivity.begin(); ...; AssetActivity.end(start, path);`
+ */
+public final class AssetActivity {
+    private static final AtomicLong busyNanos = new AtomicLong();
+    private static final AtomicInteger active = new AtomicInteger();
+    private static final AtomicLong loads = new AtomicLong();
+    private static volatile String lastPath;
+
+    private AssetActivity() {
+    }
+
+    /** Marca o início de uma carga. @return instante de início (passar para {@link #end}) */
+    public static long begin() {
+        active.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /** Marca o fim de uma carga iniciada em `start`. */
+    public static void end(long start, String path) {
+        busyNanos.addAndGet(System.nanoTime() - start);
+        loads.incrementAndGet();
+        lastPath = path;
+        active.decrementAndGet();
+    }
+
+    /** Tempo total gasto em cargas terminadas, somado entre threads (cresce sempre). */
+    public static long busyNanos() {
+        return busyNanos.get();
+    }
+
+    /** Cargas em andamento agora. */
+    public static int active() {
+        return active.get();
+    }
+
+    /** Cargas terminadas desde o início do processo. */
+    public static long loads() {
+        return loads.get();
+    }
+
+    /** Caminho do último asset carregado, ou null. */
+    public static String lastPath() {
+        return lastPath;
+    }
+}
@@ -0,0 +1,35 @@
+package br.cleancity.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Carga de um asset (textura ou som). A duração do evento é o tempo da etapa indicada em `stage`.
+ */
+@Name("br.cleancity.AssetLoad")
+@Label("Carga de asset")
+@Category({"CleanCity", "Assets"})
+@Description("Decodificação/upload de texturas e carga de sons")
+@StackTrace(false)
+public class AssetLoadEvent extends Event {
+    @Label("Caminho")
+    public String path;
+
+    @Label("Etapa")
+    @Description("decode (CPU, worker), upload (GPU, thread GL), sound ou music")
+    public String stage;
+
+    @Label("Tamanho do arquivo")
+    @DataAmount
+    public long fileBytes;
+
+    @Label("Tamanho em memória")
+    @Description("Pixels decodificados (RGBA) para texturas; 0 quando não se aplica")
+    @DataAmount
+    public long memoryBytes;
+}
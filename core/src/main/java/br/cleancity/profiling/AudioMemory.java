@@ -0,0 +1,67 @@
+package br.cleancity.profiling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador global da memória de áudio: PCM dos sons decodificados e buffers dos streams abertos.
+ *
+ * Atualizado pelo `SoundManager` a cada carga/descarga; cada mudança também vira um {@link AudioMemoryEvent}
+ * (com uma gravação JFR ativa). O {@link HitchRecorder} grava os totais em cada despejo.
+ */
+public final class AudioMemory {
+    private static final AtomicLong decodedBytes = new AtomicLong();
+    private static final AtomicLong streamingBytes = new AtomicLong();
+    private static final AtomicInteger sounds = new AtomicInteger();
+    private static final AtomicInteger streams = new AtomicInteger();
+
+    private AudioMemory() {
+    }
+
+    /** Som decodificado carregado (`loaded`) ou descarregado, com `bytes` de PCM. */
+    public static void decoded(String path, long bytes, boolean loaded) {
+        decodedBytes.addAndGet(loaded ? bytes : -bytes);
+        sounds.addAndGet(loaded ? 1 : -1);
+        commit(path, loaded ? "load" : "evict", bytes);
+    }
+
+    /** Stream aberto (`opened`) ou fechado, com `bytes` de buffers. */
+    public static void streaming(String path, long bytes, boolean opened) {
+        streamingBytes.addAndGet(opened ? bytes : -bytes);
+        streams.addAndGet(opened ? 1 : -1);
+        commit(path, opened ? "stream-open" : "stream-close", bytes);
+    }
+
+    private static void commit(String path, String change, long bytes) {
+        AudioMemoryEvent event = new AudioMemoryEvent();
+        if (!event.shouldCommit()) return;
+        event.path = path;
+        event.change = change;
+        event.bytes = bytes;
+        event.decodedBytes = decodedBytes.get();
+        event.streamingBytes = streamingBytes.get();
+        event.sounds = sounds.get();
+        event.streams = streams.get();
+        event.commit();
+    }
+
+    /** PCM dos sons decodificados na memória agora. */
+    public static long decodedBytes() {
+        return decodedBytes.get();
+    }
+
+    /** Buffers dos streams abertos agora. */
+    public static long streamingBytes() {
+        return streamingBytes.get();
+    }
+
+    /** Sons decodificados na memória agora. */
+    public static int sounds() {
+        return sounds.get();
+    }
+
+    /** Streams abertos agora. */
+    public static int streams() {
+        return streams.get();
+    }
+}
@@ -0,0 +1,45 @@
+package br.cleancity.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Mudança na memória de áudio: um som decodificado carregado ou descarregado, ou um stream aberto ou fechado.
+ * Os totais são os de depois da mudança.
+ */
+@Name("br.cleancity.AudioMemory")
+@Label("Memória de áudio")
+@Category({"CleanCity", "Assets"})
+@Description("Sons decodificados e streams de música na memória")
+@StackTrace(false)
+public class AudioMemoryEvent extends Event {
+    @Label("Caminho")
+    public String path;
+
+    @Label("Mudança")
+    @Description("load, evict, stream-open ou stream-close")
+    public String change;
+
+    @Label("Bytes do asset")
+    @DataAmount
+    public long bytes;
+
+    @Label("Decodificado (total)")
+    @DataAmount
+    public long decodedBytes;
+
+    @Label("Streams (total)")
+    @DataAmount
+    public long streamingBytes;
+
+    @Label("Sons decodificados")
+    public int sounds;
+
+    @Label("Streams abertos")
+    public int streams;
+}
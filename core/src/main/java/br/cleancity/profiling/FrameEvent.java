@@ -0,0 +1,36 @@
+package br.cleancity.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Um frame de `CleanCityGame.render`, com o tempo de cada fase. A duração do evento é o frame inteiro
+ * (sem o `swapBuffers`, que acontece depois de `render` no backend).
+ */
+@Name("br.cleancity.Frame")
+@Label("Frame")
+@Category({"CleanCity", "Render"})
+@Description("Tempo por fase de um frame")
+@StackTrace(false)
+public class FrameEvent extends Event {
+    @Label("Entrada e áudio")
+    @Timespan(Timespan.NANOSECONDS)
+    public long inputNanos;
+
+    @Label("Simulação")
+    @Timespan(Timespan.NANOSECONDS)
+    public long simulationNanos;
+
+    @Label("Desenho")
+    @Timespan(Timespan.NANOSECONDS)
+    public long drawNanos;
+
+    @Label("Delta")
+    @Timespan(Timespan.NANOSECONDS)
+    public long delta;
+}
@@ -0,0 +1,415 @@
+package br.cleancity.profiling;
+
+import br.cleancity.model.GameWorld;
+import com.badlogic.gdx.Gdx;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravador de travadas de frame ("flight recorder"), sempre ligado.
+ *
+ * - Guarda num buffer circular pré-alocado (arrays primitivos, sem alocação por frame) os últimos `window`
+ *   segundos de frames: duração, tempo de cada fase do `render`, tempo de carga de assets ({@link AssetActivity}),
+ *   tick da simulação e lixo na rua.
+ * - Escuta as notificações dos `GarbageCollectorMXBean` (thread do JMX) e guarda as últimas pausas de GC.
+ * - Quando um frame passa de `threshold`, agenda um despejo para um segundo depois (para as notificações de GC,
+ *   que chegam atrasadas, e para mostrar o que veio depois) e grava `hitch-<data>.txt` no diretório, com fase
+ *   atual, lixo na rua, atividade de assets, memória de áudio ({@link AudioMemory}) e a causa atribuída a cada
+ *   travada. No máximo um despejo por janela: travadas próximas saem no mesmo arquivo. O arquivo é escrito numa
+ *   thread de fundo ("hitch-writer").
+ *
+ * Atribuição de cada travada (o primeiro que cobrir ao menos 1/4 da duração do frame):
+ * GC (pausas que se sobrepõem ao frame) → I/O de assets (tempo de carga terminado no frame) → lógica (fases do
+ * `render` na thread de render) → outro (troca de buffers, vsync, sistema operacional).
+ *
+ * Uso (thread de render): {@link #frameStart(long)} no começo de cada frame e {@link #frameEnd} no fim.
+ */
+public class HitchRecorder {
+    /** Limite padrão para um frame contar como travada (~3 frames a 60 Hz). */
+    public static final float DEFAULT_THRESHOLD_MILLIS = 50f;
+    /** Segundos guardados por padrão. */
+    public static final float DEFAULT_WINDOW_SECONDS = 10f;
+
+    public static final String CAUSE_GC = "gc";
+    public static final String CAUSE_ASSETS = "assets";
+    public static final String CAUSE_LOGIC = "logica";
+    public static final String CAUSE_OTHER = "outro";
+
+    // Capacidade do buffer: a janela inteira até 240 FPS
+    private static final int MAX_FPS = 240;
+    private static final int GC_CAPACITY = 256;
+    private static final long DUMP_DELAY_NANOS = 1_000_000_000L;
+    private static final int MAX_FILES = 20;
+    private static final long CLOSE_TIMEOUT_MS = 2000L;
+
+    private final File dir;
+    private final long windowNanos;
+    private final long thresholdNanos;
+
+    // Frames (só a thread de render)
+    private final int capacity;
+    private final long[] starts;
+    private final long[] lengths;
+    private final long[] inputs;
+    private final long[] simulations;
+    private final long[] draws;
+    private final long[] assetIo;
+    private final long[] ticks;
+    private final int[] trash;
+    private int next;
+    private int count;
+
+    // Frame em andamento e contexto mais recente
+    private long frameStart = -1;
+    private long frameAssetBusy;
+    private long pendingInput, pendingSimulation, pendingDraw, pendingTick = -1;
+    private int pendingTrash;
+    private int levelIndex = -1;
+    private String levelName;
+
+    private long dumpAt = -1;
+    private long lastDumpAt = Long.MIN_VALUE / 2;
+
+    // Pausas de GC (thread do JMX; protegido por gcLock)
+    private final Object gcLock = new Object();
+    private final long[] gcStarts = new long[GC_CAPACITY];
+    private final long[] gcEnds = new long[GC_CAPACITY];
+    private final String[] gcNames = new String[GC_CAPACITY];
+    private final String[] gcCauses = new String[GC_CAPACITY];
+    private int gcNext;
+    private int gcCount;
+    // `System.nanoTime()` no início da JVM (os tempos do GcInfo são em ms desde o início)
+    private final long jvmStartNanos;
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener gcListener = this::onGcNotification;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "hitch-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Cria o gravador e passa a escutar o GC.
+     * @param dir diretório dos despejos (criado no primeiro despejo)
+     * @param windowSeconds segundos de frames guardados e despejados
+     * @param thresholdMillis duração a partir da qual um frame é travada
+     */
+    public HitchRecorder(File dir, float windowSeconds, float thresholdMillis) {
+        this.dir = dir;
+        this.windowNanos = (long) (windowSeconds * 1e9);
+        this.thresholdNanos = (long) (thresholdMillis * 1e6);
+        this.capacity = Math.max(16, (int) Math.ceil(windowSeconds * MAX_FPS));
+        starts = new long[capacity];
+        lengths = new long[capacity];
+        inputs = new long[capacity];
+        simulations = new long[capacity];
+        draws = new long[capacity];
+        assetIo = new long[capacity];
+        ticks = new long[capacity];
+        trash = new int[capacity];
+
+        jvmStartNanos = System.nanoTime() - ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+        try {
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (!(gc instanceof NotificationEmitter)) continue;
+                NotificationEmitter emitter = (NotificationEmitter) gc;
+                emitter.addNotificationListener(gcListener, null, null);
+                emitters.add(emitter);
+            }
+        } catch (Throwable e) {
+            // JVM sem com.sun.management: segue sem atribuição a GC
+            Gdx.app.error("HitchRecorder", "Notificações de GC indisponíveis", e);
+        }
+    }
+
+    /**
+     * Começo de um frame: fecha o anterior (duração = intervalo entre inícios) e despeja se houver despejo vencido.
+     * @param now `System.nanoTime()` no início do frame
+     */
+    public void frameStart(long now) {
+        long busy = AssetActivity.busyNanos();
+        if (frameStart >= 0) {
+            int i = next;
+            long length = now - frameStart;
+            starts[i] = frameStart;
+            lengths[i] = length;
+            inputs[i] = pendingInput;
+            simulations[i] = pendingSimulation;
+            draws[i] = pendingDraw;
+            assetIo[i] = busy - frameAssetBusy;
+            ticks[i] = pendingTick;
+            trash[i] = pendingTrash;
+            next = (i + 1) % capacity;
+            if (count < capacity) count++;
+
+            if (length > thresholdNanos && dumpAt < 0) {
+                dumpAt = Math.max(now + DUMP_DELAY_NANOS, lastDumpAt + windowNanos);
+            }
+        }
+        if (dumpAt >= 0 && now >= dumpAt) dump(now);
+        frameStart = now;
+        frameAssetBusy = busy;
+        pendingInput = pendingSimulation = pendingDraw = 0;
+    }
+
+    /**
+     * Fim de um frame: tempo de cada fase e contexto do jogo.
+     * @param world mundo desenhado (null antes de haver um)
+     * @param levelIndex índice da fase, ou -1 se desconhecido
+     * @param tick tick da simulação desenhado, ou -1
+     */
+    public void frameEnd(long inputNanos, long simulationNanos, long drawNanos, GameWorld world, int levelIndex, long tick) {
+        pendingInput = inputNanos;
+        pendingSimulation = simulationNanos;
+        pendingDraw = drawNanos;
+        pendingTick = tick;
+        pendingTrash = world != null ? world.trash.size : 0;
+        this.levelIndex = levelIndex;
+        this.levelName = world != null ? world.level.backgroundKey : null;
+    }
+
+    /**
+     * Descarta o frame em andamento (ex.: janela minimizada ou sem foco): o intervalo até o próximo
+     * {@link #frameStart} não conta como travada.
+     */
+    public void skipFrame() {
+        frameStart = -1;
+    }
+
+    /** Para de escutar o GC e espera o último despejo ser gravado. */
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (Exception ignored) {
+                // já removido
+            }
+        }
+        emitters.clear();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void onGcNotification(Notification n, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(n.getType())) return;
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) n.getUserData());
+        // ZGC/Shenandoah publicam também os ciclos concorrentes, que não param as threads do jogo
+        if (info.getGcAction().contains("cycle")) return;
+        GcInfo gc = info.getGcInfo();
+        synchronized (gcLock) {
+            int i = gcNext;
+            gcStarts[i] = jvmStartNanos + gc.getStartTime() * 1_000_000L;
+            gcEnds[i] = jvmStartNanos + gc.getEndTime() * 1_000_000L;
+            gcNames[i] = info.getGcName();
+            gcCauses[i] = info.getGcCause();
+            gcNext = (i + 1) % GC_CAPACITY;
+            if (gcCount < GC_CAPACITY) gcCount++;
+        }
+    }
+
+    // Copia a janela (só arrays; a formatação e o disco ficam na thread de fundo)
+    private void dump(long now) {
+        dumpAt = -1;
+        lastDumpAt = now;
+        long from = now - windowNanos;
+
+        int oldest = (next - count + capacity) % capacity;
+        int skip = 0;
+        while (skip < count && starts[(oldest + skip) % capacity] < from) skip++;
+        int first = (oldest + skip) % capacity;
+        int frames = count - skip;
+        Dump d = new Dump(frames);
+        for (int k = 0; k < frames; k++) {
+            int i = (first + k) % capacity;
+            d.starts[k] = starts[i];
+            d.lengths[k] = lengths[i];
+            d.inputs[k] = inputs[i];
+            d.simulations[k] = simulations[i];
+            d.draws[k] = draws[i];
+            d.assetIo[k] = assetIo[i];
+            d.ticks[k] = ticks[i];
+            d.trash[k] = trash[i];
+        }
+        synchronized (gcLock) {
+            for (int k = 0; k < gcCount; k++) {
+                int i = (gcNext - gcCount + k + GC_CAPACITY) % GC_CAPACITY;
+                if (gcEnds[i] < from) continue;
+                d.gcStarts.add(gcStarts[i]);
+                d.gcEnds.add(gcEnds[i]);
+                d.gcNames.add(gcNames[i]);
+                d.gcCauses.add(gcCauses[i]);
+            }
+        }
+        d.now = now;
+        d.thresholdNanos = thresholdNanos;
+        d.windowNanos = windowNanos;
+        d.levelIndex = levelIndex;
+        d.levelName = levelName;
+        d.trashNow = pendingTrash;
+        d.assetsActive = AssetActivity.active();
+        d.assetLoads = AssetActivity.loads();
+        d.assetLast = AssetActivity.lastPath();
+        d.audioDecoded = AudioMemory.decodedBytes();
+        d.audioStreaming = AudioMemory.streamingBytes();
+        d.audioSounds = AudioMemory.sounds();
+        d.audioStreams = AudioMemory.streams();
+
+        File file = new File(dir, "hitch-" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date()) + ".txt");
+        try {
+            writer.execute(() -> {
+                try {
+                    d.write(file);
+                    pruneOldFiles();
+                    Gdx.app.log("HitchRecorder", "Travada registrada em " + file.getAbsolutePath());
+                } catch (IOException e) {
+                    Gdx.app.error("HitchRecorder", "Falha ao gravar " + file, e);
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // já fechado
+        }
+    }
+
+    private void pruneOldFiles() {
+        File[] files = dir.listFiles((f, name) -> name.startsWith("hitch-") && name.endsWith(".txt"));
+        if (files == null || files.length <= MAX_FILES) return;
+        Arrays.sort(files, (a, b) -> a.getName().compareTo(b.getName()));
+        for (int i = 0; i < files.length - MAX_FILES; i++) files[i].delete();
+    }
+
+    /**
+     * Causa de uma travada (ver a classe).
+     * @param length duração do frame
+     * @param gc pausa de GC dentro do frame
+     * @param io carga de assets terminada no frame
+     * @param logic fases do `render`
+     */
+    static String attribute(long length, long gc, long io, long logic) {
+        long share = length / 4;
+        if (gc >= share) return CAUSE_GC;
+        if (Math.min(io, length) >= share) return CAUSE_ASSETS;
+        if (logic >= share) return CAUSE_LOGIC;
+        return CAUSE_OTHER;
+    }
+
+    /** Cópia de uma janela, gravada em texto pela thread de fundo. */
+    private static final class Dump {
+        final long[] starts, lengths, inputs, simulations, draws, assetIo, ticks;
+        final int[] trash;
+        final List<Long> gcStarts = new ArrayList<>();
+        final List<Long> gcEnds = new ArrayList<>();
+        final List<String> gcNames = new ArrayList<>();
+        final List<String> gcCauses = new ArrayList<>();
+        long now, thresholdNanos, windowNanos, assetLoads, audioDecoded, audioStreaming;
+        int levelIndex, trashNow, assetsActive, audioSounds, audioStreams;
+        String levelName, assetLast;
+
+        Dump(int frames) {
+            starts = new long[frames];
+            lengths = new long[frames];
+            inputs = new long[frames];
+            simulations = new long[frames];
+            draws = new long[frames];
+            assetIo = new long[frames];
+            ticks = new long[frames];
+            trash = new int[frames];
+        }
+
+        // Pausa de GC sobreposta a [start, start + length)
+        long gcOverlap(long start, long length) {
+            long total = 0;
+            for (int g = 0; g < gcStarts.size(); g++) {
+                long a = Math.max(start, gcStarts.get(g));
+                long b = Math.min(start + length, gcEnds.get(g));
+                if (b > a) total += b - a;
+            }
+            return total;
+        }
+
+        void write(File file) throws IOException {
+            int frames = starts.length;
+            String[] causes = new String[frames];
+            long[] gc = new long[frames];
+            int[] byCause = new int[4];
+            for (int k = 0; k < frames; k++) {
+                gc[k] = gcOverlap(starts[k], lengths[k]);
+                if (lengths[k] <= thresholdNanos) continue;
+                causes[k] = attribute(lengths[k], gc[k], assetIo[k], inputs[k] + simulations[k] + draws[k]);
+                switch (causes[k]) {
+                    case CAUSE_GC: byCause[0]++; break;
+                    case CAUSE_ASSETS: byCause[1]++; break;
+                    case CAUSE_LOGIC: byCause[2]++; break;
+                    default: byCause[3]++; break;
+                }
+            }
+
+            file.getParentFile().mkdirs();
+            try (Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+                w.write("# CleanCity - travadas de frame\n");
+                w.write("data: " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()) + "\n");
+                w.write("fase: " + levelIndex + " (" + levelName + ")   lixo na rua: " + trashNow + "\n");
+                w.write("assets: " + assetsActive + " em carga, " + assetLoads + " cargas no total, último: " + assetLast + "\n");
+                w.write(String.format(Locale.ROOT, "audio: %.1f KB decodificados em %d sons, %.1f KB em %d streams%n",
+                    audioDecoded / 1024.0, audioSounds, audioStreaming / 1024.0, audioStreams));
+                w.write(String.format(Locale.ROOT, "limite: %.1f ms   janela: %.1f s   frames: %d%n",
+                    thresholdNanos / 1e6, windowNanos / 1e9, frames));
+                w.write("travadas: " + (byCause[0] + byCause[1] + byCause[2] + byCause[3])
+                    + " (gc " + byCause[0] + ", assets " + byCause[1] + ", logica " + byCause[2] + ", outro " + byCause[3] + ")\n");
+
+                w.write("\n## travadas (t_ms relativo ao despejo)\n");
+                w.write("t_ms,frame_ms,causa,gc_ms,io_ms,logica_ms,tick,lixo\n");
+                for (int k = 0; k < frames; k++) {
+                    if (causes[k] == null) continue;
+                    w.write(String.format(Locale.ROOT, "%.1f,%.2f,%s,%.2f,%.2f,%.2f,%d,%d%n",
+                        (starts[k] - now) / 1e6, lengths[k] / 1e6, causes[k], gc[k] / 1e6, assetIo[k] / 1e6,
+                        (inputs[k] + simulations[k] + draws[k]) / 1e6, ticks[k], trash[k]));
+                }
+
+                w.write("\n## pausas de GC\n");
+                w.write("t_ms,duracao_ms,coletor,causa\n");
+                for (int g = 0; g < gcStarts.size(); g++) {
+                    w.write(String.format(Locale.ROOT, "%.1f,%.2f,%s,%s%n",
+                        (gcStarts.get(g) - now) / 1e6, (gcEnds.get(g) - gcStarts.get(g)) / 1e6,
+                        gcNames.get(g), gcCauses.get(g)));
+                }
+
+                w.write("\n## frames\n");
+                w.write("t_ms,frame_ms,entrada_ms,simulacao_ms,desenho_ms,gc_ms,io_ms,tick,lixo\n");
+                for (int k = 0; k < frames; k++) {
+                    w.write(String.format(Locale.ROOT, "%.1f,%.2f,%.3f,%.3f,%.3f,%.2f,%.2f,%d,%d%n",
+                        (starts[k] - now) / 1e6, lengths[k] / 1e6, inputs[k] / 1e6, simulations[k] / 1e6,
+                        draws[k] / 1e6, gc[k] / 1e6, assetIo[k] / 1e6, ticks[k], trash[k]));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package br.cleancity.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Gravação do Java Flight Recorder ajustada para o jogo.
+ *
+ * Parte do perfil `profile` do JDK e:
+ * - liga os eventos do jogo ({@link TickEvent}, {@link FrameEvent}, {@link LevelLoadEvent}, {@link AssetLoadEvent},
+ *   {@link AudioMemoryEvent})
+ *   sem limite de duração, para que frames e ticks curtos também apareçam;
+ * - amostra a CPU a cada 10 ms (frames de 16 ms ficam com ao menos uma amostra) e mantém GC e alocação ligados;
+ * - desliga leituras/escritas de arquivo e socket (o co-op gera milhares por segundo);
+ * - limita o disco a 10 minutos / 256 MB e grava o arquivo ao parar ou ao sair da JVM.
+ *
+ * Fora de uma gravação, os eventos do jogo ficam desabilitados e custam só a checagem `shouldCommit()`.
+ */
+public final class JfrRecording {
+    private JfrRecording() {
+    }
+
+    /**
+     * Inicia a gravação.
+     * @param destination arquivo `.jfr` de saída
+     * @return a gravação em andamento (chame `stop()` para gravar o arquivo)
+     */
+    public static Recording start(Path destination) throws IOException {
+        Configuration profile;
+        try {
+            profile = Configuration.getConfiguration("profile");
+        } catch (ParseException e) {
+            throw new IOException("perfil JFR 'profile' inválido", e);
+        }
+        Recording r = new Recording(profile);
+        r.setName("CleanCity");
+
+        for (Class<? extends Event> type : List.<Class<? extends Event>>of(
+            TickEvent.class, FrameEvent.class, LevelLoadEvent.class, AssetLoadEvent.class, AudioMemoryEvent.class)) {
+            r.enable(type).withThreshold(Duration.ZERO);
+        }
+        r.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(10));
+        r.enable("jdk.GarbageCollection");
+        r.enable("jdk.ObjectAllocationSample");
+        r.disable("jdk.FileRead");
+        r.disable("jdk.FileWrite");
+        r.disable("jdk.SocketRead");
+        r.disable("jdk.SocketWrite");
+
+        r.setToDisk(true);
+        r.setMaxAge(Duration.ofMinutes(10));
+        r.setMaxSize(256L * 1024 * 1024);
+        r.setDestination(destination);
+        r.setDumpOnExit(true);
+        r.start();
+        return r;
+    }
+}
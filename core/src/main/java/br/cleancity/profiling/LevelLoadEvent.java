@@ -0,0 +1,59 @@
+package br.cleancity.profiling;
+
+import br.cleancity.model.Level;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Construção de uma fase (mundo, lixo e controladores). A duração do evento é o tempo de construção.
+ */
+@Name("br.cleancity.LevelLoad")
+@Label("Carga de fase")
+@Category({"CleanCity", "Fases"})
+@Description("Construção do GameWorld e dos controladores de uma fase")
+@StackTrace(false)
+public class LevelLoadEvent extends Event {
+    @Label("Índice da fase")
+    public int levelIndex;
+
+    @Label("Fundo")
+    public String background;
+
+    @Label("Tempo total (s)")
+    public float totalTime;
+
+    @Label("Quantidade de lixo")
+    public int trashCount;
+
+    @Label("Tamanho do lixo")
+    public float trashSize;
+
+    @Label("Velocidade do jogador")
+    public float playerSpeed;
+
+    @Label("Largura do caminhão")
+    public float truckWidth;
+
+    @Label("Altura do caminhão")
+    public float truckHeight;
+
+    @Label("Seed")
+    public long seed;
+
+    /** Preenche os parâmetros da fase carregada. */
+    public void set(int levelIndex, Level level, long seed) {
+        this.levelIndex = levelIndex;
+        this.background = level.backgroundKey;
+        this.totalTime = level.totalTime;
+        this.trashCount = level.trashCount;
+        this.trashSize = level.trashSize;
+        this.playerSpeed = level.playerSpeed;
+        this.truckWidth = level.truckWidth;
+        this.truckHeight = level.truckHeight;
+        this.seed = seed;
+    }
+}
@@ -0,0 +1,246 @@
+package br.cleancity.profiling;
+
+import br.cleancity.assets.AssetPack;
+import br.cleancity.assets.PackFileHandleResolver;
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.Level;
+import br.cleancity.model.Player;
+import br.cleancity.view.GameRenderer;
+import br.cleancity.view.HUDRenderer;
+import br.cleancity.view.SpriteManager;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Benchmark de render (`--benchmark` no launcher desktop): desenha uma cena roteirizada o mais rápido possível
+ * (o launcher desliga vsync e o limite de FPS) e mede o frame inteiro, inclusive a troca de buffers.
+ *
+ * - Cena: cada fase padrão por uma fatia igual da duração (todos os fundos, inclusive a fase noturna com o
+ *   mapa de luz), com {@link #STRESS_TRASH} lixos de seed fixa, os varredores da fase e o parceiro do co-op.
+ *   O caminhão atravessa a rua e os personagens andam em círculos. A cena avança um passo fixo por frame, sem
+ *   entrada, simulação em thread nem áudio: o frame `n` de uma fase é sempre igual, seja qual for o FPS.
+ * - Medidas: tempo entre chamadas de `render` (o primeiro segundo de cada fase é aquecimento e fica de fora),
+ *   FPS médio, percentis do tempo de frame e, pelo `GLProfiler`, draw calls, trocas de textura e de shader.
+ * - Saída: um objeto JSON numa linha no stdout (e no arquivo pedido); depois encerra o app.
+ */
+public class RenderBenchmark extends ApplicationAdapter {
+    /** Lixos por fase (o jogo normal tem poucas dezenas). */
+    public static final int STRESS_TRASH = 5_000;
+    /** Duração padrão, em segundos. */
+    public static final float DEFAULT_SECONDS = 30f;
+
+    private static final float STEP = 1f / 60f;
+    private static final float WARMUP_SECONDS = 1f;
+    private static final long SEED = 42L;
+
+    private final float seconds;
+    private final File out;
+
+    private SpriteBatch batch;
+    private SpriteManager sprites;
+    private GameRenderer gameRenderer;
+    private HUDRenderer hudRenderer;
+    private GLProfiler profiler;
+    private List<Level> levels;
+    private GameWorld world;
+
+    private int levelIndex = -1;
+    private long levelStart;
+    private int levelFrame;
+    private long lastFrame;
+    private boolean finished;
+
+    // Medidas por frame (só depois do aquecimento) e índice do primeiro frame de cada fase
+    private final LongArray frameNanos = new LongArray(8192);
+    private final LongArray drawCalls = new LongArray(8192);
+    private final LongArray textureBindings = new LongArray(8192);
+    private final LongArray shaderSwitches = new LongArray(8192);
+    private int[] levelFirstFrame;
+
+    /**
+     * @param seconds duração total (dividida igualmente entre as fases)
+     * @param out arquivo para o JSON do resultado, ou null para só imprimir
+     */
+    public RenderBenchmark(float seconds, File out) {
+        this.seconds = seconds;
+        this.out = out;
+    }
+
+    @Override
+    public void create() {
+        Gdx.graphics.setVSync(false);
+        batch = new SpriteBatch();
+        AssetPack pack = AssetPack.openDefault();
+        sprites = new SpriteManager(pack != null ? new PackFileHandleResolver(pack) : new InternalFileHandleResolver());
+        levels = Level.defaultLevels();
+        sprites.load(GameRenderer.spriteKeys(levels));
+        gameRenderer = new GameRenderer(sprites, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        hudRenderer = new HUDRenderer(sprites);
+        levelFirstFrame = new int[levels.size() + 1];
+        profiler = new GLProfiler(Gdx.graphics);
+        profiler.enable();
+        nextLevel();
+    }
+
+    @Override
+    public void render() {
+        if (finished) return;
+        long now = System.nanoTime();
+        if (now - levelStart >= seconds / levels.size() * 1e9) {
+            if (levelIndex + 1 == levels.size()) {
+                finish();
+                return;
+            }
+            nextLevel();
+            now = System.nanoTime();
+        }
+        // Frame anterior: de uma chamada à outra (inclui troca de buffers) e os contadores GL dele
+        if (lastFrame != 0 && now - levelStart >= WARMUP_SECONDS * 1e9) {
+            frameNanos.add(now - lastFrame);
+            drawCalls.add(profiler.getDrawCalls());
+            textureBindings.add(profiler.getTextureBindings());
+            shaderSwitches.add(profiler.getShaderSwitches());
+        }
+        profiler.reset();
+        lastFrame = now;
+
+        script(levelFrame++);
+        ScreenUtils.clear(0.15f, 0.15f, 0.2f, 1f);
+        batch.begin();
+        gameRenderer.render(batch, world);
+        hudRenderer.render(batch, world.score, world.carriedTrash, world.timeLeft, false, false, false, STEP);
+        if (world.sweepers.size > 0) hudRenderer.renderRivals(batch, world.rivalTrash);
+        batch.end();
+    }
+
+    // Carrega a próxima fase com o lixo de estresse; o tempo de carga não entra em nenhum frame
+    private void nextLevel() {
+        levelIndex++;
+        levelFirstFrame[levelIndex] = frameNanos.size;
+        Level l = levels.get(levelIndex);
+        Level stress = new Level(l.totalTime, STRESS_TRASH, l.trashSize, l.playerSpeed, l.truckWidth, l.truckHeight,
+            l.backgroundKey, l.sweeperCount, l.night, l.mapPath);
+        world = new GameWorld(Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), stress, SEED + levelIndex);
+        world.spawnPartner();
+        world.spawnSweepers();
+        levelFrame = 0;
+        lastFrame = 0;
+        levelStart = System.nanoTime();
+    }
+
+    // Estado da cena no frame `n` da fase (só depende de `n`)
+    private void script(int n) {
+        float t = n * STEP;
+        float w = world.worldWidth, h = world.worldHeight;
+        world.timeLeft = Math.max(0f, world.totalTime - t);
+        world.truck.x = (t * world.truck.speed) % (w + world.truck.width) - world.truck.width;
+        circle(world.player, t, w * 0.5f, h * 0.5f, h * 0.3f, 0f);
+        circle(world.partner, t, w * 0.5f, h * 0.5f, h * 0.2f, MathUtils.PI);
+        for (int i = 0; i < world.sweepers.size; i++) {
+            circle(world.sweepers.get(i), t, w * (i + 1f) / (world.sweepers.size + 1f), h * 0.5f, h * 0.4f, i);
+        }
+        world.score.value = n / 60;
+        world.carriedTrash = n / 30 % 10;
+        world.rivalTrash = n / 90;
+    }
+
+    private static void circle(Player p, float t, float cx, float cy, float radius, float phase) {
+        float a = t * 1.5f + phase;
+        float nx = MathUtils.cos(a), ny = MathUtils.sin(a);
+        p.x = cx + nx * radius - p.width * 0.5f;
+        p.y = cy + ny * radius - p.height * 0.5f;
+        // Direção tangente, para alternar os sprites de frente, costas e lado
+        p.faceX = -ny;
+        p.faceY = nx;
+    }
+
+    private void finish() {
+        finished = true;
+        levelFirstFrame[levels.size()] = frameNanos.size;
+        String json = toJson();
+        System.out.println(json);
+        if (out != null) {
+            try {
+                File parent = out.getAbsoluteFile().getParentFile();
+                if (parent != null) Files.createDirectories(parent.toPath());
+                Files.write(out.toPath(), (json + "\n").getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                Gdx.app.error("RenderBenchmark", "Falha ao gravar " + out, e);
+            }
+        }
+        Gdx.app.exit();
+    }
+
+    private String toJson() {
+        StringBuilder sb = new StringBuilder("{\"benchmark\":\"render\"");
+        sb.append(",\"renderer\":\"").append(escape(Gdx.gl.glGetString(GL20.GL_RENDERER)))
+          .append("\",\"glVersion\":\"").append(escape(Gdx.gl.glGetString(GL20.GL_VERSION)))
+          .append("\",\"width\":").append(Gdx.graphics.getBackBufferWidth())
+          .append(",\"height\":").append(Gdx.graphics.getBackBufferHeight())
+          .append(",\"trash\":").append(STRESS_TRASH)
+          .append(",\"seconds\":").append(String.format(Locale.ROOT, "%.1f", seconds));
+        appendStats(sb, 0, frameNanos.size);
+        sb.append(",\"levels\":[");
+        for (int i = 0; i < levels.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"background\":\"").append(levels.get(i).backgroundKey).append('"')
+              .append(",\"night\":").append(levels.get(i).night);
+            appendStats(sb, levelFirstFrame[i], levelFirstFrame[i + 1]);
+            sb.append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    // Frames [from, to): FPS médio, percentis do tempo de frame (ms) e contadores GL médios por frame
+    private void appendStats(StringBuilder sb, int from, int to) {
+        int n = to - from;
+        sb.append(",\"frames\":").append(n);
+        if (n == 0) return;
+        long[] sorted = Arrays.copyOfRange(frameNanos.items, from, to);
+        Arrays.sort(sorted);
+        long total = 0, calls = 0, binds = 0, shaders = 0;
+        for (int i = from; i < to; i++) {
+            total += frameNanos.get(i);
+            calls += drawCalls.get(i);
+            binds += textureBindings.get(i);
+            shaders += shaderSwitches.get(i);
+        }
+        sb.append(String.format(Locale.ROOT,
+            ",\"avgFps\":%.1f,\"frameMs\":{\"avg\":%.3f,\"p50\":%.3f,\"p90\":%.3f,\"p99\":%.3f,\"max\":%.3f}"
+                + ",\"drawCallsPerFrame\":%.1f,\"textureBindingsPerFrame\":%.1f,\"shaderSwitchesPerFrame\":%.1f",
+            n * 1e9 / total, total / 1e6 / n, percentile(sorted, 0.5), percentile(sorted, 0.9),
+            percentile(sorted, 0.99), sorted[n - 1] / 1e6,
+            (double) calls / n, (double) binds / n, (double) shaders / n));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+    }
+
+    private static String escape(String s) {
+        return s == null ? "" : s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    @Override
+    public void dispose() {
+        if (profiler != null) profiler.disable();
+        if (batch != null) batch.dispose();
+        if (gameRenderer != null) gameRenderer.dispose();
+        if (sprites != null) sprites.dispose();
+    }
+}
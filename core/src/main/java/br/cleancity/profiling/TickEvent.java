@@ -0,0 +1,41 @@
+package br.cleancity.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Um passo da simulação (movimento, física do lixo e colisões). A duração do evento é o custo do passo.
+ */
+@Name("br.cleancity.Tick")
+@Label("Tick da simulação")
+@Category({"CleanCity", "Simulação"})
+@Description("Um passo de GameController + TrashPhysics + CollisionHandler")
+@StackTrace(false)
+public class TickEvent extends Event {
+    @Label("Delta")
+    @Timespan(Timespan.NANOSECONDS)
+    public long delta;
+
+    @Label("Lixo no mapa")
+    public int trashCount;
+
+    @Label("Colisões resolvidas")
+    @Description("Contatos com o caminhão empurrados para fora neste passo")
+    public int collisionsResolved;
+
+    @Label("Lixo coletado")
+    public int trashCollected;
+
+    @Label("Lixo em movimento")
+    @Description("Itens com velocidade depois do passo de física do lixo (vento e esteira do caminhão)")
+    public int trashAwake;
+
+    @Label("Co-op")
+    @Description("Passo executado pelo servidor cooperativo")
+    public boolean server;
+}
@@ -0,0 +1,106 @@
+package br.cleancity.screen;
+
+import br.cleancity.audio.SoundManager;
+import br.cleancity.profiling.AudioMemory;
+import br.cleancity.view.SpriteManager;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Locale;
+
+/**
+ * Contagem de referências dos assets das telas (ver {@link ScreenAssets}).
+ *
+ * - {@link #enter} soma uma referência a cada asset do escopo; o que passa de 0 para 1 fica pendente de carga.
+ * - {@link #exit} tira a referência; o que chega a 0 é liberado na hora (ou sai da fila, se nem chegou a carregar).
+ * - {@link #update()} carrega o pendente em passos (os sprites numa leva, decodificados em paralelo; depois a
+ *   música; depois os efeitos), para a tela de carregamento desenhar entre um passo e outro.
+ *
+ * Na troca de tela a próxima entra antes de a anterior sair: o que as duas usam (ex.: a música da intro e do jogo)
+ * nunca chega a 0 e não é recarregado.
+ */
+public final class AssetScopes {
+    private final SpriteManager sprites;
+    private final SoundManager audio;
+    private final ObjectIntMap<String> spriteRefs = new ObjectIntMap<>();
+    private int musicRefs, effectsRefs;
+
+    // Referenciados e ainda não carregados
+    private final Array<String> pendingSprites = new Array<>();
+    private boolean pendingMusic, pendingEffects;
+
+    public AssetScopes(SpriteManager sprites, SoundManager audio) {
+        this.sprites = sprites;
+        this.audio = audio;
+    }
+
+    /** Soma uma referência aos assets do escopo (a carga fica pendente até {@link #update()}). */
+    public void enter(ScreenAssets scope) {
+        for (String key : scope.sprites) {
+            if (spriteRefs.getAndIncrement(key, 0, 1) == 0) pendingSprites.add(key);
+        }
+        if (scope.music && musicRefs++ == 0) pendingMusic = true;
+        if (scope.effects && effectsRefs++ == 0) pendingEffects = true;
+    }
+
+    /** Tira uma referência dos assets do escopo e libera os que ficaram sem nenhuma. */
+    public void exit(ScreenAssets scope) {
+        for (String key : scope.sprites) {
+            int refs = spriteRefs.get(key, 0) - 1;
+            if (refs > 0) {
+                spriteRefs.put(key, refs);
+                continue;
+            }
+            spriteRefs.remove(key, 0);
+            if (!pendingSprites.removeValue(key, false)) sprites.unload(key);
+        }
+        if (scope.music && --musicRefs == 0) {
+            if (pendingMusic) pendingMusic = false;
+            else audio.unloadMusic();
+        }
+        if (scope.effects && --effectsRefs == 0) {
+            if (pendingEffects) pendingEffects = false;
+            else audio.unloadEffects();
+        }
+    }
+
+    /**
+     * Faz um passo da carga pendente (na thread GL).
+     * @return true quando não há mais nada pendente
+     */
+    public boolean update() {
+        if (pendingSprites.notEmpty()) {
+            sprites.load(pendingSprites);
+            pendingSprites.clear();
+        } else if (pendingMusic) {
+            audio.loadMusic();
+            pendingMusic = false;
+        } else if (pendingEffects) {
+            audio.loadEffects();
+            pendingEffects = false;
+        }
+        return pendingSteps() == 0;
+    }
+
+    /** Carrega todo o pendente de uma vez. */
+    public void finishLoading() {
+        while (!update()) {
+            // um passo por volta
+        }
+    }
+
+    /** Passos de carga que faltam (sprites, música e efeitos contam um cada). */
+    public int pendingSteps() {
+        return (pendingSprites.notEmpty() ? 1 : 0) + (pendingMusic ? 1 : 0) + (pendingEffects ? 1 : 0);
+    }
+
+    /** Registra no log a memória ocupada pelos assets carregados, com o nome da tela ativa. */
+    public void log(String screen) {
+        if (Gdx.app == null) return;
+        Gdx.app.log("AssetScopes", String.format(Locale.ROOT,
+            "%s: %d sprites, %d KB de textura; áudio: %d sons (%d KB), %d streams",
+            screen, sprites.loadedCount(), sprites.textureBytes() / 1024,
+            AudioMemory.sounds(), AudioMemory.decodedBytes() / 1024, AudioMemory.streams()));
+    }
+}
@@ -0,0 +1,389 @@
+package br.cleancity.screen;
+
+import br.cleancity.CleanCityGame;
+import br.cleancity.audio.Mfx;
+import br.cleancity.audio.Sfx;
+import br.cleancity.audio.SoundManager;
+import br.cleancity.controller.GameEvents;
+import br.cleancity.controller.InputController;
+import br.cleancity.controller.Simulation;
+import br.cleancity.controller.WorldSnapshot;
+import br.cleancity.model.GameWorld;
+import br.cleancity.telemetry.Heatmaps;
+import br.cleancity.net.CoopClient;
+import br.cleancity.net.CoopServer;
+import br.cleancity.net.NetProtocol;
+import br.cleancity.view.GameRenderer;
+import br.cleancity.view.HUDRenderer;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+import java.io.IOException;
+
+/**
+ * Tela do jogo: sprites do mundo, música e efeitos.
+ *
+ * Jogo solo: a lógica (controle/colisões/varredores) roda numa thread própria ({@link Simulation}); o render
+ * desenha a cópia mais recente do mundo publicada por ela e consome os eventos de jogo (sons, avisos do HUD)
+ * pela fila {@link GameEvents}, sem nunca esperar pela simulação. Ao completar todas as fases, segue para a
+ * {@link ResultsScreen}.
+ *
+ * Modo cooperativo (opcional): quando criado com um host, o mundo vem de um `CoopServer` autoritativo
+ * (embutido quando este jogo é o host) através de um `CoopClient`; a simulação local fica desligada e só
+ * o próprio jogador é previsto localmente.
+ *
+ * Ritmo de render: pausa, tela de fim de fase parada e janela sem foco não mudam a tela sozinhas. Nesses estados
+ * a simulação e os timers de áudio param, o render passa a ser sob demanda (um frame por entrada) e o loop cai
+ * para {@link CleanCityGame#IDLE_FPS} (ver {@link #updatePacing(float)}).
+ */
+public class GameplayScreen extends ScopedScreen {
+    // Relatório de latência de entrada (F3)
+    private static final float LATENCY_REPORT_SECONDS = 5f;
+    // Fator de zoom por passo da roda do mouse ou tecla +/-
+    private static final float ZOOM_STEP = 1.25f;
+    // Tempo que a tela de fim de fase fica animando antes de parar
+    private static final float IDLE_SETTLE_SECONDS = 1f;
+
+    private final ScreenAssets assets;
+    private final InputController input;
+    private final SoundManager audio;
+    private final GameEvents events = new GameEvents(256);
+    private GameRenderer gameRenderer;
+    private HUDRenderer hudRenderer;
+    private Simulation simulation;
+    // Cópia publicada pela simulação, ou o mundo replicado no co-op
+    private GameWorld world;
+    private int levelIndex = -1;
+    private long simulationTick = -1;
+    // Última pontuação vista em cada fase (a da tentativa vencida, já que só se avança vencendo)
+    private final int[] levelScores;
+
+    private boolean reportInputLatency = false;
+    // Overlay do mapa de calor (F4): -1 desligado, senão o tipo mostrado (Heatmaps.PRESENCE...)
+    private int heatmapKind = -1;
+    private float latencyReportTimer = 0f;
+
+    private boolean paused;   // pausa do jogador (P/Esc/Back)
+    private boolean focused = true;
+    private boolean frozen;   // tela de fim de fase parada: simulação congelada até uma entrada
+    private boolean idle;     // render sob demanda e FPS reduzido
+    private float settleTimer;
+    // Tick da cópia desenhada quando o último pedido (R/N/Backspace) foi enviado; -1 sem pedido pendente
+    private long commandTick = -1;
+
+    // Timer para a mensagem especial do HUD
+    private float collectAllMsgTimer = 0f;
+    private boolean allLevelsCompleted;
+
+    // Co-op (null no jogo solo)
+    private final String coopHost;
+    private final int coopPort;
+    private final boolean coopServe;
+    private CoopServer coopServer;
+    private CoopClient coop;
+
+    /**
+     * @param coopHost endereço do servidor co-op (null para jogo solo)
+     * @param coopPort porta UDP do servidor
+     * @param coopServe quando true, também hospeda o servidor neste processo
+     */
+    public GameplayScreen(CleanCityGame game, String coopHost, int coopPort, boolean coopServe) {
+        super(game);
+        this.assets = new ScreenAssets(GameRenderer.spriteKeys(game.levels()), true, true);
+        this.input = game.input();
+        this.audio = game.audio();
+        this.levelScores = new int[game.levels().size()];
+        this.coopHost = coopHost;
+        this.coopPort = coopPort;
+        this.coopServe = coopServe;
+    }
+
+    @Override
+    public ScreenAssets assets() {
+        return assets;
+    }
+
+    @Override
+    public void show() {
+        game.scopes().finishLoading(); // já carregado pela tela de carregamento
+        gameRenderer = new GameRenderer(game.sprites(), Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        hudRenderer = new HUDRenderer(game.sprites());
+        if (coopHost != null) startCoop(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    /**
+     * Inicia a simulação do jogo solo com as hitboxes do tamanho desenhado.
+     */
+    private void startSimulation() {
+        float w = Gdx.graphics.getWidth();
+        float h = Gdx.graphics.getHeight();
+        float[] sizes = new float[6];
+        gameRenderer.entitySizes(sizes);
+        simulation = new Simulation(w, h, game.levels(), input, events, game.telemetry(), game.heatmaps(), sizes);
+        simulation.start();
+    }
+
+    /**
+     * Inicia o modo cooperativo: hospeda o servidor (se pedido) e conecta o cliente.
+     * Em caso de falha de rede, registra o erro e segue no jogo solo.
+     */
+    private void startCoop(float w, float h) {
+        try {
+            if (coopServe) {
+                coopServer = new CoopServer(coopPort, w, h);
+                coopServer.start();
+            }
+            coop = new CoopClient(coopHost, coopPort, audio);
+            float[] sizes = new float[6];
+            gameRenderer.entitySizes(sizes);
+            coop.setHitboxSizes(sizes);
+        } catch (IOException e) {
+            Gdx.app.error("GameplayScreen", "Falha ao iniciar o co-op, jogando solo", e);
+            if (coopServer != null) coopServer.stop();
+            coopServer = null;
+            coop = null;
+        }
+    }
+
+    /**
+     * Aplica os eventos de jogo publicados pela simulação: sons, música e avisos do HUD.
+     */
+    private void drainEvents() {
+        for (int e = events.poll(); e != GameEvents.NONE; e = events.poll()) {
+            switch (e) {
+                case GameEvents.TRASH_COLLECTED:
+                    audio.playS(Sfx.C_TRASH, 0.8f);
+                    break;
+                case GameEvents.DELIVERY:
+                    audio.playS(Sfx.DELIVERY);
+                    break;
+                case GameEvents.DEATH:
+                    audio.fadeOut(Mfx.TRACK, 0.6f);
+                    audio.waitAndRun(500, () -> {
+                        audio.playS(Sfx.DEATH);
+                        audio.playS(Sfx.LOSE);
+                    });
+                    break;
+                case GameEvents.LEVEL_WON:
+                case GameEvents.LEVEL_OUTSCORED:
+                    Sfx end = e == GameEvents.LEVEL_WON ? Sfx.WIN : Sfx.LOSE;
+                    audio.fadeOut(Mfx.TRACK, 0.6f);
+                    audio.waitAndRun(500, () -> audio.playS(end, 1.5f));
+                    break;
+                case GameEvents.LEVEL_LOADED:
+                    audio.fadeIn(Mfx.TRACK, 1.5f, 1f);
+                    break;
+                case GameEvents.LEVEL_RESUMED:
+                    audio.fadeIn(Mfx.TRACK, 1f, 1f);
+                    break;
+                case GameEvents.COLLECT_ALL_FIRST:
+                    collectAllMsgTimer = 3.0f;
+                    break;
+                case GameEvents.ALL_LEVELS_COMPLETED:
+                    allLevelsCompleted = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Loop principal por frame: repassa comandos à simulação, aplica os eventos de jogo e renderiza a cópia
+     * mais recente do mundo. Usa o `delta` do frame para os timers do HUD; a simulação tem passo fixo próprio
+     * (ver {@link Simulation}). O início das fases "Simulação" e "Desenho" vai para o gravador de travadas e o
+     * evento JFR do frame (ver {@link CleanCityGame#render()}).
+     */
+    @Override
+    public void render(float delta) {
+        // Parado, o delta do frame é o tempo desde a última entrada (segundos): não vale para os timers
+        if (idle) delta = Math.min(delta, 1f / CleanCityGame.IDLE_FPS);
+        // Atualiza o timer da mensagem do HUD
+        if (collectAllMsgTimer > 0f) collectAllMsgTimer = Math.max(0f, collectAllMsgTimer - delta);
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            reportInputLatency = !reportInputLatency;
+            input.resetLatency();
+            latencyReportTimer = 0f;
+        }
+        if (reportInputLatency) reportInputLatency(delta);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            heatmapKind = heatmapKind + 1 < Heatmaps.KINDS ? heatmapKind + 1 : -1;
+            Gdx.app.log("Heatmaps", heatmapKind < 0 ? "Mapa de calor desligado"
+                : "Mapa de calor: " + Heatmaps.KIND_NAMES[heatmapKind]);
+        }
+        updateZoom();
+
+        game.markSimulation();
+        if (coop != null) {
+            updateCoop(delta);
+        } else {
+            if (simulation == null) startSimulation();
+            if (simulation.failure() != null) throw new GdxRuntimeException("Falha na simulação", simulation.failure());
+            boolean togglePause = Gdx.input.isKeyJustPressed(Input.Keys.P)
+                || Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE) || input.consumePause();
+            if (togglePause && (paused || world == null || !world.gameOver)) setPaused(!paused);
+            int cmd = 0;
+            if (Gdx.input.isKeyJustPressed(Input.Keys.R) || input.consumeRestart()) cmd |= Simulation.CMD_RESTART;
+            if (Gdx.input.isKeyJustPressed(Input.Keys.N) || input.consumeNext()) cmd |= Simulation.CMD_NEXT;
+            if (Gdx.input.isKeyJustPressed(Input.Keys.BACKSPACE)) cmd |= Simulation.CMD_REWIND;
+            if (cmd != 0 && !paused) {
+                // Acorda a tela de fim de fase: a simulação volta antes de atender o pedido
+                frozen = false;
+                settleTimer = 0f;
+                commandTick = simulationTick;
+                simulation.request(cmd);
+            }
+            drainEvents();
+            if (allLevelsCompleted) {
+                game.showResults(levelScores.clone());
+                return;
+            }
+            WorldSnapshot snapshot = simulation.latest();
+            world = snapshot.world;
+            levelIndex = snapshot.levelIndex;
+            simulationTick = snapshot.tick;
+            input.frameDrawn(snapshot.inputNanos);
+            if (levelIndex >= 0 && levelIndex < levelScores.length) levelScores[levelIndex] = world.score.value;
+        }
+
+        game.markDraw(world, levelIndex, simulationTick);
+        ScreenUtils.clear(0.15f, 0.15f, 0.2f, 1f);
+        SpriteBatch batch = game.batch();
+        batch.begin();
+        if (world == null) {
+            // Co-op ainda aguardando o primeiro snapshot do servidor
+            game.sprites().font().draw(batch, "Conectando ao servidor co-op...", 20, 30);
+            batch.end();
+            return;
+        }
+        gameRenderer.setHeatmap(heatmapKind >= 0 ? game.heatmaps().grid(levelIndex, heatmapKind) : null);
+        gameRenderer.render(batch, world);
+        hudRenderer.render(
+            batch,
+            world.score,
+            world.carriedTrash,
+            world.timeLeft,
+            world.gameOver,
+            world.gameWon,
+            collectAllMsgTimer > 0f,
+            delta
+        );
+        if (world.sweepers.size > 0) hudRenderer.renderRivals(batch, world.rivalTrash);
+        if (paused) hudRenderer.renderPaused(batch);
+        batch.end();
+        updatePacing(delta);
+    }
+
+    // Zoom da câmera: cada passo da roda ou tecla +/- multiplica/divide por ZOOM_STEP; 0 volta a 1
+    private void updateZoom() {
+        float steps = input.consumeScroll();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.EQUALS) || Gdx.input.isKeyJustPressed(Input.Keys.PLUS)
+            || Gdx.input.isKeyJustPressed(Input.Keys.NUMPAD_ADD)) steps -= 1f;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.MINUS) || Gdx.input.isKeyJustPressed(Input.Keys.NUMPAD_SUBTRACT)) steps += 1f;
+        if (steps != 0f) gameRenderer.setZoom(gameRenderer.getZoom() * (float) Math.pow(ZOOM_STEP, steps));
+        if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_0)) gameRenderer.setZoom(1f);
+    }
+
+    // Pausa do jogador (só no jogo solo): congela a simulação e os timers/músicas do áudio
+    private void setPaused(boolean paused) {
+        this.paused = paused;
+        if (paused) input.releaseAll();
+        audio.setPaused(paused);
+    }
+
+    /**
+     * Escolhe o ritmo de render do próximo frame.
+     * - Jogo pausado ou janela sem foco: a simulação para na hora.
+     * - Tela de fim de fase: anima por {@link #IDLE_SETTLE_SECONDS} depois que o caminhão saiu da tela, os sons
+     *   agendados tocaram e os avisos do HUD sumiram; então a simulação congela até R/N/Backspace.
+     * Parado assim, o jogo solo desenha só quando uma entrada pede (`requestRendering`, ver `InputController`)
+     * e o FPS cai para {@link CleanCityGame#IDLE_FPS}; no co-op o servidor segue rodando, então o render continua,
+     * a {@link CleanCityGame#IDLE_FPS}, só com a janela sem foco. Frames parados não contam como travadas.
+     * Depois de um pedido, a tela não congela de novo até chegar uma cópia de um tick posterior a ele: a cópia
+     * antiga ainda mostra o fim de fase, e congelar ali deixaria o pedido sem atender.
+     */
+    private void updatePacing(float delta) {
+        if (commandTick >= 0 && simulationTick > commandTick) commandTick = -1;
+        boolean ended = coop == null && commandTick < 0 && world != null && world.gameOver
+            && world.truck.x > world.worldWidth && !audio.hasPending() && collectAllMsgTimer <= 0f;
+        settleTimer = ended ? settleTimer + delta : 0f;
+        frozen = ended && settleTimer >= IDLE_SETTLE_SECONDS;
+        if (simulation != null) simulation.setPaused(paused || frozen || !focused);
+
+        boolean idleNow = paused || frozen || !focused;
+        if (idleNow != idle) {
+            idle = idleNow;
+            Gdx.graphics.setContinuousRendering(!idle || coop != null);
+            Gdx.graphics.setForegroundFPS(idle ? CleanCityGame.IDLE_FPS : Gdx.graphics.getDisplayMode().refreshRate + 1);
+        }
+        if (idle) game.skipHitchFrame();
+    }
+
+    /**
+     * Co-op: envia a entrada (direção + R/N) ao servidor, aplica os snapshots recebidos e usa o mundo replicado.
+     */
+    private void updateCoop(float delta) {
+        input.beginTick(delta); // mantém o estado das teclas e a medição de latência em dia
+        input.frameDrawn(input.lastTickNanos()); // no co-op o tick local roda no próprio frame
+        int bits = input.getDirectionBits();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.R) || input.consumeRestart()) bits |= NetProtocol.BTN_RESTART;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.N) || input.consumeNext()) bits |= NetProtocol.BTN_NEXT;
+        try {
+            coop.update(delta, bits);
+        } catch (IOException e) {
+            Gdx.app.error("GameplayScreen", "Erro de rede no co-op", e);
+        }
+        world = coop.world();
+    }
+
+    /**
+     * Registra no log a latência de entrada da janela (entrada → simulação e entrada → frame),
+     * para comparar configurações de vsync e limite de FPS.
+     */
+    private void reportInputLatency(float delta) {
+        latencyReportTimer += delta;
+        if (latencyReportTimer < LATENCY_REPORT_SECONDS) return;
+        latencyReportTimer = 0f;
+        String report = input.drainLatencyReport();
+        if (report != null) Gdx.app.log("InputLatency", report);
+    }
+
+    /**
+     * Janela sem foco ou minimizada (o launcher desktop pede `pause` também ao perder o foco).
+     * A simulação também pausa (ela não depende dos frames para parar) e o render cai para
+     * {@link CleanCityGame#IDLE_FPS}.
+     */
+    @Override
+    public void pause() {
+        focused = false;
+        updatePacing(0f);
+    }
+
+    @Override
+    public void resume() {
+        focused = true;
+        updatePacing(0f);
+    }
+
+    /** Sai da tela: desfaz a pausa do áudio e volta ao render contínuo. */
+    @Override
+    public void hide() {
+        if (paused) setPaused(false);
+        if (simulation != null) simulation.setPaused(true);
+        idle = false;
+        Gdx.graphics.setContinuousRendering(true);
+        Gdx.graphics.setForegroundFPS(Gdx.graphics.getDisplayMode().refreshRate + 1);
+    }
+
+    @Override
+    public void dispose() {
+        if (coop != null) coop.dispose();
+        if (coopServer != null) coopServer.stop();
+        if (simulation != null) simulation.stop();
+        if (gameRenderer != null) gameRenderer.dispose();
+    }
+}
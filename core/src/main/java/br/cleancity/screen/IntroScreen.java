@@ -0,0 +1,52 @@
+package br.cleancity.screen;
+
+import br.cleancity.CleanCityGame;
+import br.cleancity.audio.Mfx;
+import br.cleancity.view.IntroRenderer;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/**
+ * Intro (slideshow do {@link IntroRenderer}) com a música de fundo. ENTER pula um slide; no fim, o jogo segue para
+ * o carregamento do gameplay e as imagens da intro são liberadas.
+ */
+public class IntroScreen extends ScopedScreen {
+    private static final ScreenAssets ASSETS = new ScreenAssets(IntroRenderer.SLIDES, true, false);
+
+    private IntroRenderer intro;
+
+    public IntroScreen(CleanCityGame game) {
+        super(game);
+    }
+
+    @Override
+    public ScreenAssets assets() {
+        return ASSETS;
+    }
+
+    @Override
+    public void show() {
+        game.scopes().finishLoading();
+        intro = new IntroRenderer(game.sprites());
+        game.audio().fadeIn(Mfx.TRACK, 2f, 1f);
+    }
+
+    @Override
+    public void render(float delta) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.ENTER)) {
+            intro.skip();
+        }
+        intro.update(delta);
+        if (intro.isDone()) {
+            game.startGame();
+            return;
+        }
+        ScreenUtils.clear(0.05f, 0.05f, 0.08f, 1f);
+        SpriteBatch batch = game.batch();
+        batch.begin();
+        intro.render(batch);
+        batch.end();
+    }
+}
@@ -0,0 +1,69 @@
+package br.cleancity.screen;
+
+import br.cleancity.CleanCityGame;
+import br.cleancity.view.SpriteManager;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/**
+ * Carrega os assets da próxima tela com uma barra de progresso e então troca para ela.
+ *
+ * O escopo desta tela é o da próxima: entrar aqui já referencia os assets dela, e a carga anda um passo por frame
+ * ({@link AssetScopes#update()}). O primeiro frame só desenha, para a janela não ficar parada na tela anterior.
+ */
+public class LoadingScreen extends ScopedScreen {
+    private static final float BAR_W = 400f, BAR_H = 12f;
+
+    private final ScopedScreen next;
+    private final OrthographicCamera camera = new OrthographicCamera();
+    private int totalSteps;
+    private boolean drawn;
+
+    /** @param next tela a mostrar quando os assets dela estiverem carregados */
+    public LoadingScreen(CleanCityGame game, ScopedScreen next) {
+        super(game);
+        this.next = next;
+        camera.setToOrtho(false, 1280, 720);
+    }
+
+    @Override
+    public ScreenAssets assets() {
+        return next.assets();
+    }
+
+    @Override
+    public void show() {
+        totalSteps = Math.max(1, game.scopes().pendingSteps());
+        drawn = false;
+    }
+
+    @Override
+    public void render(float delta) {
+        if (drawn) {
+            boolean loaded = game.scopes().update();
+            game.skipHitchFrame(); // frames de carga não são travadas
+            if (loaded) {
+                game.setScreen(next);
+                return;
+            }
+        }
+        float progress = 1f - game.scopes().pendingSteps() / (float) totalSteps;
+
+        ScreenUtils.clear(0.05f, 0.05f, 0.08f, 1f);
+        SpriteBatch batch = game.batch();
+        SpriteManager sprites = game.sprites();
+        camera.update();
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        float x = (camera.viewportWidth - BAR_W) / 2, y = camera.viewportHeight / 2;
+        sprites.font().draw(batch, "Carregando...", x, y + 30);
+        batch.setColor(0.25f, 0.25f, 0.3f, 1f);
+        batch.draw(sprites.white(), x, y, BAR_W, BAR_H);
+        batch.setColor(0.4f, 0.8f, 0.4f, 1f);
+        batch.draw(sprites.white(), x, y, BAR_W * progress, BAR_H);
+        batch.setColor(1f, 1f, 1f, 1f);
+        batch.end();
+        drawn = true;
+    }
+}
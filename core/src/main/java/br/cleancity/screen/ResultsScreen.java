@@ -0,0 +1,83 @@
+package br.cleancity.screen;
+
+import br.cleancity.CleanCityGame;
+import br.cleancity.view.SpriteManager;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/**
+ * Fim de todas as fases: pontuação de cada fase e o total. ENTER (ou A no gamepad) começa um jogo novo.
+ *
+ * A tela é parada, então desenha só quando uma entrada pede (render sob demanda, como a pausa do jogo).
+ * Do gameplay ela mantém só o sprite do caminhão; o resto dos sprites, a música e os efeitos são liberados.
+ */
+public class ResultsScreen extends ScopedScreen {
+    private static final String TRUCK = "Art Garbage Truck_Right";
+    private static final ScreenAssets ASSETS = new ScreenAssets(new String[] {TRUCK}, false, false);
+
+    private final int[] levelScores;
+    private final OrthographicCamera camera = new OrthographicCamera();
+
+    /** @param levelScores pontuação final de cada fase, na ordem */
+    public ResultsScreen(CleanCityGame game, int[] levelScores) {
+        super(game);
+        this.levelScores = levelScores;
+        camera.setToOrtho(false, 1280, 720);
+    }
+
+    @Override
+    public ScreenAssets assets() {
+        return ASSETS;
+    }
+
+    @Override
+    public void show() {
+        game.scopes().finishLoading();
+        game.input().releaseAll();
+        Gdx.graphics.setContinuousRendering(false);
+        Gdx.graphics.requestRendering();
+    }
+
+    @Override
+    public void render(float delta) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.ENTER) || game.input().consumeNext()) {
+            game.startGame();
+            return;
+        }
+
+        ScreenUtils.clear(0.05f, 0.05f, 0.08f, 1f);
+        SpriteBatch batch = game.batch();
+        SpriteManager sprites = game.sprites();
+        BitmapFont font = sprites.font();
+        camera.update();
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        float x = camera.viewportWidth / 2 - 160, y = camera.viewportHeight - 120;
+        Texture truck = sprites.get(TRUCK);
+        float truckH = 96f, truckW = truckH * truck.getWidth() / truck.getHeight();
+        batch.draw(truck, (camera.viewportWidth - truckW) / 2, y - truckH, truckW, truckH);
+        y -= truckH + 30;
+        font.draw(batch, "Parabéns! Você completou todos os níveis!", x, y);
+        y -= 40;
+        int total = 0;
+        for (int i = 0; i < levelScores.length; i++) {
+            font.draw(batch, "Fase " + (i + 1) + ": " + levelScores[i], x, y);
+            total += levelScores[i];
+            y -= 22;
+        }
+        y -= 10;
+        font.draw(batch, "Total: " + total, x, y);
+        font.draw(batch, "ENTER para jogar de novo", x, y - 40);
+        batch.end();
+    }
+
+    @Override
+    public void hide() {
+        Gdx.graphics.setContinuousRendering(true);
+    }
+}
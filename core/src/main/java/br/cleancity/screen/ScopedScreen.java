@@ -0,0 +1,19 @@
+package br.cleancity.screen;
+
+import br.cleancity.CleanCityGame;
+import com.badlogic.gdx.ScreenAdapter;
+
+/**
+ * Tela do jogo com escopo de assets: o {@link CleanCityGame} carrega {@link #assets()} ao entrar na tela e libera
+ * ao sair (ver {@link AssetScopes}). Cada tela é usada uma vez: ao sair, ela é descartada (`dispose`).
+ */
+public abstract class ScopedScreen extends ScreenAdapter {
+    protected final CleanCityGame game;
+
+    protected ScopedScreen(CleanCityGame game) {
+        this.game = game;
+    }
+
+    /** Assets que a tela usa enquanto está ativa. */
+    public abstract ScreenAssets assets();
+}
@@ -0,0 +1,31 @@
+package br.cleancity.screen;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Assets que uma tela usa enquanto está ativa: as chaves de sprites e os grupos de áudio (música e efeitos).
+ * Cada tela declara o seu em {@link ScopedScreen#assets()}; quem carrega e libera é o {@link AssetScopes}.
+ */
+public final class ScreenAssets {
+    /** Tela que só usa a fonte e o pixel branco (sempre carregados). */
+    public static final ScreenAssets NONE = new ScreenAssets(Collections.emptyList(), false, false);
+
+    /** Chaves de sprites (nome do arquivo sem extensão em `sprites/`). */
+    public final List<String> sprites;
+    /** Usa a música de fundo. */
+    public final boolean music;
+    /** Usa os efeitos sonoros. */
+    public final boolean effects;
+
+    public ScreenAssets(List<String> sprites, boolean music, boolean effects) {
+        this.sprites = Collections.unmodifiableList(sprites);
+        this.music = music;
+        this.effects = effects;
+    }
+
+    public ScreenAssets(String[] sprites, boolean music, boolean effects) {
+        this(Arrays.asList(sprites), music, effects);
+    }
+}
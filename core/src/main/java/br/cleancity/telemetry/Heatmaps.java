@@ -0,0 +1,288 @@
+package br.cleancity.telemetry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Mapas de calor por fase: onde os jogadores passam o tempo, coletam, entregam e morrem. Para desenho de fases e
+ * ajuste de dificuldade.
+ *
+ * - `record` (thread da simulação, produtor único) converte a posição na célula da grade e escreve tipo, fase e
+ *   célula num {@link SpscRing} pré-alocado: sem alocação, trava nem I/O. Com o buffer cheio, a amostra é
+ *   descartada e contada.
+ * - Uma thread de fundo ("heatmap-aggregator") soma as amostras em grades de {@link #GRID_W}×{@link #GRID_H}
+ *   contadores (`int[]`) por fase e por tipo ({@link #PRESENCE}, {@link #COLLECT}, {@link #DELIVERY},
+ *   {@link #DEATH}). A grade cobre o mundo inteiro, qualquer que seja o tamanho dele.
+ * - Persistência: ao iniciar, o agregador lê `level-<n>.heat.gz` do diretório e continua a somar; grava as fases
+ *   alteradas a cada {@value #SAVE_INTERVAL_SECONDS} s e ao fechar (arquivo temporário + troca, sem deixar um mapa
+ *   pela metade).
+ * - Leitura ({@link #grid}): o agregador publica cópias das grades alteradas algumas vezes por segundo; quem lê
+ *   (o overlay do render) recebe sempre uma cópia completa, sem disputar as grades com a thread de fundo.
+ *
+ * `Heatmaps.NONE` descarta tudo e serve como padrão quando os mapas estão desligados.
+ */
+public class Heatmaps {
+    /** Instância desligada: `record` não faz nada e não há grades. */
+    public static final Heatmaps NONE = new Heatmaps();
+
+    /** Resolução das grades (células por eixo, sobre o mundo inteiro). */
+    public static final int GRID_W = 128, GRID_H = 72;
+    /** Tipos de amostra: presença (uma por tick), coleta, entrega e morte. */
+    public static final int PRESENCE = 0, COLLECT = 1, DELIVERY = 2, DEATH = 3;
+    /** Quantidade de tipos. */
+    public static final int KINDS = 4;
+    /** Nomes dos tipos, para logs e para o overlay. */
+    public static final String[] KIND_NAMES = {"presença", "coletas", "entregas", "mortes"};
+
+    private static final int CELLS = GRID_W * GRID_H;
+    private static final int MAGIC = 0x43434D48; // "CCHM"
+    private static final int VERSION = 1;
+    private static final long IDLE_PARK_NANOS = 50_000_000L;
+    private static final long PUBLISH_INTERVAL_NANOS = 250_000_000L;
+    private static final int SAVE_INTERVAL_SECONDS = 30;
+
+    private final boolean enabled;
+    private final SpscRing ring;
+    private final byte[] kinds;
+    private final short[] levels;
+    private final int[] cells;
+
+    private final File dir;
+    private final int levelCount;
+    private final AtomicReferenceArray<int[][]> published;
+
+    // Produtor: fase corrente e escala mundo → célula
+    private int currentLevel = -1;
+    private float cellsPerUnitX, cellsPerUnitY;
+
+    private Heatmaps() {
+        enabled = false;
+        ring = null;
+        kinds = null;
+        levels = null;
+        cells = null;
+        dir = null;
+        levelCount = 0;
+        published = new AtomicReferenceArray<>(0);
+        grids = null;
+        dirty = null;
+        unsaved = null;
+    }
+
+    /**
+     * Cria os mapas e inicia o agregador em segundo plano (que começa lendo os mapas já gravados).
+     * @param dir diretório dos arquivos (criado se não existir)
+     * @param levelCount quantidade de fases (amostras de outras fases são ignoradas)
+     * @param capacity amostras no buffer circular (arredondado para potência de 2)
+     */
+    public Heatmaps(File dir, int levelCount, int capacity) {
+        this.enabled = true;
+        this.ring = new SpscRing(capacity);
+        int size = ring.capacity();
+        this.kinds = new byte[size];
+        this.levels = new short[size];
+        this.cells = new int[size];
+        this.dir = dir;
+        this.levelCount = levelCount;
+        this.published = new AtomicReferenceArray<>(levelCount);
+        this.grids = new int[levelCount][][];
+        this.dirty = new boolean[levelCount];
+        this.unsaved = new boolean[levelCount];
+        ring.startConsumer("heatmap-aggregator", IDLE_PARK_NANOS, new SpscRing.Consumer() {
+            @Override
+            public void begin() {
+                loadAll();
+            }
+
+            @Override
+            public int drain(boolean stopping) {
+                return aggregateStep(stopping);
+            }
+        });
+    }
+
+    /**
+     * Passa a registrar na fase informada (thread da simulação, a cada carga de fase).
+     * @param level índice da fase
+     * @param worldWidth largura do mundo (a grade cobre [0, worldWidth))
+     * @param worldHeight altura do mundo
+     */
+    public void begin(int level, float worldWidth, float worldHeight) {
+        if (!enabled) return;
+        currentLevel = level;
+        cellsPerUnitX = GRID_W / worldWidth;
+        cellsPerUnitY = GRID_H / worldHeight;
+    }
+
+    /**
+     * Registra uma amostra na fase corrente sem bloquear (produtor único: a thread da simulação).
+     * @param kind {@link #PRESENCE}, {@link #COLLECT}, {@link #DELIVERY} ou {@link #DEATH}
+     * @param x posição no mundo (fora do mundo conta na célula da borda)
+     * @param y posição no mundo
+     */
+    public void record(int kind, float x, float y) {
+        if (!enabled || currentLevel < 0) return;
+        int i = ring.claim();
+        if (i < 0) return;
+        int col = (int) (x * cellsPerUnitX), row = (int) (y * cellsPerUnitY);
+        col = col < 0 ? 0 : (col < GRID_W ? col : GRID_W - 1);
+        row = row < 0 ? 0 : (row < GRID_H ? row : GRID_H - 1);
+        kinds[i] = (byte) kind;
+        levels[i] = (short) currentLevel;
+        cells[i] = row * GRID_W + col;
+        ring.publish();
+    }
+
+    /**
+     * Última grade publicada de uma fase e tipo (linhas de baixo para cima, `GRID_W` células cada), ou null se
+     * ainda não há dados. A cópia não muda depois de publicada: uma referência nova indica dados novos.
+     */
+    public int[] grid(int level, int kind) {
+        if (level < 0 || level >= levelCount) return null;
+        int[][] g = published.get(level);
+        return g != null ? g[kind] : null;
+    }
+
+    /** Amostras descartadas por buffer cheio desde o início da sessão. */
+    public long droppedCount() {
+        return enabled ? ring.droppedCount() : 0;
+    }
+
+    /**
+     * Para o agregador, somando e gravando o que ainda estiver no buffer. Espera no máximo alguns segundos
+     * (chamado ao fechar o jogo, não durante a partida).
+     */
+    public void close() {
+        if (enabled) ring.close();
+    }
+
+    // ---- Agregador (thread de fundo) ----
+
+    private final int[][][] grids;        // [fase][tipo][célula], criadas na primeira amostra ou leitura
+    private final boolean[] dirty;        // alterada desde a última publicação
+    private final boolean[] unsaved;      // alterada desde a última gravação
+
+    private long lastPublish;
+    private long lastSave;
+
+    private void loadAll() {
+        for (int level = 0; level < levelCount; level++) {
+            if (load(level)) publish(level);
+        }
+        lastPublish = System.nanoTime();
+        lastSave = lastPublish;
+    }
+
+    // Uma passada do agregador: soma as amostras, publica e grava as fases alteradas quando chega a hora
+    private int aggregateStep(boolean stopping) {
+        int added = drain();
+        long now = System.nanoTime();
+        if (stopping || now - lastPublish >= PUBLISH_INTERVAL_NANOS) {
+            for (int level = 0; level < levelCount; level++) {
+                if (dirty[level]) publish(level);
+            }
+            lastPublish = now;
+        }
+        if (stopping || now - lastSave >= SAVE_INTERVAL_SECONDS * 1_000_000_000L) {
+            for (int level = 0; level < levelCount; level++) {
+                if (unsaved[level]) save(level);
+            }
+            lastSave = now;
+        }
+        return added;
+    }
+
+    private int drain() {
+        int n = 0;
+        for (int i = ring.peek(); i >= 0; i = ring.peek(), n++) {
+            int level = levels[i];
+            if (level < levelCount) {
+                int[][] g = grids[level];
+                if (g == null) g = grids[level] = new int[KINDS][CELLS];
+                int[] counts = g[kinds[i]];
+                int c = cells[i];
+                if (counts[c] != Integer.MAX_VALUE) counts[c]++;
+                dirty[level] = true;
+                unsaved[level] = true;
+            }
+            ring.release();
+        }
+        return n;
+    }
+
+    // Cópia nova das grades da fase para os leitores
+    private void publish(int level) {
+        int[][] g = grids[level];
+        int[][] copy = new int[KINDS][];
+        for (int k = 0; k < KINDS; k++) copy[k] = g[k].clone();
+        published.set(level, copy);
+        dirty[level] = false;
+    }
+
+    private File file(int level) {
+        return new File(dir, "level-" + level + ".heat.gz");
+    }
+
+    // Lê o mapa gravado da fase; arquivo ausente, de outra versão ou resolução é ignorado
+    private boolean load(int level) {
+        File f = file(level);
+        if (!f.isFile()) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+            new GZIPInputStream(new FileInputStream(f))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != GRID_W || in.readInt() != GRID_H
+                || in.readInt() != KINDS) {
+                System.err.println("Mapa de calor ignorado (formato diferente): " + f);
+                return false;
+            }
+            int[][] g = new int[KINDS][CELLS];
+            for (int k = 0; k < KINDS; k++) {
+                for (int c = 0; c < CELLS; c++) g[k][c] = in.readInt();
+            }
+            grids[level] = g;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Mapa de calor ilegível: " + f + ": " + e);
+            return false;
+        }
+    }
+
+    private void save(int level) {
+        File f = file(level);
+        File tmp = new File(dir, f.getName() + ".tmp");
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("não foi possível criar " + dir);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(tmp))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(GRID_W);
+                out.writeInt(GRID_H);
+                out.writeInt(KINDS);
+                for (int[] counts : grids[level]) {
+                    for (int c : counts) out.writeInt(c);
+                }
+            }
+            try {
+                Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            unsaved[level] = false;
+        } catch (IOException e) {
+            // Falha de disco: tenta de novo na próxima gravação; o jogo segue
+            System.err.println("Mapa de calor não gravado: " + f + ": " + e);
+        }
+    }
+}
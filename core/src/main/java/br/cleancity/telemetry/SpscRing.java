@@ -0,0 +1,134 @@
+package br.cleancity.telemetry;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Buffer circular sem trava para um produtor e um consumidor (cada um sempre na mesma thread). O anel só cuida
+ * dos índices: os dados ficam em colunas de arrays primitivos do dono, com {@link #capacity()} posições.
+ *
+ * - Produtor: {@link #claim()} devolve o slot a preencher e {@link #publish()} o entrega depois de preenchido.
+ *   Com o anel cheio, `claim` devolve -1: o item é descartado e contado, e o produtor nunca espera.
+ * - Consumidor: {@link #peek()} devolve o próximo slot preenchido e {@link #release()} o devolve ao produtor.
+ * - Os índices são publicados por `lazySet`: nenhum dos lados bloqueia ou aloca.
+ *
+ * Quem esvazia o anel em segundo plano usa {@link #startConsumer}: uma thread daemon de prioridade mínima chama
+ * o {@link Consumer} em laço, dormindo um pouco quando não há nada, e {@link #close()} a encerra depois de uma
+ * última passada.
+ */
+public final class SpscRing {
+    private static final long CLOSE_TIMEOUT_MS = 2000L;
+
+    /** Trabalho da thread consumidora (ver {@link #startConsumer}). */
+    public interface Consumer {
+        /** Antes da primeira passada, já na thread consumidora. */
+        default void begin() {
+        }
+
+        /**
+         * Uma passada: lê o que houver no anel e faz o trabalho periódico (gravar, publicar).
+         * @param stopping true na última passada, depois de {@link #close()}
+         * @return slots lidos (0 faz a thread dormir antes da próxima passada)
+         */
+        int drain(boolean stopping) throws IOException;
+
+        /** Ao sair do laço, na thread consumidora. @param error falha de I/O que interrompeu o laço, ou null */
+        default void end(IOException error) {
+        }
+    }
+
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // próximo slot a escrever (só o produtor altera)
+    private final AtomicLong tail = new AtomicLong(); // próximo slot a ler (só o consumidor altera)
+    private final AtomicLong dropped = new AtomicLong();
+
+    private Thread consumerThread;
+    private volatile boolean running;
+
+    /** @param capacity slots no anel (arredondado para potência de 2) */
+    public SpscRing(int capacity) {
+        mask = (Integer.highestOneBit(Math.max(2, capacity - 1)) << 1) - 1;
+    }
+
+    /** Quantidade de slots: o tamanho das colunas de dados. */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Slot livre para o produtor preencher, ou -1 com o anel cheio (o descarte é contado). */
+    public int claim() {
+        long h = head.get();
+        if (h - tail.get() > mask) {
+            dropped.incrementAndGet();
+            return -1;
+        }
+        return (int) (h & mask);
+    }
+
+    /** Entrega ao consumidor o slot devolvido pelo último {@link #claim()}, já preenchido. */
+    public void publish() {
+        head.lazySet(head.get() + 1);
+    }
+
+    /** Próximo slot preenchido, ou -1 com o anel vazio. */
+    public int peek() {
+        long t = tail.get();
+        return t == head.get() ? -1 : (int) (t & mask);
+    }
+
+    /** Devolve ao produtor o slot do último {@link #peek()}, já lido. */
+    public void release() {
+        tail.lazySet(tail.get() + 1);
+    }
+
+    /** Itens descartados por anel cheio desde a criação. */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Inicia a thread que esvazia o anel.
+     * @param name nome da thread
+     * @param idleParkNanos espera depois de uma passada sem nada para ler
+     */
+    public void startConsumer(String name, long idleParkNanos, Consumer consumer) {
+        running = true;
+        consumerThread = new Thread(() -> consumeLoop(consumer, idleParkNanos), name);
+        consumerThread.setDaemon(true);
+        consumerThread.setPriority(Thread.MIN_PRIORITY);
+        consumerThread.start();
+    }
+
+    /**
+     * Para a thread consumidora depois de uma última passada sobre o que ainda estiver no anel. Espera no máximo
+     * alguns segundos (chamado ao fechar o jogo, não durante a partida).
+     */
+    public void close() {
+        if (consumerThread == null || !running) return;
+        running = false;
+        LockSupport.unpark(consumerThread);
+        try {
+            consumerThread.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consumeLoop(Consumer consumer, long idleParkNanos) {
+        IOException error = null;
+        try {
+            consumer.begin();
+            while (true) {
+                boolean stopping = !running;
+                int read = consumer.drain(stopping);
+                if (stopping) break;
+                if (read == 0) LockSupport.parkNanos(idleParkNanos);
+            }
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            consumer.end(error);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package br.cleancity.telemetry;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Telemetria de jogo: grava eventos estruturados (ver {@link TelemetryEvent}) em arquivos NDJSON compactados.
+ *
+ * - `emit` só escreve em um buffer circular pré-alocado ({@link SpscRing}, com colunas de arrays primitivos, sem
+ *   alocação por evento) e publica o índice; nunca faz I/O nem espera. Com o buffer cheio (disco lento), o evento é descartado e contado.
+ * - Uma thread de fundo ("telemetry-writer") esvazia o buffer em lotes e escreve uma linha JSON por evento
+ *   em `telemetry-<sessão>-<n>.ndjson.gz`, trocando de arquivo ao passar de `maxFileBytes` e mantendo só os
+ *   `maxFiles` arquivos mais recentes no diretório. Descartes aparecem no arquivo como evento `dropped`.
+ * - Produtor único: `emit` deve ser chamado sempre da mesma thread (a da simulação, ver `Simulation`).
+ *
+ * `Telemetry.NONE` descarta tudo e serve como padrão quando a telemetria está desligada.
+ */
+public class Telemetry {
+    /** Instância desligada: `emit` não faz nada. */
+    public static final Telemetry NONE = new Telemetry();
+
+    private static final long IDLE_PARK_NANOS = 100_000_000L;  // espera do escritor sem eventos
+    private static final long FLUSH_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final boolean enabled;
+    private final SpscRing ring;
+    private final long[] times;
+    private final byte[] types;
+    private final short[] levels;
+    private final int[] valuesA;
+    private final int[] valuesB;
+
+    private final File dir;
+    private final String session;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final long startNanos = System.nanoTime();
+    private final long startMillis = System.currentTimeMillis();
+
+    private int currentLevel = -1;
+
+    private Telemetry() {
+        enabled = false;
+        ring = null;
+        times = null;
+        types = null;
+        levels = null;
+        valuesA = null;
+        valuesB = null;
+        dir = null;
+        session = null;
+        maxFileBytes = 0;
+        maxFiles = 0;
+    }
+
+    /**
+     * Cria a telemetria e inicia o escritor em segundo plano.
+     * @param dir diretório dos arquivos (criado se não existir)
+     * @param capacity eventos no buffer circular (arredondado para potência de 2)
+     * @param maxFileBytes tamanho (não compactado) a partir do qual troca de arquivo
+     * @param maxFiles quantidade de arquivos mantidos no diretório
+     */
+    public Telemetry(File dir, int capacity, long maxFileBytes, int maxFiles) {
+        this.enabled = true;
+        this.ring = new SpscRing(capacity);
+        int size = ring.capacity();
+        this.times = new long[size];
+        this.types = new byte[size];
+        this.levels = new short[size];
+        this.valuesA = new int[size];
+        this.valuesB = new int[size];
+        this.dir = dir;
+        this.session = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(startMillis));
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        ring.startConsumer("telemetry-writer", IDLE_PARK_NANOS, new SpscRing.Consumer() {
+            @Override
+            public int drain(boolean stopping) throws IOException {
+                return writeStep(stopping);
+            }
+
+            @Override
+            public void end(IOException error) {
+                // Falha de disco desliga a telemetria; o jogo segue (emit passa a descartar quando encher)
+                if (error != null) System.err.println("Telemetria desligada: " + error);
+                closeFile();
+            }
+        });
+    }
+
+    /**
+     * Registra um evento sem bloquear. A fase corrente vem do último {@link TelemetryEvent#LEVEL_START}.
+     * @param type tipo do evento
+     * @param a primeiro valor (ver {@link TelemetryEvent})
+     * @param b segundo valor
+     */
+    public void emit(TelemetryEvent type, int a, int b) {
+        if (!enabled) return;
+        if (type == TelemetryEvent.LEVEL_START) currentLevel = a;
+        int i = ring.claim();
+        if (i < 0) return;
+        times[i] = System.nanoTime() - startNanos;
+        types[i] = (byte) type.ordinal();
+        levels[i] = (short) currentLevel;
+        valuesA[i] = a;
+        valuesB[i] = b;
+        ring.publish();
+    }
+
+    /** Eventos descartados por buffer cheio desde o início da sessão. */
+    public long droppedCount() {
+        return enabled ? ring.droppedCount() : 0;
+    }
+
+    /**
+     * Para o escritor, gravando o que ainda estiver no buffer. Espera no máximo alguns segundos
+     * (chamado ao fechar o jogo, não durante a partida).
+     */
+    public void close() {
+        if (enabled) ring.close();
+    }
+
+    // ---- Escritor (thread de fundo) ----
+
+    private Writer out;
+    private long fileBytes;
+    private int fileIndex;
+    private long reportedDropped;
+    private final StringBuilder line = new StringBuilder(128);
+    private final StringBuilder header = new StringBuilder(128);
+    private static final TelemetryEvent[] EVENTS = TelemetryEvent.values();
+
+    private long lastFlush = System.nanoTime();
+
+    // Uma passada do escritor: esvazia o buffer e descarrega o arquivo a cada FLUSH_INTERVAL_NANOS
+    private int writeStep(boolean stopping) throws IOException {
+        int written = drain();
+        long now = System.nanoTime();
+        if (out != null && (stopping || now - lastFlush >= FLUSH_INTERVAL_NANOS)) {
+            out.flush();
+            lastFlush = now;
+        }
+        return written;
+    }
+
+    private int drain() throws IOException {
+        int n = 0;
+        for (int i = ring.peek(); i >= 0; i = ring.peek()) {
+            line.setLength(0);
+            TelemetryEvent type = EVENTS[types[i]];
+            line.append("{\"t\":").append(times[i] / 1_000_000L)
+                .append(",\"ev\":\"").append(type.key).append('"');
+            if (levels[i] >= 0) line.append(",\"lvl\":").append(levels[i]);
+            if (type.fieldA != null) line.append(",\"").append(type.fieldA).append("\":").append(valuesA[i]);
+            if (type.fieldB != null) line.append(",\"").append(type.fieldB).append("\":").append(valuesB[i]);
+            line.append("}\n");
+            write(line);
+            ring.release(); // libera o slot para o produtor assim que copiado
+            n++;
+        }
+
+        long d = ring.droppedCount();
+        if (d != reportedDropped) {
+            line.setLength(0);
+            line.append("{\"t\":").append((System.nanoTime() - startNanos) / 1_000_000L)
+                .append(",\"ev\":\"dropped\",\"count\":").append(d - reportedDropped).append("}\n");
+            write(line);
+            reportedDropped = d;
+        }
+        return n;
+    }
+
+    private void write(CharSequence s) throws IOException {
+        if (out == null || fileBytes >= maxFileBytes) openNextFile();
+        out.append(s);
+        fileBytes += s.length();
+    }
+
+    private void openNextFile() throws IOException {
+        closeFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("não foi possível criar " + dir);
+        File f = new File(dir, String.format("telemetry-%s-%03d.ndjson.gz", session, fileIndex++));
+        out = new BufferedWriter(new OutputStreamWriter(
+            new GZIPOutputStream(new FileOutputStream(f), 8192, true), StandardCharsets.UTF_8), 16 * 1024);
+        header.setLength(0);
+        header.append("{\"t\":").append((System.nanoTime() - startNanos) / 1_000_000L)
+            .append(",\"ev\":\"session\",\"start\":").append(startMillis)
+            .append(",\"file\":").append(fileIndex - 1).append("}\n");
+        out.append(header);
+        fileBytes = header.length();
+        pruneOldFiles();
+    }
+
+    private void closeFile() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+        }
+        out = null;
+    }
+
+    // Mantém só os `maxFiles` arquivos mais recentes (o nome ordena pela data da sessão e índice)
+    private void pruneOldFiles() {
+        File[] files = dir.listFiles((d, name) -> name.startsWith("telemetry-") && name.endsWith(".ndjson.gz"));
+        if (files == null || files.length <= maxFiles) return;
+        Arrays.sort(files);
+        for (int i = 0; i < files.length - maxFiles; i++) {
+            if (!files[i].delete()) System.err.println("Telemetria: não foi possível apagar " + files[i]);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package br.cleancity.telemetry;
+
+/**
+ * Tipos de evento de jogo registrados pela {@link Telemetry}.
+ *
+ * Cada evento carrega até dois inteiros (`a` e `b`); os nomes abaixo são as chaves usadas no NDJSON
+ * (null quando o campo não é usado).
+ */
+public enum TelemetryEvent {
+    /** Fase iniciada: índice da fase e quantidade de lixo gerado. */
+    LEVEL_START("level_start", "level", "trash"),
+    /**
+     * Fase encerrada: motivo ({@link #END_WON}, {@link #END_TIME}, {@link #END_TRUCK_GONE}, {@link #END_DEATH},
+     * {@link #END_OUTSCORED}) e pontos.
+     */
+    LEVEL_END("level_end", "reason", "score"),
+    /** Lixo coletado: id do lixo e quanto o jogador carrega depois da coleta. */
+    TRASH_COLLECTED("trash_collected", "trash", "carried"),
+    /** Entrega no caminhão: quantidade entregue e pontuação depois da entrega. */
+    DELIVERY("delivery", "size", "score"),
+    /** Jogador atropelado pela frente do caminhão: posição (arredondada) do jogador. */
+    DEATH_TRUCK_FRONT("death_truck_front", "x", "y"),
+    /** Fase reiniciada pelo jogador: índice da fase e segundos restantes no relógio. */
+    RESTART("restart", "level", "time_left");
+
+    /** Motivos de {@link #LEVEL_END}. */
+    public static final int END_WON = 0, END_TIME = 1, END_TRUCK_GONE = 2, END_DEATH = 3, END_OUTSCORED = 4;
+
+    final String key;
+    final String fieldA;
+    final String fieldB;
+
+    TelemetryEvent(String key, String fieldA, String fieldB) {
+        this.key = key;
+        this.fieldA = fieldA;
+        this.fieldB = fieldB;
+    }
+}
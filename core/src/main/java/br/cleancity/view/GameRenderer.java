@@ -1,12 +1,22 @@
 package br.cleancity.view;
 
 import br.cleancity.model.GameWorld;
+import br.cleancity.model.Level;
 import br.cleancity.model.Player;
-import br.cleancity.model.Trash;
+import br.cleancity.model.TrashClusters;
+import br.cleancity.model.TrashStore;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Responsável por desenhar os elementos do mundo (lixo, caminhão e jogador) usando uma câmera ortográfica.
@@ -20,146 +30,317 @@ import com.badlogic.gdx.graphics.Texture;
  * - Sincronização de hitboxes: `syncHitboxesToSpriteSizes()` deixa `width/height` das entidades proporcional ao sprite,
  *   em função de uma fração da altura do viewport, preservando o aspecto (width = height * (tw/th)). Assim, colisão e
  *   render ficam consistentes mesmo mudando resolução.
- * - Ordem de desenho condicional: quando o jogador está derrotado, desenhamos o jogador primeiro e depois o caminhão,
- *   para criar a sensação de atropelamento (caminhão por cima). Caso contrário, caminhão abaixo e jogador acima.
+ * - Ordem de desenho: tudo passa por uma {@link RenderQueue} com camadas (fundo, chão, derrotados, atores).
+ *   Entre os atores (caminhão, jogadores, varredores), quem está mais abaixo na tela fica por cima; o jogador
+ *   derrotado fica numa camada abaixo dos atores, criando a sensação de atropelamento (caminhão por cima).
  * - Espelhamento horizontal: largura negativa em `batch.draw` reflete o sprite lateral quando olhando à esquerda.
+ * - Fases noturnas (`Level.night`): depois das entidades, o {@link LightMap} multiplica a cena pela luz; ele só é
+ *   criado na primeira fase noturna.
+ * - Zoom ({@link #setZoom}): a câmera segue o jogador quando o mundo não cabe na tela. De {@link #LOD_ZOOM} para
+ *   cima, o lixo é desenhado agrupado: um sprite por célula da tela com lixo, maior conforme a quantidade, com um
+ *   contador. As contagens vêm de `GameWorld.trashClusters` (mantidas a cada coleta), então o frame afastado custa
+ *   O(células visíveis), não O(lixo).
+ * - Mapa de calor ({@link #setHeatmap}, depuração): por cima da cena e da luz, o {@link HeatmapOverlay} desenha a
+ *   grade como uma única textura esticada sobre o mundo; ele só é criado na primeira vez que o overlay é ligado.
  */
 public class GameRenderer {
     private final OrthographicCamera worldCamera;
-    private final Texture white;
     private final SpriteManager sprites;
+    private final RenderQueue queue = new RenderQueue();
+    private LightMap lightMap;
+    private HeatmapOverlay heatmapOverlay;
+    private int[] heatmap;
+
+    /** Limites do zoom (`OrthographicCamera.zoom`: maior = câmera mais afastada). */
+    public static final float MIN_ZOOM = 0.5f, MAX_ZOOM = 4f;
+    /** Deste zoom para cima, o lixo é desenhado agrupado por célula da tela. */
+    public static final float LOD_ZOOM = 2f;
+    // Lado aproximado de uma célula de agrupamento, em pixels da tela
+    private static final float CLUSTER_CELL_PIXELS = 48f;
+    private static final int MAX_LABEL = 999;
+    // Sprites dos atores (jogadores, varredores e caminhão) e fundo padrão
+    private static final String[] ACTOR_KEYS = {
+        "side_view_character", "back_view_character", "front_view_character", "DefeatedCharacter",
+        "Art Garbage Truck_Right"};
+    private static final String DEFAULT_BACKGROUND = "Street";
+
+    private float zoom = 1f;
+    // Contadores dos grupos do frame (desenhados depois da fila e da luz) e textos já formatados
+    private final FloatArray badgeXs = new FloatArray();
+    private final FloatArray badgeYs = new FloatArray();
+    private final IntArray badgeCounts = new IntArray();
+    private final String[] labels = new String[MAX_LABEL + 2];
 
     public GameRenderer(SpriteManager sprites, float worldWidth, float worldHeight) {
         this.sprites = sprites;
-        this.white = sprites.white();
         this.worldCamera = new OrthographicCamera();
         this.worldCamera.setToOrtho(false, worldWidth, worldHeight);
     }
 
+    /**
+     * Sprites que este render usa para as fases informadas: atores, variantes de lixo e fundos (os fundos em tiles
+     * não têm imagem; o `SpriteManager` ignora a chave e libera as páginas do tileset junto com ela).
+     */
+    public static List<String> spriteKeys(List<Level> levels) {
+        List<String> keys = new ArrayList<>();
+        Collections.addAll(keys, ACTOR_KEYS);
+        Collections.addAll(keys, TrashStore.SPRITE_KEYS);
+        keys.add(DEFAULT_BACKGROUND);
+        for (Level level : levels) {
+            if (level.backgroundKey != null && !keys.contains(level.backgroundKey)) keys.add(level.backgroundKey);
+        }
+        return keys;
+    }
+
     private static final float TRASH_HEIGHT_PCT = 0.06f;
     private static final float TRUCK_HEIGHT_PCT = 0.14f;
     private static final float PLAYER_HEIGHT_PCT = 0.10f;
+    private static final float PARTNER_TINT_BITS = new Color(0.75f, 0.9f, 1f, 1f).toFloatBits();
+    private static final float SWEEPER_TINT_BITS = new Color(1f, 0.65f, 0.4f, 1f).toFloatBits();
+
+    private final float[] sizes = new float[6];
+    // Textura de cada variante de lixo (resolvida uma vez por frame, não por item)
+    private final Texture[] trashTextures = new Texture[TrashStore.SPRITE_KEYS.length];
 
     // Mantém hitboxes proporcionais ao sprite e ao viewport, garantindo que colisão e desenho "batam" visualmente.
     private void syncHitboxesToSpriteSizes(GameWorld world) {
-        float vh = worldCamera.viewportHeight;
+        entitySizes(sizes);
 
-        // Truck size (usa Texture direta)
-        {
-            Texture t = sprites.get("Art Garbage Truck_Right");
-            float tw = t.getWidth();
-            float th = t.getHeight();
-            float targetH = vh * TRUCK_HEIGHT_PCT;
-            world.truck.width = targetH * (tw / th);
-            world.truck.height = targetH;
+        world.truck.width = sizes[2];
+        world.truck.height = sizes[3];
+
+        world.player.width = sizes[0];
+        world.player.height = sizes[1];
+        if (world.partner != null) {
+            world.partner.width = sizes[0];
+            world.partner.height = sizes[1];
         }
+        for (int i = 0; i < world.sweepers.size; i++) {
+            world.sweepers.get(i).width = sizes[0];
+            world.sweepers.get(i).height = sizes[1];
+        }
+    }
+
+    /** Zoom atual (1 = mundo inteiro na tela). */
+    public float getZoom() {
+        return zoom;
+    }
+
+    /** Define o zoom, limitado a [{@link #MIN_ZOOM}, {@link #MAX_ZOOM}]. */
+    public void setZoom(float zoom) {
+        this.zoom = MathUtils.clamp(zoom, MIN_ZOOM, MAX_ZOOM);
+    }
+
+    /**
+     * Liga o overlay do mapa de calor com a grade informada (`Heatmaps.grid`), ou desliga com null.
+     * Chamar a cada frame com a grade mais recente: o overlay só reenvia a textura quando a referência muda.
+     */
+    public void setHeatmap(int[] counts) {
+        this.heatmap = counts;
+    }
+
+    // Centro da câmera num eixo: segue o alvo sem mostrar fora do mundo; se o mundo couber na tela, centraliza
+    private static float follow(float target, float visible, float size) {
+        if (visible >= size) return size * 0.5f;
+        return MathUtils.clamp(target, visible * 0.5f, size - visible * 0.5f);
+    }
+
+    /**
+     * Calcula os tamanhos de desenho (e de hitbox) das entidades para o viewport atual.
+     * Usado também pelo cliente co-op para informar ao servidor as hitboxes que ele desenha.
+     * @param out vetor com ao menos 6 posições: jogador (w,h), caminhão (w,h), lixo (w,h)
+     */
+    public void entitySizes(float[] out) {
+        float vh = worldCamera.viewportHeight;
 
         // Player size (usa o sprite lateral para aspecto, via Texture)
         {
             Texture t = sprites.get("side_view_character");
-            float tw = t.getWidth();
-            float th = t.getHeight();
             float targetH = vh * PLAYER_HEIGHT_PCT;
-            world.player.width = targetH * (tw / th);
-            world.player.height = targetH;
+            out[0] = targetH * ((float) t.getWidth() / t.getHeight());
+            out[1] = targetH;
+        }
+
+        // Truck size (usa Texture direta)
+        {
+            Texture t = sprites.get("Art Garbage Truck_Right");
+            float targetH = vh * TRUCK_HEIGHT_PCT;
+            out[2] = targetH * ((float) t.getWidth() / t.getHeight());
+            out[3] = targetH;
         }
 
         // Trash size (comum para todos com base em um sprite representativo) usando Texture
         {
-            String key = "Trash_Pixel1";
-            Texture t = sprites.get(key);
-            float tw = t.getWidth();
-            float th = t.getHeight();
+            Texture t = sprites.get("Trash_Pixel1");
             float targetH = vh * TRASH_HEIGHT_PCT;
-            float targetW = targetH * (tw / th);
-            for (int i = 0; i < world.trashList.size; i++) {
-                world.trashList.get(i).width = targetW;
-                world.trashList.get(i).height = targetH;
-            }
+            out[4] = targetH * ((float) t.getWidth() / t.getHeight());
+            out[5] = targetH;
         }
     }
 
     /**
      * Renderiza o mundo usando a câmera do jogo.
-     * - Atualiza a câmera e aplica sua matriz de projeção com `batch.setProjectionMatrix(camera.combined)`.
-     * - Desenha o fundo cobrindo todo o viewport.
-     * - Desenha lixo, caminhão e jogador, com fallback para `Texture` quando não há `TextureRegion`.
+     * - Aplica o zoom, centraliza a câmera no jogador (limitada ao mundo) e aplica sua matriz de projeção com
+     *   `batch.setProjectionMatrix(camera.combined)`.
+     * - Desenha o fundo cobrindo todo o viewport: os tiles visíveis do tileset ou, sem índice de tiles, a textura inteira.
+     * - Enfileira lixo (ou, afastado, os grupos de lixo), caminhão e jogadores na {@link RenderQueue} e desenha a
+     *   fila ordenada (camada, Y, textura). Os contadores dos grupos vêm por último.
      * - Usa espelhamento horizontal (largura negativa) para o sprite lateral do jogador quando olhando à esquerda.
+     * - Em fases noturnas, aplica o mapa de luz sobre o mundo (o HUD, desenhado depois, não escurece).
      * @param batch SpriteBatch já iniciado (fora desta classe deve-se chamar `batch.begin()`/`batch.end()`)
      * @param world estado atual do jogo
      */
     public void render(SpriteBatch batch, GameWorld world) {
+        worldCamera.zoom = zoom;
+        Player target = world.player;
+        worldCamera.position.set(
+            follow(target.x + target.width * 0.5f, worldCamera.viewportWidth * zoom, world.worldWidth),
+            follow(target.y + target.height * 0.5f, worldCamera.viewportHeight * zoom, world.worldHeight), 0f);
         worldCamera.update();
         batch.setProjectionMatrix(worldCamera.combined);
         // keep hitboxes equal to render sizes
         syncHitboxesToSpriteSizes(world);
+        queue.begin();
 
         // Fundo por nível: usa a chave definida em world.level.backgroundKey como fallback
-        batch.setColor(Color.WHITE);
-        String bgKey = (world.level != null && world.level.backgroundKey != null) ? world.level.backgroundKey : "Street";
-        Texture bgTex = sprites.get(bgKey);
-        if (bgTex == sprites.white()) bgTex = sprites.get("Street");
-        batch.draw(bgTex, 0, 0, worldCamera.viewportWidth, worldCamera.viewportHeight);
-
-        // Lixo: usa a chave estável armazenada em cada Trash (spriteKey). Fallback para pixel branco.
-        for (int i = 0; i < world.trashList.size; i++) {
-            Trash t = world.trashList.get(i);
-            String key = t.spriteKey;
-            if (key != null) {
-                Texture tt = sprites.get(key);
-                batch.draw(tt, t.x, t.y, t.width, t.height);
-            } else {
-                batch.draw(white, t.x, t.y, t.width, t.height);
-            }
+        String bgKey = (world.level != null && world.level.backgroundKey != null) ? world.level.backgroundKey : DEFAULT_BACKGROUND;
+        TileBackground tiles = sprites.background(bgKey);
+        if (tiles != null) {
+            // Tiles visíveis direto no batch, antes da fila (ficam abaixo de tudo)
+            batch.setColor(Color.WHITE);
+            tiles.draw(batch, worldCamera, 0, 0, worldCamera.viewportWidth, worldCamera.viewportHeight);
+        } else {
+            Texture bgTex = sprites.get(bgKey);
+            if (bgTex == sprites.white()) bgTex = sprites.get(DEFAULT_BACKGROUND);
+            queue.draw(RenderQueue.LAYER_BACKGROUND, bgTex, 0, 0, worldCamera.viewportWidth, worldCamera.viewportHeight);
         }
 
-        // Renderização do jogador e caminhão
-        // Observação: quando p.isDefeated == true, desenhamos o jogador antes e o caminhão depois (por cima)
-        // para reforçar o efeito visual de atropelamento.
-        Player p = world.player;
-        Texture truckTex = sprites.get("Art Garbage Truck_Right");
-
-        if (p.isDefeated) {
-            // Desenha o jogador derrotado primeiro (embaixo)
-            Texture texDefeated = sprites.get("DefeatedCharacter");
-            if (texDefeated == null) texDefeated = sprites.white();
-
-            float scale = 1f;
-            batch.draw(texDefeated,
-                      p.x - (p.width * (scale - 1)) / 2,
-                      p.y - (p.height * (scale - 1)) / 2,
-                      p.width/2, p.height/2,
-                      p.width * scale, p.height * scale,
-                      1f, 1f,
-                      180f,
-                      0, 0,
-                      texDefeated.getWidth(), texDefeated.getHeight(),
-                      false, false);
-
-            // ...e depois o caminhão por cima
-            batch.draw(truckTex, world.truck.x, world.truck.y, world.truck.width, world.truck.height);
+        // Lixo: a variante estável de cada item escolhe o sprite; percorre os arrays do TrashStore em sequência.
+        // Afastado, só os grupos das células visíveis.
+        for (int v = 0; v < trashTextures.length; v++) trashTextures[v] = sprites.get(TrashStore.SPRITE_KEYS[v]);
+        badgeXs.clear();
+        badgeYs.clear();
+        badgeCounts.clear();
+        if (zoom >= LOD_ZOOM) {
+            queueClusters(world.trashClusters);
         } else {
-            // Jogador vivo: mantém ordem atual (caminhão abaixo, jogador acima)
-            batch.draw(truckTex, world.truck.x, world.truck.y, world.truck.width, world.truck.height);
-
-            // Jogador normal: usa frente, costas ou lado; reflete lado para a esquerda
-            Texture texFront = sprites.get("front_view_character");
-            Texture texBack  = sprites.get("back_view_character");
-            Texture texSide  = sprites.get("side_view_character");
-
-            float ax = Math.abs(p.faceX);
-            float ay = Math.abs(p.faceY);
-            if (ax >= ay && ax > 0f) {
-                boolean left = p.faceX < 0f;
-                float drawX = left ? p.x + p.width : p.x;
-                batch.draw(texSide, drawX, p.y, left ? -p.width : p.width, p.height);
-            } else if (p.faceY > 0f) {
-                batch.draw(texBack, p.x, p.y, p.width, p.height);
-            } else {
-                batch.draw(texFront, p.x, p.y, p.width, p.height);
+            TrashStore trash = world.trash;
+            float[] xs = trash.x, ys = trash.y;
+            byte[] variants = trash.variant;
+            float trashW = sizes[4], trashH = sizes[5];
+            for (int i = 0; i < trash.size; i++) {
+                queue.draw(RenderQueue.LAYER_GROUND, trashTextures[variants[i]], xs[i], ys[i], trashW, trashH);
             }
         }
 
+        // Jogadores derrotados ficam numa camada abaixo dos atores: o caminhão passa por cima (atropelamento)
+        Player p = world.player;
+        Player partner = world.partner;
+        if (p.isDefeated) queueDefeated(p);
+        if (partner != null && partner.isDefeated) queueDefeated(partner);
+
+        // Atores ordenados por Y: caminhão, varredores rivais (tingidos de laranja) e jogadores vivos
+        queue.draw(RenderQueue.LAYER_ACTORS, sprites.get("Art Garbage Truck_Right"),
+                   world.truck.x, world.truck.y, world.truck.width, world.truck.height);
+        for (int i = 0; i < world.sweepers.size; i++) queuePlayer(world.sweepers.get(i), SWEEPER_TINT_BITS);
+        if (!p.isDefeated) queuePlayer(p, RenderQueue.WHITE);
+        // Parceiro do co-op levemente tingido para diferenciar os jogadores
+        if (partner != null && !partner.isDefeated) queuePlayer(partner, PARTNER_TINT_BITS);
+
+        batch.setColor(Color.WHITE);
+        queue.flush(batch);
+
+        if (world.level != null && world.level.night) {
+            if (lightMap == null) lightMap = new LightMap();
+            lightMap.render(batch, world, worldCamera);
+        }
+        if (heatmap != null) {
+            if (heatmapOverlay == null) heatmapOverlay = new HeatmapOverlay();
+            heatmapOverlay.render(batch, heatmap, world.worldWidth, world.worldHeight);
+        }
+        if (badgeCounts.size > 0) drawBadges(batch);
+
         batch.setColor(Color.WHITE);
     }
+
+    // Um sprite por célula visível com lixo (nível do TrashClusters com células de ~CLUSTER_CELL_PIXELS na tela)
+    private void queueClusters(TrashClusters clusters) {
+        int level = clusters.levelFor(CLUSTER_CELL_PIXELS * zoom);
+        float cell = clusters.cellSize(level);
+        float halfW = worldCamera.viewportWidth * zoom * 0.5f;
+        float halfH = worldCamera.viewportHeight * zoom * 0.5f;
+        int cols = clusters.cols(level);
+        int col0 = Math.max(0, (int) ((worldCamera.position.x - halfW) / cell));
+        int col1 = Math.min(cols - 1, (int) ((worldCamera.position.x + halfW) / cell));
+        int row0 = Math.max(0, (int) ((worldCamera.position.y - halfH) / cell));
+        int row1 = Math.min(clusters.rows(level) - 1, (int) ((worldCamera.position.y + halfH) / cell));
+        float trashW = sizes[4], trashH = sizes[5];
+        for (int row = row0; row <= row1; row++) {
+            for (int col = col0; col <= col1; col++) {
+                int n = clusters.count(level, col, row);
+                if (n == 0) continue;
+                // Cresce com o log da quantidade, sem passar da célula
+                float scale = Math.min(cell / trashH, 1f + 0.5f * MathUtils.log2(n));
+                float w = trashW * scale, h = trashH * scale;
+                float x = clusters.meanX(level, col, row) + (trashW - w) * 0.5f;
+                float y = clusters.meanY(level, col, row) + (trashH - h) * 0.5f;
+                queue.draw(RenderQueue.LAYER_GROUND, trashTextures[(row * cols + col) % trashTextures.length],
+                    x, y, w, h);
+                if (n > 1) {
+                    badgeXs.add(x + w * 0.7f);
+                    badgeYs.add(y + h);
+                    badgeCounts.add(n);
+                }
+            }
+        }
+    }
+
+    // Contadores dos grupos, por cima de tudo e do mesmo tamanho na tela em qualquer zoom
+    private void drawBadges(SpriteBatch batch) {
+        BitmapFont font = sprites.font();
+        float scaleX = font.getData().scaleX, scaleY = font.getData().scaleY;
+        font.getData().setScale(zoom);
+        for (int i = 0; i < badgeCounts.size; i++) {
+            String label = label(badgeCounts.get(i));
+            font.setColor(Color.BLACK);
+            font.draw(batch, label, badgeXs.get(i) + zoom, badgeYs.get(i) - zoom);
+            font.setColor(Color.WHITE);
+            font.draw(batch, label, badgeXs.get(i), badgeYs.get(i));
+        }
+        font.getData().setScale(scaleX, scaleY);
+    }
+
+    private String label(int n) {
+        int i = Math.min(n, MAX_LABEL + 1);
+        if (labels[i] == null) labels[i] = n > MAX_LABEL ? MAX_LABEL + "+" : Integer.toString(n);
+        return labels[i];
+    }
+
+    /** Libera o mapa de luz e o overlay do mapa de calor (quando foram criados). */
+    public void dispose() {
+        if (lightMap != null) lightMap.dispose();
+        if (heatmapOverlay != null) heatmapOverlay.dispose();
+    }
+
+    // Jogador derrotado (sprite girado 180 graus)
+    private void queueDefeated(Player p) {
+        queue.draw(RenderQueue.LAYER_FALLEN, sprites.get("DefeatedCharacter"), p.x, p.y, p.width, p.height,
+                   180f, RenderQueue.WHITE);
+    }
+
+    // Jogador normal: usa frente, costas ou lado; reflete lado para a esquerda
+    private void queuePlayer(Player p, float tint) {
+        float ax = Math.abs(p.faceX);
+        float ay = Math.abs(p.faceY);
+        if (ax >= ay && ax > 0f) {
+            boolean left = p.faceX < 0f;
+            float drawX = left ? p.x + p.width : p.x;
+            queue.draw(RenderQueue.LAYER_ACTORS, sprites.get("side_view_character"),
+                       drawX, p.y, left ? -p.width : p.width, p.height, 0f, tint);
+        } else if (p.faceY > 0f) {
+            queue.draw(RenderQueue.LAYER_ACTORS, sprites.get("back_view_character"), p.x, p.y, p.width, p.height, 0f, tint);
+        } else {
+            queue.draw(RenderQueue.LAYER_ACTORS, sprites.get("front_view_character"), p.x, p.y, p.width, p.height, 0f, tint);
+        }
+    }
 }
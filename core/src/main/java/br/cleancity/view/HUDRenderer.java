@@ -37,10 +37,9 @@ public class HUDRenderer {
      * @param gameOver indica se o jogo terminou
      * @param gameWon indica se o jogador venceu
      * @param showCollectAll exibe o aviso "Colete todo o lixo antes de avançar!" quando true
-     * @param showAllLevelsCompleted exibe "Parabéns! Você completou todos os níveis!" quando true
      * @param delta tempo desde o último frame
      */
-    public void render(SpriteBatch batch, Score score, int carried, float timeLeft, boolean gameOver, boolean gameWon, boolean showCollectAll, boolean showAllLevelsCompleted, float delta) {
+    public void render(SpriteBatch batch, Score score, int carried, float timeLeft, boolean gameOver, boolean gameWon, boolean showCollectAll, float delta) {
         hudCamera.update();
         batch.setProjectionMatrix(hudCamera.combined);
 
@@ -60,16 +59,30 @@ public class HUDRenderer {
                      hudCamera.viewportHeight / 2);
         }
 
-        // Mensagens especiais (tentativa de avançar e fim de todos os níveis)
+        // Mensagem especial (tentativa de avançar com lixo na rua); o fim de todos os níveis tem tela própria
         if (showCollectAll) {
             font.draw(batch, "Limpe esta rua antes de avançar!",
                      (hudCamera.viewportWidth - 320) / 2,
                      hudCamera.viewportHeight - 30);
         }
-        if (showAllLevelsCompleted) {
-            font.draw(batch, "Parabéns! Você completou todos os níveis!",
-                     (hudCamera.viewportWidth - 400) / 2,
-                     hudCamera.viewportHeight - 30);
-        }
+    }
+
+    /**
+     * Desenha o aviso de jogo pausado (chamar logo após `render`, com a câmera do HUD).
+     * @param batch SpriteBatch já iniciado
+     */
+    public void renderPaused(SpriteBatch batch) {
+        font.draw(batch, "PAUSADO \nAperte 'p' ou 'esc' para continuar",
+                 (hudCamera.viewportWidth - 200) / 2,
+                 hudCamera.viewportHeight / 2);
+    }
+
+    /**
+     * Desenha quanto lixo os varredores rivais já recolheram (chamar logo após `render`, com a câmera do HUD).
+     * @param batch SpriteBatch já iniciado
+     * @param rivalTrash lixo recolhido pelos rivais
+     */
+    public void renderRivals(SpriteBatch batch, int rivalTrash) {
+        font.draw(batch, "Rivais: " + rivalTrash, 10, hudCamera.viewportHeight - 70);
     }
 }
\ No newline at end of file
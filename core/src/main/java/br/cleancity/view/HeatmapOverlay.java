@@ -0,0 +1,83 @@
+package br.cleancity.view;
+
+import br.cleancity.telemetry.Heatmaps;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Overlay de depuração com um mapa de calor (`Heatmaps`): uma textura de `GRID_W`×`GRID_H` pixels, um por célula,
+ * esticada sobre o mundo inteiro num único `batch.draw` (o filtro linear suaviza as células).
+ *
+ * A textura só é refeita quando chega uma grade nova (o agregador publica algumas vezes por segundo): as cores
+ * seguem o log da contagem em relação ao máximo da grade, de azul (pouco) a vermelho (muito), e células vazias
+ * ficam transparentes.
+ */
+public class HeatmapOverlay implements Disposable {
+    private static final int W = Heatmaps.GRID_W, H = Heatmaps.GRID_H;
+    private static final Color[] RAMP = {
+        new Color(0.1f, 0.2f, 1f, 0.35f), new Color(0f, 0.9f, 1f, 0.5f), new Color(1f, 0.95f, 0f, 0.65f),
+        new Color(1f, 0.1f, 0f, 0.8f)};
+
+    private final Pixmap pixmap = new Pixmap(W, H, Pixmap.Format.RGBA8888);
+    private final Texture texture;
+    // Cor RGBA8888 por nível de intensidade (0 = transparente)
+    private final int[] palette = new int[256];
+    private int[] shown;
+
+    public HeatmapOverlay() {
+        pixmap.setBlending(Pixmap.Blending.None);
+        texture = new Texture(pixmap);
+        texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        Color c = new Color();
+        for (int i = 1; i < palette.length; i++) {
+            float t = (i - 1) / (float) (palette.length - 2) * (RAMP.length - 1);
+            int k = Math.min((int) t, RAMP.length - 2);
+            palette[i] = Color.rgba8888(c.set(RAMP[k]).lerp(RAMP[k + 1], t - k));
+        }
+    }
+
+    /**
+     * Desenha a grade sobre o mundo.
+     * @param batch SpriteBatch já iniciado, com a projeção do mundo
+     * @param counts grade publicada por `Heatmaps.grid` (a mesma referência não é reenviada à GPU)
+     */
+    public void render(SpriteBatch batch, int[] counts, float worldWidth, float worldHeight) {
+        if (counts != shown) {
+            upload(counts);
+            shown = counts;
+        }
+        batch.setColor(Color.WHITE);
+        batch.draw(texture, 0f, 0f, worldWidth, worldHeight);
+    }
+
+    private void upload(int[] counts) {
+        int max = 0;
+        for (int c : counts) max = Math.max(max, c);
+        float scale = max > 0 ? (palette.length - 2) / (float) Math.log1p(max) : 0f;
+        ByteBuffer pixels = pixmap.getPixels();
+        for (int row = 0; row < H; row++) {
+            // Linha 0 da grade é a de baixo do mundo; a do pixmap é a de cima
+            int dst = (H - 1 - row) * W * 4;
+            for (int col = 0; col < W; col++, dst += 4) {
+                int c = counts[row * W + col];
+                int rgba = c > 0 ? palette[1 + (int) (Math.log1p(c) * scale)] : 0;
+                pixels.put(dst, (byte) (rgba >>> 24));
+                pixels.put(dst + 1, (byte) (rgba >>> 16));
+                pixels.put(dst + 2, (byte) (rgba >>> 8));
+                pixels.put(dst + 3, (byte) rgba);
+            }
+        }
+        texture.draw(pixmap, 0, 0);
+    }
+
+    @Override
+    public void dispose() {
+        texture.dispose();
+        pixmap.dispose();
+    }
+}
@@ -10,12 +10,14 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
  *
  * Função: exibir 4 imagens (intro1..intro4) como um slideshow com transições
  * de fade-in → hold → fade-out e avanço automático. O controlador do jogo
- * (ex.: CleanCityGame) decide a tecla de pulo e chama {@link #skip()}.
+ * (`IntroScreen`) decide a tecla de pulo e chama {@link #skip()}.
  *
  * Como os assets são carregados:
- * - As texturas são obtidas via {@link SpriteManager#get(String)} com as chaves
- *   "intro1", "intro2", "intro3" e "intro4". O SpriteManager mapeia o nome do
- *   arquivo (sem extensão) para a textura correspondente em assets/sprites/.
+ * - As texturas são obtidas via {@link SpriteManager#get(String)} com as chaves de {@link #SLIDES}
+ *   ("intro1".."intro4"). O SpriteManager mapeia o nome do arquivo (sem extensão) para a textura
+ *   correspondente em assets/sprites/.
+ * - Quem carrega e libera as imagens é a tela da intro (`IntroScreen`), que declara {@link #SLIDES}
+ *   no seu escopo de assets; elas saem da memória quando o jogo começa.
  *
  * Como o fade funciona (alpha no SpriteBatch):
  * - O {@link com.badlogic.gdx.graphics.g2d.SpriteBatch} tem uma cor multiplicativa global
@@ -33,8 +35,10 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
  *   deve chamar `dispose()` nas texturas dos slides.
  */
 public class IntroRenderer {
+    /** Chaves das imagens da intro, na ordem. */
+    public static final String[] SLIDES = {"intro1", "intro2", "intro3", "intro4"};
+
     private final SpriteManager sprites;
-    private final Texture[] slides;
     private int index = 0;
     private float timer = 0f;
     private boolean done = false;
@@ -45,20 +49,14 @@ public class IntroRenderer {
     private static final float FADE_OUT = 0.6f;
 
     /**
-     * Constrói o renderizador de intro carregando as texturas "intro1".."intro4" do SpriteManager.
+     * Constrói o renderizador de intro sobre o SpriteManager.
      *
      * Detalhes LibGDX:
-     * - {@link SpriteManager#get(String)} localiza e carrega (ou reutiliza do cache) a textura do asset.
-     *   As chaves costumam ser o nome do arquivo sem extensão colocado em `lwjgl3/assets/sprites/`.
+     * - {@link SpriteManager#get(String)} devolve a textura já carregada do asset; a textura de cada slide é buscada
+     *   ao desenhar, para esta classe não segurar referências a imagens que a tela já liberou.
      */
     public IntroRenderer(SpriteManager sprites) {
         this.sprites = sprites;
-        this.slides = new Texture[] {
-            sprites.get("intro1"), // busca textura para a primeira página de intro
-            sprites.get("intro2"), // segunda página
-            sprites.get("intro3"), // terceira página
-            sprites.get("intro4")  // quarta página
-        };
     }
 
     /**
@@ -88,7 +86,7 @@ public class IntroRenderer {
      * Avança o índice de slide e reseta o temporizador; se não houver mais slides, finaliza a intro.
      */
     private void next() {
-        if (index < slides.length - 1) {
+        if (index < SLIDES.length - 1) {
             index++;
             timer = 0f;
         } else {
@@ -109,7 +107,7 @@ public class IntroRenderer {
      */
     public void render(SpriteBatch batch) {
         if (done) return;
-        Texture slide = slides[Math.max(0, Math.min(index, slides.length - 1))];
+        Texture slide = sprites.get(SLIDES[Math.max(0, Math.min(index, SLIDES.length - 1))]);
         float sw = Gdx.graphics.getWidth();
         float sh = Gdx.graphics.getHeight();
 
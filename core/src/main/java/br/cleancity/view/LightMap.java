@@ -0,0 +1,188 @@
+package br.cleancity.view;
+
+import br.cleancity.model.GameWorld;
+import br.cleancity.model.Player;
+import br.cleancity.model.Truck;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Mapa de luz das fases noturnas: as luzes (postes, faróis do caminhão, lanterna do jogador) são desenhadas num
+ * {@link FrameBuffer} com 1/4 da resolução da tela e o resultado é multiplicado sobre o mundo numa única passada.
+ *
+ * - O framebuffer começa com a cor ambiente (noite) e cada luz soma sua cor (blend aditivo) com uma textura de
+ *   decaimento pré-calculada: um quad por luz, a 1/16 dos pixels da tela, então muitas luzes continuam baratas
+ *   mesmo em GPUs integradas.
+ * - Na composição, o filtro linear suaviza a ampliação e `GL_DST_COLOR, GL_ZERO` multiplica a cena pela luz.
+ * - O framebuffer é recriado quando o tamanho da janela muda.
+ */
+public class LightMap implements Disposable {
+    private static final int DOWNSCALE = 4;
+    private static final Color AMBIENT = new Color(0.16f, 0.18f, 0.3f, 1f);
+    private static final Color LAMP = new Color(1f, 0.82f, 0.5f, 0.9f);
+    private static final Color HEADLIGHT = new Color(1f, 0.95f, 0.8f, 1f);
+    private static final Color TAIL_LIGHT = new Color(1f, 0.2f, 0.15f, 0.8f);
+    private static final Color FLASHLIGHT = new Color(0.95f, 0.95f, 1f, 1f);
+    private static final Color GLOW = new Color(0.8f, 0.8f, 0.9f, 0.6f);
+    /** Distância entre os postes de cada calçada, em unidades de mundo. */
+    private static final float LAMP_SPACING = 256f;
+    /** Meia abertura dos cones de luz (lanterna e faróis), em graus. */
+    private static final float CONE_HALF_ANGLE = 28f;
+    private static final float CONE_TAN = MathUtils.sinDeg(CONE_HALF_ANGLE) / MathUtils.cosDeg(CONE_HALF_ANGLE);
+    // Meia altura do quad do cone, como fração do comprimento (o cone mais uma margem para a borda suave)
+    private static final float CONE_HALF_HEIGHT = CONE_TAN + 0.1f;
+
+    private final Texture radial;
+    private final Texture cone;
+    private FrameBuffer fbo;
+
+    public LightMap() {
+        radial = radialTexture(128);
+        cone = coneTexture(128);
+    }
+
+    /**
+     * Desenha as luzes do mundo no framebuffer e multiplica o resultado sobre o que já foi desenhado no batch.
+     * @param batch SpriteBatch já iniciado, com a projeção de `camera`
+     * @param world estado atual do jogo
+     * @param camera câmera do mundo (com zoom, o framebuffer cobre só a área visível)
+     */
+    public void render(SpriteBatch batch, GameWorld world, OrthographicCamera camera) {
+        ensureBuffer();
+
+        // Passada 1: luzes no framebuffer de baixa resolução (mesma projeção do mundo)
+        batch.flush();
+        fbo.begin();
+        Gdx.gl.glClearColor(AMBIENT.r, AMBIENT.g, AMBIENT.b, 1f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE);
+        drawLights(batch, world, world.worldWidth, world.worldHeight);
+        batch.flush();
+        fbo.end();
+
+        // Passada 2: cena *= luz
+        batch.setBlendFunction(GL20.GL_DST_COLOR, GL20.GL_ZERO);
+        batch.setColor(Color.WHITE);
+        // Textura de framebuffer é invertida em y: v = 0 embaixo
+        float w = camera.viewportWidth * camera.zoom, h = camera.viewportHeight * camera.zoom;
+        batch.draw(fbo.getColorBufferTexture(), camera.position.x - w * 0.5f, camera.position.y - h * 0.5f, w, h,
+            0f, 0f, 1f, 1f);
+        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    private void drawLights(SpriteBatch batch, GameWorld world, float vw, float vh) {
+        Player p = world.player;
+        float lampRadius = p.height * 2.2f;
+
+        // Postes nas duas calçadas
+        batch.setColor(LAMP);
+        int lamps = Math.max(1, (int) (vw / LAMP_SPACING));
+        for (int i = 0; i < lamps; i++) {
+            float x = vw * (i + 0.5f) / lamps;
+            drawRadial(batch, x, vh - p.height * 0.5f, lampRadius);
+            drawRadial(batch, x, p.height * 0.5f, lampRadius);
+        }
+
+        // Caminhão: faróis na frente (direita) e lanternas atrás
+        Truck t = world.truck;
+        batch.setColor(HEADLIGHT);
+        drawCone(batch, t.x + t.width, t.y + t.height * 0.5f, 0f, t.height * 4f);
+        batch.setColor(TAIL_LIGHT);
+        drawRadial(batch, t.x, t.y + t.height * 0.3f, t.height * 0.6f);
+
+        // Lanterna dos jogadores (na direção em que olham) e um brilho em volta
+        drawPlayerLight(batch, p);
+        if (world.partner != null) drawPlayerLight(batch, world.partner);
+
+        // Varredores rivais: só o brilho, para continuarem visíveis no escuro
+        batch.setColor(GLOW);
+        for (int i = 0; i < world.sweepers.size; i++) {
+            Player s = world.sweepers.get(i);
+            drawRadial(batch, s.x + s.width * 0.5f, s.y + s.height * 0.5f, s.height * 1.2f);
+        }
+        batch.setColor(Color.WHITE);
+    }
+
+    private void drawPlayerLight(SpriteBatch batch, Player p) {
+        if (p.isDefeated) return;
+        float cx = p.x + p.width * 0.5f, cy = p.y + p.height * 0.5f;
+        batch.setColor(GLOW);
+        drawRadial(batch, cx, cy, p.height * 1.3f);
+        batch.setColor(FLASHLIGHT);
+        drawCone(batch, cx, cy, MathUtils.atan2(p.faceY, p.faceX) * MathUtils.radiansToDegrees, p.height * 4.5f);
+    }
+
+    private void drawRadial(SpriteBatch batch, float cx, float cy, float radius) {
+        batch.draw(radial, cx - radius, cy - radius, radius * 2f, radius * 2f);
+    }
+
+    // Cone com o vértice em (x, y), girado `degrees` a partir do eixo +x
+    private void drawCone(SpriteBatch batch, float x, float y, float degrees, float length) {
+        float h = length * CONE_HALF_HEIGHT * 2f;
+        batch.draw(cone, x, y - h * 0.5f, 0f, h * 0.5f, length, h, 1f, 1f, degrees,
+            0, 0, cone.getWidth(), cone.getHeight(), false, false);
+    }
+
+    // (Re)cria o framebuffer com 1/4 do tamanho atual da tela
+    private void ensureBuffer() {
+        int w = Math.max(1, Gdx.graphics.getBackBufferWidth() / DOWNSCALE);
+        int h = Math.max(1, Gdx.graphics.getBackBufferHeight() / DOWNSCALE);
+        if (fbo != null && fbo.getWidth() == w && fbo.getHeight() == h) return;
+        if (fbo != null) fbo.dispose();
+        fbo = new FrameBuffer(Pixmap.Format.RGB888, w, h, false);
+        fbo.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+    }
+
+    // Círculo branco com alfa decaindo do centro até a borda (quadrático, sem corte visível)
+    private static Texture radialTexture(int size) {
+        Pixmap pm = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        float r = size * 0.5f;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                float dx = (x + 0.5f - r) / r, dy = (y + 0.5f - r) / r;
+                float f = Math.max(0f, 1f - (float) Math.sqrt(dx * dx + dy * dy));
+                pm.drawPixel(x, y, Color.rgba8888(1f, 1f, 1f, f * f));
+            }
+        }
+        return toTexture(pm);
+    }
+
+    // Cone com o vértice no meio da borda esquerda, abrindo para a direita; decai com a distância e para as bordas
+    private static Texture coneTexture(int size) {
+        Pixmap pm = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        float half = size * 0.5f;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                float along = (x + 0.5f) / size;
+                float across = Math.abs(y + 0.5f - half) / half;
+                float spread = (along * CONE_TAN + 0.05f) / CONE_HALF_HEIGHT; // meia largura do cone nesta coluna
+                float edge = MathUtils.clamp(1f - across / spread, 0f, 1f);
+                float fall = 1f - along;
+                pm.drawPixel(x, y, Color.rgba8888(1f, 1f, 1f, edge * fall * fall));
+            }
+        }
+        return toTexture(pm);
+    }
+
+    private static Texture toTexture(Pixmap pm) {
+        Texture t = new Texture(pm);
+        t.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        pm.dispose();
+        return t;
+    }
+
+    @Override
+    public void dispose() {
+        radial.dispose();
+        cone.dispose();
+        if (fbo != null) fbo.dispose();
+    }
+}
@@ -0,0 +1,196 @@
+package br.cleancity.view;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Fila de desenho do mundo: coleta os sprites do frame, ordena e só então envia ao {@link SpriteBatch}.
+ *
+ * - Camadas explícitas (ver as constantes `LAYER_*`): uma camada sempre fica toda abaixo da seguinte.
+ * - Nas camadas com ordenação por Y ({@link #LAYER_ACTORS}), quem está mais abaixo na tela (menor `y` da base
+ *   do sprite) é desenhado por cima. Nas outras, a ordem é por textura, para agrupar o máximo de sprites
+ *   por textura (cada troca de textura força o `SpriteBatch` a enviar o lote).
+ * - Chave de 64 bits por comando: camada (4 bits) | Y invertido em 1/8 de unidade (24 bits) | id da textura
+ *   (16 bits) | ordem de chegada (20 bits, desempate estável). A ordenação é um radix sort LSD de 8 bits
+ *   sobre arrays pré-alocados (sem alocação por frame); bytes iguais em todas as chaves são pulados.
+ * - Os dados de cada comando ficam em arrays primitivos paralelos, indexados pela ordem de chegada.
+ *
+ * Uso: `begin()`, vários `draw(...)`, `flush(batch)` (com o batch já iniciado).
+ */
+public class RenderQueue {
+    /** Fundo da fase. */
+    public static final int LAYER_BACKGROUND = 0;
+    /** Objetos no chão (lixo). */
+    public static final int LAYER_GROUND = 1;
+    /** Jogadores derrotados: abaixo de todos os atores (o caminhão passa por cima). */
+    public static final int LAYER_FALLEN = 2;
+    /** Caminhão, jogadores e varredores, ordenados por Y. */
+    public static final int LAYER_ACTORS = 3;
+
+    // Camadas ordenadas por Y (índice = camada)
+    private static final boolean[] Y_SORTED = {false, false, false, true};
+
+    private static final int INDEX_BITS = 20;
+    private static final int TEXTURE_BITS = 16;
+    private static final int Y_BITS = 24;
+    private static final int MAX_COMMANDS = 1 << INDEX_BITS;
+    private static final float Y_SCALE = 8f;
+    private static final int Y_CENTER = 1 << (Y_BITS - 1);
+
+    /** Cor branca empacotada (sem tinta). */
+    public static final float WHITE = Color.WHITE.toFloatBits();
+
+    private Texture[] textures = new Texture[256];
+    private float[] xs = new float[256];
+    private float[] ys = new float[256];
+    private float[] ws = new float[256];
+    private float[] hs = new float[256];
+    private float[] rotations = new float[256];
+    private float[] colors = new float[256];
+    private long[] keys = new long[256];
+    private long[] scratch = new long[256];
+    private final int[] counts = new int[256];
+    private int size;
+
+    // Ids estáveis de textura (a chave ordena por id; texturas iguais ficam juntas)
+    private final ObjectIntMap<Texture> textureIds = new ObjectIntMap<>();
+
+    private int textureSwitches;
+
+    /** Esvazia a fila para um novo frame. */
+    public void begin() {
+        size = 0;
+    }
+
+    /** Sprite sem tinta e sem rotação. Largura negativa espelha horizontalmente (como em `SpriteBatch.draw`). */
+    public void draw(int layer, Texture texture, float x, float y, float width, float height) {
+        draw(layer, texture, x, y, width, height, 0f, WHITE);
+    }
+
+    /**
+     * Enfileira um sprite.
+     * @param layer uma das constantes `LAYER_*`
+     * @param y base do sprite (também usada na ordenação por Y)
+     * @param rotation graus, em torno do centro do sprite
+     * @param packedColor tinta empacotada (`Color.toFloatBits()`), ou {@link #WHITE}
+     */
+    public void draw(int layer, Texture texture, float x, float y, float width, float height,
+                     float rotation, float packedColor) {
+        if (size == MAX_COMMANDS) return;
+        if (size == keys.length) grow();
+        int i = size++;
+        textures[i] = texture;
+        xs[i] = x;
+        ys[i] = y;
+        ws[i] = width;
+        hs[i] = height;
+        rotations[i] = rotation;
+        colors[i] = packedColor;
+
+        long yKey = 0;
+        if (Y_SORTED[layer]) {
+            // Menor y (mais abaixo na tela) → chave maior → desenhado depois
+            int q = Y_CENTER - (int) (y * Y_SCALE);
+            yKey = Math.max(0, Math.min((1 << Y_BITS) - 1, q));
+        }
+        keys[i] = ((long) layer << (Y_BITS + TEXTURE_BITS + INDEX_BITS))
+            | (yKey << (TEXTURE_BITS + INDEX_BITS))
+            | ((long) textureId(texture) << INDEX_BITS)
+            | i;
+    }
+
+    /** Comandos na fila. */
+    public int size() {
+        return size;
+    }
+
+    /** Trocas de textura no último `flush` (cada uma encerra um lote do `SpriteBatch`). */
+    public int textureSwitches() {
+        return textureSwitches;
+    }
+
+    /**
+     * Ordena e desenha a fila. A cor do batch volta a branco no fim.
+     * @param batch SpriteBatch já iniciado
+     */
+    public void flush(SpriteBatch batch) {
+        sort();
+        textureSwitches = 0;
+        Texture current = null;
+        float color = WHITE;
+        batch.setPackedColor(WHITE);
+        for (int k = 0; k < size; k++) {
+            int i = (int) (keys[k] & (MAX_COMMANDS - 1));
+            Texture tex = textures[i];
+            if (tex != current) {
+                if (current != null) textureSwitches++;
+                current = tex;
+            }
+            if (colors[i] != color) {
+                color = colors[i];
+                batch.setPackedColor(color);
+            }
+            if (rotations[i] == 0f) {
+                batch.draw(tex, xs[i], ys[i], ws[i], hs[i]);
+            } else {
+                float w = ws[i], h = hs[i];
+                batch.draw(tex, xs[i], ys[i], w / 2, h / 2, w, h, 1f, 1f, rotations[i],
+                           0, 0, tex.getWidth(), tex.getHeight(), false, false);
+            }
+            textures[i] = null;
+        }
+        batch.setPackedColor(WHITE);
+        size = 0;
+    }
+
+    // Radix sort LSD, 8 bits por passada, pulando bytes iguais em todas as chaves
+    private void sort() {
+        long[] src = keys, dst = scratch;
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int k = 0; k < size; k++) counts[(int) (src[k] >>> shift) & 0xFF]++;
+            if (size == 0 || counts[(int) (src[0] >>> shift) & 0xFF] == size) continue;
+            int sum = 0;
+            for (int b = 0; b < 256; b++) {
+                int c = counts[b];
+                counts[b] = sum;
+                sum += c;
+            }
+            for (int k = 0; k < size; k++) {
+                long key = src[k];
+                dst[counts[(int) (key >>> shift) & 0xFF]++] = key;
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+        }
+        keys = src;
+        scratch = dst;
+    }
+
+    private int textureId(Texture texture) {
+        int id = textureIds.get(texture, -1);
+        if (id < 0) {
+            id = textureIds.size & ((1 << TEXTURE_BITS) - 1);
+            textureIds.put(texture, id);
+        }
+        return id;
+    }
+
+    private void grow() {
+        int n = Math.min(MAX_COMMANDS, keys.length * 2);
+        textures = Arrays.copyOf(textures, n);
+        xs = Arrays.copyOf(xs, n);
+        ys = Arrays.copyOf(ys, n);
+        ws = Arrays.copyOf(ws, n);
+        hs = Arrays.copyOf(hs, n);
+        rotations = Arrays.copyOf(rotations, n);
+        colors = Arrays.copyOf(colors, n);
+        keys = Arrays.copyOf(keys, n);
+        scratch = new long[n];
+    }
+}
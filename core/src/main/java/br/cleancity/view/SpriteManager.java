@@ -1,16 +1,31 @@
 package br.cleancity.view;
 
+import br.cleancity.assets.PackFileHandle;
+import br.cleancity.assets.TileIndex;
+import br.cleancity.profiling.AssetActivity;
+import br.cleancity.profiling.AssetLoadEvent;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 
+import com.badlogic.gdx.utils.Array;
+
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Gerencia recursos de renderização (texturas e fontes).
@@ -20,21 +35,48 @@ import java.util.Set;
  * - Fonte padrão do LibGDX para HUD.
  *
  * Carregamento de sprites:
- * - Usa `Gdx.files.internal("sprites")` para listar e carregar imagens soltas da pasta de assets `sprites/`.
+ * - Lê a lista de imagens de `assets.txt` (gerado pelo Gradle), com fallback para `Gdx.files.internal("sprites")`.
+ * - Nada é carregado na criação: cada tela pede as chaves que usa com {@link #load(Iterable)} e as devolve com
+ *   {@link #unload(String)} (a contagem de referências entre telas fica em `br.cleancity.screen.AssetScopes`).
+ * - Os arquivos vêm do `FileHandleResolver` informado: com o pacote de assets (`PackFileHandleResolver`), cada
+ *   imagem é decodificada direto da fatia mapeada em memória, sem ler o arquivo para um `byte[]`.
+ * - Decodifica PNG/JPEG em paralelo (um worker por núcleo) e faz só o upload das texturas na thread GL.
  * - Define filtro `Nearest` para evitar borrões em pixel art (mantém bordas nítidas ao escalar).
+ * - Fundos com índice de tiles (`tiles/<chave>.tiles`, gerado no build) não viram textura inteira: ficam em
+ *   {@link #background(String)}, que mantém carregadas só as páginas do tileset da fase atual.
  *
  * Ciclo de vida:
- * - `dispose()` libera texturas únicas, a textura branca e a fonte. Evita vazamentos de memória na GPU.
+ * - `dispose()` libera as texturas ainda carregadas, o fundo em tiles, a textura branca e a fonte. Evita vazamentos
+ *   de memória na GPU.
  */
 public class SpriteManager {
+    private static final String MANIFEST = "assets.txt";
+    private static final String SPRITES_DIR = "sprites/";
+    private static final String FALLBACK_BACKGROUND = "Street";
+
     private final Texture white;
     private final BitmapFont font;
     private final Map<String, Texture> textures;
+    // Arquivo de cada chave (nome sem extensão) e memória de textura das carregadas
+    private final Map<String, FileHandle> spriteFiles = new HashMap<>();
+    private final Map<String, Long> bytes = new HashMap<>();
+    private final FileHandleResolver resolver;
+    private String backgroundKey;
+    private TileBackground background;
 
     /**
-     * Cria a textura branca 1x1 e a fonte padrão do LibGDX e carrega sprites.
+     * Cria a textura branca 1x1 e a fonte padrão do LibGDX e lista os sprites soltos de `assets/`.
      */
     public SpriteManager() {
+        this(new InternalFileHandleResolver());
+    }
+
+    /**
+     * Cria a textura branca 1x1 e a fonte padrão do LibGDX e lista os sprites (carregados depois, por {@link #load}).
+     * @param files de onde ler os arquivos (ex.: `PackFileHandleResolver`)
+     */
+    public SpriteManager(FileHandleResolver files) {
+        this.resolver = files;
         // Pixel branco 1x1
         Pixmap pm = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
         pm.setColor(Color.WHITE);
@@ -45,44 +87,232 @@ public class SpriteManager {
         font = new BitmapFont();
         textures = new HashMap<>();
 
+        for (FileHandle fh : listSpriteFiles()) spriteFiles.put(fh.nameWithoutExtension(), fh);
+    }
+
+    /**
+     * Carrega as imagens das chaves que ainda não estão carregadas (chaves sem arquivo, como os fundos em tiles,
+     * são ignoradas). Decodifica em paralelo e faz apenas o upload para a GPU nesta thread (GL).
+     */
+    public void load(Iterable<String> keys) {
+        Array<FileHandle> missing = new Array<>();
+        for (String key : keys) {
+            FileHandle fh = spriteFiles.get(key);
+            if (fh != null && !textures.containsKey(key) && !missing.contains(fh, true)) missing.add(fh);
+        }
+        loadSprites(missing);
+    }
+
+    /** Libera a textura da chave; se a chave for o fundo em tiles atual, libera também as páginas dele. */
+    public void unload(String key) {
+        if (key.equals(backgroundKey)) {
+            if (background != null) background.dispose();
+            background = null;
+            backgroundKey = null;
+        }
+        Texture t = textures.remove(key);
+        if (t == null) return;
+        FileHandle fh = spriteFiles.get(key);
+        if (fh != null) textures.remove(fh.name());
+        bytes.remove(key);
+        t.dispose();
+    }
 
-        // Carrega imagens soltas em assets/sprites (no runtime: "sprites/") como fallback
+    /** Quantidade de sprites carregados. */
+    public int loadedCount() {
+        return bytes.size();
+    }
+
+    /** Memória de textura dos sprites e do fundo em tiles carregados, em bytes. */
+    public long textureBytes() {
+        long total = background != null ? background.textureBytes() : 0;
+        for (long b : bytes.values()) total += b;
+        return total;
+    }
+
+    /**
+     * Lista as imagens de `sprites/` a partir do manifesto `assets.txt` gerado pela tarefa
+     * `generateAssetList` do Gradle. Listar diretórios com `FileHandle.list()` não funciona de forma
+     * confiável dentro de um jar; a listagem da pasta fica apenas como fallback quando o manifesto não existe.
+     */
+    private Array<FileHandle> listSpriteFiles() {
+        Array<FileHandle> files = new Array<>();
         try {
+            FileHandle manifest = resolver.resolve(MANIFEST);
+            if (manifest.exists()) {
+                for (String line : manifest.readString("UTF-8").split("\\r?\\n")) {
+                    String path = line.trim();
+                    if (!path.startsWith(SPRITES_DIR)) continue;
+                    FileHandle fh = resolver.resolve(path);
+                    if (isSprite(fh) && !isTiled(fh)) files.add(fh);
+                }
+                return files;
+            }
+
             FileHandle spritesDir = Gdx.files.internal("sprites");
             if (spritesDir.exists() && spritesDir.isDirectory()) {
                 for (FileHandle fh : spritesDir.list()) {
-                    if (fh.isDirectory()) continue;
-                    String ext = fh.extension().toLowerCase();
-                    if (!(ext.equals("png") || ext.equals("jpg") || ext.equals("jpeg"))) continue;
-
-                    // Ignore atlas output pages like sprites.png, sprites2.png, ...
-                    String baseName = fh.nameWithoutExtension();
-                    if (baseName.startsWith("sprites")) continue;
-
-                    Texture tex = new Texture(fh);
-                    tex.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
-                    textures.put(baseName, tex);
-                    textures.put(fh.name(), tex);
+                    if (!fh.isDirectory() && isSprite(fh) && !isTiled(fh)) files.add(fh);
                 }
             }
         } catch (Exception ignored) {
             // Se algo falhar, continuamos com o pixel branco e a fonte
         }
+        return files;
     }
 
+    /** Aceita apenas PNG/JPEG que não sejam páginas de atlas (sprites.png, sprites2.png, ...). */
+    private static boolean isSprite(FileHandle fh) {
+        String ext = fh.extension().toLowerCase();
+        if (!(ext.equals("png") || ext.equals("jpg") || ext.equals("jpeg"))) return false;
+        return !fh.nameWithoutExtension().startsWith("sprites");
+    }
 
+    /** Fundo que tem índice de tiles: desenhado pelo {@link TileBackground}, sem carregar a imagem inteira. */
+    private boolean isTiled(FileHandle fh) {
+        return resolver.resolve(TileIndex.path(fh.nameWithoutExtension())).exists();
+    }
+
+    /**
+     * Decodifica cada imagem em um {@link Pixmap} num pool de threads (decodificação é só CPU) e,
+     * conforme cada uma fica pronta, cria a {@link Texture} nesta thread, que é a única com contexto GL.
+     * O upload da imagem i acontece enquanto as seguintes ainda estão sendo decodificadas.
+     * Se esta thread é interrompida no meio, as imagens que não chegaram a virar textura são liberadas
+     * (ver {@link #discard}).
+     */
+    private void loadSprites(Array<FileHandle> files) {
+        if (files.isEmpty()) return;
 
-    /** Obtém uma textura pelo nome (chave). Se não existir, retorna o pixel branco. */
+        int threads = Math.max(1, Math.min(files.size, Runtime.getRuntime().availableProcessors()));
+        ExecutorService decoders = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "sprite-decoder");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<Future<Pixmap>> pending = new ArrayList<>(files.size);
+        try {
+            for (FileHandle fh : files) {
+                pending.add(decoders.submit(() -> abandoned.get() ? null : decode(fh)));
+            }
+            for (int i = 0; i < files.size; i++) {
+                Pixmap pm;
+                try {
+                    pm = pending.get(i).get();
+                } catch (ExecutionException e) {
+                    Gdx.app.error("SpriteManager", "Falha ao decodificar " + files.get(i).path(), e.getCause());
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    abandoned.set(true);
+                    discard(pending.subList(i, pending.size()));
+                    break;
+                }
+                upload(files.get(i), pm);
+            }
+        } finally {
+            if (abandoned.get()) decoders.shutdown();
+            else decoders.shutdownNow();
+        }
+    }
+
+    /**
+     * Libera os Pixmaps de decodificações abandonadas. As que ainda não começaram devolvem null (ver
+     * `abandoned`); as prontas ou em andamento são esperadas numa thread de fundo, já que esta foi interrompida.
+     * Cancelar uma decodificação em andamento perderia o Pixmap sem liberá-lo (memória nativa).
+     */
+    private static void discard(List<Future<Pixmap>> futures) {
+        List<Future<Pixmap>> remaining = new ArrayList<>(futures);
+        Thread t = new Thread(() -> {
+            for (Future<Pixmap> f : remaining) {
+                try {
+                    Pixmap pm = f.get();
+                    if (pm != null) pm.dispose();
+                } catch (ExecutionException ignored) {
+                    // falhou ao decodificar: não há Pixmap
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "sprite-discard");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Decodifica uma imagem (roda nos workers); registra o tempo no JFR quando há gravação. */
+    static Pixmap decode(FileHandle fh) {
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        long start = AssetActivity.begin();
+        Pixmap pm;
+        try {
+            // Do pacote: decodifica direto da fatia mapeada (buffer direto, sem cópia)
+            pm = fh instanceof PackFileHandle ? new Pixmap(fh.map(), 0, (int) fh.length()) : new Pixmap(fh);
+        } finally {
+            AssetActivity.end(start, fh.path());
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = fh.path();
+            event.stage = "decode";
+            event.fileBytes = fh.length();
+            event.memoryBytes = pm.getPixels().capacity();
+            event.commit();
+        }
+        return pm;
+    }
+
+    /** Envia o Pixmap decodificado para a GPU e o libera (a textura não mantém a cópia em CPU). */
+    private void upload(FileHandle fh, Pixmap pm) {
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        long start = AssetActivity.begin();
+        try {
+            Texture tex = new Texture(pm);
+            tex.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+            textures.put(fh.nameWithoutExtension(), tex);
+            textures.put(fh.name(), tex);
+            bytes.put(fh.nameWithoutExtension(), (long) pm.getPixels().capacity());
+        } finally {
+            AssetActivity.end(start, fh.path());
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = fh.path();
+                event.stage = "upload";
+                event.fileBytes = fh.length();
+                event.memoryBytes = pm.getPixels().capacity();
+                event.commit();
+            }
+            pm.dispose();
+        }
+    }
+
+    /** Obtém uma textura pelo nome (chave). Se não existir ou não estiver carregada, retorna o pixel branco. */
     public Texture get(String key) {
         Texture t = textures.get(key);
         return t != null ? t : white;
     }
 
-    /** Verifica se uma textura existe. */
+    /** Verifica se uma textura está carregada. */
     public boolean has(String key) {
         return textures.containsKey(key);
     }
 
+    /**
+     * Fundo em tiles da fase. Carrega as páginas na primeira chamada com a chave e libera as da chave anterior
+     * (só um fundo fica na memória). Sem tiles nem imagem para a chave, usa os tiles do fundo padrão.
+     * @return o fundo, ou null se for para desenhar a textura inteira (`get(key)`)
+     */
+    public TileBackground background(String key) {
+        if (!key.equals(backgroundKey)) {
+            if (background != null) background.dispose();
+            backgroundKey = key;
+            background = TileBackground.load(resolver, key);
+            if (background == null && !spriteFiles.containsKey(key)) background = TileBackground.load(resolver, FALLBACK_BACKGROUND);
+        }
+        return background;
+    }
+
     /** Retorna a textura branca 1x1. */
     public Texture white() { return white; }
 
@@ -94,6 +324,7 @@ public class SpriteManager {
         // No atlas to dispose
         Set<Texture> unique = new HashSet<>(textures.values());
         for (Texture t : unique) t.dispose();
+        if (background != null) background.dispose();
         white.dispose();
         font.dispose();
     }
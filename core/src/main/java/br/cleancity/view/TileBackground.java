@@ -0,0 +1,133 @@
+package br.cleancity.view;
+
+import br.cleancity.assets.TileIndex;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+
+import java.io.IOException;
+
+/**
+ * Fundo de uma fase desenhado a partir do tileset compartilhado (ver {@link TileIndex} e `TilesetWriter`).
+ *
+ * - Carrega só as páginas do tileset que o fundo usa; as outras fases não ocupam memória de textura.
+ * - Desenha só os tiles dentro da câmera, página por página (uma troca de textura por página visível).
+ * - O fundo é esticado para o retângulo pedido, como a textura inteira era; as bordas de cada tile são calculadas
+ *   pela mesma conta dos dois lados, para não abrir frestas entre tiles vizinhos.
+ */
+public class TileBackground {
+    private final TileIndex index;
+    private final Texture[] pages;
+    private final long textureBytes;
+
+    private TileBackground(TileIndex index, Texture[] pages, long textureBytes) {
+        this.index = index;
+        this.pages = pages;
+        this.textureBytes = textureBytes;
+    }
+
+    /**
+     * Carrega o índice do fundo e as páginas que ele usa (na thread GL).
+     * @return o fundo, ou null se não houver índice (o fundo é desenhado da textura inteira)
+     */
+    public static TileBackground load(FileHandleResolver files, String key) {
+        FileHandle fh = files.resolve(TileIndex.path(key));
+        if (!fh.exists()) return null;
+        TileIndex index;
+        try {
+            index = TileIndex.read(fh.read());
+        } catch (IOException | RuntimeException e) {
+            Gdx.app.error("TileBackground", "Índice de tiles inválido: " + fh.path(), e);
+            return null;
+        }
+
+        int perPage = index.perPage();
+        int maxPage = 0;
+        for (int id : index.ids) maxPage = Math.max(maxPage, id / perPage);
+        boolean[] used = new boolean[maxPage + 1];
+        for (int id : index.ids) used[id / perPage] = true;
+
+        Texture[] pages = new Texture[used.length];
+        long bytes = 0;
+        for (int p = 0; p < pages.length; p++) {
+            if (!used[p]) continue;
+            Pixmap pm;
+            try {
+                pm = SpriteManager.decode(files.resolve(TileIndex.pagePath(p)));
+            } catch (RuntimeException e) {
+                Gdx.app.error("TileBackground", "Falha ao carregar a página " + p + " do tileset", e);
+                for (Texture t : pages) if (t != null) t.dispose();
+                return null;
+            }
+            bytes += pm.getPixels().capacity();
+            pages[p] = new Texture(pm);
+            pages[p].setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+            pm.dispose();
+        }
+        TileBackground bg = new TileBackground(index, pages, bytes);
+        Gdx.app.log("TileBackground", key + ": " + index.cols + "x" + index.rows + " tiles em "
+            + bg.pageCount() + " páginas, " + bytes / 1024 + " KB de textura");
+        return bg;
+    }
+
+    /** Páginas carregadas. */
+    public int pageCount() {
+        int n = 0;
+        for (Texture t : pages) if (t != null) n++;
+        return n;
+    }
+
+    /** Memória de textura das páginas carregadas, em bytes. */
+    public long textureBytes() {
+        return textureBytes;
+    }
+
+    /**
+     * Desenha os tiles visíveis com o fundo esticado para o retângulo (x, y, width, height) do mundo.
+     * @param batch SpriteBatch já iniciado, com a projeção da câmera
+     */
+    public void draw(SpriteBatch batch, OrthographicCamera camera, float x, float y, float width, float height) {
+        int t = index.tileSize, w = index.imageWidth, h = index.imageHeight;
+        float sx = width / w, sy = height / h;
+
+        // Faixa de colunas/linhas (linha 0 no topo) dentro da câmera
+        float halfW = camera.viewportWidth * camera.zoom * 0.5f, halfH = camera.viewportHeight * camera.zoom * 0.5f;
+        float top = y + height;
+        int c0 = MathUtils.clamp((int) Math.floor((camera.position.x - halfW - x) / (t * sx)), 0, index.cols - 1);
+        int c1 = MathUtils.clamp((int) Math.floor((camera.position.x + halfW - x) / (t * sx)), 0, index.cols - 1);
+        int r0 = MathUtils.clamp((int) Math.floor((top - (camera.position.y + halfH)) / (t * sy)), 0, index.rows - 1);
+        int r1 = MathUtils.clamp((int) Math.floor((top - (camera.position.y - halfH)) / (t * sy)), 0, index.rows - 1);
+
+        int cell = index.cellSize(), perRow = index.perRow(), perPage = index.perPage(), pad = index.padding;
+        for (int p = 0; p < pages.length; p++) {
+            Texture page = pages[p];
+            if (page == null) continue;
+            float invW = 1f / page.getWidth(), invH = 1f / page.getHeight();
+            for (int r = r0; r <= r1; r++) {
+                int ty = r * t, th = Math.min(t, h - ty);
+                float yTop = y + (h - ty) * sy, yBottom = y + (h - ty - th) * sy;
+                for (int c = c0; c <= c1; c++) {
+                    int id = index.ids[r * index.cols + c];
+                    if (id / perPage != p) continue;
+                    int tx = c * t, tw = Math.min(t, w - tx);
+                    float xLeft = x + tx * sx, xRight = x + (tx + tw) * sx;
+                    int slot = id % perPage;
+                    int px = slot % perRow * cell + pad, py = slot / perRow * cell + pad;
+                    // v cresce para baixo na textura: a base do tile é py + th
+                    batch.draw(page, xLeft, yBottom, xRight - xLeft, yTop - yBottom,
+                        px * invW, (py + th) * invH, (px + tw) * invW, py * invH);
+                }
+            }
+        }
+    }
+
+    /** Libera as páginas. */
+    public void dispose() {
+        for (Texture t : pages) if (t != null) t.dispose();
+    }
+}
@@ -0,0 +1,77 @@
+package br.cleancity.controller;
+
+import br.cleancity.model.TrashStore;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link TrashKernel} com a Vector API (`jdk.incubator.vector`): as mesmas contas do {@link ScalarTrashKernel}, na
+ * mesma ordem, sobre `SPECIES_PREFERRED.length()` itens por instrução (8 com AVX2, 16 com AVX-512, 4 com NEON).
+ * O repouso vira uma máscara e um `blend`, sem desvio por item; o resto que não enche um vetor vai pelo escalar.
+ *
+ * Fica num source set próprio (`src/vector/java`), compilado com `--add-modules jdk.incubator.vector`, e só é
+ * carregado por reflexão ({@link TrashKernel#vector()}): sem o módulo na JVM, a classe não carrega e o jogo usa o
+ * escalar.
+ */
+final class VectorTrashKernel implements TrashKernel {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    // Itens por chamada de integrateBlock: o método vetorial é chamado muitas vezes por passo e logo é compilado
+    // inteiro pelo C2 (numa compilação OSR de um laço longo, os vetores tendem a virar objetos alocados)
+    private static final int BLOCK = 1024;
+
+    VectorTrashKernel() {
+        // Sem SIMD de verdade, a Vector API cai numa emulação mais lenta que o laço escalar
+        if (SPECIES.length() < 4) throw new UnsupportedOperationException("vetores de " + SPECIES.length() + " lanes");
+    }
+
+    @Override
+    public int integrate(TrashStore trash, Forces f, float delta) {
+        final int n = trash.size, bound = SPECIES.loopBound(n);
+        int awake = 0;
+        for (int from = 0; from < bound; from += BLOCK) {
+            awake += integrateBlock(trash, f, delta, from, Math.min(bound, from + BLOCK));
+        }
+        return awake + ScalarTrashKernel.integrate(trash, f, delta, bound, n);
+    }
+
+    // Posições [from, to), com `to - from` múltiplo do número de lanes
+    private static int integrateBlock(TrashStore trash, Forces f, float delta, int from, int to) {
+        final float[] x = trash.x, y = trash.y, w = trash.width, h = trash.height;
+        final float[] vx = trash.vx, vy = trash.vy, mobility = trash.mobility;
+        final float invR2 = 1f / (f.wakeRadius * f.wakeRadius);
+        final int lanes = SPECIES.length();
+        int awake = 0;
+        for (int i = from; i < to; i += lanes) {
+            FloatVector m = FloatVector.fromArray(SPECIES, mobility, i);
+            FloatVector px = FloatVector.fromArray(SPECIES, x, i);
+            FloatVector py = FloatVector.fromArray(SPECIES, y, i);
+            FloatVector pw = FloatVector.fromArray(SPECIES, w, i);
+            FloatVector ph = FloatVector.fromArray(SPECIES, h, i);
+
+            FloatVector dx = px.add(pw.mul(0.5f)).sub(f.wakeX);
+            FloatVector dy = py.add(ph.mul(0.5f)).sub(f.wakeY);
+            FloatVector wake = dx.mul(dx).add(dy.mul(dy)).mul(invR2).neg().add(1f).max(0f).mul(m);
+            FloatVector ax = m.mul(f.windX).add(wake.mul(f.wakePush));
+            FloatVector ay = m.mul(f.windY).add(wake.mul(dy).mul(f.wakeSpread));
+            FloatVector nvx = FloatVector.fromArray(SPECIES, vx, i).add(ax.mul(delta)).mul(f.damping);
+            FloatVector nvy = FloatVector.fromArray(SPECIES, vy, i).add(ay.mul(delta)).mul(f.damping);
+
+            VectorMask<Float> rest = nvx.mul(nvx).add(nvy.mul(nvy)).lt(f.sleepSpeed2)
+                .and(ax.mul(ax).add(ay.mul(ay)).lt(f.grip2));
+            nvx = nvx.blend(0f, rest);
+            nvy = nvy.blend(0f, rest);
+            awake += lanes - rest.trueCount();
+            nvx.intoArray(vx, i);
+            nvy.intoArray(vy, i);
+            px.add(nvx.mul(delta)).max(0f).min(pw.neg().add(f.maxX)).intoArray(x, i);
+            py.add(nvy.mul(delta)).max(0f).min(ph.neg().add(f.maxY)).intoArray(y, i);
+        }
+        return awake;
+    }
+
+    @Override
+    public String name() {
+        return "vetorial (" + SPECIES.length() + " lanes)";
+    }
+}
@@ -3,16 +3,96 @@ package br.cleancity.lwjgl3;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import br.cleancity.CleanCityGame;
+import br.cleancity.net.NetProtocol;
+import br.cleancity.profiling.JfrRecording;
+import br.cleancity.profiling.RenderBenchmark;
+import jdk.jfr.Recording;
 
-/** Launches the desktop (LWJGL3) application. */
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Launches the desktop (LWJGL3) application.
+ * <br>
+ * Co-op options: {@code --coop-host [port]} hosts the server in this process and joins it;
+ * {@code --coop-join host[:port]} joins a server running elsewhere.
+ * <br>
+ * Profiling: {@code --jfr [file.jfr]} records a Java Flight Recorder session with the game's own events
+ * (see {@link JfrRecording}); the default file goes to {@code ~/.cleancity/}.
+ * <br>
+ * Rendering benchmark: {@code --benchmark [seconds]} runs the scripted {@link RenderBenchmark} scene with vsync
+ * and the frame cap off, prints the result as one JSON line and exits; {@code --benchmark-out file.json} also
+ * writes it to a file. It uses the driver's own OpenGL instead of ANGLE, so it also runs on Mesa's software
+ * renderer (llvmpipe) on a machine without a GPU, e.g. under {@code xvfb-run}.
+ */
 public class Lwjgl3Launcher {
     public static void main(String[] args) {
         if (StartupHelper.startNewJvmIfRequired()) return; // This handles macOS support and helps on Windows.
-        createApplication();
+        Recording recording = startRecording(args);
+        try {
+            createApplication(args);
+        } finally {
+            if (recording != null) {
+                recording.stop(); // writes the .jfr file
+                System.out.println("JFR recording saved to " + recording.getDestination());
+            }
+        }
+    }
+
+    private static Recording startRecording(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].equals("--jfr")) continue;
+            Path file = i + 1 < args.length && !args[i + 1].startsWith("--")
+                ? Paths.get(args[i + 1]).toAbsolutePath()
+                : Paths.get(System.getProperty("user.home"), ".cleancity",
+                    "cleancity-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".jfr");
+            try {
+                Files.createDirectories(file.getParent());
+                return JfrRecording.start(file);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Could not start the JFR recording: " + e);
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static Lwjgl3Application createApplication(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].equals("--benchmark")) continue;
+            float seconds = i + 1 < args.length && !args[i + 1].startsWith("--")
+                ? Float.parseFloat(args[i + 1]) : RenderBenchmark.DEFAULT_SECONDS;
+            return new Lwjgl3Application(new RenderBenchmark(seconds, benchmarkOutput(args)), getBenchmarkConfiguration());
+        }
+        return new Lwjgl3Application(createGame(args), getDefaultConfiguration());
+    }
+
+    private static File benchmarkOutput(String[] args) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--benchmark-out")) return new File(args[i + 1]);
+        }
+        return null;
     }
 
-    private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new CleanCityGame(), getDefaultConfiguration());
+    private static CleanCityGame createGame(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--coop-host")) {
+                int port = i + 1 < args.length ? Integer.parseInt(args[i + 1]) : NetProtocol.DEFAULT_PORT;
+                return new CleanCityGame("127.0.0.1", port, true);
+            }
+            if (args[i].equals("--coop-join") && i + 1 < args.length) {
+                String target = args[i + 1];
+                int colon = target.lastIndexOf(':');
+                if (colon < 0) return new CleanCityGame(target, NetProtocol.DEFAULT_PORT, false);
+                return new CleanCityGame(target.substring(0, colon), Integer.parseInt(target.substring(colon + 1)), false);
+            }
+        }
+        return new CleanCityGame();
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
@@ -28,6 +108,12 @@ public class Lwjgl3Launcher {
         //// useful for testing performance, but can also be very stressful to some hardware.
         //// You may also need to configure GPU drivers to fully disable Vsync; this can cause screen tearing.
 
+        //// Calls pause() when the window loses focus too, not only when it is minimized. The game then drops
+        //// to IDLE_FPS; pause and end screens render only on input (see GameplayScreen.updatePacing).
+        configuration.setPauseWhenLostFocus(true);
+        //// How often the loop wakes up to poll events while nothing is being rendered.
+        configuration.setIdleFPS(CleanCityGame.IDLE_FPS);
+
         configuration.setWindowedMode(1280, 720);
         //// You can change these files; they are in lwjgl3/src/main/resources/ .
         //// They can also be loaded from the root of assets/ .
@@ -42,4 +128,20 @@ public class Lwjgl3Launcher {
 
         return configuration;
     }
+
+    private static Lwjgl3ApplicationConfiguration getBenchmarkConfiguration() {
+        Lwjgl3ApplicationConfiguration configuration = new Lwjgl3ApplicationConfiguration();
+        configuration.setTitle("CleanCity benchmark");
+        //// No vsync and no frame cap, also when the window is not focused (a headless X server has no focus).
+        configuration.useVsync(false);
+        configuration.setForegroundFPS(0);
+        configuration.setIdleFPS(0);
+        configuration.setWindowedMode(1280, 720);
+        configuration.setResizable(false);
+        //// Boxes without a GPU usually have no sound device either, and the benchmark plays no sound.
+        configuration.disableAudio(true);
+        //// Plain desktop OpenGL (no ANGLE): what Mesa's llvmpipe provides on a GPU-less Linux box.
+        configuration.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL20, 2, 0);
+        return configuration;
+    }
 }
\ No newline at end of file